@@ -39,6 +39,7 @@ import com.plotsquared.bukkit.inject.PermissionModule;
 import com.plotsquared.bukkit.inject.WorldManagerModule;
 import com.plotsquared.bukkit.listener.BlockEventListener;
 import com.plotsquared.bukkit.listener.ChunkListener;
+import com.plotsquared.bukkit.listener.EntityCountListener;
 import com.plotsquared.bukkit.listener.EntityEventListener;
 import com.plotsquared.bukkit.listener.EntitySpawnListener;
 import com.plotsquared.bukkit.listener.PaperListener;
@@ -52,6 +53,8 @@ import com.plotsquared.bukkit.placeholder.PAPIPlaceholders;
 import com.plotsquared.bukkit.placeholder.PlaceholderFormatter;
 import com.plotsquared.bukkit.player.BukkitPlayer;
 import com.plotsquared.bukkit.player.BukkitPlayerManager;
+import com.plotsquared.bukkit.util.BukkitEntityCounter;
+import com.plotsquared.bukkit.util.BukkitRoadEntitySweeper;
 import com.plotsquared.bukkit.util.BukkitUtil;
 import com.plotsquared.bukkit.util.BukkitWorld;
 import com.plotsquared.bukkit.util.SetGenCB;
@@ -124,16 +127,11 @@ import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bstats.bukkit.Metrics;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
-import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.command.PluginCommand;
-import org.bukkit.entity.Entity;
-import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Listener;
 import org.bukkit.generator.ChunkGenerator;
-import org.bukkit.metadata.FixedMetadataValue;
-import org.bukkit.metadata.MetadataValue;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.slf4j.Logger;
@@ -147,7 +145,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -287,7 +284,7 @@ public final class BukkitPlatform extends JavaPlugin implements Listener, PlotPl
         // Do stuff that was previously done in PlotSquared
         // Kill entities
         if (Settings.Enabled_Components.KILL_ROAD_MOBS || Settings.Enabled_Components.KILL_ROAD_VEHICLES) {
-            this.runEntityTask();
+            injector().getInstance(BukkitRoadEntitySweeper.class).start();
         }
 
         // WorldEdit
@@ -310,6 +307,8 @@ public final class BukkitPlatform extends JavaPlugin implements Listener, PlotPl
             getServer().getPluginManager().registerEvents(injector().getInstance(ProjectileEventListener.class), this);
             getServer().getPluginManager().registerEvents(injector().getInstance(ServerListener.class), this);
             getServer().getPluginManager().registerEvents(injector().getInstance(EntitySpawnListener.class), this);
+            getServer().getPluginManager().registerEvents(injector().getInstance(EntityCountListener.class), this);
+            injector().getInstance(BukkitEntityCounter.class).start();
             if (PaperLib.isPaper() && Settings.Paper_Components.PAPER_LISTENERS) {
                 if (serverVersion()[1] == 13) {
                     getServer().getPluginManager().registerEvents(injector().getInstance(PaperListener113.class), this);
@@ -608,8 +607,8 @@ public final class BukkitPlatform extends JavaPlugin implements Listener, PlotPl
         logger.info("(UUID) {} UUIDs will be cached", uuidQueue.size());
 
         Executors.newSingleThreadScheduledExecutor().schedule(() -> {
-            // Begin by reading all the SQLite cache at once
-            cacheUUIDService.accept(sqLiteUUIDService.getAll());
+            // Begin by streaming the SQLite cache into the memory cache
+            sqLiteUUIDService.getAll(cacheUUIDService);
             // Now fetch names for all known UUIDs
             final int totalSize = uuidQueue.size();
             int read = 0;
@@ -682,253 +681,6 @@ public final class BukkitPlatform extends JavaPlugin implements Listener, PlotPl
         return Bukkit.getWorldContainer();
     }
 
-    @SuppressWarnings("deprecation") private void runEntityTask() {
-        TaskManager.runTaskRepeat(() -> this.plotAreaManager.forEachPlotArea(plotArea -> {
-            final World world = Bukkit.getWorld(plotArea.getWorldName());
-            try {
-                if (world == null) {
-                    return;
-                }
-                List<Entity> entities = world.getEntities();
-                Iterator<Entity> iterator = entities.iterator();
-                while (iterator.hasNext()) {
-                    Entity entity = iterator.next();
-                    switch (entity.getType().toString()) {
-                        case "EGG":
-                        case "FISHING_HOOK":
-                        case "ENDER_SIGNAL":
-                        case "AREA_EFFECT_CLOUD":
-                        case "EXPERIENCE_ORB":
-                        case "LEASH_HITCH":
-                        case "FIREWORK":
-                        case "LIGHTNING":
-                        case "WITHER_SKULL":
-                        case "UNKNOWN":
-                        case "PLAYER":
-                            // non moving / unmovable
-                            continue;
-                        case "THROWN_EXP_BOTTLE":
-                        case "SPLASH_POTION":
-                        case "SNOWBALL":
-                        case "SHULKER_BULLET":
-                        case "SPECTRAL_ARROW":
-                        case "ENDER_PEARL":
-                        case "ARROW":
-                        case "LLAMA_SPIT":
-                        case "TRIDENT":
-                            // managed elsewhere | projectile
-                            continue;
-                        case "ITEM_FRAME":
-                        case "PAINTING":
-                            // Not vehicles
-                            continue;
-                        case "ARMOR_STAND":
-                            // Temporarily classify as vehicle
-                        case "MINECART":
-                        case "MINECART_CHEST":
-                        case "MINECART_COMMAND":
-                        case "MINECART_FURNACE":
-                        case "MINECART_HOPPER":
-                        case "MINECART_MOB_SPAWNER":
-                        case "ENDER_CRYSTAL":
-                        case "MINECART_TNT":
-                        case "BOAT":
-                            if (Settings.Enabled_Components.KILL_ROAD_VEHICLES) {
-                                com.plotsquared.core.location.Location location = BukkitUtil.adapt(entity.getLocation());
-                                Plot plot = location.getPlot();
-                                if (plot == null) {
-                                    if (location.isPlotArea()) {
-                                        if (entity.hasMetadata("ps-tmp-teleport")) {
-                                            continue;
-                                        }
-                                        iterator.remove();
-                                        entity.remove();
-                                    }
-                                    continue;
-                                }
-                                List<MetadataValue> meta = entity.getMetadata("plot");
-                                if (meta.isEmpty()) {
-                                    continue;
-                                }
-                                Plot origin = (Plot) meta.get(0).value();
-                                if (!plot.equals(origin.getBasePlot(false))) {
-                                    if (entity.hasMetadata("ps-tmp-teleport")) {
-                                        continue;
-                                    }
-                                    iterator.remove();
-                                    entity.remove();
-                                }
-                            }
-                            continue;
-                        case "SMALL_FIREBALL":
-                        case "FIREBALL":
-                        case "DRAGON_FIREBALL":
-                        case "DROPPED_ITEM":
-                            if (Settings.Enabled_Components.KILL_ROAD_ITEMS
-                                && plotArea.getOwnedPlotAbs(BukkitUtil.adapt(entity.getLocation())) == null) {
-                                entity.remove();
-                            }
-                            // dropped item
-                            continue;
-                        case "PRIMED_TNT":
-                        case "FALLING_BLOCK":
-                            // managed elsewhere
-                            continue;
-                        case "SHULKER":
-                            if (Settings.Enabled_Components.KILL_ROAD_MOBS) {
-                                LivingEntity livingEntity = (LivingEntity) entity;
-                                List<MetadataValue> meta = entity.getMetadata("shulkerPlot");
-                                if (!meta.isEmpty()) {
-                                    if (livingEntity.isLeashed()) {
-                                        continue;
-                                    }
-                                    List<MetadataValue> keep = entity.getMetadata("keep");
-                                    if (!keep.isEmpty()) {
-                                        continue;
-                                    }
-
-                                    PlotId originalPlotId = (PlotId) meta.get(0).value();
-                                    if (originalPlotId != null) {
-                                        com.plotsquared.core.location.Location pLoc = BukkitUtil.adapt(entity.getLocation());
-                                        PlotArea area = pLoc.getPlotArea();
-                                        if (area != null) {
-                                            PlotId currentPlotId = area.getPlotAbs(pLoc).getId();
-                                            if (!originalPlotId.equals(currentPlotId) && (currentPlotId == null || !area.getPlot(originalPlotId)
-                                                .equals(area.getPlot(currentPlotId)))) {
-                                                if (entity.hasMetadata("ps-tmp-teleport")) {
-                                                    continue;
-                                                }
-                                                iterator.remove();
-                                                entity.remove();
-                                            }
-                                        }
-                                    }
-                                } else {
-                                    //This is to apply the metadata to already spawned shulkers (see EntitySpawnListener.java)
-                                    com.plotsquared.core.location.Location pLoc = BukkitUtil.adapt(entity.getLocation());
-                                    PlotArea area = pLoc.getPlotArea();
-                                    if (area != null) {
-                                        PlotId currentPlotId = area.getPlotAbs(pLoc).getId();
-                                        if (currentPlotId != null) {
-                                            entity.setMetadata("shulkerPlot", new FixedMetadataValue((Plugin) PlotSquared.platform(), currentPlotId));
-                                        }
-                                    }
-                                }
-                            }
-                            continue;
-                        case "ZOMBIFIED_PIGLIN":
-                        case "PIGLIN_BRUTE":
-                        case "LLAMA":
-                        case "DONKEY":
-                        case "MULE":
-                        case "ZOMBIE_HORSE":
-                        case "SKELETON_HORSE":
-                        case "HUSK":
-                        case "ELDER_GUARDIAN":
-                        case "WITHER_SKELETON":
-                        case "STRAY":
-                        case "ZOMBIE_VILLAGER":
-                        case "EVOKER":
-                        case "EVOKER_FANGS":
-                        case "VEX":
-                        case "VINDICATOR":
-                        case "POLAR_BEAR":
-                        case "BAT":
-                        case "BLAZE":
-                        case "CAVE_SPIDER":
-                        case "CHICKEN":
-                        case "COW":
-                        case "CREEPER":
-                        case "ENDERMAN":
-                        case "ENDERMITE":
-                        case "ENDER_DRAGON":
-                        case "GHAST":
-                        case "GIANT":
-                        case "GUARDIAN":
-                        case "HORSE":
-                        case "IRON_GOLEM":
-                        case "MAGMA_CUBE":
-                        case "MUSHROOM_COW":
-                        case "OCELOT":
-                        case "PIG":
-                        case "PIG_ZOMBIE":
-                        case "RABBIT":
-                        case "SHEEP":
-                        case "SILVERFISH":
-                        case "SKELETON":
-                        case "SLIME":
-                        case "SNOWMAN":
-                        case "SPIDER":
-                        case "SQUID":
-                        case "VILLAGER":
-                        case "WITCH":
-                        case "WITHER":
-                        case "WOLF":
-                        case "ZOMBIE":
-                        case "PARROT":
-                        case "SALMON":
-                        case "DOLPHIN":
-                        case "TROPICAL_FISH":
-                        case "DROWNED":
-                        case "COD":
-                        case "TURTLE":
-                        case "PUFFERFISH":
-                        case "PHANTOM":
-                        case "ILLUSIONER":
-                        case "CAT":
-                        case "PANDA":
-                        case "FOX":
-                        case "PILLAGER":
-                        case "TRADER_LLAMA":
-                        case "WANDERING_TRADER":
-                        case "RAVAGER":
-                        case "BEE":
-                        case "HOGLIN":
-                        case "PIGLIN":
-                        case "ZOGLIN":
-                        default: {
-                            if (Settings.Enabled_Components.KILL_ROAD_MOBS) {
-                                Location location = entity.getLocation();
-                                if (BukkitUtil.adapt(location).isPlotRoad()) {
-                                    if (entity instanceof LivingEntity) {
-                                        LivingEntity livingEntity = (LivingEntity) entity;
-                                        if ((Settings.Enabled_Components.KILL_OWNED_ROAD_MOBS || !livingEntity.isLeashed())
-                                            || !entity.hasMetadata("keep")) {
-                                            Entity passenger = entity.getPassenger();
-                                            if ((Settings.Enabled_Components.KILL_OWNED_ROAD_MOBS
-                                                || !(passenger instanceof Player)) && entity.getMetadata("keep").isEmpty()) {
-                                                if (entity.hasMetadata("ps-tmp-teleport")) {
-                                                    continue;
-                                                }
-                                                iterator.remove();
-                                                entity.remove();
-                                                continue;
-                                            }
-                                        }
-                                    } else {
-                                        Entity passenger = entity.getPassenger();
-                                        if ((Settings.Enabled_Components.KILL_OWNED_ROAD_MOBS
-                                            || !(passenger instanceof Player)) && entity.getMetadata("keep").isEmpty()) {
-                                            if (entity.hasMetadata("ps-tmp-teleport")) {
-                                                continue;
-                                            }
-                                            iterator.remove();
-                                            entity.remove();
-                                            continue;
-                                        }
-                                    }
-                                }
-                            }
-                            continue;
-                        }
-                    }
-                }
-            } catch (Throwable e) {
-                e.printStackTrace();
-            }
-        }), TaskTime.seconds(1L));
-    }
-
     @Override @Nullable public final ChunkGenerator getDefaultWorldGenerator(@Nonnull final String worldName, final String id) {
         final IndependentPlotGenerator result;
         if (id != null && id.equalsIgnoreCase("single")) {
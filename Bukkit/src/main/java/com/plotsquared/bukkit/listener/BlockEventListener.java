@@ -57,7 +57,6 @@ import com.plotsquared.core.plot.flag.implementations.SnowFormFlag;
 import com.plotsquared.core.plot.flag.implementations.SnowMeltFlag;
 import com.plotsquared.core.plot.flag.implementations.SoilDryFlag;
 import com.plotsquared.core.plot.flag.implementations.VineGrowFlag;
-import com.plotsquared.core.plot.flag.types.BlockTypeWrapper;
 import com.plotsquared.core.plot.flag.types.BooleanFlag;
 import com.plotsquared.core.plot.world.PlotAreaManager;
 import com.plotsquared.core.util.Permissions;
@@ -299,11 +298,10 @@ public class BlockEventListener implements Listener {
                     return;
                 }
             } else if (!plot.isAdded(pp.getUUID())) {
-                List<BlockTypeWrapper> place = plot.getFlag(PlaceFlag.class);
+                final PlaceFlag place = plot.getFlagContainer().getFlag(PlaceFlag.class);
                 if (place != null) {
                     Block block = event.getBlock();
-                    if (place.contains(
-                        BlockTypeWrapper.get(BukkitAdapter.asBlockType(block.getType())))) {
+                    if (place.accepts(BukkitAdapter.asBlockType(block.getType()))) {
                         return;
                     }
                 }
@@ -381,13 +379,11 @@ public class BlockEventListener implements Listener {
                 return;
             }
             if (!plot.isAdded(plotPlayer.getUUID())) {
-                List<BlockTypeWrapper> destroy = plot.getFlag(BreakFlag.class);
+                final BreakFlag destroy = plot.getFlagContainer().getFlag(BreakFlag.class);
                 Block block = event.getBlock();
                 final BlockType blockType = BukkitAdapter.asBlockType(block.getType());
-                for (final BlockTypeWrapper blockTypeWrapper : destroy) {
-                    if (blockTypeWrapper.accepts(blockType)) {
-                        return;
-                    }
+                if (destroy.accepts(blockType)) {
+                    return;
                 }
                 if (Permissions
                     .hasPermission(plotPlayer, Permission.PERMISSION_ADMIN_DESTROY_OTHER)) {
@@ -600,10 +596,9 @@ public class BlockEventListener implements Listener {
             }
             BukkitPlayer plotPlayer = BukkitUtil.adapt(player);
             if (!plot.isAdded(plotPlayer.getUUID())) {
-                List<BlockTypeWrapper> destroy = plot.getFlag(BreakFlag.class);
+                final BreakFlag destroy = plot.getFlagContainer().getFlag(BreakFlag.class);
                 Block block = event.getBlock();
-                if (destroy
-                    .contains(BlockTypeWrapper.get(BukkitAdapter.asBlockType(block.getType())))
+                if (destroy.accepts(BukkitAdapter.asBlockType(block.getType()))
                     || Permissions
                     .hasPermission(plotPlayer, Permission.PERMISSION_ADMIN_DESTROY_OTHER)) {
                     return;
@@ -0,0 +1,88 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.bukkit.listener;
+
+import com.google.inject.Inject;
+import com.plotsquared.bukkit.util.BukkitEntityCounter;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.EntitySpawnEvent;
+import org.bukkit.event.hanging.HangingBreakEvent;
+import org.bukkit.event.hanging.HangingPlaceEvent;
+import org.bukkit.event.vehicle.VehicleCreateEvent;
+import org.bukkit.event.vehicle.VehicleDestroyEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Feeds entity lifecycle events into the {@link BukkitEntityCounter}
+ */
+@SuppressWarnings("unused")
+public class EntityCountListener implements Listener {
+
+    private final BukkitEntityCounter entityCounter;
+
+    @Inject public EntityCountListener(@Nonnull final BukkitEntityCounter entityCounter) {
+        this.entityCounter = entityCounter;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true) public void onSpawn(EntitySpawnEvent event) {
+        this.entityCounter.track(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true) public void onVehicleCreate(VehicleCreateEvent event) {
+        this.entityCounter.track(event.getVehicle());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true) public void onHangingPlace(HangingPlaceEvent event) {
+        this.entityCounter.track(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR) public void onDeath(EntityDeathEvent event) {
+        this.entityCounter.untrack(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true) public void onVehicleDestroy(VehicleDestroyEvent event) {
+        this.entityCounter.untrack(event.getVehicle());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true) public void onHangingBreak(HangingBreakEvent event) {
+        this.entityCounter.untrack(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR) public void onChunkLoad(ChunkLoadEvent event) {
+        this.entityCounter.trackChunk(event.getChunk());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR) public void onChunkUnload(ChunkUnloadEvent event) {
+        this.entityCounter.untrackChunk(event.getChunk());
+    }
+
+}
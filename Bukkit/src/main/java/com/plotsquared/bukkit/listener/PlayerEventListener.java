@@ -53,6 +53,7 @@ import com.plotsquared.core.plot.flag.implementations.ChatFlag;
 import com.plotsquared.core.plot.flag.implementations.DenyTeleportFlag;
 import com.plotsquared.core.plot.flag.implementations.DoneFlag;
 import com.plotsquared.core.plot.flag.implementations.DropProtectionFlag;
+import com.plotsquared.core.plot.flag.implementations.ForcefieldFlag;
 import com.plotsquared.core.plot.flag.implementations.HangingBreakFlag;
 import com.plotsquared.core.plot.flag.implementations.HangingPlaceFlag;
 import com.plotsquared.core.plot.flag.implementations.HostileInteractFlag;
@@ -67,7 +68,6 @@ import com.plotsquared.core.plot.flag.implementations.UseFlag;
 import com.plotsquared.core.plot.flag.implementations.VehicleBreakFlag;
 import com.plotsquared.core.plot.flag.implementations.VehicleUseFlag;
 import com.plotsquared.core.plot.flag.implementations.VillagerInteractFlag;
-import com.plotsquared.core.plot.flag.types.BlockTypeWrapper;
 import com.plotsquared.core.plot.world.PlotAreaManager;
 import com.plotsquared.core.util.EventDispatcher;
 import com.plotsquared.core.util.MathMan;
@@ -87,6 +87,7 @@ import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.FluidCollisionMode;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.data.Waterlogged;
@@ -149,9 +150,11 @@ import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.regex.Pattern;
@@ -170,6 +173,8 @@ public class PlayerEventListener extends PlotListener implements Listener {
     private Field fieldPlayer;
     private PlayerMoveEvent moveTmp;
     private String internalVersion;
+    // Areas in which the outcome of a player move is known not to change
+    private final Map<UUID, MoveBounds> moveBounds = new HashMap<>();
 
     {
         try {
@@ -360,6 +365,7 @@ public class PlayerEventListener extends PlotListener implements Listener {
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true) public void playerRespawn(PlayerRespawnEvent event) {
         Player player = event.getPlayer();
+        this.moveBounds.remove(player.getUniqueId());
         PlotPlayer<Player> pp = BukkitUtil.adapt(player);
         this.eventDispatcher.doRespawnTask(pp);
     }
@@ -367,6 +373,7 @@ public class PlayerEventListener extends PlotListener implements Listener {
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onTeleport(PlayerTeleportEvent event) {
         Player player = event.getPlayer();
+        this.moveBounds.remove(player.getUniqueId());
         BukkitPlayer pp = BukkitUtil.adapt(player);
         try (final MetaDataAccess<Plot> lastPlotAccess =
             pp.accessTemporaryMetaData(PlayerMetaDataKeys.TEMPORARY_LAST_PLOT)) {
@@ -476,6 +483,18 @@ public class PlayerEventListener extends PlotListener implements Listener {
     public void playerMove(PlayerMoveEvent event) {
         org.bukkit.Location from = event.getFrom();
         org.bukkit.Location to = event.getTo();
+        if (MathMan.roundInt(from.getX()) == MathMan.roundInt(to.getX())
+            && MathMan.roundInt(from.getZ()) == MathMan.roundInt(to.getZ())) {
+            return;
+        }
+        final MoveBounds bounds = this.moveBounds.get(event.getPlayer().getUniqueId());
+        if (bounds != null && bounds.contains(to)) {
+            // Still within the plot that was resolved by the last full check, only the teleport queue needs updating
+            if (TaskManager.removeFromTeleportQueue(event.getPlayer().getName())) {
+                BukkitUtil.adapt(event.getPlayer()).sendMessage(TranslatableCaption.of("teleport.teleport_failed"));
+            }
+            return;
+        }
         int x2;
         if (MathMan.roundInt(from.getX()) != (x2 = MathMan.roundInt(to.getX()))) {
             Player player = event.getPlayer();
@@ -496,6 +515,10 @@ public class PlayerEventListener extends PlotListener implements Listener {
                     pp.accessTemporaryMetaData(PlayerMetaDataKeys.TEMPORARY_LAST_PLOT)) {
                     lastPlotAccess.remove();
                 }
+                if (!this.plotAreaManager.hasPlotArea(location.getWorldName())) {
+                    this.moveBounds.put(player.getUniqueId(), new MoveBounds(to.getWorld(),
+                        Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE));
+                }
                 return;
             }
             Plot now = area.getPlot(location);
@@ -524,6 +547,7 @@ public class PlayerEventListener extends PlotListener implements Listener {
                 }
             } else if (now.equals(lastPlot)) {
                 ForceFieldListener.handleForcefield(player, pp, now);
+                this.cacheMoveBounds(player, area, now, location);
             } else if (!plotEntry(pp, now) && this.tmpTeleport) {
                 pp.sendMessage(
                     TranslatableCaption.of("permission.no_permission_event"),
@@ -573,6 +597,10 @@ public class PlayerEventListener extends PlotListener implements Listener {
                     pp.accessTemporaryMetaData(PlayerMetaDataKeys.TEMPORARY_LAST_PLOT)) {
                     lastPlotAccess.remove();
                 }
+                if (!this.plotAreaManager.hasPlotArea(location.getWorldName())) {
+                    this.moveBounds.put(player.getUniqueId(), new MoveBounds(to.getWorld(),
+                        Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE));
+                }
                 return;
             }
             Plot now = area.getPlot(location);
@@ -601,6 +629,7 @@ public class PlayerEventListener extends PlotListener implements Listener {
                 }
             } else if (now.equals(lastPlot)) {
                 ForceFieldListener.handleForcefield(player, pp, now);
+                this.cacheMoveBounds(player, area, now, location);
             } else if (!plotEntry(pp, now) && this.tmpTeleport) {
                 pp.sendMessage(
                     TranslatableCaption.of("permission.no_permission_event"),
@@ -632,6 +661,31 @@ public class PlayerEventListener extends PlotListener implements Listener {
         }
     }
 
+    /**
+     * Remember the bounds of the plot a player is standing in, so that
+     * following moves within the plot can skip the plot lookup. Plots with
+     * a force field, and plots crossing the area border, are not cached.
+     */
+    private void cacheMoveBounds(@Nonnull final Player player, @Nonnull final PlotArea area,
+        @Nonnull final Plot plot, @Nonnull final Location location) {
+        if (plot.getFlag(ForcefieldFlag.class)) {
+            return;
+        }
+        final PlotId id = area.getPlotManager().getPlotId(location.getX(), location.getY(), location.getZ());
+        if (id == null) {
+            return;
+        }
+        final Location bottom = area.getPlotManager().getPlotBottomLocAbs(id);
+        final Location top = area.getPlotManager().getPlotTopLocAbs(id);
+        final int border = area.getBorder();
+        if (border != Integer.MAX_VALUE && (Math.min(bottom.getX(), bottom.getZ()) <= -border
+            || Math.max(top.getX(), top.getZ()) >= border)) {
+            return;
+        }
+        this.moveBounds.put(player.getUniqueId(), new MoveBounds(player.getWorld(), bottom.getX(),
+            bottom.getZ(), top.getX(), top.getZ()));
+    }
+
     @EventHandler(priority = EventPriority.LOW) public void onChat(AsyncPlayerChatEvent event) {
         if (event.isCancelled()) {
             return;
@@ -707,6 +761,7 @@ public class PlayerEventListener extends PlotListener implements Listener {
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onWorldChanged(PlayerChangedWorldEvent event) {
         Player player = event.getPlayer();
+        this.moveBounds.remove(player.getUniqueId());
         BukkitPlayer pp = BukkitUtil.adapt(player);
         // Delete last location
         Plot plot;
@@ -1184,12 +1239,10 @@ public class PlayerEventListener extends PlotListener implements Listener {
             );
             event.setCancelled(true);
         } else if (!plot.isAdded(pp.getUUID())) {
-            List<BlockTypeWrapper> use = plot.getFlag(UseFlag.class);
+            final UseFlag use = plot.getFlagContainer().getFlag(UseFlag.class);
             final BlockType blockType = BukkitAdapter.asBlockType(block.getType());
-            for (final BlockTypeWrapper blockTypeWrapper : use) {
-                if (blockTypeWrapper.accepts(blockType)) {
-                    return;
-                }
+            if (use.accepts(blockType)) {
+                return;
             }
             if (Permissions.hasPermission(pp, Permission.PERMISSION_ADMIN_BUILD_OTHER)) {
                 return;
@@ -1221,6 +1274,7 @@ public class PlayerEventListener extends PlotListener implements Listener {
 
     @EventHandler(priority = EventPriority.MONITOR) public void onLeave(PlayerQuitEvent event) {
         TaskManager.removeFromTeleportQueue(event.getPlayer().getName());
+        this.moveBounds.remove(event.getPlayer().getUniqueId());
         BukkitPlayer pp = BukkitUtil.adapt(event.getPlayer());
         pp.unregister();
         this.logout(pp.getUUID());
@@ -1256,13 +1310,11 @@ public class PlayerEventListener extends PlotListener implements Listener {
             );
             event.setCancelled(true);
         } else if (!plot.isAdded(plotPlayer.getUUID())) {
-            List<BlockTypeWrapper> use = plot.getFlag(UseFlag.class);
+            final UseFlag use = plot.getFlagContainer().getFlag(UseFlag.class);
             Block block = event.getBlockClicked();
             final BlockType blockType = BukkitAdapter.asBlockType(block.getType());
-            for (final BlockTypeWrapper blockTypeWrapper : use) {
-                if (blockTypeWrapper.accepts(blockType)) {
-                    return;
-                }
+            if (use.accepts(blockType)) {
+                return;
             }
             if (Permissions.hasPermission(plotPlayer, Permission.PERMISSION_ADMIN_BUILD_OTHER)) {
                 return;
@@ -1669,4 +1721,36 @@ public class PlayerEventListener extends PlotListener implements Listener {
         // we're stripping the country code as we don't want to differ between countries
         player.setLocale(Locale.forLanguageTag(event.getLocale().substring(0, 2)));
     }
+
+    private static final class MoveBounds {
+
+        // Bounds are rechecked periodically, to pick up flag and plot changes
+        private static final long TTL = 1000L;
+
+        private final World world;
+        private final int minX;
+        private final int minZ;
+        private final int maxX;
+        private final int maxZ;
+        private final long expires;
+
+        private MoveBounds(final World world, final int minX, final int minZ, final int maxX,
+            final int maxZ) {
+            this.world = world;
+            this.minX = minX;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxZ = maxZ;
+            this.expires = System.currentTimeMillis() + TTL;
+        }
+
+        private boolean contains(@Nonnull final org.bukkit.Location location) {
+            final int x = location.getBlockX();
+            final int z = location.getBlockZ();
+            return location.getWorld() == this.world && x >= this.minX && x <= this.maxX
+                && z >= this.minZ && z <= this.maxZ && System.currentTimeMillis() < this.expires;
+        }
+
+    }
+
 }
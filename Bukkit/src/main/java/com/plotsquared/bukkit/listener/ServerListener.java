@@ -31,8 +31,10 @@ import com.plotsquared.bukkit.placeholder.MVdWPlaceholders;
 import com.plotsquared.core.configuration.Settings;
 import com.plotsquared.core.configuration.caption.TranslatableCaption;
 import com.plotsquared.core.player.ConsolePlayer;
+import com.plotsquared.core.plot.flag.types.BlockTypeListFlag;
 import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.server.ServerLoadEvent;
 
@@ -52,4 +54,9 @@ public class ServerListener implements Listener {
             ConsolePlayer.getConsole().sendMessage(TranslatableCaption.of("placeholder.hooked"));
         }
     }
+
+    @EventHandler(priority = EventPriority.MONITOR) public void onTagsLoaded(ServerLoadEvent event) {
+        // Block categories are (re)loaded by WorldEdit when the server has loaded or reloaded
+        BlockTypeListFlag.invalidateCompiled();
+    }
 }
@@ -29,9 +29,9 @@ import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 import com.plotsquared.bukkit.BukkitPlatform;
 import com.plotsquared.core.queue.ChunkCoordinator;
+import com.plotsquared.core.queue.ChunkCoordinatorScheduler;
+import com.plotsquared.core.queue.GlobalBlockQueue;
 import com.plotsquared.core.queue.subscriber.ProgressSubscriber;
-import com.plotsquared.core.util.task.TaskManager;
-import com.plotsquared.core.util.task.TaskTime;
 import com.sk89q.worldedit.math.BlockVector2;
 import com.sk89q.worldedit.world.World;
 import io.papermc.lib.PaperLib;
@@ -46,6 +46,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
@@ -60,6 +61,8 @@ import java.util.function.Consumer;
  **/
 public final class BukkitChunkCoordinator extends ChunkCoordinator {
 
+    private static final int MAX_BATCH_SIZE = 128;
+
     private final List<ProgressSubscriber> progressSubscribers = new LinkedList<>();
 
     private final Queue<BlockVector2> requestedChunks;
@@ -72,11 +75,16 @@ public final class BukkitChunkCoordinator extends ChunkCoordinator {
     private final Consumer<Throwable> throwableConsumer;
     private final boolean unloadAfter;
     private final int totalSize;
+    private final ChunkCoordinatorScheduler scheduler;
 
     private final AtomicInteger expectedSize;
+    private final AtomicInteger loadingChunks = new AtomicInteger();
     private int batchSize;
+    // Average time taken to process a single chunk, in nanoseconds
+    private double chunkCost;
 
-    @Inject private BukkitChunkCoordinator(@Assisted final long maxIterationTime,
+    @Inject private BukkitChunkCoordinator(@Nonnull final GlobalBlockQueue blockQueue,
+                                           @Assisted final long maxIterationTime,
                                            @Assisted final int initialBatchSize,
                                            @Assisted @Nonnull final Consumer<BlockVector2> chunkConsumer,
                                            @Assisted @Nonnull final World world,
@@ -91,31 +99,43 @@ public final class BukkitChunkCoordinator extends ChunkCoordinator {
         this.expectedSize = new AtomicInteger(this.totalSize);
         this.batchSize = initialBatchSize;
         this.chunkConsumer = chunkConsumer;
-        this.maxIterationTime = maxIterationTime;
+        this.maxIterationTime = TimeUnit.MILLISECONDS.toNanos(maxIterationTime);
         this.whenDone = whenDone;
         this.throwableConsumer = throwableConsumer;
         this.unloadAfter = unloadAfter;
         this.plugin = JavaPlugin.getPlugin(BukkitPlatform.class);
         this.bukkitWorld = Bukkit.getWorld(world.getName());
         this.progressSubscribers.addAll(progressSubscribers);
+        this.scheduler = blockQueue.getScheduler();
     }
 
     @Override public void start() {
         // Request initial batch
         this.requestBatch();
-        // Wait until next tick to give the chunks a chance to be loaded
-        TaskManager.runTaskLater(() -> TaskManager.runTaskRepeat(this, TaskTime.ticks(1)), TaskTime.ticks(1));
+        // The scheduler will first run the coordinator on the next tick, giving the chunks a chance to be loaded
+        this.scheduler.schedule(this);
     }
 
     @Override public void runTask() {
+        this.runTask(this.maxIterationTime);
+    }
+
+    @Override public long runTask(final long budget) {
+        final long allowance = Math.min(budget, this.maxIterationTime);
         Chunk chunk = this.availableChunks.poll();
         if (chunk == null) {
-            return;
+            if (this.expectedSize.get() <= 0) {
+                // The remaining chunks failed to load
+                this.finish();
+            } else if (this.loadingChunks.get() == 0) {
+                this.requestBatch();
+            }
+            return 0L;
         }
-        long[] iterationTime = new long[2];
+        final long start = System.nanoTime();
+        long elapsed;
         int processedChunks = 0;
         do {
-            final long start = System.currentTimeMillis();
             try {
                 this.chunkConsumer.accept(BlockVector2.at(chunk.getX(), chunk.getZ()));
             } catch (final Throwable throwable) {
@@ -125,31 +145,21 @@ public final class BukkitChunkCoordinator extends ChunkCoordinator {
                 this.freeChunk(chunk);
             }
             processedChunks++;
-            final long end = System.currentTimeMillis();
-            // Update iteration time
-            iterationTime[0] = iterationTime[1];
-            iterationTime[1] = end - start;
-        } while (iterationTime[0] + iterationTime[1] < this.maxIterationTime * 2 && (chunk = availableChunks.poll()) != null);
-        if (processedChunks < this.batchSize) {
-            // Adjust batch size based on the amount of processed chunks per tick
-            this.batchSize = processedChunks;
-        }
+            elapsed = System.nanoTime() - start;
+            // Stop if the next chunk is expected to exceed the allowance
+        } while (elapsed + (long) (elapsed / processedChunks) < allowance && (chunk = availableChunks.poll()) != null);
+
+        // Adjust batch size based on the measured cost per chunk and the time allowed per tick
+        final double cost = (double) elapsed / processedChunks;
+        this.chunkCost = this.chunkCost == 0D ? cost : this.chunkCost * 0.8D + cost * 0.2D;
+        this.batchSize = (int) Math.max(1L, Math.min(MAX_BATCH_SIZE, (long) (allowance / Math.max(1D, this.chunkCost))));
 
         final int expected = this.expectedSize.addAndGet(-processedChunks);
 
         if (expected <= 0) {
-            try {
-                this.whenDone.run();
-            } catch (final Throwable throwable) {
-                this.throwableConsumer.accept(throwable);
-            } finally {
-                for (final ProgressSubscriber subscriber : this.progressSubscribers) {
-                    subscriber.notifyEnd();
-                }
-                this.cancel();
-            }
+            this.finish();
         } else {
-            if (this.availableChunks.size() < processedChunks) {
+            if (this.availableChunks.size() + this.loadingChunks.get() < this.batchSize) {
                 final double progress = ((double) totalSize - (double) expected) / (double) totalSize;
                 for (final ProgressSubscriber subscriber : this.progressSubscribers) {
                     subscriber.notifyProgress(this, progress);
@@ -157,16 +167,34 @@ public final class BukkitChunkCoordinator extends ChunkCoordinator {
                 this.requestBatch();
             }
         }
+        return System.nanoTime() - start;
+    }
+
+    private void finish() {
+        try {
+            this.whenDone.run();
+        } catch (final Throwable throwable) {
+            this.throwableConsumer.accept(throwable);
+        } finally {
+            for (final ProgressSubscriber subscriber : this.progressSubscribers) {
+                subscriber.notifyEnd();
+            }
+            this.cancel();
+        }
     }
 
     /**
-     * Requests a batch of chunks to be loaded
+     * Requests a batch of chunks to be loaded, topping up the chunks that are loaded or
+     * being loaded to the current batch size
      */
     private void requestBatch() {
         BlockVector2 chunk;
-        for (int i = 0; i < this.batchSize && (chunk = this.requestedChunks.poll()) != null; i++) {
+        final int requested = this.batchSize - this.availableChunks.size() - this.loadingChunks.get();
+        for (int i = 0; i < requested && (chunk = this.requestedChunks.poll()) != null; i++) {
+            this.loadingChunks.incrementAndGet();
             // This required PaperLib to be bumped to version 1.0.4 to mark the request as urgent
             PaperLib.getChunkAtAsync(this.bukkitWorld, chunk.getX(), chunk.getZ(), true, true).whenComplete((chunkObject, throwable) -> {
+                this.loadingChunks.decrementAndGet();
                 if (throwable != null) {
                     throwable.printStackTrace();
                     // We want one less because this couldn't be processed
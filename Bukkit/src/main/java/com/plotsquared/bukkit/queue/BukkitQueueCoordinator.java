@@ -33,6 +33,7 @@ import com.plotsquared.core.inject.factory.ChunkCoordinatorFactory;
 import com.plotsquared.core.queue.BasicQueueCoordinator;
 import com.plotsquared.core.queue.ChunkCoordinator;
 import com.plotsquared.core.queue.LocalChunk;
+import com.plotsquared.core.queue.PalettedSection;
 import com.plotsquared.core.util.ChunkUtil;
 import com.sk89q.jnbt.CompoundTag;
 import com.sk89q.worldedit.WorldEditException;
@@ -132,42 +133,25 @@ public class BukkitQueueCoordinator extends BasicQueueCoordinator {
                 }
                 int sx = blockVector2.getX() << 4;
                 int sz = blockVector2.getZ() << 4;
-                for (int layer = 0; layer < localChunk.getBaseblocks().length; layer++) {
-                    BaseBlock[] blocksLayer = localChunk.getBaseblocks()[layer];
-                    if (blocksLayer == null) {
+                final PalettedSection<BaseBlock>[] blockSections = localChunk.getBlockSections();
+                for (int layer = 0; layer < blockSections.length; layer++) {
+                    final PalettedSection<BaseBlock> section = blockSections[layer];
+                    if (section == null) {
                         continue;
                     }
-                    for (int j = 0; j < blocksLayer.length; j++) {
-                        if (blocksLayer[j] == null) {
-                            continue;
-                        }
-                        BaseBlock block = blocksLayer[j];
-
-                        if (block != null) {
-                            int x = sx + ChunkUtil.getX(j);
-                            int y = ChunkUtil.getY(layer, j);
-                            int z = sz + ChunkUtil.getZ(j);
-                            setWorldBlock(x, y, z, block, blockVector2);
-                        }
-                    }
+                    final int finalLayer = layer;
+                    section.forEach((j, block) -> setWorldBlock(sx + ChunkUtil.getX(j), ChunkUtil.getY(finalLayer, j),
+                        sz + ChunkUtil.getZ(j), block, blockVector2));
                 }
-                for (int layer = 0; layer < localChunk.getBaseblocks().length; layer++) {
-                    BiomeType[] biomesLayer = localChunk.getBiomes()[layer];
-                    if (biomesLayer == null) {
+                final PalettedSection<BiomeType>[] biomeSections = localChunk.getBiomeSections();
+                for (int layer = 0; layer < biomeSections.length; layer++) {
+                    final PalettedSection<BiomeType> section = biomeSections[layer];
+                    if (section == null) {
                         continue;
                     }
-                    for (int j = 0; j < biomesLayer.length; j++) {
-                        if (biomesLayer[j] == null) {
-                            continue;
-                        }
-                        BiomeType biome = biomesLayer[j];
-                        if (biome != null) {
-                            int x = sx + ChunkUtil.getX(j);
-                            int y = ChunkUtil.getY(layer, j);
-                            int z = sz + ChunkUtil.getZ(j);
-                            getWorld().setBiome(BlockVector3.at(x, y, z), biome);
-                        }
-                    }
+                    final int finalLayer = layer;
+                    section.forEach((j, biome) -> getWorld().setBiome(BlockVector3.at(sx + ChunkUtil.getX(j),
+                        ChunkUtil.getY(finalLayer, j), sz + ChunkUtil.getZ(j)), biome));
                 }
                 if (localChunk.getTiles().size() > 0) {
                     localChunk.getTiles().forEach(((blockVector3, tag) -> {
@@ -191,7 +175,7 @@ public class BukkitQueueCoordinator extends BasicQueueCoordinator {
         }
         chunkCoordinator =
             chunkCoordinatorBuilderFactory.create(chunkCoordinatorFactory).inWorld(getWorld()).withChunks(getBlockChunks().keySet()).withChunks(read)
-                .withInitialBatchSize(3).withMaxIterationTime(40).withThrowableConsumer(Throwable::printStackTrace).withFinalAction(getCompleteTask())
+                .withPriority(getPriority()).withThrowableConsumer(Throwable::printStackTrace).withFinalAction(getCompleteTask())
                 .withConsumer(consumer).unloadAfter(isUnloadAfter()).withProgressSubscribers(getProgressSubscribers()).build();
         return super.enqueue();
     }
@@ -0,0 +1,314 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.bukkit.util;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.plotsquared.core.location.Location;
+import com.plotsquared.core.plot.Plot;
+import com.plotsquared.core.plot.PlotArea;
+import com.plotsquared.core.plot.PlotId;
+import com.plotsquared.core.plot.world.PlotAreaManager;
+import com.plotsquared.core.util.entity.EntityCategories;
+import com.plotsquared.core.util.task.TaskManager;
+import com.plotsquared.core.util.task.TaskTime;
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.plotsquared.core.util.entity.EntityCategories.CAP_ANIMAL;
+import static com.plotsquared.core.util.entity.EntityCategories.CAP_ENTITY;
+import static com.plotsquared.core.util.entity.EntityCategories.CAP_MISC;
+import static com.plotsquared.core.util.entity.EntityCategories.CAP_MOB;
+import static com.plotsquared.core.util.entity.EntityCategories.CAP_MONSTER;
+import static com.plotsquared.core.util.entity.EntityCategories.CAP_VEHICLE;
+
+/**
+ * Keeps per-plot entity counts up to date as entities are added to and removed
+ * from plot worlds, so that entity caps can be checked without scanning chunks.
+ * <p>
+ * Counts are maintained from spawn, death and chunk events, and a reconciliation
+ * task walks a bounded number of tracked entities every tick to pick up entities
+ * that moved between plots or disappeared without an event.
+ */
+@Singleton
+public final class BukkitEntityCounter {
+
+    /**
+     * Maximum amount of tracked entities that are re-checked per tick
+     */
+    private static final int RECONCILE_PER_TICK = 256;
+
+    private final PlotAreaManager plotAreaManager;
+    private final Map<UUID, Tracked> tracked = new ConcurrentHashMap<>();
+    private final Map<PlotArea, Map<PlotId, int[]>> counts = new HashMap<>();
+    private final Map<EntityType, Integer> masks = new EnumMap<>(EntityType.class);
+    private Iterator<Tracked> cursor;
+    private volatile boolean active;
+
+    @Inject public BukkitEntityCounter(@Nonnull final PlotAreaManager plotAreaManager) {
+        this.plotAreaManager = plotAreaManager;
+    }
+
+    /**
+     * Seed the counters from all currently loaded chunks and start the
+     * reconciliation task. The counters are only used once this has been called.
+     */
+    public void start() {
+        if (this.active) {
+            return;
+        }
+        for (final World world : Bukkit.getWorlds()) {
+            if (!this.plotAreaManager.hasPlotArea(world.getName())) {
+                continue;
+            }
+            for (final Chunk chunk : world.getLoadedChunks()) {
+                trackChunk(chunk);
+            }
+        }
+        this.active = true;
+        TaskManager.runTaskRepeat(this::reconcile, TaskTime.ticks(1L));
+    }
+
+    /**
+     * Check whether the counters are being maintained
+     *
+     * @return true if {@link #getCounts(Plot)} may be used
+     */
+    public boolean isActive() {
+        return this.active;
+    }
+
+    /**
+     * Get the entity counts for a single plot, ignoring any merged plots. The
+     * indices of the returned array are the {@code CAP_*} constants in
+     * {@link EntityCategories}.
+     *
+     * @param plot Plot
+     * @return a copy of the plot's counters
+     */
+    @Nonnull public synchronized int[] getCounts(@Nonnull final Plot plot) {
+        final Map<PlotId, int[]> areaCounts = this.counts.get(plot.getArea());
+        if (areaCounts == null) {
+            return new int[6];
+        }
+        final int[] count = areaCounts.get(plot.getId());
+        return count == null ? new int[6] : count.clone();
+    }
+
+    /**
+     * Start tracking an entity, or move it to the plot it is currently in
+     *
+     * @param entity Entity
+     */
+    public synchronized void track(@Nonnull final Entity entity) {
+        final int mask = getMask(entity.getType());
+        if (mask == 0) {
+            return;
+        }
+        final org.bukkit.Location bukkitLocation = entity.getLocation();
+        final Tracked previous = this.tracked.get(entity.getUniqueId());
+        if (previous != null && previous.isAt(bukkitLocation)) {
+            return;
+        }
+        final Location location = BukkitUtil.adapt(bukkitLocation);
+        final PlotArea area = this.plotAreaManager.getApplicablePlotArea(location);
+        final PlotId id = area == null ? null : area.getPlotManager().getPlotId(location.getX(), location.getY(), location.getZ());
+        if (previous != null) {
+            if (previous.area == area && Objects.equals(previous.id, id)) {
+                previous.moveTo(bukkitLocation);
+                return;
+            }
+            apply(previous, -1);
+        } else if (area == null && !this.plotAreaManager.hasPlotArea(location.getWorldName())) {
+            return;
+        }
+        // Entities outside of plots are kept with a null id, so that they are
+        // counted again when they move into a plot
+        final Tracked current = new Tracked(entity, area, id, mask, bukkitLocation);
+        this.tracked.put(entity.getUniqueId(), current);
+        apply(current, 1);
+    }
+
+    /**
+     * Stop tracking an entity
+     *
+     * @param entity Entity
+     */
+    public synchronized void untrack(@Nonnull final Entity entity) {
+        final Tracked previous = this.tracked.remove(entity.getUniqueId());
+        if (previous != null) {
+            apply(previous, -1);
+        }
+    }
+
+    /**
+     * Track all entities in a chunk
+     *
+     * @param chunk Loaded chunk
+     */
+    public void trackChunk(@Nonnull final Chunk chunk) {
+        for (final Entity entity : chunk.getEntities()) {
+            track(entity);
+        }
+    }
+
+    /**
+     * Stop tracking all entities in a chunk
+     *
+     * @param chunk Chunk that is being unloaded
+     */
+    public void untrackChunk(@Nonnull final Chunk chunk) {
+        for (final Entity entity : chunk.getEntities()) {
+            untrack(entity);
+        }
+    }
+
+    private synchronized void reconcile() {
+        for (int i = 0; i < RECONCILE_PER_TICK; i++) {
+            if (this.cursor == null || !this.cursor.hasNext()) {
+                this.cursor = this.tracked.values().iterator();
+                if (!this.cursor.hasNext()) {
+                    return;
+                }
+            }
+            final Tracked entry = this.cursor.next();
+            if (this.tracked.get(entry.entity.getUniqueId()) != entry) {
+                continue;
+            }
+            if (!entry.entity.isValid()) {
+                untrack(entry.entity);
+            } else {
+                track(entry.entity);
+            }
+        }
+    }
+
+    private void apply(@Nonnull final Tracked entry, final int delta) {
+        if (entry.id == null) {
+            return;
+        }
+        final Map<PlotId, int[]> areaCounts = this.counts.computeIfAbsent(entry.area, area -> new HashMap<>());
+        final int[] count = areaCounts.computeIfAbsent(entry.id, id -> new int[6]);
+        boolean empty = true;
+        for (int i = 0; i < count.length; i++) {
+            if ((entry.mask & (1 << i)) != 0) {
+                count[i] = Math.max(0, count[i] + delta);
+            }
+            empty &= count[i] == 0;
+        }
+        if (empty) {
+            areaCounts.remove(entry.id);
+            if (areaCounts.isEmpty()) {
+                this.counts.remove(entry.area);
+            }
+        }
+    }
+
+    private int getMask(@Nonnull final EntityType type) {
+        final Integer cached = this.masks.get(type);
+        if (cached != null) {
+            return cached;
+        }
+        final int mask = computeMask(type);
+        this.masks.put(type, mask);
+        return mask;
+    }
+
+    /**
+     * Compute the categories an entity type counts towards. This mirrors the
+     * classification used when scanning chunks in {@link BukkitRegionManager}.
+     */
+    private static int computeMask(@Nonnull final EntityType type) {
+        if (type == EntityType.UNKNOWN) {
+            return 1 << CAP_ENTITY;
+        }
+        final com.sk89q.worldedit.world.entity.EntityType entityType = BukkitAdapter.adapt(type);
+        int mask = 1 << CAP_ENTITY;
+        if (EntityCategories.PLAYER.contains(entityType)) {
+            return 0;
+        } else if (EntityCategories.PROJECTILE.contains(entityType) || EntityCategories.OTHER.contains(entityType) || EntityCategories.HANGING
+            .contains(entityType)) {
+            mask |= 1 << CAP_MISC;
+        } else if (EntityCategories.ANIMAL.contains(entityType) || EntityCategories.VILLAGER.contains(entityType) || EntityCategories.TAMEABLE
+            .contains(entityType)) {
+            mask |= 1 << CAP_MOB | 1 << CAP_ANIMAL;
+        } else if (EntityCategories.VEHICLE.contains(entityType)) {
+            mask |= 1 << CAP_VEHICLE;
+        } else if (EntityCategories.HOSTILE.contains(entityType)) {
+            mask |= 1 << CAP_MOB | 1 << CAP_MONSTER;
+        }
+        return mask;
+    }
+
+    private static final class Tracked {
+
+        private final Entity entity;
+        @Nullable private final PlotArea area;
+        @Nullable private final PlotId id;
+        private final int mask;
+        @Nullable private World world;
+        private int x;
+        private int y;
+        private int z;
+
+        private Tracked(@Nonnull final Entity entity, @Nullable final PlotArea area, @Nullable final PlotId id, final int mask,
+            @Nonnull final org.bukkit.Location location) {
+            this.entity = entity;
+            this.area = area;
+            this.id = id;
+            this.mask = mask;
+            this.moveTo(location);
+        }
+
+        private boolean isAt(@Nonnull final org.bukkit.Location location) {
+            return this.world == location.getWorld() && this.x == location.getBlockX() && this.y == location.getBlockY()
+                && this.z == location.getBlockZ();
+        }
+
+        private void moveTo(@Nonnull final org.bukkit.Location location) {
+            this.world = location.getWorld();
+            this.x = location.getBlockX();
+            this.y = location.getBlockY();
+            this.z = location.getBlockZ();
+        }
+
+    }
+
+}
@@ -74,11 +74,13 @@ import static com.plotsquared.core.util.entity.EntityCategories.CAP_VEHICLE;
 public class BukkitRegionManager extends RegionManager {
 
     private final GlobalBlockQueue blockQueue;
+    private final BukkitEntityCounter entityCounter;
 
     @Inject public BukkitRegionManager(@Nonnull WorldUtil worldUtil, @Nonnull GlobalBlockQueue blockQueue, @Nonnull
-        ProgressSubscriberFactory subscriberFactory) {
+        ProgressSubscriberFactory subscriberFactory, @Nonnull BukkitEntityCounter entityCounter) {
         super(worldUtil, blockQueue, subscriberFactory);
         this.blockQueue = blockQueue;
+        this.entityCounter = entityCounter;
     }
 
     @Override
@@ -87,6 +89,9 @@ public class BukkitRegionManager extends RegionManager {
     }
 
     @Override public int[] countEntities(@Nonnull Plot plot) {
+        if (this.entityCounter.isActive()) {
+            return this.entityCounter.getCounts(plot);
+        }
         int[] existing = (int[]) plot.getMeta("EntityCount");
         if (existing != null && (System.currentTimeMillis() - (long) plot.getMeta("EntityCountTime") < 1000)) {
             return existing;
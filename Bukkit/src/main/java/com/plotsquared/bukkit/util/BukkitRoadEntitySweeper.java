@@ -0,0 +1,360 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.bukkit.util;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.plotsquared.core.PlotSquared;
+import com.plotsquared.core.configuration.Settings;
+import com.plotsquared.core.location.Location;
+import com.plotsquared.core.plot.Plot;
+import com.plotsquared.core.plot.PlotArea;
+import com.plotsquared.core.plot.PlotId;
+import com.plotsquared.core.plot.world.PlotAreaManager;
+import com.plotsquared.core.util.task.TaskManager;
+import com.plotsquared.core.util.task.TaskTime;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.metadata.FixedMetadataValue;
+import org.bukkit.metadata.MetadataValue;
+import org.bukkit.plugin.Plugin;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Removes vehicles, items and mobs that are on plot roads, or that left the
+ * plot they belong to.
+ * <p>
+ * Instead of scanning every entity in every plot world at once, the loaded
+ * chunks of the plot worlds are swept a slice at a time, within a time budget
+ * per tick. A new sweep starts at most once per second. Entity types are
+ * classified once, and chunks that lie entirely inside a single owned plot only
+ * have their vehicles and shulkers checked, as mobs and items there are never
+ * on a road.
+ */
+@Singleton
+public final class BukkitRoadEntitySweeper {
+
+    /**
+     * Maximum amount of chunks that are swept per tick
+     */
+    private static final int CHUNKS_PER_TICK = 64;
+    /**
+     * Maximum time in nanoseconds that may be spent sweeping per tick
+     */
+    private static final long TIME_BUDGET = 2_000_000L;
+    /**
+     * Minimum amount of ticks between the start of two sweeps
+     */
+    private static final int SWEEP_INTERVAL = 20;
+
+    private final PlotAreaManager plotAreaManager;
+    private final Map<EntityType, Action> actions = new EnumMap<>(EntityType.class);
+    private final ArrayDeque<Chunk> chunks = new ArrayDeque<>();
+    private int ticksSinceSweep = SWEEP_INTERVAL;
+    private boolean active;
+
+    // Absolute bounds of the last plot an entity was found in
+    @Nullable private PlotArea boundsArea;
+    @Nullable private PlotId boundsId;
+    private int boundsMinX;
+    private int boundsMaxX;
+    private int boundsMinZ;
+    private int boundsMaxZ;
+
+    @Inject public BukkitRoadEntitySweeper(@Nonnull final PlotAreaManager plotAreaManager) {
+        this.plotAreaManager = plotAreaManager;
+    }
+
+    /**
+     * Classify the entity types according to the current settings, and start
+     * sweeping the plot worlds
+     */
+    public void start() {
+        if (this.active) {
+            return;
+        }
+        for (final EntityType type : EntityType.values()) {
+            this.actions.put(type, classify(type));
+        }
+        this.active = true;
+        TaskManager.runTaskRepeat(this::tick, TaskTime.ticks(1L));
+    }
+
+    private void tick() {
+        this.ticksSinceSweep++;
+        if (this.chunks.isEmpty()) {
+            if (this.ticksSinceSweep < SWEEP_INTERVAL) {
+                return;
+            }
+            this.ticksSinceSweep = 0;
+            for (final String worldName : this.plotAreaManager.getAllWorlds()) {
+                final World world = Bukkit.getWorld(worldName);
+                if (world != null) {
+                    Collections.addAll(this.chunks, world.getLoadedChunks());
+                }
+            }
+        }
+        final long deadline = System.nanoTime() + TIME_BUDGET;
+        for (int i = 0; i < CHUNKS_PER_TICK && !this.chunks.isEmpty() && System.nanoTime() < deadline; i++) {
+            final Chunk chunk = this.chunks.poll();
+            if (!chunk.isLoaded()) {
+                continue;
+            }
+            try {
+                this.sweep(chunk);
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void sweep(@Nonnull final Chunk chunk) {
+        final Entity[] entities = chunk.getEntities();
+        if (entities.length == 0) {
+            return;
+        }
+        final boolean owned = this.isInsideOwnedPlot(chunk);
+        for (final Entity entity : entities) {
+            switch (this.actions.get(entity.getType())) {
+                case VEHICLE:
+                    this.sweepVehicle(entity);
+                    break;
+                case ITEM:
+                    if (!owned) {
+                        this.sweepItem(entity);
+                    }
+                    break;
+                case SHULKER:
+                    this.sweepShulker(entity);
+                    break;
+                case MOB:
+                    if (!owned) {
+                        this.sweepMob(entity);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Check whether a chunk lies entirely inside a single owned plot, ignoring merged roads
+     */
+    private boolean isInsideOwnedPlot(@Nonnull final Chunk chunk) {
+        final String world = chunk.getWorld().getName();
+        final Location bottom = Location.at(world, chunk.getX() << 4, 0, chunk.getZ() << 4);
+        final PlotArea area = this.plotAreaManager.getApplicablePlotArea(bottom);
+        if (area == null) {
+            return false;
+        }
+        final Location top = Location.at(world, (chunk.getX() << 4) + 15, 0, (chunk.getZ() << 4) + 15);
+        if (this.plotAreaManager.getApplicablePlotArea(top) != area) {
+            return false;
+        }
+        final Plot plot = area.getOwnedPlotAbs(bottom);
+        return plot != null && plot == area.getOwnedPlotAbs(top);
+    }
+
+    private void sweepVehicle(@Nonnull final Entity entity) {
+        final Location location = BukkitUtil.adapt(entity.getLocation());
+        final Plot plot = location.getPlot();
+        if (plot == null) {
+            if (location.isPlotArea()) {
+                remove(entity);
+            }
+            return;
+        }
+        final List<MetadataValue> meta = entity.getMetadata("plot");
+        if (meta.isEmpty()) {
+            return;
+        }
+        final Plot origin = (Plot) meta.get(0).value();
+        if (!plot.equals(origin.getBasePlot(false))) {
+            remove(entity);
+        }
+    }
+
+    private void sweepItem(@Nonnull final Entity entity) {
+        final Location location = BukkitUtil.adapt(entity.getLocation());
+        final PlotArea area = this.plotAreaManager.getApplicablePlotArea(location);
+        if (area == null) {
+            return;
+        }
+        final PlotId id = this.getPlotId(area, location);
+        if (id == null || area.getOwnedPlotAbs(id) == null) {
+            entity.remove();
+        }
+    }
+
+    private void sweepShulker(@Nonnull final Entity entity) {
+        final LivingEntity livingEntity = (LivingEntity) entity;
+        final List<MetadataValue> meta = entity.getMetadata("shulkerPlot");
+        final Location location = BukkitUtil.adapt(entity.getLocation());
+        final PlotArea area = this.plotAreaManager.getApplicablePlotArea(location);
+        if (area == null) {
+            return;
+        }
+        final PlotId currentPlotId = this.getPlotId(area, location);
+        if (meta.isEmpty()) {
+            // This is to apply the metadata to already spawned shulkers (see EntitySpawnListener.java)
+            if (currentPlotId != null) {
+                entity.setMetadata("shulkerPlot", new FixedMetadataValue((Plugin) PlotSquared.platform(), currentPlotId));
+            }
+            return;
+        }
+        if (livingEntity.isLeashed() || !entity.getMetadata("keep").isEmpty()) {
+            return;
+        }
+        final PlotId originalPlotId = (PlotId) meta.get(0).value();
+        if (originalPlotId != null && !originalPlotId.equals(currentPlotId) && (currentPlotId == null || !area
+            .getPlot(originalPlotId).equals(area.getPlot(currentPlotId)))) {
+            remove(entity);
+        }
+    }
+
+    @SuppressWarnings("deprecation") private void sweepMob(@Nonnull final Entity entity) {
+        final Location location = BukkitUtil.adapt(entity.getLocation());
+        final PlotArea area = this.plotAreaManager.getApplicablePlotArea(location);
+        if (area == null || this.getPlotId(area, location) != null) {
+            return;
+        }
+        if ((Settings.Enabled_Components.KILL_OWNED_ROAD_MOBS || !(entity.getPassenger() instanceof Player)) && entity
+            .getMetadata("keep").isEmpty()) {
+            remove(entity);
+        }
+    }
+
+    /**
+     * Get the ID of the plot at a location, ignoring merged roads. The bounds of the
+     * last plot that was found are cached, as entities on plots tend to be close
+     * to each other.
+     *
+     * @return the plot ID, or {@code null} if the location is on a road
+     */
+    @Nullable private PlotId getPlotId(@Nonnull final PlotArea area, @Nonnull final Location location) {
+        final int x = location.getX();
+        final int z = location.getZ();
+        if (this.boundsArea == area && x >= this.boundsMinX && x <= this.boundsMaxX && z >= this.boundsMinZ
+            && z <= this.boundsMaxZ) {
+            return this.boundsId;
+        }
+        final Plot plot = area.getPlotAbs(location);
+        if (plot == null) {
+            return null;
+        }
+        final Location bottom = plot.getBottomAbs();
+        final Location top = plot.getTopAbs();
+        this.boundsArea = area;
+        this.boundsId = plot.getId();
+        this.boundsMinX = bottom.getX();
+        this.boundsMaxX = top.getX();
+        this.boundsMinZ = bottom.getZ();
+        this.boundsMaxZ = top.getZ();
+        return this.boundsId;
+    }
+
+    private static void remove(@Nonnull final Entity entity) {
+        if (!entity.hasMetadata("ps-tmp-teleport")) {
+            entity.remove();
+        }
+    }
+
+    /**
+     * Classify an entity type, taking the enabled components into account
+     */
+    @Nonnull private static Action classify(@Nonnull final EntityType type) {
+        switch (type.name()) {
+            case "EGG":
+            case "FISHING_HOOK":
+            case "ENDER_SIGNAL":
+            case "AREA_EFFECT_CLOUD":
+            case "EXPERIENCE_ORB":
+            case "LEASH_HITCH":
+            case "FIREWORK":
+            case "LIGHTNING":
+            case "WITHER_SKULL":
+            case "UNKNOWN":
+            case "PLAYER":
+                // non moving / unmovable
+            case "THROWN_EXP_BOTTLE":
+            case "SPLASH_POTION":
+            case "SNOWBALL":
+            case "SHULKER_BULLET":
+            case "SPECTRAL_ARROW":
+            case "ENDER_PEARL":
+            case "ARROW":
+            case "LLAMA_SPIT":
+            case "TRIDENT":
+                // managed elsewhere | projectile
+            case "ITEM_FRAME":
+            case "PAINTING":
+                // Not vehicles
+            case "PRIMED_TNT":
+            case "FALLING_BLOCK":
+                // managed elsewhere
+                return Action.IGNORE;
+            case "ARMOR_STAND":
+                // Temporarily classify as vehicle
+            case "MINECART":
+            case "MINECART_CHEST":
+            case "MINECART_COMMAND":
+            case "MINECART_FURNACE":
+            case "MINECART_HOPPER":
+            case "MINECART_MOB_SPAWNER":
+            case "ENDER_CRYSTAL":
+            case "MINECART_TNT":
+            case "BOAT":
+                return Settings.Enabled_Components.KILL_ROAD_VEHICLES ? Action.VEHICLE : Action.IGNORE;
+            case "SMALL_FIREBALL":
+            case "FIREBALL":
+            case "DRAGON_FIREBALL":
+            case "DROPPED_ITEM":
+                return Settings.Enabled_Components.KILL_ROAD_ITEMS ? Action.ITEM : Action.IGNORE;
+            case "SHULKER":
+                return Settings.Enabled_Components.KILL_ROAD_MOBS ? Action.SHULKER : Action.IGNORE;
+            default:
+                return Settings.Enabled_Components.KILL_ROAD_MOBS ? Action.MOB : Action.IGNORE;
+        }
+    }
+
+    private enum Action {
+        IGNORE, VEHICLE, ITEM, SHULKER, MOB
+    }
+
+}
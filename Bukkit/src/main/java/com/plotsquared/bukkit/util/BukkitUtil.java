@@ -43,6 +43,7 @@ import com.plotsquared.core.util.task.TaskManager;
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.bukkit.BukkitWorld;
 import com.sk89q.worldedit.math.BlockVector2;
+import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.regions.CuboidRegion;
 import com.sk89q.worldedit.world.biome.BiomeType;
 import com.sk89q.worldedit.world.block.BlockCategories;
@@ -56,12 +57,14 @@ import net.kyori.adventure.text.minimessage.Template;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Biome;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.Sign;
+import org.bukkit.block.data.BlockData;
 import org.bukkit.block.data.Directional;
 import org.bukkit.block.data.type.WallSign;
 import org.bukkit.entity.Ambient;
@@ -100,8 +103,16 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Semaphore;
@@ -504,6 +515,80 @@ public class BukkitUtil extends WorldUtil {
             getChunkAt(chunk.getBlockX(), chunk.getBlockZ()).getTileEntities().length;
     }
 
+    @Override @Nonnull public Collection<BlockVector3> getTileEntityPositions(@Nonnull final String world,
+        @Nonnull final BlockVector2 chunk) {
+        final org.bukkit.block.BlockState[] tiles = Objects.requireNonNull(getWorld(world))
+            .getChunkAt(chunk.getBlockX(), chunk.getBlockZ()).getTileEntities();
+        final Collection<BlockVector3> positions = new ArrayList<>(tiles.length);
+        for (final org.bukkit.block.BlockState tile : tiles) {
+            positions.add(BlockVector3.at(tile.getX(), tile.getY(), tile.getZ()));
+        }
+        return positions;
+    }
+
+    @Override @Nonnull public ChunkBlocks getChunkBlocks(@Nonnull final String world, @Nonnull final BlockVector2 chunk) {
+        final ChunkSnapshot snapshot = Objects.requireNonNull(getWorld(world))
+            .getChunkAt(chunk.getBlockX(), chunk.getBlockZ()).getChunkSnapshot(false, false, false);
+        final Map<Material, BlockState> states = new EnumMap<>(Material.class);
+        return (x, y, z) -> states.computeIfAbsent(snapshot.getBlockType(x, y, z), BukkitBlockUtil::get);
+    }
+
+    @Override @Nonnull public ChunkBlocks getFullChunkBlocks(@Nonnull final String world, @Nonnull final BlockVector2 chunk) {
+        final ChunkSnapshot snapshot = Objects.requireNonNull(getWorld(world))
+            .getChunkAt(chunk.getBlockX(), chunk.getBlockZ()).getChunkSnapshot(false, false, false);
+        final Map<BlockData, BlockState> states = new HashMap<>();
+        return (x, y, z) -> states.computeIfAbsent(snapshot.getBlockData(x, y, z), BukkitAdapter::adapt);
+    }
+
+    @Override public long getLastModified(@Nonnull final String world, @Nonnull final Collection<BlockVector2> chunks) {
+        final World bukkitWorld = getWorld(world);
+        if (bukkitWorld == null) {
+            return System.currentTimeMillis();
+        }
+        final File regionFolder;
+        switch (bukkitWorld.getEnvironment()) {
+            case NETHER:
+                regionFolder = new File(bukkitWorld.getWorldFolder(), "DIM-1" + File.separator + "region");
+                break;
+            case THE_END:
+                regionFolder = new File(bukkitWorld.getWorldFolder(), "DIM1" + File.separator + "region");
+                break;
+            default:
+                regionFolder = new File(bukkitWorld.getWorldFolder(), "region");
+                break;
+        }
+        // Region files store the time each chunk was last saved, in seconds, after the chunk locations
+        final Map<BlockVector2, List<BlockVector2>> regions = new HashMap<>();
+        for (final BlockVector2 chunk : chunks) {
+            if (bukkitWorld.isChunkLoaded(chunk.getX(), chunk.getZ())) {
+                return System.currentTimeMillis();
+            }
+            regions.computeIfAbsent(BlockVector2.at(chunk.getX() >> 5, chunk.getZ() >> 5), key -> new ArrayList<>()).add(chunk);
+        }
+        long lastModified = 0;
+        for (final Map.Entry<BlockVector2, List<BlockVector2>> entry : regions.entrySet()) {
+            final BlockVector2 region = entry.getKey();
+            final File file = new File(regionFolder, "r." + region.getX() + "." + region.getZ() + ".mca");
+            if (!file.exists()) {
+                continue;
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                for (final BlockVector2 chunk : entry.getValue()) {
+                    final long position = 4096 + 4 * ((chunk.getX() & 31) + ((chunk.getZ() & 31) << 5));
+                    if (raf.length() < position + 4) {
+                        continue;
+                    }
+                    raf.seek(position);
+                    lastModified = Math.max(lastModified, (raf.readInt() & 0xFFFFFFFFL) * 1000L);
+                }
+            } catch (IOException e) {
+                logger.error("Failed to read the chunk timestamps of {}", file, e);
+                return System.currentTimeMillis();
+            }
+        }
+        return lastModified;
+    }
+
     @Override public Set<BlockVector2> getChunkChunks(String world) {
         Set<BlockVector2> chunks = super.getChunkChunks(world);
         if (Bukkit.isPrimaryThread()) {
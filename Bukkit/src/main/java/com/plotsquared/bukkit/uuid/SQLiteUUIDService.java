@@ -36,9 +36,13 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.Consumer;
 
@@ -47,6 +51,15 @@ import java.util.function.Consumer;
  */
 public class SQLiteUUIDService implements UUIDService, Consumer<List<UUIDMapping>> {
 
+    /**
+     * Maximum number of parameters per lookup, SQLite allows at most 999
+     */
+    private static final int LOOKUP_BATCH_SIZE = 500;
+    /**
+     * Number of mappings passed to the consumer at once by {@link #getAll(Consumer)}
+     */
+    private static final int READ_BATCH_SIZE = 1000;
+
     private final SQLite sqlite;
 
     public SQLiteUUIDService(final String fileName) {
@@ -58,9 +71,13 @@ public class SQLiteUUIDService implements UUIDService, Consumer<List<UUIDMapping
             e.printStackTrace();
         }
 
-        try (PreparedStatement stmt = getConnection().prepareStatement(
-            "CREATE TABLE IF NOT EXISTS `usercache` (uuid VARCHAR(32) NOT NULL, username VARCHAR(32) NOT NULL, PRIMARY KEY (uuid))")) {
-            stmt.execute();
+        try (Statement stmt = getConnection().createStatement()) {
+            stmt.execute("PRAGMA journal_mode=WAL");
+            stmt.execute("PRAGMA synchronous=NORMAL");
+            stmt.execute(
+                "CREATE TABLE IF NOT EXISTS `usercache` (uuid VARCHAR(32) NOT NULL, username VARCHAR(32) NOT NULL, PRIMARY KEY (uuid))");
+            stmt.execute(
+                "CREATE INDEX IF NOT EXISTS `usercache_username` ON `usercache` (`username` COLLATE NOCASE)");
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -72,73 +89,118 @@ public class SQLiteUUIDService implements UUIDService, Consumer<List<UUIDMapping
         }
     }
 
+    private static String parameters(final int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
     @Override @Nonnull public List<UUIDMapping> getNames(@Nonnull final List<UUID> uuids) {
         final List<UUIDMapping> mappings = new ArrayList<>(uuids.size());
-        try (final PreparedStatement statement = getConnection()
-            .prepareStatement("SELECT `username` FROM `usercache` WHERE `uuid` = ?")) {
-            for (final UUID uuid : uuids) {
-                statement.setString(1, uuid.toString());
+        for (int start = 0; start < uuids.size(); start += LOOKUP_BATCH_SIZE) {
+            final List<UUID> batch = uuids.subList(start, Math.min(uuids.size(), start + LOOKUP_BATCH_SIZE));
+            try (final PreparedStatement statement = getConnection().prepareStatement(
+                "SELECT `uuid`, `username` FROM `usercache` WHERE `uuid` IN (" + parameters(batch.size()) + ")")) {
+                for (int i = 0; i < batch.size(); i++) {
+                    statement.setString(i + 1, batch.get(i).toString());
+                }
                 try (final ResultSet resultSet = statement.executeQuery()) {
-                    if (resultSet.next()) {
-                        mappings.add(new UUIDMapping(uuid, resultSet.getString("username")));
+                    while (resultSet.next()) {
+                        mappings.add(new UUIDMapping(UUID.fromString(resultSet.getString("uuid")),
+                            resultSet.getString("username")));
                     }
                 }
+            } catch (final Exception e) {
+                e.printStackTrace();
             }
-        } catch (final Exception e) {
-            e.printStackTrace();
         }
         return mappings;
     }
 
     @Override @Nonnull public List<UUIDMapping> getUUIDs(@Nonnull List<String> usernames) {
         final List<UUIDMapping> mappings = new ArrayList<>(usernames.size());
-        try (final PreparedStatement statement = getConnection()
-            .prepareStatement("SELECT `uuid` FROM `usercache` WHERE `username` = ?")) {
-            for (final String username : usernames) {
-                statement.setString(1, username);
+        for (int start = 0; start < usernames.size(); start += LOOKUP_BATCH_SIZE) {
+            final List<String> batch = usernames.subList(start, Math.min(usernames.size(), start + LOOKUP_BATCH_SIZE));
+            // Usernames are matched case insensitively, but returned as requested
+            final Map<String, String> requested = new HashMap<>();
+            for (final String username : batch) {
+                requested.put(username.toLowerCase(Locale.ENGLISH), username);
+            }
+            try (final PreparedStatement statement = getConnection().prepareStatement(
+                "SELECT `uuid`, `username` FROM `usercache` WHERE `username` COLLATE NOCASE IN (" + parameters(batch.size()) + ")")) {
+                for (int i = 0; i < batch.size(); i++) {
+                    statement.setString(i + 1, batch.get(i));
+                }
                 try (final ResultSet resultSet = statement.executeQuery()) {
-                    if (resultSet.next()) {
-                        mappings.add(new UUIDMapping(UUID.fromString(resultSet.getString("uuid")),
-                            username));
+                    while (resultSet.next()) {
+                        final String username = requested.remove(resultSet.getString("username").toLowerCase(Locale.ENGLISH));
+                        if (username != null) {
+                            mappings.add(new UUIDMapping(UUID.fromString(resultSet.getString("uuid")), username));
+                        }
                     }
                 }
+            } catch (final Exception e) {
+                e.printStackTrace();
             }
-        } catch (final Exception e) {
-            e.printStackTrace();
         }
         return mappings;
     }
 
     @Override public void accept(final List<UUIDMapping> uuidWrappers) {
-        try (final PreparedStatement statement = getConnection()
-            .prepareStatement("INSERT OR REPLACE INTO `usercache` (`uuid`, `username`) VALUES(?, ?)")) {
-            for (final UUIDMapping mapping : uuidWrappers) {
-                statement.setString(1, mapping.getUuid().toString());
-                statement.setString(2, mapping.getUsername());
-                statement.executeUpdate();
+        if (uuidWrappers.isEmpty()) {
+            return;
+        }
+        // The connection is shared, so the transaction must not interleave with other writes
+        synchronized (this.sqlite) {
+            final Connection connection = getConnection();
+            try (final PreparedStatement statement = connection
+                .prepareStatement("INSERT OR REPLACE INTO `usercache` (`uuid`, `username`) VALUES(?, ?)")) {
+                connection.setAutoCommit(false);
+                for (final UUIDMapping mapping : uuidWrappers) {
+                    statement.setString(1, mapping.getUuid().toString());
+                    statement.setString(2, mapping.getUsername());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                e.printStackTrace();
+                try {
+                    connection.rollback();
+                } catch (SQLException ignored) {
+                }
+            } finally {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
     }
 
     /**
-     * Read the entire cache at once
+     * Read the entire cache, passing the mappings to the consumer in batches
+     * as they are read
      *
-     * @return All read mappings
+     * @param consumer Consumer of the read mappings
      */
-    @Nonnull public List<UUIDMapping> getAll() {
-        final List<UUIDMapping> mappings = new LinkedList<>();
-        try (final PreparedStatement statement = getConnection().prepareStatement("SELECT * FROM `usercache`")) {
+    public void getAll(@Nonnull final Consumer<List<UUIDMapping>> consumer) {
+        try (final PreparedStatement statement = getConnection().prepareStatement("SELECT `uuid`, `username` FROM `usercache`")) {
             try (final ResultSet resultSet = statement.executeQuery()) {
+                List<UUIDMapping> mappings = new ArrayList<>(READ_BATCH_SIZE);
                 while (resultSet.next()) {
                     mappings.add(new UUIDMapping(UUID.fromString(resultSet.getString("uuid")), resultSet.getString("username")));
+                    if (mappings.size() == READ_BATCH_SIZE) {
+                        consumer.accept(mappings);
+                        mappings = new ArrayList<>(READ_BATCH_SIZE);
+                    }
+                }
+                if (!mappings.isEmpty()) {
+                    consumer.accept(mappings);
                 }
             }
         } catch (final Exception e) {
             e.printStackTrace();
         }
-        return mappings;
     }
 
 
@@ -1,5 +1,9 @@
 import java.time.format.DateTimeFormatter
 
+plugins {
+    id("me.champeau.gradle.jmh")
+}
+
 dependencies {
     // Expected everywhere.
     compileOnlyApi("javax.annotation:javax.annotation-api:1.3.2")
@@ -32,6 +36,7 @@ dependencies {
         exclude(group = "dummypermscompat")
     }
     testImplementation("com.sk89q.worldedit:worldedit-core:7.2.0")
+    testImplementation("org.mockito:mockito-core:3.7.7")
 
     // Logging
     api("org.slf4j:slf4j-api:1.7.25")
@@ -49,6 +54,11 @@ dependencies {
     api("com.intellectualsites.paster:Paster:1.0.2-SNAPSHOT")
 }
 
+// Benchmarks, run with the jmh task, use the libraries provided by the platform
+configurations.named("jmh") {
+    extendsFrom(configurations["compileOnlyApi"])
+}
+
 tasks.processResources {
     filesMatching("plugin.properties") {
         expand(
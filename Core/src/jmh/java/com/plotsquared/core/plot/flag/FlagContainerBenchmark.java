@@ -0,0 +1,148 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot.flag;
+
+import com.plotsquared.core.plot.flag.implementations.DenyExitFlag;
+import com.plotsquared.core.plot.flag.implementations.ExplosionFlag;
+import com.plotsquared.core.plot.flag.implementations.GreetingFlag;
+import com.plotsquared.core.plot.flag.implementations.PvpFlag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares flag lookups through the resolved flag cache of a {@link FlagContainer}
+ * with walking the plot, area and global containers, which is how flags were
+ * looked up before the cache. Run with {@code ./gradlew :PlotSquared-Core:jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlagContainerBenchmark {
+
+    private FlagContainer area;
+    private FlagContainer plot;
+
+    @Setup public void setUp() {
+        this.area = new FlagContainer(GlobalFlagContainer.getInstance());
+        this.area.addFlag(ExplosionFlag.EXPLOSION_TRUE);
+        this.plot = new FlagContainer(this.area);
+        this.plot.addFlag(PvpFlag.PVP_TRUE);
+    }
+
+    /**
+     * Look a flag up the way it was done before the resolved flag cache
+     */
+    private static PlotFlag<?, ?> walk(FlagContainer container, final Class<?> flagClass) {
+        while (container != null) {
+            final PlotFlag<?, ?> flag = container.queryLocal(flagClass);
+            if (flag != null) {
+                return flag;
+            }
+            container = container.getParentContainer();
+        }
+        return null;
+    }
+
+    @Benchmark public PlotFlag<?, ?> localFlagCached() {
+        return this.plot.getFlag(PvpFlag.class);
+    }
+
+    @Benchmark public PlotFlag<?, ?> localFlagWalk() {
+        return walk(this.plot, PvpFlag.class);
+    }
+
+    @Benchmark public PlotFlag<?, ?> areaFlagCached() {
+        return this.plot.getFlag(ExplosionFlag.class);
+    }
+
+    @Benchmark public PlotFlag<?, ?> areaFlagWalk() {
+        return walk(this.plot, ExplosionFlag.class);
+    }
+
+    @Benchmark public PlotFlag<?, ?> globalFlagCached() {
+        return this.plot.getFlag(DenyExitFlag.class);
+    }
+
+    @Benchmark public PlotFlag<?, ?> globalFlagWalk() {
+        return walk(this.plot, DenyExitFlag.class);
+    }
+
+    @Benchmark public PlotFlag<?, ?> unregisteredFlagCached() {
+        return this.plot.getFlagErased(Unregistered.class);
+    }
+
+    @Benchmark public PlotFlag<?, ?> unregisteredFlagWalk() {
+        return walk(this.plot, Unregistered.class);
+    }
+
+    /**
+     * A lookup on a plot right after a flag of another plot in the same area
+     * changed, which must not drop the cache of this plot
+     */
+    @Benchmark public PlotFlag<?, ?> globalFlagAfterSiblingChange(final SiblingState sibling) {
+        sibling.toggle();
+        return this.plot.getFlag(DenyExitFlag.class);
+    }
+
+    @State(Scope.Thread) public static class SiblingState {
+
+        private FlagContainer sibling;
+        private boolean greeting;
+
+        @Setup public void setUp(final FlagContainerBenchmark benchmark) {
+            this.sibling = new FlagContainer(benchmark.area);
+        }
+
+        private void toggle() {
+            if (this.greeting = !this.greeting) {
+                this.sibling.addFlag(GreetingFlag.GREETING_FLAG_EMPTY);
+            } else {
+                this.sibling.removeFlag(GreetingFlag.GREETING_FLAG_EMPTY);
+            }
+        }
+
+    }
+
+    /**
+     * Flag class that isn't registered in any container
+     */
+    private static final class Unregistered {
+    }
+
+}
@@ -370,6 +370,7 @@ public class PlotSquared {
             }
         }
         getPlotAreaManager().addPlotArea(plotArea);
+        plotArea.getOwnerIndex().setRegistered(true);
         plotArea.setupBorder();
         if (!Settings.Enabled_Components.PERSISTENT_ROAD_REGEN) {
             return;
@@ -412,6 +413,7 @@ public class PlotSquared {
      */
     public void removePlotArea(PlotArea area) {
         getPlotAreaManager().removePlotArea(area);
+        area.getOwnerIndex().setRegistered(false);
         setPlotsTmp(area);
     }
 
@@ -724,16 +726,7 @@ public class PlotSquared {
         if (callEvent) {
             eventDispatcher.callDelete(plot);
         }
-        if (plot.getArea().removePlot(plot.getId())) {
-            PlotId last = (PlotId) plot.getArea().getMeta("lastPlot");
-            int last_max = Math.max(Math.abs(last.getX()), Math.abs(last.getY()));
-            int this_max = Math.max(Math.abs(plot.getId().getX()), Math.abs(plot.getId().getY()));
-            if (this_max < last_max) {
-                plot.getArea().setMeta("lastPlot", plot.getId());
-            }
-            return true;
-        }
-        return false;
+        return plot.getArea().removePlot(plot.getId());
     }
 
     /**
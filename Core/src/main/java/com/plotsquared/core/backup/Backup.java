@@ -39,18 +39,26 @@ public class Backup {
     private final BackupProfile owner;
     private final long creationTime;
     @Nullable private final Path file;
+    @Nullable private final BackupStore store;
 
     Backup(final BackupProfile owner, final long creationTime, final Path file) {
+        this(owner, creationTime, file, null);
+    }
+
+    Backup(final BackupProfile owner, final long creationTime, final Path file, @Nullable final BackupStore store) {
         this.owner = owner;
         this.creationTime = creationTime;
         this.file = file;
+        this.store = store;
     }
 
     /**
      * Delete the backup
      */
     public void delete() {
-        if (file != null) {
+        if (file != null && store != null) {
+            store.delete(file);
+        } else if (file != null) {
             try {
                 Files.deleteIfExists(file);
             } catch (final IOException e) {
@@ -70,4 +78,13 @@ public class Backup {
     @Nullable public Path getFile() {
         return this.file;
     }
+
+    /**
+     * Get the store that holds the contents of an incremental backup
+     *
+     * @return the store, or {@code null} if this is a schematic backup
+     */
+    @Nullable BackupStore getStore() {
+        return this.store;
+    }
 }
@@ -0,0 +1,717 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.backup;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.plotsquared.core.PlotSquared;
+import com.plotsquared.core.plot.Plot;
+import com.plotsquared.core.queue.QueueCoordinator;
+import com.plotsquared.core.util.BlockUtil;
+import com.plotsquared.core.util.WorldUtil;
+import com.plotsquared.core.util.task.TaskManager;
+import com.sk89q.jnbt.CompoundTag;
+import com.sk89q.jnbt.NBTInputStream;
+import com.sk89q.jnbt.NBTOutputStream;
+import com.sk89q.worldedit.math.BlockVector2;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.biome.BiomeType;
+import com.sk89q.worldedit.world.biome.BiomeTypes;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content addressed store for incremental plot backups.
+ * <p>
+ * A backup is split into the 16x16x16 sections of every chunk in the plot, and
+ * the biomes of every chunk. Each of these is stored once in the {@code objects}
+ * directory of the backup path, named by the hash of its contents. A backup then
+ * only writes the objects that changed, plus a small manifest that lists the
+ * hashes of its chunks. Objects are reference counted by the manifests that use
+ * them, and deleted once the last of those is deleted.
+ * <p>
+ * The reference counts are rebuilt from the manifests the first time they are
+ * needed, which also removes any objects that are no longer referenced. If a
+ * manifest can't be read, no objects are removed until the next restart.
+ */
+final class BackupStore {
+
+    static final String MANIFEST_EXTENSION = ".manifest";
+
+    private static final Logger logger = LoggerFactory.getLogger("P2/" + BackupStore.class.getSimpleName());
+    private static final Map<Path, BackupStore> stores = new ConcurrentHashMap<>();
+
+    private static final int MANIFEST_VERSION = 1;
+    private static final int SECTIONS = 16;
+    private static final int SECTION_OBJECT = 1;
+    private static final int BIOME_OBJECT = 2;
+
+    private final Path backupPath;
+    private final Path objectPath;
+    private Map<String, Integer> references;
+    // Whether every manifest could be read when the reference counts were loaded
+    private boolean complete;
+
+    BackupStore(@Nonnull final Path backupPath) {
+        this.backupPath = backupPath;
+        this.objectPath = backupPath.resolve("objects");
+    }
+
+    /**
+     * Get the store for a backup path
+     *
+     * @param backupPath Backup directory path
+     * @return the store
+     */
+    @Nonnull static BackupStore get(@Nonnull final Path backupPath) {
+        return stores.computeIfAbsent(backupPath.toAbsolutePath().normalize(), BackupStore::new);
+    }
+
+    static boolean isManifest(@Nonnull final Path path) {
+        return path.getFileName().toString().endsWith(MANIFEST_EXTENSION);
+    }
+
+    /**
+     * Create a backup of a plot. The chunks of the plot are captured one at a time
+     * on the main thread, and their sections are hashed and written asynchronously.
+     *
+     * @param plot     Plot to back up
+     * @param manifest File to write the manifest of the backup to
+     * @return Future that completes once the manifest has been written
+     */
+    @Nonnull CompletableFuture<Void> createBackup(@Nonnull final Plot plot, @Nonnull final Path manifest) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        final String worldName = Objects.requireNonNull(plot.getWorldName());
+        final Set<CuboidRegion> regions = plot.getRegions();
+        final WorldUtil worldUtil = PlotSquared.platform().worldUtil();
+        final World world = worldUtil.getWeWorld(worldName);
+        final QueueCoordinator queue = plot.getArea().getQueue();
+        final Queue<CompletableFuture<ChunkEntry>> entries = new ConcurrentLinkedQueue<>();
+        final Queue<String> acquired = new ConcurrentLinkedQueue<>();
+        for (final CuboidRegion region : regions) {
+            queue.addReadChunks(region.getChunks());
+        }
+        queue.setChunkConsumer(chunk -> {
+            if (future.isDone()) {
+                return;
+            }
+            final ChunkCapture capture;
+            try {
+                capture = ChunkCapture.capture(worldUtil.getFullChunkBlocks(worldName, chunk), world, regions, chunk,
+                    worldUtil.getTileEntityPositions(worldName, chunk));
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+                return;
+            }
+            final CompletableFuture<ChunkEntry> entry = new CompletableFuture<>();
+            entries.add(entry);
+            TaskManager.runTaskAsync(() -> {
+                try {
+                    entry.complete(this.store(capture, acquired));
+                } catch (Throwable throwable) {
+                    entry.completeExceptionally(throwable);
+                }
+            });
+        });
+        queue.setCompleteTask(() -> TaskManager.runTaskAsync(() -> {
+            try {
+                if (future.isDone()) {
+                    return;
+                }
+                final List<ChunkEntry> chunks = new ArrayList<>();
+                for (final CompletableFuture<ChunkEntry> entry : entries) {
+                    chunks.add(entry.join());
+                }
+                writeManifest(manifest, chunks);
+                future.complete(null);
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            } finally {
+                if (future.isCompletedExceptionally()) {
+                    // Wait for the remaining sections so that none of them stay pinned
+                    for (final CompletableFuture<ChunkEntry> entry : entries) {
+                        entry.handle((result, throwable) -> null).join();
+                    }
+                    this.release(acquired);
+                }
+            }
+        }));
+        queue.enqueue();
+        return future;
+    }
+
+    /**
+     * Restore a backup of a plot through the queue of its area
+     *
+     * @param manifest Manifest of the backup
+     * @param plot     Plot to restore
+     * @return Future that completes once the backup has been restored
+     */
+    @Nonnull CompletableFuture<Void> restore(@Nonnull final Path manifest, @Nonnull final Plot plot) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        TaskManager.runTaskAsync(() -> {
+            try {
+                final QueueCoordinator queue = plot.getArea().getQueue();
+                final Map<String, BlockState> states = new HashMap<>();
+                final Map<String, BiomeType> biomes = new HashMap<>();
+                this.read(manifest, (chunkX, chunkZ, section, bytes) -> {
+                    if (section < 0) {
+                        restoreBiomes(queue, bytes, chunkX << 4, chunkZ << 4, biomes);
+                    } else {
+                        restoreSection(queue, bytes, chunkX << 4, section << 4, chunkZ << 4, states);
+                    }
+                });
+                queue.setCompleteTask(() -> future.complete(null));
+                queue.enqueue();
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Read the objects of a backup
+     *
+     * @param manifest Manifest of the backup
+     * @param consumer Consumer that receives the contents of every object in the backup
+     * @throws IOException if the manifest or one of its objects could not be read
+     */
+    void read(@Nonnull final Path manifest, @Nonnull final ObjectConsumer consumer) throws IOException {
+        for (final ChunkEntry entry : readManifest(manifest)) {
+            if (!entry.biomes.isEmpty()) {
+                consumer.accept(entry.x, entry.z, -1, this.readObject(entry.biomes));
+            }
+            for (int section = 0; section < SECTIONS; section++) {
+                if (!entry.sections[section].isEmpty()) {
+                    consumer.accept(entry.x, entry.z, section, this.readObject(entry.sections[section]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Delete a backup, and the objects that are no longer used by any other backup
+     *
+     * @param manifest Manifest of the backup
+     */
+    synchronized void delete(@Nonnull final Path manifest) {
+        // The reference counts must be loaded while the manifest still exists,
+        // otherwise its objects would be released twice
+        this.getReferences();
+        List<ChunkEntry> chunks = null;
+        try {
+            chunks = readManifest(manifest);
+        } catch (IOException e) {
+            logger.error("Failed to read backup manifest {}", manifest, e);
+        }
+        try {
+            Files.deleteIfExists(manifest);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        if (chunks != null) {
+            final List<String> hashes = new ArrayList<>();
+            for (final ChunkEntry entry : chunks) {
+                entry.forEachHash(hashes::add);
+            }
+            this.release(hashes);
+        }
+    }
+
+    /**
+     * Encode and store the sections and biomes of a captured chunk
+     *
+     * @param capture  Captured chunk
+     * @param acquired Hashes that have been acquired for the backup
+     * @return the manifest entry of the chunk
+     */
+    @Nonnull private ChunkEntry store(@Nonnull final ChunkCapture capture, @Nonnull final Queue<String> acquired)
+        throws IOException {
+        final byte[][] sections = new byte[SECTIONS][];
+        for (int section = 0; section < SECTIONS; section++) {
+            if (capture.sections[section] != null) {
+                sections[section] = capture.sections[section].encode();
+            }
+        }
+        return this.store(capture.chunk.getX(), capture.chunk.getZ(), capture.biomeCount == 0 ? null : capture.encodeBiomes(),
+            sections, acquired);
+    }
+
+    /**
+     * Store the encoded sections and biomes of a chunk
+     *
+     * @param chunkX   Chunk X coordinate
+     * @param chunkZ   Chunk Z coordinate
+     * @param biomes   Encoded biomes, or {@code null} if the chunk has none
+     * @param sections Encoded sections, with {@code null} for sections outside of the plot
+     * @param acquired Hashes that have been acquired for the backup
+     * @return the manifest entry of the chunk
+     */
+    @Nonnull ChunkEntry store(final int chunkX, final int chunkZ, @Nullable final byte[] biomes,
+        @Nonnull final byte[][] sections, @Nonnull final Queue<String> acquired) throws IOException {
+        final String[] hashes = new String[SECTIONS];
+        for (int section = 0; section < SECTIONS; section++) {
+            hashes[section] = sections[section] == null ? "" : this.acquire(sections[section], acquired);
+        }
+        return new ChunkEntry(chunkX, chunkZ, biomes == null ? "" : this.acquire(biomes, acquired), hashes);
+    }
+
+    /**
+     * Add a reference to an object, and write it if it is not yet stored
+     *
+     * @param bytes    Object contents
+     * @param acquired Hashes that have been acquired for the backup
+     * @return the hash of the object
+     */
+    @Nonnull private synchronized String acquire(@Nonnull final byte[] bytes, @Nonnull final Queue<String> acquired)
+        throws IOException {
+        final String hash = Hashing.sha256().hashBytes(bytes).toString();
+        final Map<String, Integer> references = this.getReferences();
+        final int count = references.getOrDefault(hash, 0);
+        if (count == 0) {
+            final Path file = this.getObjectFile(hash);
+            if (!Files.exists(file)) {
+                Files.createDirectories(file.getParent());
+                final Path temporary = file.resolveSibling(hash + ".tmp");
+                try (OutputStream out = new DeflaterOutputStream(Files.newOutputStream(temporary))) {
+                    out.write(bytes);
+                }
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        references.put(hash, count + 1);
+        acquired.add(hash);
+        return hash;
+    }
+
+    private synchronized void release(@Nonnull final Collection<String> hashes) {
+        final Map<String, Integer> references = this.getReferences();
+        for (final String hash : hashes) {
+            final Integer count = references.get(hash);
+            if (count == null) {
+                continue;
+            }
+            if (count > 1) {
+                references.put(hash, count - 1);
+                continue;
+            }
+            references.remove(hash);
+            if (!this.complete) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(this.getObjectFile(hash));
+            } catch (IOException e) {
+                logger.error("Failed to delete backup object {}", hash, e);
+            }
+        }
+    }
+
+    /**
+     * Get the reference counts of all objects, counting them from the manifests
+     * and removing unreferenced objects if they have not been loaded yet
+     */
+    @Nonnull private Map<String, Integer> getReferences() {
+        if (this.references != null) {
+            return this.references;
+        }
+        final Map<String, Integer> references = new HashMap<>();
+        this.complete = true;
+        if (Files.exists(this.backupPath)) {
+            try (Stream<Path> files = Files.walk(this.backupPath)) {
+                for (final Path manifest : files.filter(BackupStore::isManifest).collect(Collectors.toList())) {
+                    try {
+                        for (final ChunkEntry entry : readManifest(manifest)) {
+                            entry.forEachHash(hash -> references.merge(hash, 1, Integer::sum));
+                        }
+                    } catch (IOException e) {
+                        logger.error("Failed to read backup manifest {}", manifest, e);
+                        this.complete = false;
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("Failed to load backup manifests", e);
+                this.complete = false;
+            }
+        }
+        // Objects are only removed if every manifest could be read, as the objects
+        // of an unreadable manifest would otherwise be lost
+        if (this.complete && Files.exists(this.objectPath)) {
+            try (Stream<Path> files = Files.walk(this.objectPath)) {
+                for (final Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                    if (!references.containsKey(file.getFileName().toString())) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("Failed to remove unreferenced backup objects", e);
+            }
+        }
+        return this.references = references;
+    }
+
+    @Nonnull private Path getObjectFile(@Nonnull final String hash) {
+        return this.objectPath.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    @Nonnull private byte[] readObject(@Nonnull final String hash) throws IOException {
+        try (InputStream in = new InflaterInputStream(Files.newInputStream(this.getObjectFile(hash)))) {
+            return ByteStreams.toByteArray(in);
+        }
+    }
+
+    static void writeManifest(@Nonnull final Path manifest, @Nonnull final List<ChunkEntry> chunks)
+        throws IOException {
+        final Path temporary = manifest.resolveSibling(manifest.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MANIFEST_VERSION);
+            out.writeInt(chunks.size());
+            for (final ChunkEntry entry : chunks) {
+                out.writeInt(entry.x);
+                out.writeInt(entry.z);
+                out.writeUTF(entry.biomes);
+                for (final String section : entry.sections) {
+                    out.writeUTF(section);
+                }
+            }
+        }
+        Files.move(temporary, manifest, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Nonnull private static List<ChunkEntry> readManifest(@Nonnull final Path manifest) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(Files.newInputStream(manifest)))) {
+            final int version = in.readInt();
+            if (version != MANIFEST_VERSION) {
+                throw new IOException("Unsupported backup manifest version " + version);
+            }
+            final int size = in.readInt();
+            final List<ChunkEntry> chunks = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                final int x = in.readInt();
+                final int z = in.readInt();
+                final String biomes = in.readUTF();
+                final String[] sections = new String[SECTIONS];
+                for (int section = 0; section < SECTIONS; section++) {
+                    sections[section] = in.readUTF();
+                }
+                chunks.add(new ChunkEntry(x, z, biomes, sections));
+            }
+            return chunks;
+        }
+    }
+
+    private static void restoreSection(@Nonnull final QueueCoordinator queue, @Nonnull final byte[] bytes,
+        final int chunkBlockX, final int sectionBlockY, final int chunkBlockZ,
+        @Nonnull final Map<String, BlockState> states) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readByte() != SECTION_OBJECT) {
+            throw new IOException("Backup object is not a chunk section");
+        }
+        final BlockState[] palette = new BlockState[in.readUnsignedShort()];
+        for (int i = 0; i < palette.length; i++) {
+            final String state = in.readUTF();
+            palette[i] = states.computeIfAbsent(state, BlockUtil::get);
+            if (palette[i] == null) {
+                logger.warn("Skipping unknown block state {} in backup", state);
+            }
+        }
+        final BlockState[] blocks = new BlockState[4096];
+        for (int index = 0; index < blocks.length; index++) {
+            final int id = readVarInt(in);
+            if (id == 0 || (blocks[index] = palette[id - 1]) == null) {
+                continue;
+            }
+            queue.setBlock(chunkBlockX + (index & 15), sectionBlockY + (index >> 8), chunkBlockZ + ((index >> 4) & 15),
+                blocks[index]);
+        }
+        final int tiles = in.readUnsignedShort();
+        for (int i = 0; i < tiles; i++) {
+            final int index = in.readUnsignedShort();
+            final byte[] nbt = new byte[in.readInt()];
+            in.readFully(nbt);
+            if (blocks[index] == null) {
+                continue;
+            }
+            try (NBTInputStream nbtStream = new NBTInputStream(new ByteArrayInputStream(nbt))) {
+                final CompoundTag tag = (CompoundTag) nbtStream.readNamedTag().getTag();
+                queue.setBlock(chunkBlockX + (index & 15), sectionBlockY + (index >> 8), chunkBlockZ + ((index >> 4) & 15),
+                    blocks[index].toBaseBlock(tag));
+            }
+        }
+    }
+
+    private static void restoreBiomes(@Nonnull final QueueCoordinator queue, @Nonnull final byte[] bytes,
+        final int chunkBlockX, final int chunkBlockZ, @Nonnull final Map<String, BiomeType> biomes) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readByte() != BIOME_OBJECT) {
+            throw new IOException("Backup object is not a biome layer");
+        }
+        final BiomeType[] palette = new BiomeType[in.readUnsignedShort()];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = biomes.computeIfAbsent(in.readUTF(), BiomeTypes::get);
+        }
+        for (int column = 0; column < 256; column++) {
+            final int id = readVarInt(in);
+            if (id == 0 || palette[id - 1] == null) {
+                continue;
+            }
+            for (int y = 0; y < 256; y++) {
+                queue.setBiome(chunkBlockX + (column & 15), y, chunkBlockZ + (column >> 4), palette[id - 1]);
+            }
+        }
+    }
+
+    private static void writeVarInt(@Nonnull final DataOutputStream out, int value) throws IOException {
+        while ((value & -128) != 0) {
+            out.write(value & 127 | 128);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(@Nonnull final DataInputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (b & 127) << shift;
+            shift += 7;
+        } while ((b & 128) != 0);
+        return value;
+    }
+
+    /**
+     * Blocks, tile entities and biomes of a chunk, captured on the main thread.
+     * Positions outside of the plot are stored as 0.
+     */
+    private static final class ChunkCapture {
+
+        private final BlockVector2 chunk;
+        private final Section[] sections = new Section[SECTIONS];
+        private final List<String> biomePalette = new ArrayList<>();
+        private final char[] biomes = new char[256];
+        private int biomeCount;
+
+        private ChunkCapture(@Nonnull final BlockVector2 chunk) {
+            this.chunk = chunk;
+        }
+
+        @Nonnull private static ChunkCapture capture(@Nonnull final WorldUtil.ChunkBlocks blocks, @Nonnull final World world,
+            @Nonnull final Set<CuboidRegion> regions, @Nonnull final BlockVector2 chunk,
+            @Nonnull final Collection<BlockVector3> tiles) {
+            final ChunkCapture capture = new ChunkCapture(chunk);
+            final int chunkBlockX = chunk.getX() << 4;
+            final int chunkBlockZ = chunk.getZ() << 4;
+            for (final CuboidRegion region : regions) {
+                final BlockVector3 min = region.getMinimumPoint();
+                final BlockVector3 max = region.getMaximumPoint();
+                final int minY = Math.max(0, min.getY());
+                final int maxY = Math.min(255, max.getY());
+                for (int x = Math.max(min.getX(), chunkBlockX); x <= Math.min(max.getX(), chunkBlockX + 15); x++) {
+                    for (int z = Math.max(min.getZ(), chunkBlockZ); z <= Math.min(max.getZ(), chunkBlockZ + 15); z++) {
+                        final int column = ((z & 15) << 4) | (x & 15);
+                        if (capture.biomes[column] == 0) {
+                            capture.biomes[column] = capture.getBiomeId(world.getBiome(BlockVector2.at(x, z)).getId());
+                            capture.biomeCount++;
+                        }
+                        for (int y = minY; y <= maxY; y++) {
+                            Section section = capture.sections[y >> 4];
+                            if (section == null) {
+                                section = capture.sections[y >> 4] = new Section();
+                            }
+                            section.blocks[((y & 15) << 8) | column] = section.getStateId(blocks.getBlock(x & 15, y, z & 15));
+                        }
+                    }
+                }
+            }
+            for (final BlockVector3 position : tiles) {
+                final Section section = position.getY() < 0 || position.getY() > 255 ? null : capture.sections[position.getY() >> 4];
+                final int index = ((position.getY() & 15) << 8) | ((position.getZ() & 15) << 4) | (position.getX() & 15);
+                if (section == null || section.blocks[index] == 0) {
+                    continue;
+                }
+                final BaseBlock block = world.getFullBlock(position);
+                if (block.getNbtData() != null) {
+                    section.tiles.put(index, block.getNbtData());
+                }
+            }
+            return capture;
+        }
+
+        private char getBiomeId(@Nonnull final String biome) {
+            int id = this.biomePalette.indexOf(biome);
+            if (id < 0) {
+                id = this.biomePalette.size();
+                this.biomePalette.add(biome);
+            }
+            return (char) (id + 1);
+        }
+
+        @Nonnull private byte[] encodeBiomes() throws IOException {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(BIOME_OBJECT);
+            out.writeShort(this.biomePalette.size());
+            for (final String biome : this.biomePalette) {
+                out.writeUTF(biome);
+            }
+            for (final char biome : this.biomes) {
+                writeVarInt(out, biome);
+            }
+            return bytes.toByteArray();
+        }
+
+    }
+
+    /**
+     * Blocks of a 16x16x16 chunk section, as ids into a palette in the order the
+     * states were first encountered, so that equal sections encode to equal bytes
+     */
+    private static final class Section {
+
+        private final List<BlockState> palette = new ArrayList<>();
+        private final Map<BlockState, Character> ids = new HashMap<>();
+        private final char[] blocks = new char[4096];
+        private final Map<Integer, CompoundTag> tiles = new TreeMap<>();
+
+        private char getStateId(@Nonnull final BlockState state) {
+            Character id = this.ids.get(state);
+            if (id == null) {
+                this.palette.add(state);
+                id = (char) this.palette.size();
+                this.ids.put(state, id);
+            }
+            return id;
+        }
+
+        @Nonnull private byte[] encode() throws IOException {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(SECTION_OBJECT);
+            out.writeShort(this.palette.size());
+            for (final BlockState state : this.palette) {
+                out.writeUTF(state.getAsString());
+            }
+            for (final char block : this.blocks) {
+                writeVarInt(out, block);
+            }
+            out.writeShort(this.tiles.size());
+            for (final Map.Entry<Integer, CompoundTag> entry : this.tiles.entrySet()) {
+                final ByteArrayOutputStream nbt = new ByteArrayOutputStream();
+                try (NBTOutputStream nbtStream = new NBTOutputStream(nbt)) {
+                    nbtStream.writeNamedTag("", entry.getValue());
+                }
+                out.writeShort(entry.getKey());
+                out.writeInt(nbt.size());
+                nbt.writeTo(out);
+            }
+            return bytes.toByteArray();
+        }
+
+    }
+
+    /**
+     * Consumer of the objects of a backup
+     */
+    @FunctionalInterface interface ObjectConsumer {
+
+        /**
+         * @param chunkX  Chunk X coordinate
+         * @param chunkZ  Chunk Z coordinate
+         * @param section Section index, or {@code -1} for the biomes of the chunk
+         * @param bytes   Object contents
+         */
+        void accept(int chunkX, int chunkZ, int section, @Nonnull byte[] bytes) throws IOException;
+
+    }
+
+    static final class ChunkEntry {
+
+        private final int x;
+        private final int z;
+        private final String biomes;
+        private final String[] sections;
+
+        private ChunkEntry(final int x, final int z, @Nonnull final String biomes, @Nonnull final String[] sections) {
+            this.x = x;
+            this.z = z;
+            this.biomes = biomes;
+            this.sections = sections;
+        }
+
+        private void forEachHash(@Nonnull final Consumer<String> consumer) {
+            if (!this.biomes.isEmpty()) {
+                consumer.accept(this.biomes);
+            }
+            for (final String section : this.sections) {
+                if (!section.isEmpty()) {
+                    consumer.accept(section);
+                }
+            }
+        }
+
+    }
+
+}
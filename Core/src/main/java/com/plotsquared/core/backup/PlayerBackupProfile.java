@@ -27,6 +27,7 @@ package com.plotsquared.core.backup;
 
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
+import com.plotsquared.core.configuration.Settings;
 import com.plotsquared.core.configuration.caption.TranslatableCaption;
 import com.plotsquared.core.player.ConsolePlayer;
 import com.plotsquared.core.player.PlotPlayer;
@@ -78,7 +79,7 @@ public class PlayerBackupProfile implements BackupProfile {
 
     private static boolean isValidFile(@Nonnull final Path path) {
         final String name = path.getFileName().toString();
-        return name.endsWith(".schem") || name.endsWith(".schematic");
+        return name.endsWith(".schem") || name.endsWith(".schematic") || name.endsWith(BackupStore.MANIFEST_EXTENSION);
     }
 
     @Override @Nonnull public CompletableFuture<List<Backup>> listBackups() {
@@ -102,8 +103,8 @@ public class PlayerBackupProfile implements BackupProfile {
                         try {
                             final BasicFileAttributes basicFileAttributes =
                                 Files.readAttributes(file, BasicFileAttributes.class);
-                            backups.add(
-                                new Backup(this, basicFileAttributes.creationTime().toMillis(), file));
+                            backups.add(new Backup(this, basicFileAttributes.creationTime().toMillis(), file,
+                                BackupStore.isManifest(file) ? this.getStore() : null));
                         } catch (IOException e) {
                             e.printStackTrace();
                         }
@@ -127,6 +128,10 @@ public class PlayerBackupProfile implements BackupProfile {
         });
     }
 
+    @Nonnull private BackupStore getStore() {
+        return BackupStore.get(this.backupManager.getBackupPath());
+    }
+
     @Nonnull public Path getBackupDirectory() {
         return resolve(resolve(resolve(backupManager.getBackupPath(), Objects.requireNonNull(plot.getArea().toString(), "plot area id")),
             Objects.requireNonNull(plot.getId().toDashSeparatedString(), "plot id")), Objects.requireNonNull(owner.toString(), "owner"));
@@ -155,6 +160,21 @@ public class PlayerBackupProfile implements BackupProfile {
                 if (backups.size() == backupManager.getBackupLimit()) {
                     backups.get(backups.size() - 1).delete();
                 }
+                if (Settings.Backup.INCREMENTAL) {
+                    final long creationTime = System.currentTimeMillis();
+                    final Path manifest = getBackupDirectory().resolve(plot.getArea() + "-" + plot.getId().toDashSeparatedString()
+                        + "-" + creationTime + BackupStore.MANIFEST_EXTENSION);
+                    this.getStore().createBackup(plot, manifest).whenComplete((result, throwable) -> {
+                        this.backupCache = null;
+                        if (throwable != null) {
+                            future.completeExceptionally(throwable);
+                        } else {
+                            future.complete(new Backup(this, creationTime, manifest, this.getStore()));
+                        }
+                    });
+                    this.backupCache = null;
+                    return;
+                }
                 final List<Plot> plots = Collections.singletonList(plot);
                 final boolean result = this.schematicHandler.exportAll(plots, getBackupDirectory().toFile(),
                     "%world%-%id%-" + System.currentTimeMillis(), () ->
@@ -172,6 +192,8 @@ public class PlayerBackupProfile implements BackupProfile {
         final CompletableFuture<Void> future = new CompletableFuture<>();
         if (backup.getFile() == null || !Files.exists(backup.getFile())) {
             future.completeExceptionally(new IllegalArgumentException("The specific backup does not exist"));
+        } else if (backup.getStore() != null) {
+            return backup.getStore().restore(backup.getFile(), plot);
         } else {
             TaskManager.runTaskAsync(() -> {
                 Schematic schematic = null;
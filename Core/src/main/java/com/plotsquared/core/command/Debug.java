@@ -30,6 +30,8 @@ import com.plotsquared.core.PlotSquared;
 import com.plotsquared.core.configuration.caption.Caption;
 import com.plotsquared.core.configuration.caption.StaticCaption;
 import com.plotsquared.core.configuration.caption.TranslatableCaption;
+import com.plotsquared.core.database.DBFunc;
+import com.plotsquared.core.database.SQLManager;
 import com.plotsquared.core.player.ConsolePlayer;
 import com.plotsquared.core.player.PlotPlayer;
 import com.plotsquared.core.plot.world.PlotAreaManager;
@@ -52,6 +54,7 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @CommandDeclaration(command = "debug",
     category = CommandCategory.DEBUG,
@@ -73,7 +76,7 @@ public class Debug extends SubCommand {
     @Override public boolean onCommand(PlotPlayer<?> player, String[] args) {
         if (args.length == 0 ) {
             player.sendMessage(TranslatableCaption.of("commandconfig.command_syntax"),
-                    Template.of("value", "/plot debug <loadedchunks | debug-players | logging | entitytypes | msg>"));
+                    Template.of("value", "/plot debug <loadedchunks | database | debug-players | logging | entitytypes | msg>"));
         }
         if (args.length > 0) {
             if ("player".equalsIgnoreCase(args[0])) {
@@ -90,6 +93,16 @@ public class Debug extends SubCommand {
                     - start) + "ms) using thread: " + Thread.currentThread().getName())));
             return true;
         }
+        if (args.length > 0 && "database".equalsIgnoreCase(args[0])) {
+            if (!(DBFunc.dbManager instanceof SQLManager)) {
+                return true;
+            }
+            final SQLManager manager = (SQLManager) DBFunc.dbManager;
+            player.sendMessage(StaticCaption.of("Queued: " + manager.getQueueDepth() + " | Commits: " + manager.getCommitCount()
+                + " | Last: " + TimeUnit.NANOSECONDS.toMillis(manager.getLastCommitLatency()) + "ms | Average: " + TimeUnit.NANOSECONDS
+                .toMillis(manager.getAverageCommitLatency()) + "ms | Max: " + TimeUnit.NANOSECONDS.toMillis(manager.getMaxCommitLatency()) + "ms"));
+            return true;
+        }
         if (args.length > 0 && "uuids".equalsIgnoreCase(args[0])) {
             final Collection<UUIDMapping> mappings = PlotSquared.get().getImpromptuUUIDPipeline().getAllImmediately();
             player.sendMessage(
@@ -34,6 +34,7 @@ import com.plotsquared.core.events.PlotRateEvent;
 import com.plotsquared.core.events.TeleportCause;
 import com.plotsquared.core.player.PlotPlayer;
 import com.plotsquared.core.plot.Plot;
+import com.plotsquared.core.plot.PlotRatingIndex;
 import com.plotsquared.core.plot.Rating;
 import com.plotsquared.core.plot.flag.implementations.DoneFlag;
 import com.plotsquared.core.util.EventDispatcher;
@@ -162,6 +163,7 @@ public class Like extends SubCommand {
             if (!Settings.Enabled_Components.RATING_CACHE) {
                 TaskManager.runTaskAsync(() -> {
                     plot.getSettings().setRatings(DBFunc.getRatings(plot));
+                    PlotRatingIndex.get().update(plot);
                     run.run();
                 });
                 return true;
@@ -36,7 +36,9 @@ import com.plotsquared.core.player.PlotPlayer;
 import com.plotsquared.core.plot.Plot;
 import com.plotsquared.core.plot.PlotInventory;
 import com.plotsquared.core.plot.PlotItemStack;
+import com.plotsquared.core.plot.PlotRatingIndex;
 import com.plotsquared.core.plot.Rating;
+import com.plotsquared.core.plot.RatingAggregate;
 import com.plotsquared.core.plot.flag.implementations.DoneFlag;
 import com.plotsquared.core.util.EventDispatcher;
 import com.plotsquared.core.util.InventoryUtil;
@@ -53,7 +55,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -80,18 +81,11 @@ public class Rate extends SubCommand {
                 case "next": {
                     final List<Plot> plots = PlotQuery.newQuery().whereBasePlot().asList();
                     plots.sort((p1, p2) -> {
-                        double v1 = 0;
-                        if (!p1.getRatings().isEmpty()) {
-                            for (Entry<UUID, Rating> entry : p1.getRatings().entrySet()) {
-                                v1 -= 11 - entry.getValue().getAverageRating();
-                            }
-                        }
-                        double v2 = 0;
-                        if (!p2.getRatings().isEmpty()) {
-                            for (Entry<UUID, Rating> entry : p2.getRatings().entrySet()) {
-                                v2 -= 11 - entry.getValue().getAverageRating();
-                            }
-                        }
+                        final RatingAggregate r1 = p1.getBasePlot(false).getSettings().getRatingAggregate();
+                        final RatingAggregate r2 = p2.getBasePlot(false).getSettings().getRatingAggregate();
+                        // Sum of (average - 11) over all ratings
+                        double v1 = r1.getCount() == 0 ? 0 : (r1.getAverage() - 11) * r1.getCount();
+                        double v2 = r2.getCount() == 0 ? 0 : (r2.getAverage() - 11) * r2.getCount();
                         if (v1 == v2) {
                             return -0;
                         }
@@ -205,6 +199,7 @@ public class Rate extends SubCommand {
                 if (!Settings.Enabled_Components.RATING_CACHE) {
                     TaskManager.runTaskAsync(() -> {
                         plot.getSettings().setRatings(DBFunc.getRatings(plot));
+                        PlotRatingIndex.get().update(plot);
                         run.run();
                     });
                     return true;
@@ -253,6 +248,7 @@ public class Rate extends SubCommand {
             if (!Settings.Enabled_Components.RATING_CACHE) {
                 TaskManager.runTaskAsync(() -> {
                     plot.getSettings().setRatings(DBFunc.getRatings(plot));
+                    PlotRatingIndex.get().update(plot);
                     run.run();
                 });
                 return true;
@@ -257,6 +257,10 @@ public class Settings extends Config {
         public static long NON_BLOCKING_TIMEOUT = 3000L;
         @Comment("Timeout (in milliseconds) for blocking UUID requests (events)")
         public static long BLOCKING_TIMEOUT = 10L;
+        @Comment("Time (in milliseconds) to collect UUID requests for before looking them up together")
+        public static long BATCH_WINDOW = 5L;
+        @Comment("Time (in seconds) that UUIDs and names that could not be found are remembered for")
+        public static int NEGATIVE_CACHE_TIME = 60;
         @Comment("Whether or not PlotSquared should read from the legacy database")
         public static boolean LEGACY_DATABASE_SUPPORT = true;
         @Comment("Whether or not PlotSquared should return Unknown if it fails to fulfill a request")
@@ -491,6 +495,9 @@ public class Settings extends Config {
             BACKUP_LIMIT = 3;
         @Comment("Whether or not backups should be deleted when the plot is unclaimed")
         public static boolean DELETE_ON_UNCLAIM = true;
+        @Comment({"Store backups incrementally, as the chunk sections that changed since earlier backups",
+            "Existing schematic backups can still be restored"})
+        public static boolean INCREMENTAL = true;
     }
 
 
@@ -564,8 +571,8 @@ public class Settings extends Config {
 
     @Comment("Settings relating to PlotSquared's GlobalBlockQueue")
     public static final class QUEUE {
-        @Comment({"Average time per tick spent completing chunk tasks in ms.",
-            "Queue will adjust the batch size to match this."})
+        @Comment({"Average time per tick spent completing chunk tasks in ms, shared by all running queues.",
+            "Queues will adjust their batch size to match this, and use less time while the server is lagging."})
         public static int MAX_ITERATION_TIME = 30;
         @Comment({"Initial number of chunks to process by the queue. This can be increased or",
             "decreased by the queue based on the actual iteration time compared to above."})
@@ -585,6 +592,13 @@ public class Settings extends Config {
         public static int LIGHTING_MODE = 1;
     }
 
+    @Comment("Settings related to the plot expiry task")
+    public static final class Expiry {
+        @Comment({"Maximum number of expired plots to delete per minute without confirmation.",
+            "Set to 0 to delete them as fast as possible."})
+        public static int DELETIONS_PER_MINUTE = 20;
+    }
+
     @Comment("Settings related to tab completion")
     public static final class Tab_Completions {
         @Comment({"The time in seconds how long tab completions should remain in cache.",
@@ -62,4 +62,11 @@ public class Storage extends Config {
         @Comment("The file to use") public static String DB = "storage";
     }
 
+
+    @Comment("Connection pool section")
+    public static final class Pool {
+        @Comment("Connections used for lookups, so that they do not wait for queued writes")
+        public static int READ_CONNECTIONS = 2;
+    }
+
 }
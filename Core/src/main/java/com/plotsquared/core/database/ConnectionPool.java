@@ -0,0 +1,130 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.database;
+
+import javax.annotation.Nonnull;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A small, lazily filled pool of connections used for lookups, so that reads do
+ * not have to wait for the connection that is used to write queued statements.
+ */
+final class ConnectionPool {
+
+    private static final long BORROW_TIMEOUT_SECONDS = 10L;
+
+    private final Database database;
+    private final int size;
+    private final BlockingQueue<Connection> idle;
+    private final AtomicInteger opened = new AtomicInteger();
+    private volatile boolean closed;
+
+    ConnectionPool(@Nonnull final Database database, final int size) {
+        this.database = database;
+        this.size = Math.max(1, size);
+        this.idle = new ArrayBlockingQueue<>(this.size);
+    }
+
+    /**
+     * Borrow a connection from the pool. The connection must be given back
+     * using {@link #release(Connection)}.
+     *
+     * @return Open connection
+     * @throws SQLException if no connection could be opened in time
+     */
+    @Nonnull Connection borrow() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("The connection pool has been closed");
+        }
+        Connection connection = this.idle.poll();
+        if (connection == null) {
+            if (this.opened.incrementAndGet() <= this.size) {
+                return open();
+            }
+            this.opened.decrementAndGet();
+            try {
+                connection = this.idle.poll(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", e);
+            }
+            if (connection == null) {
+                throw new SQLException("Timed out waiting for a database connection");
+            }
+        }
+        if (!connection.isValid(1)) {
+            discard(connection);
+            this.opened.incrementAndGet();
+            return open();
+        }
+        return connection;
+    }
+
+    /**
+     * Return a connection to the pool
+     *
+     * @param connection Connection obtained from {@link #borrow()}
+     */
+    void release(@Nonnull final Connection connection) {
+        if (this.closed || !this.idle.offer(connection)) {
+            discard(connection);
+        }
+    }
+
+    /**
+     * Close all idle connections. Borrowed connections are closed once they are released.
+     */
+    void close() {
+        this.closed = true;
+        Connection connection;
+        while ((connection = this.idle.poll()) != null) {
+            discard(connection);
+        }
+    }
+
+    @Nonnull private Connection open() throws SQLException {
+        try {
+            return this.database.createConnection();
+        } catch (final SQLException | ClassNotFoundException e) {
+            this.opened.decrementAndGet();
+            throw e instanceof SQLException ? (SQLException) e : new SQLException(e);
+        }
+    }
+
+    private void discard(@Nonnull final Connection connection) {
+        this.opened.decrementAndGet();
+        try {
+            connection.close();
+        } catch (final SQLException ignored) {
+        }
+    }
+
+}
@@ -40,6 +40,16 @@ public abstract class Database {
 
     public abstract Connection forceConnection() throws SQLException, ClassNotFoundException;
 
+    /**
+     * Opens a new connection with the database. The connection is not tracked by
+     * this instance, and must be closed by the caller.
+     *
+     * @return New connection
+     * @throws SQLException           if the connection can not be opened
+     * @throws ClassNotFoundException if the driver cannot be found
+     */
+    public abstract Connection createConnection() throws SQLException, ClassNotFoundException;
+
     /**
      * Opens a connection with the database.
      *
@@ -38,6 +38,7 @@ import com.plotsquared.core.plot.Plot;
 import com.plotsquared.core.plot.PlotArea;
 import com.plotsquared.core.plot.PlotCluster;
 import com.plotsquared.core.plot.PlotId;
+import com.plotsquared.core.plot.PlotRatingIndex;
 import com.plotsquared.core.plot.PlotSettings;
 import com.plotsquared.core.plot.comment.PlotComment;
 import com.plotsquared.core.plot.flag.FlagContainer;
@@ -72,12 +73,17 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 
@@ -133,7 +139,22 @@ public class SQLManager implements AbstractDB {
 
     // Private
     private Connection connection;
-    private boolean closed = false;
+    private volatile boolean closed = false;
+
+    /**
+     * Held while queued statements are being written
+     */
+    private final Object writeLock = new Object();
+    /**
+     * Notified when tasks are queued
+     */
+    private final Object signal = new Object();
+    private final ConnectionPool readPool;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private volatile long lastCommitNanos;
+    private volatile long maxCommitNanos;
+    private volatile long totalCommitNanos;
+    private volatile long commitCount;
 
     private final EventDispatcher eventDispatcher;
     private final PlotListener plotListener;
@@ -159,6 +180,7 @@ public class SQLManager implements AbstractDB {
         this.worldConfiguration = worldConfiguration;
         this.database = database;
         this.connection = database.openConnection();
+        this.readPool = new ConnectionPool(database, Storage.Pool.READ_CONNECTIONS);
         this.mySQL = database instanceof MySQL;
         this.globalTasks = new ConcurrentLinkedQueue<>();
         this.notifyTasks = new ConcurrentLinkedQueue<>();
@@ -197,43 +219,53 @@ public class SQLManager implements AbstractDB {
         }
         TaskManager.runTaskAsync(() -> {
             long last = System.currentTimeMillis();
-            while (true) {
-                if (SQLManager.this.closed) {
-                    break;
+            while (!SQLManager.this.closed) {
+                if (!hasQueuedTasks()) {
+                    runNotifyTasks();
+                    awaitTasks();
+                    continue;
                 }
-                boolean hasTask =
-                    !globalTasks.isEmpty() || !playerTasks.isEmpty() || !plotTasks.isEmpty()
-                        || !clusterTasks.isEmpty();
-                if (hasTask) {
-                    if (SQLManager.this.mySQL && System.currentTimeMillis() - last > 550000
-                        || !isValid()) {
-                        last = System.currentTimeMillis();
-                        reconnect();
-                    }
-                    if (!sendBatch()) {
-                        try {
-                            if (!getNotifyTasks().isEmpty()) {
-                                for (Runnable task : getNotifyTasks()) {
-                                    TaskManager.runTask(task);
-                                }
-                                getNotifyTasks().clear();
-                            }
-                            Thread.sleep(50);
-                        } catch (InterruptedException e) {
-                            e.printStackTrace();
-                        }
-                    }
-                } else {
-                    try {
-                        Thread.sleep(1000);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
+                if (SQLManager.this.mySQL && System.currentTimeMillis() - last > 550000
+                    || !isValid()) {
+                    last = System.currentTimeMillis();
+                    reconnect();
                 }
+                sendBatch();
             }
         });
     }
 
+    private boolean hasQueuedTasks() {
+        return !this.globalTasks.isEmpty() || !this.playerTasks.isEmpty() || !this.plotTasks
+            .isEmpty() || !this.clusterTasks.isEmpty();
+    }
+
+    private void awaitTasks() {
+        synchronized (this.signal) {
+            while (!this.closed && !hasQueuedTasks() && this.notifyTasks.isEmpty()) {
+                try {
+                    this.signal.wait();
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void signal() {
+        synchronized (this.signal) {
+            this.signal.notifyAll();
+        }
+    }
+
+    private void runNotifyTasks() {
+        Runnable task;
+        while ((task = getNotifyTasks().poll()) != null) {
+            TaskManager.runTask(task);
+        }
+    }
+
     public boolean isValid() {
         try {
             if (connection.isClosed()) {
@@ -251,12 +283,16 @@ public class SQLManager implements AbstractDB {
     }
 
     public void reconnect() {
-        try {
-            close();
-            SQLManager.this.closed = false;
-            SQLManager.this.connection = database.forceConnection();
-        } catch (SQLException | ClassNotFoundException e) {
-            e.printStackTrace();
+        synchronized (this.writeLock) {
+            try {
+                try {
+                    this.connection.close();
+                } catch (SQLException ignored) {
+                }
+                this.connection = this.database.forceConnection();
+            } catch (SQLException | ClassNotFoundException e) {
+                e.printStackTrace();
+            }
         }
     }
 
@@ -293,6 +329,8 @@ public class SQLManager implements AbstractDB {
             };
         }
         tasks.add(task);
+        this.queueDepth.incrementAndGet();
+        signal();
     }
 
     public synchronized void addPlayerTask(UUID uuid, UniqueStatement task) {
@@ -323,6 +361,8 @@ public class SQLManager implements AbstractDB {
             };
         }
         tasks.add(task);
+        this.queueDepth.incrementAndGet();
+        signal();
     }
 
     public synchronized void addClusterTask(PlotCluster cluster, UniqueStatement task) {
@@ -350,212 +390,227 @@ public class SQLManager implements AbstractDB {
             };
         }
         tasks.add(task);
+        this.queueDepth.incrementAndGet();
+        signal();
     }
 
     public synchronized void addGlobalTask(Runnable task) {
         getGlobalTasks().add(task);
+        this.queueDepth.incrementAndGet();
+        signal();
     }
 
     public synchronized void addNotifyTask(Runnable task) {
         if (task != null) {
             getNotifyTasks().add(task);
+            signal();
         }
     }
 
+    /**
+     * Get the number of queued statements and tasks that have not yet been written
+     *
+     * @return Queue depth
+     */
+    public int getQueueDepth() {
+        return this.queueDepth.get();
+    }
+
+    /**
+     * Get the time spent writing and committing the most recent batch
+     *
+     * @return Latency in nanoseconds
+     */
+    public long getLastCommitLatency() {
+        return this.lastCommitNanos;
+    }
+
+    /**
+     * Get the longest time spent writing and committing a batch
+     *
+     * @return Latency in nanoseconds
+     */
+    public long getMaxCommitLatency() {
+        return this.maxCommitNanos;
+    }
+
+    /**
+     * Get the average time spent writing and committing a batch
+     *
+     * @return Latency in nanoseconds
+     */
+    public long getAverageCommitLatency() {
+        final long count = this.commitCount;
+        return count == 0 ? 0 : this.totalCommitNanos / count;
+    }
+
+    /**
+     * Get the number of batches that have been committed
+     *
+     * @return Commit count
+     */
+    public long getCommitCount() {
+        return this.commitCount;
+    }
+
+    /**
+     * Write all queued tasks and statements in a single transaction.
+     * <p>
+     * Statements queued for the same plot, player or cluster are executed in
+     * the order they were queued, and redundant writes to the same row are
+     * dropped. Statements with the same SQL are sent as one JDBC batch.
+     *
+     * @return true if anything was written
+     */
     public boolean sendBatch() {
-        try {
-            if (!getGlobalTasks().isEmpty()) {
+        synchronized (this.writeLock) {
+            final long start = System.nanoTime();
+            final List<Runnable> global = new ArrayList<>();
+            final List<StatementQueue> queues = new ArrayList<>();
+            int drained;
+            synchronized (this) {
+                Runnable runnable;
+                while ((runnable = this.globalTasks.poll()) != null) {
+                    global.add(runnable);
+                }
+                drained = global.size();
+                drained += drain("plot", this.plotTasks, queues);
+                drained += drain("player", this.playerTasks, queues);
+                drained += drain("cluster", this.clusterTasks, queues);
+            }
+            if (drained == 0) {
+                return false;
+            }
+            try {
                 if (this.connection.getAutoCommit()) {
                     this.connection.setAutoCommit(false);
                 }
-                Runnable task = getGlobalTasks().remove();
-                if (task != null) {
+                for (final Runnable task : global) {
                     try {
                         task.run();
                     } catch (Throwable e) {
-                        logger.error("============ DATABASE ERROR ============");
-                        logger.error("============ DATABASE ERROR ============");
-                        logger.error("There was an error updating the database.");
-                        logger.error(" - It will be corrected on shutdown");
-                        e.printStackTrace();
-                        logger.error("========================================");
+                        logDatabaseError(e);
                     }
                 }
-                commit();
-                return true;
-            }
-            int count = -1;
-            if (!this.plotTasks.isEmpty()) {
-                count = 0;
-                if (this.connection.getAutoCommit()) {
-                    this.connection.setAutoCommit(false);
+                if (!global.isEmpty()) {
+                    commit();
+                    if (!queues.isEmpty() && this.connection.getAutoCommit()) {
+                        this.connection.setAutoCommit(false);
+                    }
                 }
-                String method = null;
-                PreparedStatement statement = null;
-                UniqueStatement task = null;
-                UniqueStatement lastTask = null;
-                Iterator<Entry<Plot, Queue<UniqueStatement>>> iterator =
-                    this.plotTasks.entrySet().iterator();
-                while (iterator.hasNext()) {
-                    try {
-                        Entry<Plot, Queue<UniqueStatement>> entry = iterator.next();
-                        Plot plot = entry.getKey();
-                        Queue<UniqueStatement> tasks = entry.getValue();
-                        if (tasks.isEmpty()) {
-                            iterator.remove();
-                            continue;
-                        }
-                        task = tasks.remove();
-                        count++;
-                        if (task != null) {
-                            if (task.method == null || !task.method.equals(method)
-                                || statement == null) {
-                                if (statement != null) {
-                                    lastTask.execute(statement);
-                                    statement.close();
-                                }
-                                method = task.method;
-                                statement = task.get();
-                            }
-                            task.set(statement);
-                            task.addBatch(statement);
-                            try {
-                                if (statement.isClosed()) {
-                                    statement = null;
-                                }
-                            } catch (NullPointerException | AbstractMethodError ignore) {
-                            }
+                for (int round = 0; ; round++) {
+                    // Each queue contributes its n-th statement to the n-th round, which
+                    // keeps the order within a queue while batching across queues. Plots
+                    // and clusters share method names, so batches are keyed by source too.
+                    final Map<String, List<UniqueStatement>> batches = new LinkedHashMap<>();
+                    for (final StatementQueue queue : queues) {
+                        if (round < queue.statements.size()) {
+                            final UniqueStatement task = queue.statements.get(round);
+                            batches.computeIfAbsent(queue.source + ':' + task.method, key -> new ArrayList<>())
+                                .add(task);
                         }
-                        lastTask = task;
-                    } catch (Throwable e) {
-                        logger.error("============ DATABASE ERROR ============");
-                        logger.error("There was an error updating the database.");
-                        logger.error(" - It will be corrected on shutdown");
-                        logger.error("========================================");
-                        e.printStackTrace();
-                        logger.error("========================================");
+                    }
+                    if (batches.isEmpty()) {
+                        break;
+                    }
+                    for (final List<UniqueStatement> batch : batches.values()) {
+                        executeBatch(batch);
                     }
                 }
-                if (statement != null && task != null) {
-                    task.execute(statement);
-                    statement.close();
-                }
+                commit();
+            } catch (Throwable e) {
+                logDatabaseError(e);
+            } finally {
+                this.queueDepth.addAndGet(-drained);
+                final long elapsed = System.nanoTime() - start;
+                this.lastCommitNanos = elapsed;
+                this.maxCommitNanos = Math.max(this.maxCommitNanos, elapsed);
+                this.totalCommitNanos += elapsed;
+                this.commitCount++;
             }
-            if (!this.playerTasks.isEmpty()) {
-                count = 0;
-                if (this.connection.getAutoCommit()) {
-                    this.connection.setAutoCommit(false);
-                }
-                String method = null;
-                PreparedStatement statement = null;
-                UniqueStatement task = null;
-                UniqueStatement lastTask = null;
-                for (Entry<UUID, Queue<UniqueStatement>> entry : this.playerTasks.entrySet()) {
-                    try {
-                        UUID uuid = entry.getKey();
-                        if (this.playerTasks.get(uuid).isEmpty()) {
-                            this.playerTasks.remove(uuid);
-                            continue;
-                        }
-                        task = this.playerTasks.get(uuid).remove();
-                        count++;
-                        if (task != null) {
-                            if (task.method == null || !task.method.equals(method)) {
-                                if (statement != null) {
-                                    lastTask.execute(statement);
-                                    statement.close();
-                                }
-                                method = task.method;
-                                statement = task.get();
-                            }
-                            task.set(statement);
-                            task.addBatch(statement);
-                        }
-                        lastTask = task;
-                    } catch (Throwable e) {
-                        logger.error("============ DATABASE ERROR ============");
-                        logger.error("There was an error updating the database.");
-                        logger.error(" - It will be corrected on shutdown");
-                        logger.error("========================================");
-                        e.printStackTrace();
-                        logger.error("========================================");
+            return true;
+        }
+    }
+
+    /**
+     * Remove all queued statements from a task map, dropping statements that are
+     * superseded by a later statement with the same coalesce key.
+     *
+     * @return the number of statements that were removed from the map
+     */
+    private <T> int drain(@Nonnull final String source, @Nonnull final Map<T, Queue<UniqueStatement>> tasks,
+        @Nonnull final List<StatementQueue> queues) {
+        int drained = 0;
+        final Iterator<Queue<UniqueStatement>> iterator = tasks.values().iterator();
+        while (iterator.hasNext()) {
+            final Queue<UniqueStatement> queue = iterator.next();
+            iterator.remove();
+            final List<UniqueStatement> statements = new ArrayList<>(queue.size());
+            final Map<String, Integer> latest = new HashMap<>();
+            UniqueStatement task;
+            while ((task = queue.poll()) != null) {
+                drained++;
+                if (task.coalesceKey == null) {
+                    // Statements without a key may depend on any earlier write
+                    latest.clear();
+                } else {
+                    final Integer previous = latest.put(task.coalesceKey, statements.size());
+                    if (previous != null) {
+                        statements.set(previous, null);
                     }
                 }
-                if (statement != null && task != null) {
-                    task.execute(statement);
-                    statement.close();
-                }
+                statements.add(task);
             }
-            if (!this.clusterTasks.isEmpty()) {
-                count = 0;
-                if (this.connection.getAutoCommit()) {
-                    this.connection.setAutoCommit(false);
+            statements.removeIf(Objects::isNull);
+            if (!statements.isEmpty()) {
+                queues.add(new StatementQueue(source, statements));
+            }
+        }
+        return drained;
+    }
+
+    private void executeBatch(@Nonnull final List<UniqueStatement> batch) {
+        PreparedStatement statement = null;
+        UniqueStatement lastTask = null;
+        for (final UniqueStatement task : batch) {
+            try {
+                if (statement == null) {
+                    statement = task.get();
                 }
-                String method = null;
-                PreparedStatement statement = null;
-                UniqueStatement task = null;
-                UniqueStatement lastTask = null;
-                for (Entry<PlotCluster, Queue<UniqueStatement>> entry : this.clusterTasks
-                    .entrySet()) {
-                    try {
-                        PlotCluster cluster = entry.getKey();
-                        if (this.clusterTasks.get(cluster).isEmpty()) {
-                            this.clusterTasks.remove(cluster);
-                            continue;
-                        }
-                        task = this.clusterTasks.get(cluster).remove();
-                        count++;
-                        if (task != null) {
-                            if (task.method == null || !task.method.equals(method)) {
-                                if (statement != null) {
-                                    lastTask.execute(statement);
-                                    statement.close();
-                                }
-                                method = task.method;
-                                statement = task.get();
-                            }
-                            task.set(statement);
-                            task.addBatch(statement);
-                        }
-                        lastTask = task;
-                    } catch (Throwable e) {
-                        logger.error("============ DATABASE ERROR ============");
-                        logger.error("There was an error updating the database.");
-                        logger.error(" - It will be corrected on shutdown");
-                        logger.error("========================================");
-                        e.printStackTrace();
-                        logger.error("========================================");
+                lastTask = task;
+                task.set(statement);
+                task.addBatch(statement);
+                try {
+                    if (statement != null && statement.isClosed()) {
+                        statement = null;
                     }
+                } catch (AbstractMethodError ignore) {
                 }
-                if (statement != null && task != null) {
-                    task.execute(statement);
-                    statement.close();
-                }
-            }
-            if (count > 0) {
-                commit();
-                return true;
+            } catch (Throwable e) {
+                logDatabaseError(e);
             }
-            if (count != -1) {
-                if (!this.connection.getAutoCommit()) {
-                    this.connection.setAutoCommit(true);
+        }
+        if (statement != null) {
+            try {
+                lastTask.execute(statement);
+            } catch (Throwable e) {
+                logDatabaseError(e);
+            } finally {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
                 }
             }
-            if (!this.clusterTasks.isEmpty()) {
-                this.clusterTasks.clear();
-            }
-            if (!this.plotTasks.isEmpty()) {
-                this.plotTasks.clear();
-            }
-        } catch (Throwable e) {
-            logger.error("============ DATABASE ERROR ============");
-            logger.error("There was an error updating the database.");
-            logger.error(" - It will be corrected on shutdown");
-            logger.error("========================================");
-            e.printStackTrace();
-            logger.error("========================================");
         }
-        return false;
+    }
+
+    private void logDatabaseError(@Nonnull final Throwable e) {
+        logger.error("============ DATABASE ERROR ============");
+        logger.error("There was an error updating the database.");
+        logger.error(" - It will be corrected on shutdown");
+        logger.error("========================================");
+        e.printStackTrace();
+        logger.error("========================================");
     }
 
     public Connection getConnection() {
@@ -569,7 +624,7 @@ public class SQLManager implements AbstractDB {
      * @param uuid Owner UUID
      */
     @Override public void setOwner(final Plot plot, final UUID uuid) {
-        addPlotTask(plot, new UniqueStatement("setOwner") {
+        addPlotTask(plot, new UniqueStatement("setOwner", "owner") {
             @Override public void set(PreparedStatement statement) throws SQLException {
                 statement.setString(1, uuid.toString());
                 statement.setInt(2, plot.getId().getX());
@@ -1071,13 +1126,15 @@ public class SQLManager implements AbstractDB {
         if (this.closed) {
             return;
         }
-        try {
-            if (!this.connection.getAutoCommit()) {
-                this.connection.commit();
-                this.connection.setAutoCommit(true);
+        synchronized (this.writeLock) {
+            try {
+                if (!this.connection.getAutoCommit()) {
+                    this.connection.commit();
+                    this.connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
     }
 
@@ -1427,26 +1484,10 @@ public class SQLManager implements AbstractDB {
             return cluster.temp;
         }
         try {
-            commit();
-            if (cluster.temp > 0) {
-                return cluster.temp;
-            }
-            int c_id;
-            try (PreparedStatement stmt = this.connection.prepareStatement(
-                "SELECT `id` FROM `" + this.prefix
-                    + "cluster` WHERE `pos1_x` = ? AND `pos1_z` = ? AND `pos2_x` = ? AND `pos2_z` = ? AND `world` = ? ORDER BY `timestamp` ASC")) {
-                stmt.setInt(1, cluster.getP1().getX());
-                stmt.setInt(2, cluster.getP1().getY());
-                stmt.setInt(3, cluster.getP2().getX());
-                stmt.setInt(4, cluster.getP2().getY());
-                stmt.setString(5, cluster.area.toString());
-                try (ResultSet resultSet = stmt.executeQuery()) {
-                    c_id = Integer.MAX_VALUE;
-                    while (resultSet.next()) {
-                        c_id = resultSet.getInt("id");
-                    }
-                }
-            }
+            final int c_id = selectId("SELECT `id` FROM `" + this.prefix
+                    + "cluster` WHERE `pos1_x` = ? AND `pos1_z` = ? AND `pos2_x` = ? AND `pos2_z` = ? AND `world` = ? ORDER BY `timestamp` ASC",
+                cluster.getP1().getX(), cluster.getP1().getY(), cluster.getP2().getX(), cluster.getP2().getY(),
+                cluster.area.toString());
             if (c_id == Integer.MAX_VALUE || c_id == 0) {
                 if (cluster.temp > 0) {
                     return cluster.temp;
@@ -1466,24 +1507,9 @@ public class SQLManager implements AbstractDB {
             return plot.temp;
         }
         try {
-            commit();
-            if (plot.temp > 0) {
-                return plot.temp;
-            }
-            int id;
-            try (PreparedStatement statement = this.connection.prepareStatement(
-                "SELECT `id` FROM `" + this.prefix
-                    + "plot` WHERE `plot_id_x` = ? AND `plot_id_z` = ? AND world = ? ORDER BY `timestamp` ASC")) {
-                statement.setInt(1, plot.getId().getX());
-                statement.setInt(2, plot.getId().getY());
-                statement.setString(3, plot.getArea().toString());
-                try (ResultSet resultSet = statement.executeQuery()) {
-                    id = Integer.MAX_VALUE;
-                    while (resultSet.next()) {
-                        id = resultSet.getInt("id");
-                    }
-                }
-            }
+            final int id = selectId("SELECT `id` FROM `" + this.prefix
+                    + "plot` WHERE `plot_id_x` = ? AND `plot_id_z` = ? AND world = ? ORDER BY `timestamp` ASC",
+                plot.getId().getX(), plot.getId().getY(), plot.getArea().toString());
             if (id == Integer.MAX_VALUE || id == 0) {
                 if (plot.temp > 0) {
                     return plot.temp;
@@ -1498,6 +1524,50 @@ public class SQLManager implements AbstractDB {
         return Integer.MAX_VALUE;
     }
 
+    /**
+     * Select the last id returned by a query. Rows inserted by a batch that has
+     * not been committed yet are only visible to the write connection, so if the
+     * id isn't found through the read pool, the query is repeated on the write
+     * connection once the current batch is done.
+     *
+     * @param query      Query selecting an {@code id} column
+     * @param parameters Query parameters
+     * @return the id, or {@link Integer#MAX_VALUE} if no row matched
+     * @throws SQLException if the query failed
+     */
+    private int selectId(@Nonnull final String query, @Nonnull final Object... parameters) throws SQLException {
+        if (!Thread.holdsLock(this.writeLock)) {
+            final Connection connection = this.readPool.borrow();
+            try {
+                final int id = selectId(connection, query, parameters);
+                if (id != Integer.MAX_VALUE && id != 0) {
+                    return id;
+                }
+            } finally {
+                this.readPool.release(connection);
+            }
+        }
+        synchronized (this.writeLock) {
+            return selectId(this.connection, query, parameters);
+        }
+    }
+
+    private static int selectId(@Nonnull final Connection connection, @Nonnull final String query,
+        @Nonnull final Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                int id = Integer.MAX_VALUE;
+                while (resultSet.next()) {
+                    id = resultSet.getInt("id");
+                }
+                return id;
+            }
+        }
+    }
+
     @Override public void updateTables(int[] oldVersion) {
         try {
             if (this.mySQL && !PlotSquared.get().checkVersion(oldVersion, 3, 3, 2)) {
@@ -1707,6 +1777,7 @@ public class SQLManager implements AbstractDB {
      * Load all plots, helpers, denied, trusted, and every setting from DB into a {@link HashMap}.
      */
     @Override public HashMap<String, HashMap<PlotId, Plot>> getPlots() {
+        final long start = System.currentTimeMillis();
         HashMap<String, HashMap<PlotId, Plot>> newPlots = new HashMap<>();
         HashMap<Integer, Plot> plots = new HashMap<>();
         try {
@@ -1731,11 +1802,14 @@ public class SQLManager implements AbstractDB {
             }
             HashMap<String, UUID> uuids = new HashMap<>();
             HashMap<String, AtomicInteger> noExist = new HashMap<>();
+            final Map<String, Long> timings = new LinkedHashMap<>();
 
             /*
              * Getting plots
              */
-            try (Statement statement = this.connection.createStatement()) {
+            try (Statement statement = this.connection
+                .createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(getFetchSize());
                 int id;
                 String o;
                 UUID user;
@@ -1816,210 +1890,174 @@ public class SQLManager implements AbstractDB {
                     }
                     deleteRows(toDelete, this.prefix + "plot", "id");
                 }
-                if (Settings.Enabled_Components.RATING_CACHE) {
-                    try (ResultSet r = statement.executeQuery(
-                        "SELECT `plot_plot_id`, `player`, `rating` FROM `" + this.prefix
-                            + "plot_rating`")) {
-                        ArrayList<Integer> toDelete = new ArrayList<>();
-                        while (r.next()) {
-                            id = r.getInt("plot_plot_id");
-                            o = r.getString("player");
-                            user = uuids.get(o);
-                            if (user == null) {
-                                user = UUID.fromString(o);
-                                uuids.put(o, user);
-                            }
-                            Plot plot = plots.get(id);
-                            if (plot != null) {
-                                plot.getSettings().getRatings().put(user, r.getInt("rating"));
-                            } else if (Settings.Enabled_Components.DATABASE_PURGER) {
-                                toDelete.add(id);
-                            } else if (Settings.DEBUG) {
-                                logger.info("Entry #{}({}) in `plot_rating` does not exist."
-                                    + " Create this plot or set `database-purger: true` in settings.yml", id, plot);
-                            }
+            }
+            timings.put("plot", System.currentTimeMillis() - start);
+
+            /*
+             * The remaining tables only attach data to the plots loaded above. Each table
+             * is streamed on its own connection, and every table writes to different fields
+             * of the plots, so they can be loaded in parallel.
+             */
+            final List<ChildTable> tables = new ArrayList<>();
+            if (Settings.Enabled_Components.RATING_CACHE) {
+                tables.add(new ChildTable("plot_rating", "plot_plot_id",
+                    "SELECT `plot_plot_id`, `player`, `rating` FROM `" + this.prefix + "plot_rating`") {
+                    @Override boolean load(ResultSet r, Map<Integer, Plot> plots) throws SQLException {
+                        Plot plot = plots.get(r.getInt("plot_plot_id"));
+                        if (plot == null) {
+                            return false;
                         }
-                        deleteRows(toDelete, this.prefix + "plot_rating", "plot_plot_id");
+                        plot.getSettings().getRatings().put(getUUID(r.getString("player")), r.getInt("rating"));
+                        plot.getSettings().invalidateRatings();
+                        PlotRatingIndex.get().update(plot);
+                        return true;
+                    }
+                });
+            }
+            tables.add(new ChildTable("plot_helpers", "plot_plot_id",
+                "SELECT `user_uuid`, `plot_plot_id` FROM `" + this.prefix + "plot_helpers`") {
+                @Override boolean load(ResultSet r, Map<Integer, Plot> plots) throws SQLException {
+                    Plot plot = plots.get(r.getInt("plot_plot_id"));
+                    if (plot == null) {
+                        return false;
                     }
+                    plot.getTrusted().add(getUUID(r.getString("user_uuid")));
+                    return true;
                 }
-
-                /*
-                 * Getting helpers
-                 */
-                try (ResultSet r = statement.executeQuery(
-                    "SELECT `user_uuid`, `plot_plot_id` FROM `" + this.prefix + "plot_helpers`")) {
-                    ArrayList<Integer> toDelete = new ArrayList<>();
-                    while (r.next()) {
-                        id = r.getInt("plot_plot_id");
-                        o = r.getString("user_uuid");
-                        user = uuids.get(o);
-                        if (user == null) {
-                            user = UUID.fromString(o);
-                            uuids.put(o, user);
-                        }
-                        Plot plot = plots.get(id);
-                        if (plot != null) {
-                            plot.getTrusted().add(user);
-                        } else if (Settings.Enabled_Components.DATABASE_PURGER) {
-                            toDelete.add(id);
-                        } else if (Settings.DEBUG) {
-                            logger.info("Entry #{}({}) in `plot_helpers` does not exist."
-                                + " Create this plot or set `database-purger: true` in settings.yml", id, plot);
-                        }
+            });
+            tables.add(new ChildTable("plot_trusted", "plot_plot_id",
+                "SELECT `user_uuid`, `plot_plot_id` FROM `" + this.prefix + "plot_trusted`") {
+                @Override boolean load(ResultSet r, Map<Integer, Plot> plots) throws SQLException {
+                    Plot plot = plots.get(r.getInt("plot_plot_id"));
+                    if (plot == null) {
+                        return false;
                     }
-                    deleteRows(toDelete, this.prefix + "plot_helpers", "plot_plot_id");
+                    plot.getMembers().add(getUUID(r.getString("user_uuid")));
+                    return true;
                 }
-
-                /*
-                 * Getting trusted
-                 */
-                try (ResultSet r = statement.executeQuery(
-                    "SELECT `user_uuid`, `plot_plot_id` FROM `" + this.prefix + "plot_trusted`")) {
-                    ArrayList<Integer> toDelete = new ArrayList<>();
-                    while (r.next()) {
-                        id = r.getInt("plot_plot_id");
-                        o = r.getString("user_uuid");
-                        user = uuids.get(o);
-                        if (user == null) {
-                            user = UUID.fromString(o);
-                            uuids.put(o, user);
-                        }
-                        Plot plot = plots.get(id);
-                        if (plot != null) {
-                            plot.getMembers().add(user);
-                        } else if (Settings.Enabled_Components.DATABASE_PURGER) {
-                            toDelete.add(id);
-                        } else if (Settings.DEBUG) {
-                            logger.info("Entry #{}({}) in `plot_trusted` does not exist."
-                                + " Create this plot or set `database-purger: true` in settings.yml", id, plot);
-                        }
+            });
+            tables.add(new ChildTable("plot_denied", "plot_plot_id",
+                "SELECT `user_uuid`, `plot_plot_id` FROM `" + this.prefix + "plot_denied`") {
+                @Override boolean load(ResultSet r, Map<Integer, Plot> plots) throws SQLException {
+                    Plot plot = plots.get(r.getInt("plot_plot_id"));
+                    if (plot == null) {
+                        return false;
                     }
-                    deleteRows(toDelete, this.prefix + "plot_trusted", "plot_plot_id");
+                    plot.getDenied().add(getUUID(r.getString("user_uuid")));
+                    return true;
                 }
-
-                /*
-                 * Getting denied
-                 */
-                try (ResultSet r = statement.executeQuery(
-                    "SELECT `user_uuid`, `plot_plot_id` FROM `" + this.prefix + "plot_denied`")) {
-                    ArrayList<Integer> toDelete = new ArrayList<>();
-                    while (r.next()) {
-                        id = r.getInt("plot_plot_id");
-                        o = r.getString("user_uuid");
-                        user = uuids.get(o);
-                        if (user == null) {
-                            user = UUID.fromString(o);
-                            uuids.put(o, user);
-                        }
-                        Plot plot = plots.get(id);
-                        if (plot != null) {
-                            plot.getDenied().add(user);
-                        } else if (Settings.Enabled_Components.DATABASE_PURGER) {
-                            toDelete.add(id);
-                        } else if (Settings.DEBUG) {
-                            logger.info("Entry #{}({}) in `plot_denied` does not exist."
-                                + " Create this plot or set `database-purger: true` in settings.yml", id, plot);
+            });
+            final Map<Plot, Collection<PlotFlag<?, ?>>> invalidFlags = new HashMap<>();
+            tables.add(new ChildTable("plot_flags", "plot_id", "SELECT * FROM `" + this.prefix + "plot_flags`") {
+                @Override boolean load(ResultSet resultSet, Map<Integer, Plot> plots) throws SQLException {
+                    final int id = resultSet.getInt("plot_id");
+                    final Plot plot = plots.get(id);
+                    if (plot == null) {
+                        return false;
+                    }
+                    final String flag = resultSet.getString("flag");
+                    final String value = resultSet.getString("value");
+                    final PlotFlag<?, ?> plotFlag = GlobalFlagContainer.getInstance().getFlagFromString(flag);
+                    if (plotFlag == null) {
+                        plot.getFlagContainer().addUnknownFlag(flag, value);
+                    } else {
+                        try {
+                            plot.getFlagContainer().addFlag(plotFlag.parse(value));
+                        } catch (final FlagParseException e) {
+                            e.printStackTrace();
+                            logger.error("Plot with ID {} has an invalid value:", id);
+                            logger.error("Failed to parse flag '{}', value '{}': {}",
+                                plotFlag.getName(), e.getValue(), e.getErrorMessage());
+                            invalidFlags.computeIfAbsent(plot, k -> new ArrayList<>()).add(plotFlag);
                         }
                     }
-                    deleteRows(toDelete, this.prefix + "plot_denied", "plot_plot_id");
+                    return true;
                 }
-
-                try (final ResultSet resultSet = statement
-                    .executeQuery("SELECT * FROM `" + this.prefix + "plot_flags`")) {
-                    BlockTypeListFlag.skipCategoryVerification =
-                        true; // allow invalid tags, as initialized lazily
-                    final ArrayList<Integer> toDelete = new ArrayList<>();
-                    final Map<Plot, Collection<PlotFlag<?, ?>>> invalidFlags = new HashMap<>();
-                    while (resultSet.next()) {
-                        id = resultSet.getInt("plot_id");
-                        final String flag = resultSet.getString("flag");
-                        final String value = resultSet.getString("value");
-                        final Plot plot = plots.get(id);
-                        if (plot != null) {
-                            final PlotFlag<?, ?> plotFlag =
-                                GlobalFlagContainer.getInstance().getFlagFromString(flag);
-                            if (plotFlag == null) {
-                                plot.getFlagContainer().addUnknownFlag(flag, value);
-                            } else {
-                                try {
-                                    plot.getFlagContainer().addFlag(plotFlag.parse(value));
-                                } catch (final FlagParseException e) {
-                                    e.printStackTrace();
-                                    logger.error("Plot with ID {} has an invalid value:", id);
-                                    logger.error("Failed to parse flag '{}', value '{}': {}",
-                                        plotFlag.getName(), e.getValue(), e.getErrorMessage());
-                                    if (!invalidFlags.containsKey(plot)) {
-                                        invalidFlags.put(plot, new ArrayList<>());
-                                    }
-                                    invalidFlags.get(plot).add(plotFlag);
-                                }
-                            }
-                        } else if (Settings.Enabled_Components.DATABASE_PURGER) {
-                            toDelete.add(id);
-                        } else if (Settings.DEBUG) {
-                            logger.info("Entry #{}({}) in `plot_flags` does not exist."
-                                + " Create this plot or set `database-purger: true` in settings.yml", id, plot);
-                        }
+            });
+            final Set<Integer> withSettings = new HashSet<>();
+            tables.add(new ChildTable("plot_settings", "plot_plot_id", "SELECT * FROM `" + this.prefix + "plot_settings`") {
+                @Override boolean load(ResultSet resultSet, Map<Integer, Plot> plots) throws SQLException {
+                    final int id = resultSet.getInt("plot_plot_id");
+                    final Plot plot = plots.get(id);
+                    if (plot == null) {
+                        return false;
                     }
-                    BlockTypeListFlag.skipCategoryVerification =
-                        false; // don't allow invalid tags anymore
-                    if (Settings.Enabled_Components.DATABASE_PURGER) {
-                        for (final Map.Entry<Plot, Collection<PlotFlag<?, ?>>> plotFlagEntry : invalidFlags
-                            .entrySet()) {
-                            for (final PlotFlag<?, ?> flag : plotFlagEntry.getValue()) {
-                                if (Settings.DEBUG) {
-                                    logger.info(
-                                        "Plot {} has an invalid flag ({}). A fix has been attempted",
-                                        plotFlagEntry.getKey(), flag.getName());
-                                }
-                                removeFlag(plotFlagEntry.getKey(), flag);
+                    withSettings.add(id);
+                    String alias = resultSet.getString("alias");
+                    if (alias != null) {
+                        plot.getSettings().setAlias(alias);
+                    }
+                    String pos = resultSet.getString("position");
+                    switch (pos.toLowerCase()) {
+                        case "":
+                        case "default":
+                        case "0,0,0":
+                        case "center":
+                            break;
+                        default:
+                            try {
+                                plot.getSettings().setPosition(BlockLoc.fromString(pos));
+                            } catch (Exception ignored) {
                             }
-                        }
                     }
-                    deleteRows(toDelete, this.prefix + "plot_flags", "plot_id");
+                    int m = resultSet.getInt("merged");
+                    boolean[] merged = new boolean[4];
+                    for (int i = 0; i < 4; i++) {
+                        merged[3 - i] = (m & 1 << i) != 0;
+                    }
+                    plot.getSettings().setMerged(merged);
+                    return true;
                 }
+            });
 
-                try (ResultSet resultSet = statement
-                    .executeQuery("SELECT * FROM `" + this.prefix + "plot_settings`")) {
-                    ArrayList<Integer> toDelete = new ArrayList<>();
-                    while (resultSet.next()) {
-                        id = resultSet.getInt("plot_plot_id");
-                        Plot plot = plots.get(id);
-                        if (plot != null) {
-                            plots.remove(id);
-                            String alias = resultSet.getString("alias");
-                            if (alias != null) {
-                                plot.getSettings().setAlias(alias);
-                            }
-                            String pos = resultSet.getString("position");
-                            switch (pos.toLowerCase()) {
-                                case "":
-                                case "default":
-                                case "0,0,0":
-                                case "center":
-                                    break;
-                                default:
-                                    try {
-                                        plot.getSettings().setPosition(BlockLoc.fromString(pos));
-                                    } catch (Exception ignored) {
-                                    }
-                            }
-                            int m = resultSet.getInt("merged");
-                            boolean[] merged = new boolean[4];
-                            for (int i = 0; i < 4; i++) {
-                                merged[3 - i] = (m & 1 << i) != 0;
-                            }
-                            plot.getSettings().setMerged(merged);
-                        } else if (Settings.Enabled_Components.DATABASE_PURGER) {
-                            toDelete.add(id);
-                        } else if (Settings.DEBUG) {
-                            logger.info("Entry #{}({}) in `plot_settings` does not exist."
-                                + " Create this plot or set `database-purger: true` in settings.yml", id, plot);
+            BlockTypeListFlag.skipCategoryVerification = true; // allow invalid tags, as initialized lazily
+            final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(tables.size(), Runtime.getRuntime().availableProcessors())));
+            try {
+                final List<Future<?>> futures = new ArrayList<>(tables.size());
+                for (final ChildTable table : tables) {
+                    futures.add(executor.submit(() -> {
+                        table.stream(plots);
+                        return null;
+                    }));
+                }
+                for (int i = 0; i < tables.size(); i++) {
+                    try {
+                        futures.get(i).get();
+                    } catch (final ExecutionException e) {
+                        // Plots must not be loaded without their settings, or their
+                        // trusted and denied players
+                        throw new SQLException("Failed to load table `" + this.prefix + tables.get(i).table + "`",
+                            e.getCause());
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while loading plots", e);
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+                BlockTypeListFlag.skipCategoryVerification = false; // don't allow invalid tags anymore
+            }
+
+            // Deletion shares the main connection, so it is done once all tables have been read
+            for (final ChildTable table : tables) {
+                timings.put(table.table, table.millis);
+                deleteRows(table.toDelete, this.prefix + table.table, table.column);
+            }
+            if (Settings.Enabled_Components.DATABASE_PURGER) {
+                for (final Map.Entry<Plot, Collection<PlotFlag<?, ?>>> plotFlagEntry : invalidFlags
+                    .entrySet()) {
+                    for (final PlotFlag<?, ?> flag : plotFlagEntry.getValue()) {
+                        if (Settings.DEBUG) {
+                            logger.info(
+                                "Plot {} has an invalid flag ({}). A fix has been attempted",
+                                plotFlagEntry.getKey(), flag.getName());
                         }
+                        removeFlag(plotFlagEntry.getKey(), flag);
                     }
-                    deleteRows(toDelete, this.prefix + "plot_settings", "plot_plot_id");
                 }
             }
+            plots.keySet().removeAll(withSettings);
             if (!plots.entrySet().isEmpty()) {
                 createEmptySettings(new ArrayList<>(plots.keySet()), null);
                 for (Entry<Integer, Plot> entry : plots.entrySet()) {
@@ -2038,15 +2076,85 @@ public class SQLManager implements AbstractDB {
             if (invalidPlot && Settings.DEBUG) {
                 logger.info("Warning! Please create the world(s) or remove the plots using the purge command");
             }
+            final StringBuilder phases = new StringBuilder();
+            for (final Map.Entry<String, Long> timing : timings.entrySet()) {
+                if (phases.length() > 0) {
+                    phases.append(", ");
+                }
+                phases.append(timing.getKey()).append(": ").append(timing.getValue()).append("ms");
+            }
+            logger.info("Loaded plots from the database in {}ms ({})", System.currentTimeMillis() - start, phases);
         } catch (SQLException e) {
             logger.error("Failed to load plots", e);
         }
         return newPlots;
     }
 
+    /**
+     * Get the fetch size used when streaming whole tables. MySQL only streams
+     * results when the fetch size is {@link Integer#MIN_VALUE}.
+     */
+    private int getFetchSize() {
+        return this.mySQL ? Integer.MIN_VALUE : 1000;
+    }
+
+    /**
+     * A table with rows that belong to a plot, loaded by {@link #getPlots()}
+     */
+    private abstract class ChildTable {
+
+        private final String table;
+        private final String column;
+        private final String query;
+        private final ArrayList<Integer> toDelete = new ArrayList<>();
+        private final Map<String, UUID> uuids = new HashMap<>();
+        private volatile long millis;
+
+        private ChildTable(@Nonnull final String table, @Nonnull final String column, @Nonnull final String query) {
+            this.table = table;
+            this.column = column;
+            this.query = query;
+        }
+
+        /**
+         * Attach a row to its plot
+         *
+         * @return false if the plot the row belongs to does not exist
+         */
+        abstract boolean load(ResultSet resultSet, Map<Integer, Plot> plots) throws SQLException;
+
+        @Nonnull final UUID getUUID(@Nonnull final String string) {
+            return this.uuids.computeIfAbsent(string, UUID::fromString);
+        }
+
+        private void stream(@Nonnull final Map<Integer, Plot> plots) throws SQLException, ClassNotFoundException {
+            final long start = System.currentTimeMillis();
+            try (Connection connection = SQLManager.this.database.createConnection();
+                 Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(getFetchSize());
+                try (ResultSet resultSet = statement.executeQuery(this.query)) {
+                    while (resultSet.next()) {
+                        if (this.load(resultSet, plots)) {
+                            continue;
+                        }
+                        final int id = resultSet.getInt(this.column);
+                        if (Settings.Enabled_Components.DATABASE_PURGER) {
+                            this.toDelete.add(id);
+                        } else if (Settings.DEBUG) {
+                            logger.info("Entry #{} in `{}` does not exist."
+                                + " Create this plot or set `database-purger: true` in settings.yml", id, this.table);
+                        }
+                    }
+                }
+            }
+            this.millis = System.currentTimeMillis() - start;
+        }
+
+    }
+
     @Override public void setMerged(final Plot plot, final boolean[] merged) {
         plot.getSettings().setMerged(merged);
-        addPlotTask(plot, new UniqueStatement("setMerged") {
+        addPlotTask(plot, new UniqueStatement("setMerged", "merged") {
             @Override public void set(PreparedStatement statement) throws SQLException {
                 int hash = HashUtil.hash(merged);
                 statement.setInt(1, hash);
@@ -2109,7 +2217,7 @@ public class SQLManager implements AbstractDB {
     }
 
     @Override public void setFlag(final Plot plot, final PlotFlag<?, ?> flag) {
-        addPlotTask(plot, new UniqueStatement("setFlag") {
+        addPlotTask(plot, new UniqueStatement("setFlag", "flag_" + flag.getName()) {
             @Override public void set(PreparedStatement statement) throws SQLException {
                 statement.setInt(1, getId(plot));
                 statement.setString(2, flag.getName());
@@ -2134,7 +2242,7 @@ public class SQLManager implements AbstractDB {
     }
 
     @Override public void removeFlag(final Plot plot, final PlotFlag<?, ?> flag) {
-        addPlotTask(plot, new UniqueStatement("removeFlag") {
+        addPlotTask(plot, new UniqueStatement("removeFlag", "flag_" + flag.getName()) {
             @Override public void set(PreparedStatement statement) throws SQLException {
                 statement.setInt(1, getId(plot));
                 statement.setString(2, flag.getName());
@@ -2149,7 +2257,7 @@ public class SQLManager implements AbstractDB {
     }
 
     @Override public void setAlias(final Plot plot, final String alias) {
-        addPlotTask(plot, new UniqueStatement("setAlias") {
+        addPlotTask(plot, new UniqueStatement("setAlias", "alias") {
             @Override public void set(PreparedStatement statement) throws SQLException {
                 statement.setString(1, alias);
                 statement.setInt(2, getId(plot));
@@ -2265,7 +2373,7 @@ public class SQLManager implements AbstractDB {
     }
 
     @Override public void setPosition(final Plot plot, final String position) {
-        addPlotTask(plot, new UniqueStatement("setPosition") {
+        addPlotTask(plot, new UniqueStatement("setPosition", "position") {
             @Override public void set(PreparedStatement statement) throws SQLException {
                 statement.setString(1, position == null ? "" : position);
                 statement.setInt(2, getId(plot));
@@ -2497,20 +2605,29 @@ public class SQLManager implements AbstractDB {
 
     @Override public HashMap<UUID, Integer> getRatings(Plot plot) {
         HashMap<UUID, Integer> map = new HashMap<>();
-        try (PreparedStatement statement = this.connection.prepareStatement(
-            "SELECT `rating`, `player` FROM `" + this.prefix
-                + "plot_rating` WHERE `plot_plot_id` = ? ")) {
-            statement.setInt(1, getId(plot));
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    UUID uuid = UUID.fromString(resultSet.getString("player"));
-                    int rating = resultSet.getInt("rating");
-                    map.put(uuid, rating);
+        final int id = getId(plot);
+        Connection connection = null;
+        try {
+            connection = this.readPool.borrow();
+            try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT `rating`, `player` FROM `" + this.prefix
+                    + "plot_rating` WHERE `plot_plot_id` = ? ")) {
+                statement.setInt(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        UUID uuid = UUID.fromString(resultSet.getString("player"));
+                        int rating = resultSet.getInt("rating");
+                        map.put(uuid, rating);
+                    }
                 }
             }
         } catch (SQLException e) {
             logger.error("Failed to fetch rating for plot {}", plot.getId().toString());
             e.printStackTrace();
+        } finally {
+            if (connection != null) {
+                this.readPool.release(connection);
+            }
         }
         return map;
     }
@@ -2581,7 +2698,7 @@ public class SQLManager implements AbstractDB {
     @Override
     public void addPersistentMeta(final UUID uuid, final String key, final byte[] meta,
         final boolean replace) {
-        addPlayerTask(uuid, new UniqueStatement("addPersistentMeta") {
+        addPlayerTask(uuid, new UniqueStatement("addPersistentMeta", replace ? "meta_" + key : null) {
             @Override public void set(PreparedStatement statement) throws SQLException {
                 if (replace) {
                     statement.setBytes(1, meta);
@@ -2805,7 +2922,7 @@ public class SQLManager implements AbstractDB {
     }
 
     @Override public void setClusterName(final PlotCluster cluster, final String name) {
-        addClusterTask(cluster, new UniqueStatement("setClusterName") {
+        addClusterTask(cluster, new UniqueStatement("setClusterName", "name") {
             @Override public void set(PreparedStatement statement) throws SQLException {
                 statement.setString(1, name);
                 statement.setInt(2, getClusterId(cluster));
@@ -2917,7 +3034,7 @@ public class SQLManager implements AbstractDB {
     }
 
     @Override public void setPosition(final PlotCluster cluster, final String position) {
-        addClusterTask(cluster, new UniqueStatement("setPosition") {
+        addClusterTask(cluster, new UniqueStatement("setPosition", "position") {
             @Override public void set(PreparedStatement statement) throws SQLException {
                 statement.setString(1, position);
                 statement.setInt(2, getClusterId(cluster));
@@ -2965,8 +3082,7 @@ public class SQLManager implements AbstractDB {
         try (Statement stmt = this.connection.createStatement();
             PreparedStatement statement = this.connection
                 .prepareStatement("DROP TABLE `" + this.prefix + "plot`")) {
-            close();
-            this.closed = false;
+            this.connection.close();
             SQLManager.this.connection = this.database.forceConnection();
             stmt.addBatch("DROP TABLE `" + this.prefix + "cluster_invited`");
             stmt.addBatch("DROP TABLE `" + this.prefix + "cluster_helpers`");
@@ -3198,6 +3314,8 @@ public class SQLManager implements AbstractDB {
     @Override public void close() {
         try {
             this.closed = true;
+            signal();
+            this.readPool.close();
             this.connection.close();
         } catch (SQLException e) {
             e.printStackTrace();
@@ -3207,9 +3325,20 @@ public class SQLManager implements AbstractDB {
     public abstract class UniqueStatement {
 
         public final String method;
+        /**
+         * Identifies the value written by this statement. A queued statement is
+         * dropped when a later statement with the same key is queued for the same
+         * plot, player or cluster, unless a statement without a key is queued in between.
+         */
+        public final String coalesceKey;
 
         public UniqueStatement(String method) {
+            this(method, null);
+        }
+
+        public UniqueStatement(String method, String coalesceKey) {
             this.method = method;
+            this.coalesceKey = coalesceKey;
         }
 
         public void addBatch(PreparedStatement statement) throws SQLException {
@@ -3226,6 +3355,21 @@ public class SQLManager implements AbstractDB {
     }
 
 
+    /**
+     * Statements drained from the queue of one plot, player or cluster
+     */
+    private static final class StatementQueue {
+
+        private final String source;
+        private final List<UniqueStatement> statements;
+
+        private StatementQueue(@Nonnull final String source, @Nonnull final List<UniqueStatement> statements) {
+            this.source = source;
+            this.statements = statements;
+        }
+
+    }
+
     private class UUIDPair {
 
         public final int id;
@@ -43,6 +43,10 @@ import java.sql.Statement;
 public class SQLite extends Database {
 
     private static final Logger logger = LoggerFactory.getLogger("P2/" + SQLite.class.getSimpleName());
+    /**
+     * Time in milliseconds a connection waits for a lock held by another connection
+     */
+    private static final int BUSY_TIMEOUT = 5000;
 
     private final String dbLocation;
     private Connection connection;
@@ -71,8 +75,7 @@ public class SQLite extends Database {
                 logger.error("Unable to create database");
             }
         }
-        Class.forName("org.sqlite.JDBC");
-        this.connection = DriverManager.getConnection("jdbc:sqlite:" + this.dbLocation);
+        this.connection = createConnection();
         return this.connection;
     }
 
@@ -112,8 +115,22 @@ public class SQLite extends Database {
     }
 
     @Override public Connection forceConnection() throws SQLException, ClassNotFoundException {
-        Class.forName("org.sqlite.JDBC");
-        this.connection = DriverManager.getConnection("jdbc:sqlite:" + this.dbLocation);
+        this.connection = createConnection();
         return this.connection;
     }
+
+    @Override public Connection createConnection() throws SQLException, ClassNotFoundException {
+        Class.forName("org.sqlite.JDBC");
+        final Connection connection = DriverManager.getConnection("jdbc:sqlite:" + this.dbLocation);
+        // Lookups use their own connections while statements are written, so readers
+        // must not block the writer, and should wait for locks rather than fail
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA busy_timeout=" + BUSY_TIMEOUT);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
 }
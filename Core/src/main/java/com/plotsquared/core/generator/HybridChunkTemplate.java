@@ -0,0 +1,182 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.generator;
+
+import com.plotsquared.core.location.Location;
+import com.plotsquared.core.queue.ScopedQueueCoordinator;
+import com.sk89q.worldedit.function.pattern.Pattern;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.biome.BiomeType;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generated contents of a chunk in a {@link HybridPlotWorld}. Hybrid worlds repeat
+ * every {@link HybridPlotWorld#SIZE} blocks, so all chunks that start at the same
+ * offset within the plot grid generate the same blocks, as long as none of the
+ * configured blocks are random patterns.
+ */
+final class HybridChunkTemplate {
+
+    private final BaseBlock[][] columns;
+    private final BiomeType[] biomes;
+
+    private HybridChunkTemplate(@Nonnull final BaseBlock[][] columns, @Nonnull final BiomeType[] biomes) {
+        this.columns = columns;
+        this.biomes = biomes;
+    }
+
+    /**
+     * Write the template to a chunk
+     *
+     * @param result chunk to write to
+     */
+    void apply(@Nonnull final ScopedQueueCoordinator result) {
+        for (int i = 0; i < 256; i++) {
+            final int x = i >> 4;
+            final int z = i & 15;
+            final BaseBlock[] column = this.columns[i];
+            if (column != null) {
+                for (int y = 0; y < column.length; y++) {
+                    if (column[y] != null) {
+                        result.setBlock(x, y, z, column[y]);
+                    }
+                }
+            }
+            if (this.biomes[i] != null) {
+                result.setBiome(x, z, this.biomes[i]);
+            }
+        }
+    }
+
+    /**
+     * Chunk that records the output of the generator, used to create templates
+     */
+    static final class Recorder extends ScopedQueueCoordinator {
+
+        private final BaseBlock[][] columns = new BaseBlock[256][];
+        private final BiomeType[] biomes = new BiomeType[256];
+        private final String world;
+        private final int minX;
+        private final int minZ;
+
+        Recorder() {
+            this("", 0, 0);
+        }
+
+        /**
+         * Create a recorder for the chunk at the given chunk coordinates
+         *
+         * @param world  world name
+         * @param chunkX chunk x coordinate
+         * @param chunkZ chunk z coordinate
+         */
+        Recorder(@Nonnull final String world, final int chunkX, final int chunkZ) {
+            super(null, Location.at(world, chunkX << 4, 0, chunkZ << 4),
+                Location.at(world, (chunkX << 4) + 15, 255, (chunkZ << 4) + 15));
+            this.world = world;
+            this.minX = chunkX << 4;
+            this.minZ = chunkZ << 4;
+        }
+
+        @Override @Nonnull public Location getMin() {
+            return Location.at(this.world, this.minX, 0, this.minZ);
+        }
+
+        @Override @Nonnull public Location getMax() {
+            return Location.at(this.world, this.minX + 15, 255, this.minZ + 15);
+        }
+
+        /**
+         * Get a recorded block
+         *
+         * @param x chunk relative x coordinate
+         * @param y y coordinate
+         * @param z chunk relative z coordinate
+         * @return the recorded block, or {@code null} if the generator did not set it
+         */
+        @Nullable BaseBlock getRecorded(final int x, final int y, final int z) {
+            final BaseBlock[] column = this.columns[x << 4 | z];
+            return column == null || y >= column.length ? null : column[y];
+        }
+
+        @Override public boolean setBlock(final int x, final int y, final int z, @Nonnull final BaseBlock id) {
+            if (x < 0 || x > 15 || y < 0 || y > 255 || z < 0 || z > 15) {
+                return false;
+            }
+            BaseBlock[] column = this.columns[x << 4 | z];
+            if (column == null) {
+                column = this.columns[x << 4 | z] = new BaseBlock[y + 1];
+            } else if (column.length <= y) {
+                column = this.columns[x << 4 | z] = Arrays.copyOf(column, y + 1);
+            }
+            column[y] = id;
+            return true;
+        }
+
+        @Override public boolean setBlock(final int x, final int y, final int z, @Nonnull final BlockState id) {
+            return this.setBlock(x, y, z, id.toBaseBlock());
+        }
+
+        @Override public boolean setBlock(final int x, final int y, final int z, @Nonnull final Pattern pattern) {
+            return this.setBlock(x, y, z, pattern.apply(BlockVector3.at(x, y, z)));
+        }
+
+        @Override public boolean setBiome(final int x, final int z, @Nonnull final BiomeType biome) {
+            if (x < 0 || x > 15 || z < 0 || z > 15) {
+                return false;
+            }
+            this.biomes[x << 4 | z] = biome;
+            return true;
+        }
+
+        /**
+         * Create a template from the recorded chunk. Identical columns are shared
+         * through the given pool, as most columns in a plot world are one of a few kinds.
+         *
+         * @param pool columns shared between the templates of a world
+         * @return the created template
+         */
+        @Nonnull HybridChunkTemplate toTemplate(@Nonnull final Map<List<BaseBlock>, BaseBlock[]> pool) {
+            final BaseBlock[][] shared = new BaseBlock[256][];
+            for (int i = 0; i < 256; i++) {
+                final BaseBlock[] column = this.columns[i];
+                if (column != null) {
+                    shared[i] = pool.computeIfAbsent(Arrays.asList(column), key -> column);
+                }
+            }
+            return new HybridChunkTemplate(shared, this.biomes);
+        }
+
+    }
+
+}
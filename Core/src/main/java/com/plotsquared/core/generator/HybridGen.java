@@ -84,14 +84,6 @@ public class HybridGen extends IndependentPlotGenerator {
         HybridPlotWorld hybridPlotWorld = (HybridPlotWorld) settings;
         // Biome
         result.fillBiome(hybridPlotWorld.getPlotBiome());
-        // Bedrock
-        if (hybridPlotWorld.PLOT_BEDROCK) {
-            for (short x = 0; x < 16; x++) {
-                for (short z = 0; z < 16; z++) {
-                    result.setBlock(x, 0, z, BlockTypes.BEDROCK.getDefaultState());
-                }
-            }
-        }
         // Coords
         Location min = result.getMin();
         int bx = (min.getX()) - hybridPlotWorld.ROAD_OFFSET_X;
@@ -112,6 +104,31 @@ public class HybridGen extends IndependentPlotGenerator {
         } else {
             relativeOffsetZ = (short) (bz % hybridPlotWorld.SIZE);
         }
+        if (!hybridPlotWorld.canUseChunkTemplates()) {
+            generate(result, hybridPlotWorld, relativeOffsetX, relativeOffsetZ);
+            return;
+        }
+        // Chunks at the same offset within the plot grid are identical
+        final int offset = MathMan.pair(relativeOffsetX, relativeOffsetZ);
+        HybridChunkTemplate template = hybridPlotWorld.getChunkTemplate(offset);
+        if (template == null) {
+            final HybridChunkTemplate.Recorder recorder = new HybridChunkTemplate.Recorder();
+            generate(recorder, hybridPlotWorld, relativeOffsetX, relativeOffsetZ);
+            template = hybridPlotWorld.cacheChunkTemplate(offset, recorder);
+        }
+        template.apply(result);
+    }
+
+    private void generate(@Nonnull ScopedQueueCoordinator result, @Nonnull HybridPlotWorld hybridPlotWorld,
+        short relativeOffsetX, short relativeOffsetZ) {
+        // Bedrock
+        if (hybridPlotWorld.PLOT_BEDROCK) {
+            for (short x = 0; x < 16; x++) {
+                for (short z = 0; z < 16; z++) {
+                    result.setBlock(x, 0, z, BlockTypes.BEDROCK.getDefaultState());
+                }
+            }
+        }
         // The X-coordinate of a given X coordinate, relative to the
         // plot (Counting from the corner with the least positive
         // coordinates)
@@ -25,6 +25,8 @@
  */
 package com.plotsquared.core.generator;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.inject.assistedinject.Assisted;
 import com.plotsquared.core.PlotSquared;
 import com.plotsquared.core.configuration.ConfigurationSection;
@@ -63,7 +65,10 @@ import javax.inject.Inject;
 import java.io.File;
 import java.lang.reflect.Field;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class HybridPlotWorld extends ClassicPlotWorld {
 
@@ -79,6 +84,9 @@ public class HybridPlotWorld extends ClassicPlotWorld {
     public int SCHEM_Y;
     private Location SIGN_LOCATION;
     private File root = null;
+    private final Cache<Integer, HybridChunkTemplate> chunkTemplates =
+        CacheBuilder.newBuilder().maximumSize(1024).build();
+    private final Map<List<BaseBlock>, BaseBlock[]> templateColumns = new ConcurrentHashMap<>();
 
     @Inject private SchematicHandler schematicHandler;
 
@@ -159,6 +167,7 @@ public class HybridPlotWorld extends ClassicPlotWorld {
      */
     @Override public void loadConfiguration(ConfigurationSection config) {
         super.loadConfiguration(config);
+        this.invalidateChunkTemplates();
         if ((this.ROAD_WIDTH & 1) == 0) {
             this.PATH_WIDTH_LOWER = (short) (Math.floor(this.ROAD_WIDTH / 2) - 1);
         } else {
@@ -208,6 +217,7 @@ public class HybridPlotWorld extends ClassicPlotWorld {
     public void setupSchematics() throws SchematicHandler.UnsupportedFormatException {
         this.G_SCH = new HashMap<>();
         this.G_SCH_B = new HashMap<>();
+        this.invalidateChunkTemplates();
 
         // Try to determine root. This means that plot areas can have separate schematic
         // directories
@@ -371,6 +381,7 @@ public class HybridPlotWorld extends ClassicPlotWorld {
             return;
         }
         existing[y] = id;
+        this.invalidateChunkTemplates();
     }
 
     public void addOverlayBiome(short x, short z, BiomeType id) {
@@ -386,6 +397,40 @@ public class HybridPlotWorld extends ClassicPlotWorld {
         }
         int pair = MathMan.pair(x, z);
         this.G_SCH_B.put(pair, id);
+        this.invalidateChunkTemplates();
+    }
+
+    /**
+     * Check whether generated chunks only depend on their offset within the plot grid, which
+     * is the case when none of the configured blocks are random patterns
+     *
+     * @return {@code true} if chunk templates can be used
+     */
+    boolean canUseChunkTemplates() {
+        if (this.ROAD_BLOCK.getSingle() == null || this.WALL_FILLING.getSingle() == null
+            || this.MAIN_BLOCK.getSingle() == null || this.TOP_BLOCK.getSingle() == null) {
+            return false;
+        }
+        return this.ROAD_SCHEMATIC_ENABLED || !this.PLACE_TOP_BLOCK || this.WALL_BLOCK.getSingle() != null;
+    }
+
+    @Nullable HybridChunkTemplate getChunkTemplate(final int offset) {
+        return this.chunkTemplates.getIfPresent(offset);
+    }
+
+    @Nonnull HybridChunkTemplate cacheChunkTemplate(final int offset, @Nonnull final HybridChunkTemplate.Recorder recorder) {
+        final HybridChunkTemplate template = recorder.toTemplate(this.templateColumns);
+        this.chunkTemplates.put(offset, template);
+        return template;
+    }
+
+    /**
+     * Discard all cached chunk templates. This must be called whenever the generated
+     * blocks of the world change.
+     */
+    public void invalidateChunkTemplates() {
+        this.chunkTemplates.invalidateAll();
+        this.templateColumns.clear();
     }
 
     public File getRoot() {
@@ -41,7 +41,7 @@ import com.plotsquared.core.plot.flag.GlobalFlagContainer;
 import com.plotsquared.core.plot.flag.PlotFlag;
 import com.plotsquared.core.plot.flag.implementations.AnalysisFlag;
 import com.plotsquared.core.plot.world.PlotAreaManager;
-import com.plotsquared.core.queue.ChunkQueueCoordinator;
+import com.plotsquared.core.queue.ChunkCoordinator;
 import com.plotsquared.core.queue.GlobalBlockQueue;
 import com.plotsquared.core.queue.QueueCoordinator;
 import com.plotsquared.core.util.ChunkManager;
@@ -60,8 +60,6 @@ import com.sk89q.worldedit.regions.CuboidRegion;
 import com.sk89q.worldedit.world.biome.BiomeType;
 import com.sk89q.worldedit.world.block.BaseBlock;
 import com.sk89q.worldedit.world.block.BlockState;
-import com.sk89q.worldedit.world.block.BlockType;
-import com.sk89q.worldedit.world.block.BlockTypes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -74,7 +72,9 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -146,145 +146,57 @@ public class HybridUtils {
                 return;
             }
 
-            HybridPlotWorld hpw = (HybridPlotWorld) area;
-            ChunkQueueCoordinator chunk = new ChunkQueueCoordinator(bot, top, false);
-            hpw.getGenerator().generateChunk(chunk, hpw);
-
-            final BlockState[][][] oldBlocks = chunk.getBlocks();
-            final BlockState[][][] newBlocks = new BlockState[256][width][length];
-            final BlockState airBlock = BlockTypes.AIR.getDefaultState();
-
-            System.gc();
-            System.gc();
-
-            QueueCoordinator queue = area.getQueue();
-            queue.addReadChunks(region.getChunks());
-            queue.setChunkConsumer(blockVector2 -> {
-                int X = blockVector2.getX();
-                int Z = blockVector2.getZ();
-                int minX;
-                if (X == cbx) {
-                    minX = bx & 15;
-                } else {
-                    minX = 0;
-                }
-                int minZ;
-                if (Z == cbz) {
-                    minZ = bz & 15;
-                } else {
-                    minZ = 0;
-                }
-                int maxX;
-                if (X == ctx) {
-                    maxX = tx & 15;
-                } else {
-                    maxX = 16;
-                }
-                int maxZ;
-                if (Z == ctz) {
-                    maxZ = tz & 15;
-                } else {
-                    maxZ = 16;
-                }
-
-                int chunkBlockX = X << 4;
-                int chunkBlockZ = Z << 4;
-
-                int xb = chunkBlockX - bx;
-                int zb = chunkBlockZ - bz;
-                for (int x = minX; x <= maxX; x++) {
-                    int xx = chunkBlockX + x;
-                    for (int z = minZ; z <= maxZ; z++) {
-                        int zz = chunkBlockZ + z;
-                        for (int y = 0; y < 256; y++) {
-                            BlockState block = queue.getBlock(xx, y, zz);
-                            int xr = xb + x;
-                            int zr = zb + z;
-                            newBlocks[y][xr][zr] = block;
+            final HybridPlotWorld hpw = (HybridPlotWorld) area;
+            final PlotComplexityAnalyzer analyzer = new PlotComplexityAnalyzer(width, length);
+
+            // Generate the empty plot chunk by chunk, so that the generator sees real chunk coordinates
+            for (int X = cbx; X <= ctx; X++) {
+                for (int Z = cbz; Z <= ctz; Z++) {
+                    final HybridChunkTemplate.Recorder reference = new HybridChunkTemplate.Recorder(world, X, Z);
+                    hpw.getGenerator().generateChunk(reference, hpw);
+                    final int chunkBlockX = X << 4;
+                    final int chunkBlockZ = Z << 4;
+                    final int minX = Math.max(bx, chunkBlockX);
+                    final int maxX = Math.min(tx, chunkBlockX + 15);
+                    final int minZ = Math.max(bz, chunkBlockZ);
+                    final int maxZ = Math.min(tz, chunkBlockZ + 15);
+                    for (int x = minX; x <= maxX; x++) {
+                        for (int z = minZ; z <= maxZ; z++) {
+                            for (int y = 0; y < 256; y++) {
+                                final BaseBlock block = reference.getRecorded(x & 15, y, z & 15);
+                                if (block != null) {
+                                    analyzer.setReference(x - bx, y, z - bz, block.toImmutableState());
+                                }
+                            }
                         }
                     }
                 }
-            });
+            }
 
-            final Runnable run = () -> TaskManager.runTaskAsync(() -> {
-                int size = width * length;
-                int[] changes = new int[size];
-                int[] faces = new int[size];
-                int[] data = new int[size];
-                int[] air = new int[size];
-                int[] variety = new int[size];
-                int i = 0;
-                for (int x = 0; x < width; x++) {
-                    for (int z = 0; z < length; z++) {
-                        Set<BlockType> types = new HashSet<>();
-                        for (int y = 0; y < 256; y++) {
-                            BlockState old = oldBlocks[y][x][z];
-                            try {
-                                if (old == null) {
-                                    old = airBlock;
-                                }
-                                BlockState now = newBlocks[y][x][z];
-                                if (!old.equals(now)) {
-                                    changes[i]++;
-                                }
-                                if (now.getBlockType().getMaterial().isAir()) {
-                                    air[i]++;
-                                } else {
-                                    // check vertices
-                                    // modifications_adjacent
-                                    if (x > 0 && z > 0 && y > 0 && x < width - 1 && z < length - 1 && y < 255) {
-                                        if (newBlocks[y - 1][x][z].getBlockType().getMaterial().isAir()) {
-                                            faces[i]++;
-                                        }
-                                        if (newBlocks[y][x - 1][z].getBlockType().getMaterial().isAir()) {
-                                            faces[i]++;
-                                        }
-                                        if (newBlocks[y][x][z - 1].getBlockType().getMaterial().isAir()) {
-                                            faces[i]++;
-                                        }
-                                        if (newBlocks[y + 1][x][z].getBlockType().getMaterial().isAir()) {
-                                            faces[i]++;
-                                        }
-                                        if (newBlocks[y][x + 1][z].getBlockType().getMaterial().isAir()) {
-                                            faces[i]++;
-                                        }
-                                        if (newBlocks[y][x][z + 1].getBlockType().getMaterial().isAir()) {
-                                            faces[i]++;
-                                        }
-                                    }
+            // Only snapshot the chunks on the main thread, and read them asynchronously
+            final Map<BlockVector2, WorldUtil.ChunkBlocks> snapshots = new ConcurrentHashMap<>();
+            QueueCoordinator queue = area.getQueue();
+            queue.addReadChunks(region.getChunks());
+            queue.setChunkConsumer(blockVector2 -> snapshots.put(blockVector2, this.worldUtil.getChunkBlocks(world, blockVector2)));
 
-                                    if (!now.equals(now.getBlockType().getDefaultState())) {
-                                        data[i]++;
-                                    }
-                                    types.add(now.getBlockType());
-                                }
-                            } catch (NullPointerException e) {
-                                e.printStackTrace();
+            final Runnable run = () -> TaskManager.runTaskAsync(() -> {
+                for (final Map.Entry<BlockVector2, WorldUtil.ChunkBlocks> entry : snapshots.entrySet()) {
+                    final WorldUtil.ChunkBlocks blocks = entry.getValue();
+                    final int chunkBlockX = entry.getKey().getX() << 4;
+                    final int chunkBlockZ = entry.getKey().getZ() << 4;
+                    final int minX = Math.max(bx, chunkBlockX);
+                    final int maxX = Math.min(tx, chunkBlockX + 15);
+                    final int minZ = Math.max(bz, chunkBlockZ);
+                    final int maxZ = Math.min(tz, chunkBlockZ + 15);
+                    for (int x = minX; x <= maxX; x++) {
+                        for (int z = minZ; z <= maxZ; z++) {
+                            for (int y = 0; y < 256; y++) {
+                                analyzer.setCurrent(x - bx, y, z - bz, blocks.getBlock(x & 15, y, z & 15));
                             }
                         }
-                        variety[i] = types.size();
-                        i++;
                     }
                 }
-                // analyze plot
-                // put in analysis obj
-
-                // run whenDone
-                PlotAnalysis analysis = new PlotAnalysis();
-                analysis.changes = (int) (MathMan.getMean(changes) * 100);
-                analysis.faces = (int) (MathMan.getMean(faces) * 100);
-                analysis.data = (int) (MathMan.getMean(data) * 100);
-                analysis.air = (int) (MathMan.getMean(air) * 100);
-                analysis.variety = (int) (MathMan.getMean(variety) * 100);
-
-                analysis.changes_sd = (int) (MathMan.getSD(changes, analysis.changes) * 100);
-                analysis.faces_sd = (int) (MathMan.getSD(faces, analysis.faces) * 100);
-                analysis.data_sd = (int) (MathMan.getSD(data, analysis.data) * 100);
-                analysis.air_sd = (int) (MathMan.getSD(air, analysis.air) * 100);
-                analysis.variety_sd = (int) (MathMan.getSD(variety, analysis.variety) * 100);
-                System.gc();
-                System.gc();
-                whenDone.value = analysis;
+                whenDone.value = analyzer.analyze();
                 whenDone.run();
             });
             queue.setCompleteTask(run);
@@ -295,6 +207,7 @@ public class HybridUtils {
     public void analyzePlot(final Plot origin, final RunnableVal<PlotAnalysis> whenDone) {
         final ArrayDeque<CuboidRegion> zones = new ArrayDeque<>(origin.getRegions());
         final ArrayList<PlotAnalysis> analysis = new ArrayList<>();
+        final int analyzed = PlotAnalysis.now();
         Runnable run = new Runnable() {
             @Override public void run() {
                 if (zones.isEmpty()) {
@@ -325,6 +238,7 @@ public class HybridUtils {
                     } else {
                         whenDone.value = analysis.get(0);
                     }
+                    whenDone.value.analyzed = analyzed;
                     List<Integer> result = new ArrayList<>();
                     result.add(whenDone.value.changes);
                     result.add(whenDone.value.faces);
@@ -337,6 +251,7 @@ public class HybridUtils {
                     result.add(whenDone.value.data_sd);
                     result.add(whenDone.value.air_sd);
                     result.add(whenDone.value.variety_sd);
+                    result.add(whenDone.value.analyzed);
                     PlotFlag<?, ?> plotFlag = GlobalFlagContainer.getInstance().getFlag(AnalysisFlag.class).createFlagInstance(result);
                     PlotFlagAddEvent event = new PlotFlagAddEvent(plotFlag, origin);
                     if (event.getEventResult() == Result.DENY) {
@@ -570,6 +485,8 @@ public class HybridUtils {
         final int finalX = x;
         final int finalZ = z;
         QueueCoordinator queue = this.blockQueue.getNewQueue(worldUtil.getWeWorld(plotWorld.getWorldName()));
+        // Road regeneration runs in the background, so it should give way to player actions
+        queue.setPriority(ChunkCoordinator.Priority.LOW);
         if (id1 == null || id2 == null || id1 != id2) {
             this.chunkManager.loadChunk(area.getWorldName(), chunk, false).thenRun(() -> {
                 if (id1 != null) {
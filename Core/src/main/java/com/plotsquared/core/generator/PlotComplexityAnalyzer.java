@@ -0,0 +1,206 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.generator;
+
+import com.plotsquared.core.plot.expiration.PlotAnalysis;
+import com.plotsquared.core.util.MathMan;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockType;
+import com.sk89q.worldedit.world.block.BlockTypes;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the {@link PlotAnalysis} of a region by comparing the blocks in the world
+ * to the blocks generated for an empty plot.
+ * <p>
+ * Blocks are stored as indices into a palette of the block states seen in the region,
+ * laid out column by column so that each column is analysed in a single pass. Columns
+ * are analysed in parallel.
+ */
+final class PlotComplexityAnalyzer {
+
+    private static final int HEIGHT = 256;
+
+    private final int width;
+    private final int length;
+    private final int[] reference;
+    private final int[] current;
+    private final Map<BlockState, Integer> ids = new HashMap<>();
+    private final List<BlockState> states = new ArrayList<>();
+
+    /**
+     * Create a new analyzer. Positions that are not set are treated as air.
+     *
+     * @param width  region size along the x axis
+     * @param length region size along the z axis
+     */
+    PlotComplexityAnalyzer(final int width, final int length) {
+        this.width = width;
+        this.length = length;
+        this.reference = new int[width * length * HEIGHT];
+        this.current = new int[width * length * HEIGHT];
+        // Index 0 is air, so that unset positions are air
+        this.idOf(BlockTypes.AIR.getDefaultState());
+    }
+
+    /**
+     * Set the generated block at a position
+     *
+     * @param x     region relative x coordinate
+     * @param y     y coordinate
+     * @param z     region relative z coordinate
+     * @param state block state, or {@code null} for air
+     */
+    void setReference(final int x, final int y, final int z, @Nullable final BlockState state) {
+        this.reference[this.index(x, y, z)] = state == null ? 0 : this.idOf(state);
+    }
+
+    /**
+     * Set the block in the world at a position
+     *
+     * @param x     region relative x coordinate
+     * @param y     y coordinate
+     * @param z     region relative z coordinate
+     * @param state block state, or {@code null} for air
+     */
+    void setCurrent(final int x, final int y, final int z, @Nullable final BlockState state) {
+        this.current[this.index(x, y, z)] = state == null ? 0 : this.idOf(state);
+    }
+
+    /**
+     * Analyse the region
+     *
+     * @return the analysis
+     */
+    @Nonnull PlotAnalysis analyze() {
+        final int paletteSize = this.states.size();
+        // 1 for air, 0 otherwise, so that faces can be summed without branches
+        final int[] air = new int[paletteSize];
+        final boolean[] data = new boolean[paletteSize];
+        final int[] types = new int[paletteSize];
+        final Map<BlockType, Integer> typeIds = new HashMap<>();
+        for (int id = 0; id < paletteSize; id++) {
+            final BlockState state = this.states.get(id);
+            final BlockType type = state.getBlockType();
+            air[id] = type.getMaterial().isAir() ? 1 : 0;
+            data[id] = !state.equals(type.getDefaultState());
+            types[id] = typeIds.computeIfAbsent(type, key -> typeIds.size());
+        }
+        final int typeCount = typeIds.size();
+
+        final int size = this.width * this.length;
+        final int[] changes = new int[size];
+        final int[] faces = new int[size];
+        final int[] dataCount = new int[size];
+        final int[] airCount = new int[size];
+        final int[] variety = new int[size];
+
+        final int[] current = this.current;
+        final int[] reference = this.reference;
+        final int strideX = this.length * HEIGHT;
+        IntStream.range(0, this.width).parallel().forEach(x -> {
+            // Stamped per column, to count distinct block types without clearing
+            final int[] seen = new int[typeCount];
+            for (int z = 0; z < this.length; z++) {
+                final int i = x * this.length + z;
+                final int base = i * HEIGHT;
+                final int stamp = z + 1;
+                final boolean interior = x > 0 && z > 0 && x < this.width - 1 && z < this.length - 1;
+                int columnChanges = 0;
+                int columnFaces = 0;
+                int columnData = 0;
+                int columnAir = 0;
+                int columnVariety = 0;
+                for (int y = 0; y < HEIGHT; y++) {
+                    final int index = base + y;
+                    final int now = current[index];
+                    if (reference[index] != now) {
+                        columnChanges++;
+                    }
+                    if (air[now] == 1) {
+                        columnAir++;
+                        continue;
+                    }
+                    if (interior && y > 0 && y < HEIGHT - 1) {
+                        columnFaces += air[current[index - 1]] + air[current[index + 1]]
+                            + air[current[index - strideX]] + air[current[index + strideX]]
+                            + air[current[index - HEIGHT]] + air[current[index + HEIGHT]];
+                    }
+                    if (data[now]) {
+                        columnData++;
+                    }
+                    final int type = types[now];
+                    if (seen[type] != stamp) {
+                        seen[type] = stamp;
+                        columnVariety++;
+                    }
+                }
+                changes[i] = columnChanges;
+                faces[i] = columnFaces;
+                dataCount[i] = columnData;
+                airCount[i] = columnAir;
+                variety[i] = columnVariety;
+            }
+        });
+
+        final PlotAnalysis analysis = new PlotAnalysis();
+        analysis.changes = (int) (MathMan.getMean(changes) * 100);
+        analysis.faces = (int) (MathMan.getMean(faces) * 100);
+        analysis.data = (int) (MathMan.getMean(dataCount) * 100);
+        analysis.air = (int) (MathMan.getMean(airCount) * 100);
+        analysis.variety = (int) (MathMan.getMean(variety) * 100);
+
+        analysis.changes_sd = (int) (MathMan.getSD(changes, analysis.changes) * 100);
+        analysis.faces_sd = (int) (MathMan.getSD(faces, analysis.faces) * 100);
+        analysis.data_sd = (int) (MathMan.getSD(dataCount, analysis.data) * 100);
+        analysis.air_sd = (int) (MathMan.getSD(airCount, analysis.air) * 100);
+        analysis.variety_sd = (int) (MathMan.getSD(variety, analysis.variety) * 100);
+        return analysis;
+    }
+
+    private int index(final int x, final int y, final int z) {
+        return (x * this.length + z) * HEIGHT + y;
+    }
+
+    private int idOf(@Nonnull final BlockState state) {
+        final Integer id = this.ids.get(state);
+        if (id != null) {
+            return id;
+        }
+        final int created = this.states.size();
+        this.states.add(state);
+        this.ids.put(state, created);
+        return created;
+    }
+
+}
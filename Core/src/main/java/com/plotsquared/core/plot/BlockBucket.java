@@ -38,6 +38,7 @@ import com.sk89q.worldedit.world.block.BlockState;
 import com.sk89q.worldedit.world.block.BlockType;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
@@ -165,6 +166,16 @@ public final class BlockBucket implements ConfigurationSerializable {
         pattern = PatternUtil.parse(null, string);
     }
 
+    /**
+     * Get the block state of the bucket, if the bucket contains a single block
+     *
+     * @return the single block state, or {@code null} if the bucket is empty or a pattern
+     */
+    @Nullable public BlockState getSingle() {
+        compile();
+        return this.single;
+    }
+
     public boolean isCompiled() {
         return this.compiled;
     }
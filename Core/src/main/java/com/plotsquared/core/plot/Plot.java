@@ -27,7 +27,6 @@ package com.plotsquared.core.plot;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import com.plotsquared.core.PlotSquared;
 import com.plotsquared.core.command.Like;
@@ -54,6 +53,7 @@ import com.plotsquared.core.plot.flag.GlobalFlagContainer;
 import com.plotsquared.core.plot.flag.InternalFlag;
 import com.plotsquared.core.plot.flag.PlotFlag;
 import com.plotsquared.core.plot.flag.implementations.DescriptionFlag;
+import com.plotsquared.core.plot.flag.implementations.DoneFlag;
 import com.plotsquared.core.plot.flag.implementations.KeepFlag;
 import com.plotsquared.core.plot.flag.implementations.ServerPlotFlag;
 import com.plotsquared.core.plot.flag.types.DoubleFlag;
@@ -68,7 +68,6 @@ import com.plotsquared.core.util.RegionUtil;
 import com.plotsquared.core.util.SchematicHandler;
 import com.plotsquared.core.util.TimeUtil;
 import com.plotsquared.core.util.WorldUtil;
-import com.plotsquared.core.util.query.PlotQuery;
 import com.plotsquared.core.util.task.RunnableVal;
 import com.plotsquared.core.util.task.TaskManager;
 import com.plotsquared.core.util.task.TaskTime;
@@ -88,6 +87,7 @@ import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -126,15 +126,13 @@ public class Plot {
     private static final DecimalFormat FLAG_DECIMAL_FORMAT = new DecimalFormat("0");
     private static final MiniMessage MINI_MESSAGE = MiniMessage.builder().build();
 
-    static Set<Plot> connected_cache;
-    static Set<CuboidRegion> regions_cache;
     static {
         FLAG_DECIMAL_FORMAT.setMaximumFractionDigits(340);
     }
     /**
      * Plot flag container
      */
-    private final FlagContainer flagContainer = new FlagContainer(null);
+    private final FlagContainer flagContainer = new FlagContainer(null, this::handleFlagUpdate);
     /**
      * Utility used to manage plot comments
      */
@@ -201,6 +199,12 @@ public class Plot {
      * - The origin plot is used for plot grouping and relational data
      */
     private Plot origin;
+    /**
+     * The cached access snapshot.
+     * - Answers owner/added/denied/online checks without walking connected plots
+     */
+    private volatile PlotAccessSnapshot accessSnapshot;
+    private volatile int accessModCount;
 
     /**
      * Constructor for a new plot.
@@ -339,16 +343,16 @@ public class Plot {
         } else if (split.length == 2) {
             id = PlotId.fromString(arg);
         } else {
-            Collection<Plot> plots;
+            final Collection<PlotArea> areas;
             if (area == null) {
-                plots = PlotQuery.newQuery().allPlots().asList();
+                areas = Arrays.asList(PlotSquared.get().getPlotAreaManager().getAllPlotAreas());
             } else {
-                plots = area.getPlots();
+                areas = Collections.singletonList(area);
             }
-            for (Plot p : plots) {
-                String name = p.getAlias();
-                if (!name.isEmpty() && name.equalsIgnoreCase(arg)) {
-                    return p;
+            for (final PlotArea current : areas) {
+                final Set<Plot> plots = current.getSearchIndex().getPlotsByAlias(arg);
+                if (!plots.isEmpty()) {
+                    return plots.iterator().next();
                 }
             }
             if (message && player != null) {
@@ -442,6 +446,11 @@ public class Plot {
      */
     public void setOwnerAbs(@Nullable final UUID owner) {
         this.owner = owner;
+        this.invalidateAccess();
+        if (this.area != null) {
+            this.area.getMergeIndex().invalidate(this.id);
+            this.area.getOwnerIndex().update(this);
+        }
     }
 
     /**
@@ -541,14 +550,10 @@ public class Plot {
      * @return {@code true} if the provided uuid is the owner of the plot, else {@code false}
      */
     public boolean isOwner(@Nonnull final UUID uuid) {
-        if (uuid.equals(this.getOwner())) {
-            return true;
+        if (!this.hasOwner() && !this.isMerged()) {
+            return uuid.equals(this.getOwner());
         }
-        if (!isMerged()) {
-            return false;
-        }
-        final Set<Plot> connected = getConnectedPlots();
-        return connected.stream().anyMatch(current -> uuid.equals(current.getOwner()));
+        return this.getAccessSnapshot().isOwner(uuid);
     }
 
     /**
@@ -618,24 +623,7 @@ public class Plot {
         if (this.getOwner() == null) {
             return ImmutableSet.of();
         }
-        if (isMerged()) {
-            Set<Plot> plots = getConnectedPlots();
-            Plot[] array = plots.toArray(new Plot[0]);
-            ImmutableSet.Builder<UUID> owners = ImmutableSet.builder();
-            UUID last = this.getOwner();
-            owners.add(this.getOwner());
-            for (final Plot current : array) {
-                if (current.getOwner() == null) {
-                    continue;
-                }
-                if (last == null || current.getOwner().getMostSignificantBits() != last.getMostSignificantBits()) {
-                    owners.add(current.getOwner());
-                    last = current.getOwner();
-                }
-            }
-            return owners.build();
-        }
-        return ImmutableSet.of(this.getOwner());
+        return this.getAccessSnapshot().owners;
     }
 
     /**
@@ -645,22 +633,10 @@ public class Plot {
      * @return {@code true} if the player is added/trusted or is the owner, else {@code false}
      */
     public boolean isAdded(@Nonnull final UUID uuid) {
-        if (!this.hasOwner() || getDenied().contains(uuid)) {
+        if (!this.hasOwner()) {
             return false;
         }
-        if (isOwner(uuid)) {
-            return true;
-        }
-        if (getMembers().contains(uuid)) {
-            return isOnline();
-        }
-        if (getTrusted().contains(uuid) || getTrusted().contains(DBFunc.EVERYONE)) {
-            return true;
-        }
-        if (getMembers().contains(DBFunc.EVERYONE)) {
-            return isOnline();
-        }
-        return false;
+        return this.getAccessSnapshot().isAdded(uuid);
     }
 
     /**
@@ -670,8 +646,56 @@ public class Plot {
      * @return {@code false} if the player is allowed to enter the plot, else {@code true}
      */
     public boolean isDenied(@Nonnull final UUID uuid) {
-        return this.denied != null && (this.denied.contains(DBFunc.EVERYONE) && !this.isAdded(uuid) || !this.isAdded(uuid) && this.denied
-            .contains(uuid));
+        if (this.denied == null) {
+            return false;
+        }
+        if (!this.hasOwner()) {
+            return this.denied.contains(DBFunc.EVERYONE) || this.denied.contains(uuid);
+        }
+        return this.getAccessSnapshot().isDenied(uuid);
+    }
+
+    /**
+     * Get the access snapshot of this plot, rebuilding it if the lists, merge state
+     * or owner presence changed since it was built.
+     *
+     * @return current access snapshot
+     */
+    @Nonnull private PlotAccessSnapshot getAccessSnapshot() {
+        final long mergeVersion = this.area == null ? 0 : this.area.getMergeIndex().getVersion();
+        final int modCount = this.accessModCount;
+        final PlotAccessSnapshot cached = this.accessSnapshot;
+        final PlotAccessSnapshot snapshot;
+        if (cached == null || cached.mergeVersion != mergeVersion) {
+            snapshot = PlotAccessSnapshot.of(this, mergeVersion);
+        } else {
+            snapshot = cached.withCurrentPresence();
+        }
+        if (snapshot != cached && modCount == this.accessModCount) {
+            this.accessSnapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drop the cached access snapshot. Called whenever the trusted, member or
+     * denied lists of this plot are modified.
+     */
+    void invalidateAccess() {
+        this.accessModCount++;
+        this.accessSnapshot = null;
+        if (this.area != null) {
+            this.area.getSearchIndex().update(this);
+        }
+    }
+
+    private void handleFlagUpdate(@Nonnull final PlotFlag<?, ?> flag, @Nonnull final FlagContainer.PlotFlagUpdateType type) {
+        if (flag instanceof ServerPlotFlag) {
+            this.invalidateAccess();
+        }
+        if (flag instanceof DoneFlag && this.area != null) {
+            this.area.getOwnerIndex().update(this);
+        }
     }
 
     /**
@@ -689,6 +713,7 @@ public class Plot {
      * @param id new plot ID
      */
     public void setId(@Nonnull final PlotId id) {
+        this.clearCache();
         this.id = id;
     }
 
@@ -984,6 +1009,7 @@ public class Plot {
     public void addDenied(@Nonnull final UUID uuid) {
         for (final Plot current : getConnectedPlots()) {
             if (current.getDenied().add(uuid)) {
+                current.invalidateAccess();
                 DBFunc.setDenied(current, uuid);
             }
         }
@@ -997,6 +1023,7 @@ public class Plot {
     public void addTrusted(@Nonnull final UUID uuid) {
         for (final Plot current : getConnectedPlots()) {
             if (current.getTrusted().add(uuid)) {
+                current.invalidateAccess();
                 DBFunc.setTrusted(current, uuid);
             }
         }
@@ -1010,6 +1037,7 @@ public class Plot {
     public void addMember(@Nonnull final UUID uuid) {
         for (final Plot current : getConnectedPlots()) {
             if (current.getMembers().add(uuid)) {
+                current.invalidateAccess();
                 DBFunc.setMember(current, uuid);
             }
         }
@@ -1518,9 +1546,7 @@ public class Plot {
      * @return average rating as double, {@link Double#NaN} of no ratings exist
      */
     public double getAverageRating() {
-        Collection<Rating> ratings = this.getRatings().values();
-        double sum = ratings.stream().mapToDouble(Rating::getAverageRating).sum();
-        return sum / ratings.size();
+        return this.getBasePlot(false).getSettings().getRatingAggregate().getAverage();
     }
 
     /**
@@ -1539,6 +1565,8 @@ public class Plot {
         }
         int aggregate = rating.getAggregate();
         baseSettings.getRatings().put(uuid, aggregate);
+        baseSettings.invalidateRatings();
+        PlotRatingIndex.get().update(base);
         DBFunc.setRating(base, uuid, aggregate);
         return true;
     }
@@ -1552,6 +1580,7 @@ public class Plot {
         if (baseSettings.getRatings() != null && !baseSettings.getRatings().isEmpty()) {
             DBFunc.deleteRatings(base);
             baseSettings.setRatings(null);
+            PlotRatingIndex.get().update(base);
         }
     }
 
@@ -1698,6 +1727,8 @@ public class Plot {
             return CompletableFuture.completedFuture(true);
         }
         // Swap cached
+        this.clearCache();
+        plot.clearCache();
         final PlotId temp = PlotId.of(this.getId().getX(), this.getId().getY());
         this.id = plot.getId().copy();
         plot.id = temp.copy();
@@ -1725,6 +1756,7 @@ public class Plot {
             TaskManager.runTask(whenDone);
             return false;
         }
+        this.clearCache();
         this.area.removePlot(this.id);
         this.id = plot.getId().copy();
         this.area.addPlotAbs(this);
@@ -1841,6 +1873,7 @@ public class Plot {
     private boolean rmvDenied(UUID uuid) {
         for (Plot current : this.getConnectedPlots()) {
             if (current.getDenied().remove(uuid)) {
+                current.invalidateAccess();
                 DBFunc.removeDenied(current, uuid);
             } else {
                 return false;
@@ -1871,6 +1904,7 @@ public class Plot {
     private boolean rmvTrusted(UUID uuid) {
         for (Plot plot : this.getConnectedPlots()) {
             if (plot.getTrusted().remove(uuid)) {
+                plot.invalidateAccess();
                 DBFunc.removeTrusted(plot, uuid);
             } else {
                 return false;
@@ -1904,6 +1938,7 @@ public class Plot {
     private boolean rmvMember(UUID uuid) {
         for (Plot current : this.getConnectedPlots()) {
             if (current.getMembers().remove(uuid)) {
+                current.invalidateAccess();
                 DBFunc.removeMember(current, uuid);
             } else {
                 return false;
@@ -1966,6 +2001,9 @@ public class Plot {
                 return;
             }
             current.getSettings().setAlias(alias);
+            if (current.area != null) {
+                current.area.getSearchIndex().update(current);
+            }
             DBFunc.setAlias(current, alias);
         }
     }
@@ -1989,17 +2027,16 @@ public class Plot {
                     this.origin.origin = base;
                     other.origin = base;
                     this.origin = base;
-                    connected_cache = null;
                 }
+                this.area.getMergeIndex().union(this, this.getRelative(direction), direction);
             } else {
                 if (this.origin != null) {
                     this.origin.origin = null;
                     this.origin = null;
                 }
-                connected_cache = null;
+                this.area.getMergeIndex().invalidate(this.id);
             }
             DBFunc.setMerged(this, this.getSettings().getMerged());
-            regions_cache = null;
         }
     }
 
@@ -2034,8 +2071,9 @@ public class Plot {
     }
 
     public void clearCache() {
-        connected_cache = null;
-        regions_cache = null;
+        if (this.area != null) {
+            this.area.getMergeIndex().invalidate(this.id);
+        }
         if (this.origin != null) {
             this.origin.origin = null;
             this.origin = null;
@@ -2151,9 +2189,9 @@ public class Plot {
 
     /**
      * Gets a set of plots connected (and including) this plot<br>
-     * - This result is cached globally
+     * - This result is cached per merge group in the {@link PlotMergeIndex} of the plot area
      *
-     * @return a Set of Plots connected to this Plot
+     * @return an unmodifiable Set of Plots connected to this Plot
      */
     public Set<Plot> getConnectedPlots() {
         if (this.settings == null) {
@@ -2162,11 +2200,16 @@ public class Plot {
         if (!this.isMerged()) {
             return Collections.singleton(this);
         }
-        if (connected_cache != null && connected_cache.contains(this)) {
-            return connected_cache;
-        }
-        regions_cache = null;
+        return this.area.getMergeIndex().getGroup(this).getPlots();
+    }
 
+    /**
+     * Walk the merge flags to find every plot connected to this one. Use {@link #getConnectedPlots()}
+     * instead, which caches the result.
+     *
+     * @return a new Set of Plots connected to this Plot
+     */
+    @Nonnull Set<Plot> computeConnectedPlots() {
         HashSet<Plot> tmpSet = new HashSet<>();
         tmpSet.add(this);
         Plot tmp;
@@ -2270,31 +2313,34 @@ public class Plot {
                 }
             }
         }
-        connected_cache = tmpSet;
         return tmpSet;
     }
 
     /**
      * This will combine each plot into effective rectangular regions<br>
-     * - This result is cached globally<br>
+     * - This result is cached per merge group in the {@link PlotMergeIndex} of the plot area<br>
      * - Useful for handling non rectangular shapes
      *
      * @return all regions within the plot
      */
     @Nonnull public Set<CuboidRegion> getRegions() {
-        if (regions_cache != null && connected_cache != null && connected_cache.contains(this)) {
-            return regions_cache;
-        }
-        if (!this.isMerged()) {
+        if (this.settings == null || !this.isMerged()) {
             Location pos1 = this.getBottomAbs();
             Location pos2 = this.getTopAbs();
-            connected_cache = Sets.newHashSet(this);
             CuboidRegion rg = new CuboidRegion(pos1.getBlockVector3(), pos2.getBlockVector3());
-            regions_cache = Collections.singleton(rg);
-            return regions_cache;
+            return Collections.singleton(rg);
         }
-        Set<Plot> plots = this.getConnectedPlots();
-        Set<CuboidRegion> regions = regions_cache = new HashSet<>();
+        return this.area.getMergeIndex().getGroup(this).getRegions();
+    }
+
+    /**
+     * Combine the given connected plots into rectangular regions.
+     *
+     * @param plots the connected plots, including this plot
+     * @return a new Set of regions
+     */
+    @Nonnull Set<CuboidRegion> computeRegions(@Nonnull final Set<Plot> plots) {
+        Set<CuboidRegion> regions = new HashSet<>();
         Set<PlotId> visited = new HashSet<>();
         for (Plot current : plots) {
             if (visited.contains(current.getId())) {
@@ -2529,16 +2575,7 @@ public class Plot {
         if (!this.hasOwner()) {
             return false;
         }
-        if (!isMerged()) {
-            return PlotSquared.platform().playerManager().getPlayerIfExists(Objects.requireNonNull(this.getOwnerAbs())) != null;
-        }
-        for (final Plot current : getConnectedPlots()) {
-            if (current.hasOwner()
-                && PlotSquared.platform().playerManager().getPlayerIfExists(Objects.requireNonNull(current.getOwnerAbs())) != null) {
-                return true;
-            }
-        }
-        return false;
+        return this.getAccessSnapshot().ownerOnline;
     }
 
     public int getDistanceFromOrigin() {
@@ -2806,37 +2843,7 @@ public class Plot {
      * @see Settings.Ratings#CATEGORIES Rating categories
      */
     @Nonnull public double[] getAverageRatings() {
-        Map<UUID, Integer> rating;
-        if (this.getSettings().getRatings() != null) {
-            rating = this.getSettings().getRatings();
-        } else if (Settings.Enabled_Components.RATING_CACHE) {
-            rating = new HashMap<>();
-        } else {
-            rating = DBFunc.getRatings(this);
-        }
-        int size = 1;
-        if (!Settings.Ratings.CATEGORIES.isEmpty()) {
-            size = Math.max(1, Settings.Ratings.CATEGORIES.size());
-        }
-        double[] ratings = new double[size];
-        if (rating == null || rating.isEmpty()) {
-            return ratings;
-        }
-        for (Entry<UUID, Integer> entry : rating.entrySet()) {
-            int current = entry.getValue();
-            if (Settings.Ratings.CATEGORIES.isEmpty()) {
-                ratings[0] += current;
-            } else {
-                for (int i = 0; i < Settings.Ratings.CATEGORIES.size(); i++) {
-                    ratings[i] += current % 10 - 1;
-                    current /= 10;
-                }
-            }
-        }
-        for (int i = 0; i < size; i++) {
-            ratings[i] /= rating.size();
-        }
-        return ratings;
+        return this.getSettings().getRatingAggregate().getCategoryAverages();
     }
 
     /**
@@ -0,0 +1,159 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot;
+
+import com.google.common.collect.ImmutableSet;
+import com.plotsquared.core.PlotSquared;
+import com.plotsquared.core.database.DBFunc;
+import com.plotsquared.core.util.PlayerManager;
+
+import javax.annotation.Nonnull;
+import java.util.UUID;
+
+/**
+ * Immutable view of who may access a plot, used to answer {@link Plot#isAdded(UUID)},
+ * {@link Plot#isDenied(UUID)}, {@link Plot#isOwner(UUID)} and {@link Plot#isOnline()}
+ * without walking the connected plots.
+ * - Built lazily by the plot and dropped whenever its trusted, member or denied lists change<br>
+ * - Stamped with the {@link PlotMergeIndex} version of the area, so merging, unlinking or
+ * changing the owner of any plot in the area rebuilds it<br>
+ * - Stamped with the {@link PlayerManager} presence version, so the online owner bit is
+ * refreshed when a player joins or leaves
+ */
+final class PlotAccessSnapshot {
+
+    final long mergeVersion;
+    final int presenceVersion;
+    final boolean hasOwner;
+    final boolean ownerOnline;
+    final boolean everyoneTrusted;
+    final boolean everyoneMember;
+    final boolean everyoneDenied;
+    final ImmutableSet<UUID> owners;
+    private final ImmutableSet<UUID> ownersAbs;
+    private final ImmutableSet<UUID> trusted;
+    private final ImmutableSet<UUID> members;
+    private final ImmutableSet<UUID> denied;
+
+    private PlotAccessSnapshot(final long mergeVersion, final int presenceVersion, final boolean hasOwner,
+                               final boolean ownerOnline, @Nonnull final ImmutableSet<UUID> owners,
+                               @Nonnull final ImmutableSet<UUID> ownersAbs, @Nonnull final ImmutableSet<UUID> trusted,
+                               @Nonnull final ImmutableSet<UUID> members, @Nonnull final ImmutableSet<UUID> denied) {
+        this.mergeVersion = mergeVersion;
+        this.presenceVersion = presenceVersion;
+        this.hasOwner = hasOwner;
+        this.ownerOnline = ownerOnline;
+        this.owners = owners;
+        this.ownersAbs = ownersAbs;
+        this.trusted = trusted;
+        this.members = members;
+        this.denied = denied;
+        this.everyoneTrusted = trusted.contains(DBFunc.EVERYONE);
+        this.everyoneMember = members.contains(DBFunc.EVERYONE);
+        this.everyoneDenied = denied.contains(DBFunc.EVERYONE);
+    }
+
+    /**
+     * Build a snapshot for a plot.
+     *
+     * @param plot         the plot
+     * @param mergeVersion the current merge index version of the plot area
+     * @return new snapshot
+     */
+    @Nonnull static PlotAccessSnapshot of(@Nonnull final Plot plot, final long mergeVersion) {
+        final ImmutableSet.Builder<UUID> owners = ImmutableSet.builder();
+        final ImmutableSet.Builder<UUID> ownersAbs = ImmutableSet.builder();
+        final UUID owner = plot.getOwner();
+        if (owner != null) {
+            owners.add(owner);
+        }
+        for (final Plot current : plot.getConnectedPlots()) {
+            final UUID currentOwner = current.getOwner();
+            if (currentOwner != null) {
+                owners.add(currentOwner);
+            }
+            if (current.hasOwner()) {
+                ownersAbs.add(current.getOwnerAbs());
+            }
+        }
+        final ImmutableSet<UUID> absolute = ownersAbs.build();
+        final PlayerManager<?, ?> playerManager = PlotSquared.platform().playerManager();
+        final int presenceVersion = playerManager.getPresenceVersion();
+        return new PlotAccessSnapshot(mergeVersion, presenceVersion, plot.hasOwner(), isAnyOnline(playerManager, absolute),
+            owners.build(), absolute, ImmutableSet.copyOf(plot.getTrusted()), ImmutableSet.copyOf(plot.getMembers()),
+            ImmutableSet.copyOf(plot.getDenied()));
+    }
+
+    private static boolean isAnyOnline(@Nonnull final PlayerManager<?, ?> playerManager, @Nonnull final ImmutableSet<UUID> owners) {
+        for (final UUID owner : owners) {
+            if (playerManager.getPlayerIfExists(owner) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get a snapshot with the online owner bit refreshed for the current player presence.
+     *
+     * @return this snapshot if presence did not change, else a refreshed copy
+     */
+    @Nonnull PlotAccessSnapshot withCurrentPresence() {
+        final PlayerManager<?, ?> playerManager = PlotSquared.platform().playerManager();
+        final int presenceVersion = playerManager.getPresenceVersion();
+        if (presenceVersion == this.presenceVersion) {
+            return this;
+        }
+        return new PlotAccessSnapshot(this.mergeVersion, presenceVersion, this.hasOwner,
+            isAnyOnline(playerManager, this.ownersAbs), this.owners, this.ownersAbs, this.trusted, this.members,
+            this.denied);
+    }
+
+    boolean isOwner(@Nonnull final UUID uuid) {
+        return this.owners.contains(uuid);
+    }
+
+    boolean isAdded(@Nonnull final UUID uuid) {
+        if (!this.hasOwner || this.denied.contains(uuid)) {
+            return false;
+        }
+        if (this.owners.contains(uuid)) {
+            return true;
+        }
+        if (this.members.contains(uuid)) {
+            return this.ownerOnline;
+        }
+        if (this.everyoneTrusted || this.trusted.contains(uuid)) {
+            return true;
+        }
+        return this.everyoneMember && this.ownerOnline;
+    }
+
+    boolean isDenied(@Nonnull final UUID uuid) {
+        return (this.everyoneDenied || this.denied.contains(uuid)) && !this.isAdded(uuid);
+    }
+
+}
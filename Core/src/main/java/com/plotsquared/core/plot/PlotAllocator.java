@@ -0,0 +1,345 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot;
+
+import com.plotsquared.core.util.MathMan;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Free space index for a {@link PlotArea}, used to find unclaimed plots
+ * without probing every id along the claim spiral.
+ * <p>
+ * Plot ids are grouped into the rings of the spiral walked by
+ * {@link PlotId#getNextId()}. Rings are only created once an id in them is
+ * occupied, so that a plot far away from the origin does not allocate every
+ * ring before it. Every ring keeps a bitmap of occupied ids, ordered the same
+ * way as the spiral, and a count of occupied ids so that full rings are
+ * skipped entirely. An id is occupied when the area stores a plot for it.
+ * Partial areas are searched around their center, and ids outside of the
+ * area bounds are marked as occupied.
+ * <p>
+ * The index is built from the area on first use and kept up to date by
+ * {@link PlotArea} when plots are added or removed. The returned ids are
+ * candidates only: callers still have to check that the plot can be claimed
+ * by the player, as clusters and permissions are not taken into account.
+ */
+public final class PlotAllocator {
+
+    private final PlotArea area;
+    private final Map<Integer, Ring> rings = new HashMap<>();
+    private boolean built;
+    private int centerX;
+    private int centerY;
+    private int minX;
+    private int minY;
+    private int maxX;
+    private int maxY;
+    private int maxRing = Integer.MAX_VALUE;
+    private int firstOpenRing;
+
+    PlotAllocator(@Nonnull final PlotArea area) {
+        this.area = area;
+    }
+
+    /**
+     * Get the first free plot id that comes after the given id in spiral
+     * order. If no id is given, the search starts at the origin of the area.
+     *
+     * @param after Id to start searching after, or {@code null}
+     * @return the first free id, or {@code null} if the area is full
+     */
+    @Nullable public synchronized PlotId getNextFree(@Nullable final PlotId after) {
+        this.build();
+        final long position = this.next(after);
+        return position < 0 ? null : this.toId(position);
+    }
+
+    /**
+     * Get the first id, after the given id in spiral order, for which every
+     * id in the rectangle spanning {@code sizeX} by {@code sizeZ} plots from
+     * that id is free.
+     *
+     * @param after Id to start searching after, or {@code null}
+     * @param sizeX Number of plots along the X axis
+     * @param sizeZ Number of plots along the Z axis
+     * @return the bottom id of the first free rectangle, or {@code null} if none exists
+     */
+    @Nullable public synchronized PlotId getNextFree(@Nullable final PlotId after, final int sizeX,
+        final int sizeZ) {
+        this.build();
+        PlotId current = after;
+        long position;
+        while ((position = this.next(current)) >= 0) {
+            current = this.toId(position);
+            if (this.isFree(current, sizeX, sizeZ)) {
+                return current;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check whether a plot id is free.
+     *
+     * @param id Plot id
+     * @return {@code true} if the id is inside the area and no plot is stored for it
+     */
+    public synchronized boolean isFree(@Nonnull final PlotId id) {
+        this.build();
+        return !this.isOccupied(id.getX() - this.centerX, id.getY() - this.centerY);
+    }
+
+    synchronized void occupy(@Nonnull final PlotId id) {
+        if (this.built) {
+            this.mark(id.getX() - this.centerX, id.getY() - this.centerY, true);
+        }
+    }
+
+    synchronized void release(@Nonnull final PlotId id) {
+        if (this.built) {
+            this.mark(id.getX() - this.centerX, id.getY() - this.centerY, false);
+        }
+    }
+
+    private void build() {
+        if (this.built) {
+            return;
+        }
+        if (this.area.getType() == PlotAreaType.PARTIAL) {
+            final PlotId min = this.area.getMin();
+            final PlotId max = this.area.getMax();
+            this.centerX = MathMan.average(min.getX(), max.getX());
+            this.centerY = MathMan.average(min.getY(), max.getY());
+            this.minX = min.getX() - this.centerX;
+            this.minY = min.getY() - this.centerY;
+            this.maxX = max.getX() - this.centerX;
+            this.maxY = max.getY() - this.centerY;
+            this.maxRing = Math.max(Math.max(-this.minX, this.maxX), Math.max(-this.minY, this.maxY));
+        }
+        this.built = true;
+        for (final Map.Entry<PlotId, Plot> entry : this.area.getPlotEntries()) {
+            final PlotId id = entry.getKey();
+            this.mark(id.getX() - this.centerX, id.getY() - this.centerY, true);
+        }
+    }
+
+    private boolean isFree(@Nonnull final PlotId bottom, final int sizeX, final int sizeZ) {
+        final int x = bottom.getX() - this.centerX;
+        final int y = bottom.getY() - this.centerY;
+        for (int dx = 0; dx < sizeX; dx++) {
+            for (int dy = 0; dy < sizeZ; dy++) {
+                if (this.isOccupied(x + dx, y + dy)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find the next free position after the given id, encoded as
+     * {@code ring << 32 | index}, or {@code -1} if there is none.
+     */
+    private long next(@Nullable final PlotId after) {
+        int ring;
+        int index;
+        if (after == null) {
+            ring = this.firstOpenRing;
+            index = 0;
+        } else {
+            final int x = after.getX() - this.centerX;
+            final int y = after.getY() - this.centerY;
+            ring = ringOf(x, y);
+            index = indexOf(x, y, ring) + 1;
+        }
+        while (ring <= this.maxRing) {
+            final int size = sizeOf(ring);
+            if (index < size) {
+                // Rings without occupied ids are free, unless they are partly out of bounds
+                if (this.maxRing == Integer.MAX_VALUE && !this.rings.containsKey(ring)) {
+                    return ((long) ring << 32) | index;
+                }
+                final Ring current = this.getRing(ring);
+                if (current.occupied < size) {
+                    final int free = current.bits.nextClearBit(index);
+                    if (free < size) {
+                        return ((long) ring << 32) | free;
+                    }
+                }
+            }
+            ring++;
+            index = 0;
+        }
+        return -1;
+    }
+
+    private boolean isOccupied(final int x, final int y) {
+        if (this.isOutside(x, y)) {
+            return true;
+        }
+        final int ring = ringOf(x, y);
+        final Ring current = this.rings.get(ring);
+        return current != null && current.bits.get(indexOf(x, y, ring));
+    }
+
+    private boolean isOutside(final int x, final int y) {
+        return this.maxRing != Integer.MAX_VALUE && (x < this.minX || x > this.maxX
+            || y < this.minY || y > this.maxY);
+    }
+
+    private void mark(final int x, final int y, final boolean occupied) {
+        if (this.isOutside(x, y)) {
+            return;
+        }
+        final int ring = ringOf(x, y);
+        if (!occupied && !this.rings.containsKey(ring)) {
+            return;
+        }
+        final Ring current = this.getRing(ring);
+        final int index = indexOf(x, y, ring);
+        if (current.bits.get(index) == occupied) {
+            return;
+        }
+        current.bits.set(index, occupied);
+        if (occupied) {
+            current.occupied++;
+            Ring open;
+            while ((open = this.rings.get(this.firstOpenRing)) != null && open.occupied >= open.size) {
+                this.firstOpenRing++;
+            }
+        } else {
+            if (--current.occupied == 0) {
+                this.rings.remove(ring);
+            }
+            this.firstOpenRing = Math.min(this.firstOpenRing, ring);
+        }
+    }
+
+    @Nonnull private Ring getRing(final int ring) {
+        Ring current = this.rings.get(ring);
+        if (current == null) {
+            current = new Ring(sizeOf(ring));
+            if (this.maxRing != Integer.MAX_VALUE) {
+                // Positions outside of partial areas can never be claimed
+                for (int i = 0; i < current.size; i++) {
+                    final long position = toPosition(ring, i);
+                    if (this.isOutside((int) (position >> 32), (int) position)) {
+                        current.bits.set(i);
+                        current.occupied++;
+                    }
+                }
+            }
+            this.rings.put(ring, current);
+        }
+        return current;
+    }
+
+    @Nonnull private PlotId toId(final long position) {
+        final long relative = toPosition((int) (position >> 32), (int) position);
+        return PlotId.of(this.centerX + (int) (relative >> 32), this.centerY + (int) relative);
+    }
+
+    private static int ringOf(final int x, final int y) {
+        return Math.max(Math.abs(x), Math.abs(y));
+    }
+
+    private static int sizeOf(final int ring) {
+        return ring == 0 ? 1 : ring * 8;
+    }
+
+    /**
+     * Get the position of a relative id within its ring. Rings start at
+     * {@code (ring - 1, ring)} and are walked counter clockwise, matching
+     * {@link PlotId#getNextId()}.
+     */
+    private static int indexOf(final int x, final int y, final int ring) {
+        if (ring == 0) {
+            return 0;
+        }
+        if (y == ring && x < ring) {
+            return ring - 1 - x;
+        }
+        if (x == -ring && y < ring) {
+            return 3 * ring - 1 - y;
+        }
+        if (y == -ring && x > -ring) {
+            return 5 * ring - 1 + x;
+        }
+        return 7 * ring - 1 + y;
+    }
+
+    /**
+     * Get the relative id at a position within a ring, encoded as
+     * {@code x << 32 | y}.
+     */
+    private static long toPosition(final int ring, final int index) {
+        if (ring == 0) {
+            return 0L;
+        }
+        final int offset = index % (2 * ring);
+        final int x;
+        final int y;
+        switch (index / (2 * ring)) {
+            case 0:
+                x = ring - 1 - offset;
+                y = ring;
+                break;
+            case 1:
+                x = -ring;
+                y = ring - 1 - offset;
+                break;
+            case 2:
+                x = -ring + 1 + offset;
+                y = -ring;
+                break;
+            default:
+                x = ring;
+                y = -ring + 1 + offset;
+                break;
+        }
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    private static final class Ring {
+
+        private final int size;
+        private final BitSet bits;
+        private int occupied;
+
+        private Ring(final int size) {
+            this.size = size;
+            // Grows with the highest occupied index, rather than the ring size
+            this.bits = new BitSet();
+        }
+
+    }
+
+}
@@ -53,12 +53,10 @@ import com.plotsquared.core.plot.flag.FlagContainer;
 import com.plotsquared.core.plot.flag.FlagParseException;
 import com.plotsquared.core.plot.flag.GlobalFlagContainer;
 import com.plotsquared.core.plot.flag.PlotFlag;
-import com.plotsquared.core.plot.flag.implementations.DoneFlag;
 import com.plotsquared.core.plot.flag.types.DoubleFlag;
 import com.plotsquared.core.queue.GlobalBlockQueue;
 import com.plotsquared.core.queue.QueueCoordinator;
 import com.plotsquared.core.util.Expression;
-import com.plotsquared.core.util.MathMan;
 import com.plotsquared.core.util.RegionUtil;
 import com.plotsquared.core.util.StringMan;
 import com.sk89q.worldedit.math.BlockVector2;
@@ -104,6 +102,10 @@ public abstract class PlotArea {
     }
 
     protected final ConcurrentHashMap<PlotId, Plot> plots = new ConcurrentHashMap<>();
+    private final PlotMergeIndex mergeIndex = new PlotMergeIndex();
+    private final PlotOwnerIndex ownerIndex = new PlotOwnerIndex();
+    private final PlotSearchIndex searchIndex = new PlotSearchIndex();
+    private final PlotAllocator allocator = new PlotAllocator(this);
     @Nonnull private final String worldName;
     private final String id;
     @Nonnull private final PlotManager plotManager;
@@ -615,21 +617,15 @@ public abstract class PlotArea {
     }
 
     @Nonnull public Set<Plot> getPlotsAbs(final UUID uuid) {
-        if (uuid == null) {
-            return Collections.emptySet();
-        }
-        final HashSet<Plot> myPlots = new HashSet<>();
-        forEachPlotAbs(value -> {
-            if (uuid.equals(value.getOwnerAbs())) {
-                myPlots.add(value);
-            }
-        });
-        return myPlots;
+        return this.ownerIndex.getPlots(uuid);
     }
 
     @Nonnull public Set<Plot> getPlots(@Nonnull final UUID uuid) {
-        return getPlots().stream().filter(plot -> plot.isBasePlot() && plot.isOwner(uuid))
-            .collect(ImmutableSet.toImmutableSet());
+        final ImmutableSet.Builder<Plot> builder = ImmutableSet.builder();
+        for (final Plot plot : this.ownerIndex.getPlots(uuid)) {
+            builder.add(plot.getBasePlot(false));
+        }
+        return builder.build();
     }
 
     /**
@@ -642,10 +638,7 @@ public abstract class PlotArea {
     }
 
     public int getPlotCount(@Nonnull final UUID uuid) {
-        if (!Settings.Done.COUNTS_TOWARDS_LIMIT) {
-            return (int) getPlotsAbs(uuid).stream().filter(plot -> !DoneFlag.isDone(plot)).count();
-        }
-        return getPlotsAbs(uuid).size();
+        return this.ownerIndex.getPlotCount(uuid);
     }
 
     /**
@@ -661,7 +654,7 @@ public abstract class PlotArea {
     }
 
     public boolean hasPlot(@Nonnull final UUID uuid) {
-        return this.plots.entrySet().stream().anyMatch(entry -> entry.getValue().isOwner(uuid));
+        return this.ownerIndex.hasPlots(uuid);
     }
 
     //todo check if this method is needed in this class
@@ -769,12 +762,6 @@ public abstract class PlotArea {
         return myPlots;
     }
 
-    private void forEachPlotAbs(Consumer<Plot> run) {
-        for (final Entry<PlotId, Plot> entry : this.plots.entrySet()) {
-            run.accept(entry.getValue());
-        }
-    }
-
     public void forEachBasePlot(Consumer<Plot> run) {
         for (final Plot plot : getPlots()) {
             if (plot.isBasePlot()) {
@@ -806,34 +793,15 @@ public abstract class PlotArea {
                 metaDataAccess.set(plot);
             }
         }
-        return this.plots.put(plot.getId(), plot) == null;
+        this.mergeIndex.invalidate(plot.getId());
+        return this.putPlot(plot);
     }
 
     public Plot getNextFreePlot(final PlotPlayer player, @Nullable PlotId start) {
-        int plots;
-        PlotId center;
-        PlotId min = getMin();
-        PlotId max = getMax();
-        if (getType() == PlotAreaType.PARTIAL) {
-            center = PlotId.of(MathMan.average(min.getX(), max.getX()), MathMan.average(min.getY(), max.getY()));
-            plots = Math.max(max.getX() - min.getX() + 1, max.getY() - min.getY() + 1) + 1;
-            if (start != null) {
-                start = PlotId.of(start.getX() - center.getX(), start.getY() - center.getY());
-            }
-        } else {
-            center = PlotId.of(0, 0);
-            plots = Integer.MAX_VALUE;
-        }
-        for (int i = 0; i < plots; i++) {
-            if (start == null) {
-                start = getMeta("lastPlot", PlotId.of(0, 0));
-            } else {
-                start = start.getNextId();
-            }
-            PlotId currentId = PlotId.of(center.getX() + start.getX(), center.getY() + start.getY());
-            Plot plot = getPlotAbs(currentId);
+        PlotId id = start;
+        while ((id = this.allocator.getNextFree(id)) != null) {
+            final Plot plot = getPlotAbs(id);
             if (plot != null && plot.canClaim(player)) {
-                setMeta("lastPlot", start);
                 return plot;
             }
         }
@@ -842,6 +810,10 @@ public abstract class PlotArea {
 
     public boolean addPlotIfAbsent(@Nonnull final Plot plot) {
         if (this.plots.putIfAbsent(plot.getId(), plot) == null) {
+            this.mergeIndex.invalidate(plot.getId());
+            this.ownerIndex.add(plot);
+            this.searchIndex.add(plot);
+            this.allocator.occupy(plot.getId());
             for (PlotPlayer<?> pp : plot.getPlayersInPlot()) {
                 try (final MetaDataAccess<Plot> metaDataAccess = pp.accessTemporaryMetaData(
                     PlayerMetaDataKeys.TEMPORARY_LAST_PLOT)) {
@@ -854,7 +826,8 @@ public abstract class PlotArea {
     }
 
     public boolean addPlotAbs(@Nonnull final Plot plot) {
-        return this.plots.put(plot.getId(), plot) == null;
+        this.mergeIndex.invalidate(plot.getId());
+        return this.putPlot(plot);
     }
 
     /**
@@ -938,8 +911,64 @@ public abstract class PlotArea {
         return plots;
     }
 
+    private boolean putPlot(@Nonnull final Plot plot) {
+        final Plot previous = this.plots.put(plot.getId(), plot);
+        if (previous != null && previous != plot) {
+            this.ownerIndex.remove(previous);
+            this.searchIndex.remove(previous);
+        }
+        this.ownerIndex.add(plot);
+        this.searchIndex.add(plot);
+        this.allocator.occupy(plot.getId());
+        return previous == null;
+    }
+
     public boolean removePlot(@Nonnull final PlotId id) {
-        return this.plots.remove(id) != null;
+        this.mergeIndex.invalidate(id);
+        final Plot removed = this.plots.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        this.ownerIndex.remove(removed);
+        this.searchIndex.remove(removed);
+        this.allocator.release(id);
+        return true;
+    }
+
+    /**
+     * Get the index of merged plot groups in this area.
+     *
+     * @return the merge group index
+     */
+    @Nonnull public PlotMergeIndex getMergeIndex() {
+        return this.mergeIndex;
+    }
+
+    /**
+     * Get the index of plots in this area by owner.
+     *
+     * @return the owner index
+     */
+    @Nonnull public PlotOwnerIndex getOwnerIndex() {
+        return this.ownerIndex;
+    }
+
+    /**
+     * Get the index of plots in this area by trusted players, members and alias.
+     *
+     * @return the search index
+     */
+    @Nonnull public PlotSearchIndex getSearchIndex() {
+        return this.searchIndex;
+    }
+
+    /**
+     * Get the free space index used to find unclaimed plots in this area.
+     *
+     * @return the plot allocator
+     */
+    @Nonnull public PlotAllocator getAllocator() {
+        return this.allocator;
     }
 
     public boolean mergePlots(@Nonnull final List<PlotId> plotIds, final boolean removeRoads) {
@@ -0,0 +1,216 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot;
+
+import com.plotsquared.core.location.Direction;
+import com.sk89q.worldedit.regions.CuboidRegion;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per {@link PlotArea} index of merged plot groups.
+ * - Every plot that belongs to a merged group maps to the same immutable {@link MergeGroup}<br>
+ * - Merging two groups unions them in place, unlinking or replacing a plot drops its group so that
+ * it is rebuilt lazily on the next lookup<br>
+ * - Lookups are lock free and may be performed from any thread
+ */
+public final class PlotMergeIndex {
+
+    private final ConcurrentHashMap<PlotId, MergeGroup> groups = new ConcurrentHashMap<>();
+    /**
+     * Bumped on every structural change, used to discard groups that were computed
+     * concurrently with a modification.
+     */
+    private volatile long version;
+
+    PlotMergeIndex() {
+    }
+
+    /**
+     * Get the current version of the index. The version changes whenever plots are
+     * merged, unlinked, added, removed or change owner.
+     *
+     * @return index version
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Get the merge group containing a plot. The plot is expected to be merged.
+     *
+     * @param plot the plot
+     * @return the group the plot belongs to
+     */
+    @Nonnull MergeGroup getGroup(@Nonnull final Plot plot) {
+        MergeGroup group = this.groups.get(plot.getId());
+        if (group != null) {
+            return group;
+        }
+        final long expected = this.version;
+        group = new MergeGroup(plot.computeConnectedPlots());
+        synchronized (this) {
+            if (this.version == expected) {
+                for (final PlotId id : group.ids) {
+                    this.groups.put(id, group);
+                }
+            }
+        }
+        return group;
+    }
+
+    /**
+     * Get the cached merge group for a plot id, without computing it.
+     *
+     * @param id plot id
+     * @return the cached group, or null
+     */
+    @Nullable public MergeGroup getCachedGroup(@Nonnull final PlotId id) {
+        return this.groups.get(id);
+    }
+
+    /**
+     * Record that {@code plot} has been merged with its neighbour in {@code direction}.
+     * If both sides are known, the resulting group is the union of both groups. Otherwise
+     * the affected groups are dropped and rebuilt on demand.
+     *
+     * @param plot      the plot that was merged
+     * @param other     the neighbouring plot
+     * @param direction the direction from {@code plot} to {@code other}
+     */
+    synchronized void union(@Nonnull final Plot plot, @Nonnull final Plot other, @Nonnull final Direction direction) {
+        this.version++;
+        final Set<Plot> first = this.knownGroup(plot, direction.getIndex());
+        final Set<Plot> second = this.knownGroup(other, (direction.getIndex() + 2) & 3);
+        if (first == null || second == null) {
+            this.drop(plot.getId());
+            this.drop(other.getId());
+            return;
+        }
+        final Set<Plot> union = new HashSet<>(first);
+        union.addAll(second);
+        final MergeGroup group = new MergeGroup(union);
+        for (final PlotId id : group.ids) {
+            this.groups.put(id, group);
+        }
+    }
+
+    /**
+     * Drop the group containing the given plot id. The group is rebuilt the next
+     * time one of its plots is queried.
+     *
+     * @param id plot id
+     */
+    public synchronized void invalidate(@Nonnull final PlotId id) {
+        this.version++;
+        this.drop(id);
+    }
+
+    /**
+     * Drop every cached group.
+     */
+    public synchronized void invalidateAll() {
+        this.version++;
+        this.groups.clear();
+    }
+
+    private void drop(@Nonnull final PlotId id) {
+        final MergeGroup group = this.groups.remove(id);
+        if (group != null) {
+            for (final PlotId member : group.ids) {
+                this.groups.remove(member, group);
+            }
+        }
+    }
+
+    /**
+     * The members of the group the plot belonged to before the merge in {@code direction}, if known.
+     */
+    @Nullable private Set<Plot> knownGroup(@Nonnull final Plot plot, final int direction) {
+        final MergeGroup group = this.groups.get(plot.getId());
+        if (group != null) {
+            return group.plots;
+        }
+        // A plot that is not merged in any other direction was on its own
+        for (int i = 0; i < 4; i++) {
+            if (i != direction && plot.getSettings().getMerged(i)) {
+                return null;
+            }
+        }
+        return Collections.singleton(plot);
+    }
+
+
+    /**
+     * An immutable group of connected plots, along with its lazily computed
+     * rectangular regions.
+     */
+    public static final class MergeGroup {
+
+        private final Set<Plot> plots;
+        private final PlotId[] ids;
+        private volatile Set<CuboidRegion> regions;
+
+        MergeGroup(@Nonnull final Set<Plot> plots) {
+            this.plots = Collections.unmodifiableSet(plots);
+            this.ids = new PlotId[plots.size()];
+            int i = 0;
+            for (final Plot plot : plots) {
+                this.ids[i++] = plot.getId();
+            }
+        }
+
+        /**
+         * Get the plots in this group.
+         *
+         * @return unmodifiable set of plots
+         */
+        @Nonnull public Set<Plot> getPlots() {
+            return this.plots;
+        }
+
+        /**
+         * Get the rectangular regions making up this group.
+         *
+         * @return unmodifiable set of regions
+         */
+        @Nonnull public Set<CuboidRegion> getRegions() {
+            Set<CuboidRegion> regions = this.regions;
+            if (regions == null) {
+                final Plot any = this.plots.iterator().next();
+                this.regions = regions = Collections.unmodifiableSet(any.computeRegions(this.plots));
+            }
+            return regions;
+        }
+
+    }
+
+}
@@ -152,6 +152,7 @@ public final class PlotModificationManager {
                     DBFunc.setDenied(other, denied);
                 }
             }
+            other.invalidateAccess();
         }
         // copy terrain
         final ArrayDeque<CuboidRegion> regions = new ArrayDeque<>(this.plot.getRegions());
@@ -444,11 +445,11 @@ public final class PlotModificationManager {
                 this.plot.updateWorldBorder();
             }
         }
-        Plot.connected_cache = null;
-        Plot.regions_cache = null;
+        this.plot.getArea().getMergeIndex().invalidate(this.plot.getId());
         this.plot.getTrusted().clear();
         this.plot.getMembers().clear();
         this.plot.getDenied().clear();
+        this.plot.invalidateAccess();
         this.plot.settings = new PlotSettings();
         if (this.plot.getArea().addPlot(this.plot)) {
             DBFunc.createPlotAndSettings(this.plot, () -> {
@@ -0,0 +1,224 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot;
+
+import com.plotsquared.core.configuration.Settings;
+import com.plotsquared.core.plot.flag.implementations.DoneFlag;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Index of the plots in a {@link PlotArea}, keyed by the owner of each
+ * individual plot. Owner lookups and plot counts are answered from the
+ * index instead of scanning every plot in the area.
+ * <p>
+ * Plots are tracked by identity, since a plot's id may change while it
+ * is stored in an area. The index is updated by {@link PlotArea} when plots
+ * are added or removed, and by {@link Plot} when its owner or its
+ * {@link DoneFlag} changes.
+ * <p>
+ * Areas that are registered with the plot area manager also contribute to
+ * a global per-owner count, see {@link #getGlobalPlotCount(UUID)}.
+ */
+public final class PlotOwnerIndex {
+
+    private static final Map<UUID, Counts> GLOBAL = new HashMap<>();
+
+    private final Map<Plot, Entry> entries = new IdentityHashMap<>();
+    private final Map<UUID, Set<Plot>> owned = new HashMap<>();
+    private final Map<UUID, Counts> counts = new HashMap<>();
+    private boolean registered;
+
+    PlotOwnerIndex() {
+    }
+
+    /**
+     * Get the number of plots owned by a player across all registered areas,
+     * following the {@code done} counting rule in the settings.
+     *
+     * @param owner Owner UUID
+     * @return number of plots
+     */
+    public static int getGlobalPlotCount(@Nonnull final UUID owner) {
+        synchronized (GLOBAL) {
+            final Counts count = GLOBAL.get(owner);
+            return count == null ? 0 : count.get();
+        }
+    }
+
+    /**
+     * Get the plots in this area whose own owner is the given player. Merged
+     * plots are not expanded.
+     *
+     * @param owner Owner UUID
+     * @return a copy of the owned plots
+     */
+    @Nonnull public synchronized Set<Plot> getPlots(@Nullable final UUID owner) {
+        final Set<Plot> plots = owner == null ? null : this.owned.get(owner);
+        if (plots == null) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(plots);
+    }
+
+    /**
+     * Get the number of plots owned by a player in this area, following the
+     * {@code done} counting rule in the settings.
+     *
+     * @param owner Owner UUID
+     * @return number of plots
+     */
+    public synchronized int getPlotCount(@Nonnull final UUID owner) {
+        final Counts count = this.counts.get(owner);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Check whether a player owns any plot in this area
+     *
+     * @param owner Owner UUID
+     * @return true if the player owns at least one plot
+     */
+    public synchronized boolean hasPlots(@Nonnull final UUID owner) {
+        return this.owned.containsKey(owner);
+    }
+
+    /**
+     * Set whether the area is registered with the plot area manager. Only
+     * registered areas contribute to {@link #getGlobalPlotCount(UUID)}.
+     *
+     * @param registered whether the area is registered
+     */
+    public synchronized void setRegistered(final boolean registered) {
+        if (this.registered == registered) {
+            return;
+        }
+        final int sign = registered ? 1 : -1;
+        synchronized (GLOBAL) {
+            for (final Map.Entry<UUID, Counts> entry : this.counts.entrySet()) {
+                final Counts count = entry.getValue();
+                Counts global = GLOBAL.computeIfAbsent(entry.getKey(), uuid -> new Counts());
+                global.all += sign * count.all;
+                global.done += sign * count.done;
+                if (global.all == 0) {
+                    GLOBAL.remove(entry.getKey());
+                }
+            }
+        }
+        this.registered = registered;
+    }
+
+    synchronized void add(@Nonnull final Plot plot) {
+        final Entry entry = new Entry();
+        if (this.entries.putIfAbsent(plot, entry) == null) {
+            this.apply(plot, entry, plot.getOwnerAbs(), DoneFlag.isDone(plot));
+        }
+    }
+
+    synchronized void remove(@Nonnull final Plot plot) {
+        final Entry entry = this.entries.remove(plot);
+        if (entry != null) {
+            this.apply(plot, entry, null, false);
+        }
+    }
+
+    /**
+     * Update the owner and done state of an indexed plot
+     */
+    synchronized void update(@Nonnull final Plot plot) {
+        final Entry entry = this.entries.get(plot);
+        if (entry != null) {
+            this.apply(plot, entry, plot.getOwnerAbs(), DoneFlag.isDone(plot));
+        }
+    }
+
+    private void apply(@Nonnull final Plot plot, @Nonnull final Entry entry, @Nullable final UUID owner, final boolean done) {
+        if (entry.owner != null && (!entry.owner.equals(owner) || entry.done != done)) {
+            this.count(entry.owner, -1, entry.done ? -1 : 0);
+            if (!entry.owner.equals(owner)) {
+                final Set<Plot> plots = this.owned.get(entry.owner);
+                if (plots != null && plots.remove(plot) && plots.isEmpty()) {
+                    this.owned.remove(entry.owner);
+                }
+            }
+        } else if (entry.owner != null) {
+            return;
+        }
+        if (owner != null) {
+            this.owned.computeIfAbsent(owner, uuid -> Collections.newSetFromMap(new IdentityHashMap<>())).add(plot);
+            this.count(owner, 1, done ? 1 : 0);
+        }
+        entry.owner = owner;
+        entry.done = done;
+    }
+
+    private void count(@Nonnull final UUID owner, final int all, final int done) {
+        final Counts count = this.counts.computeIfAbsent(owner, uuid -> new Counts());
+        count.all += all;
+        count.done += done;
+        if (count.all == 0) {
+            this.counts.remove(owner);
+        }
+        if (this.registered) {
+            synchronized (GLOBAL) {
+                final Counts global = GLOBAL.computeIfAbsent(owner, uuid -> new Counts());
+                global.all += all;
+                global.done += done;
+                if (global.all == 0) {
+                    GLOBAL.remove(owner);
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        @Nullable private UUID owner;
+        private boolean done;
+
+    }
+
+
+    private static final class Counts {
+
+        private int all;
+        private int done;
+
+        private int get() {
+            return Settings.Done.COUNTS_TOWARDS_LIMIT ? this.all : this.all - this.done;
+        }
+
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot;
+
+import com.plotsquared.core.PlotSquared;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Index of all rated plots, sorted by their {@link RatingAggregate#getScore() rating score}.
+ * The index is built when first used and then updated as plots are rated.
+ */
+public final class PlotRatingIndex {
+
+    private static final PlotRatingIndex INSTANCE = new PlotRatingIndex();
+
+    private final NavigableSet<IndexEntry> sorted = new ConcurrentSkipListSet<>();
+    private final Map<Plot, IndexEntry> entries = new ConcurrentHashMap<>();
+    private volatile boolean built;
+
+    private PlotRatingIndex() {
+    }
+
+    /**
+     * Get the rating index
+     *
+     * @return Rating index
+     */
+    @Nonnull public static PlotRatingIndex get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Update the position of a plot after its ratings have changed
+     *
+     * @param plot Base plot
+     */
+    public void update(@Nonnull final Plot plot) {
+        if (!this.built) {
+            return;
+        }
+        this.index(plot);
+    }
+
+    /**
+     * Get the rated base plots, highest score first
+     *
+     * @return Rated plots
+     */
+    @Nonnull public List<Plot> getRatedPlots() {
+        this.build();
+        final List<Plot> plots = new ArrayList<>();
+        for (final IndexEntry entry : this.sorted) {
+            final Plot plot = entry.plot;
+            // Deleted plots are only removed from the index when they are read
+            if (plot.getArea() == null || plot.getArea().getPlotAbs(plot.getId()) != plot) {
+                if (this.entries.remove(plot, entry)) {
+                    this.sorted.remove(entry);
+                }
+                continue;
+            }
+            plots.add(plot);
+        }
+        return plots;
+    }
+
+    private synchronized void build() {
+        if (this.built) {
+            return;
+        }
+        for (final PlotArea area : PlotSquared.get().getPlotAreaManager().getAllPlotAreas()) {
+            for (final Plot plot : area.getPlots()) {
+                this.index(plot);
+            }
+        }
+        this.built = true;
+    }
+
+    private synchronized void index(@Nonnull final Plot plot) {
+        final RatingAggregate aggregate = plot.getSettings().getRatingAggregate();
+        final IndexEntry previous = this.entries.remove(plot);
+        if (previous != null) {
+            this.sorted.remove(previous);
+        }
+        if (aggregate.getCount() == 0) {
+            return;
+        }
+        final IndexEntry entry = new IndexEntry(plot, aggregate.getScore(), aggregate.getCount());
+        this.entries.put(plot, entry);
+        this.sorted.add(entry);
+    }
+
+    private static final class IndexEntry implements Comparable<IndexEntry> {
+
+        private final Plot plot;
+        private final double score;
+        private final int count;
+
+        private IndexEntry(@Nonnull final Plot plot, final double score, final int count) {
+            this.plot = plot;
+            this.score = score;
+            this.count = count;
+        }
+
+        @Override public int compareTo(@Nonnull final IndexEntry other) {
+            int compare = Double.compare(other.score, this.score);
+            if (compare == 0) {
+                compare = Integer.compare(other.count, this.count);
+            }
+            if (compare == 0) {
+                compare = String.valueOf(this.plot.getArea()).compareTo(String.valueOf(other.plot.getArea()));
+            }
+            if (compare == 0) {
+                compare = Integer.compare(this.plot.getId().getX(), other.plot.getId().getX());
+            }
+            if (compare == 0) {
+                compare = Integer.compare(this.plot.getId().getY(), other.plot.getId().getY());
+            }
+            return compare;
+        }
+
+    }
+
+}
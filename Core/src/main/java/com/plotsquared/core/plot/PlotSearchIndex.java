@@ -0,0 +1,136 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Index of the plots in a {@link PlotArea} by their trusted players, members
+ * and alias. Together with the {@link PlotOwnerIndex} this lets plot searches
+ * and alias lookups collect their candidates without scanning every plot.
+ * <p>
+ * Plots are tracked by identity. The index is updated by {@link PlotArea} when
+ * plots are added or removed, and by {@link Plot} when its trusted players,
+ * members or alias change.
+ */
+public final class PlotSearchIndex {
+
+    private final Map<Plot, Entry> entries = new IdentityHashMap<>();
+    private final Map<UUID, Set<Plot>> added = new HashMap<>();
+    private final Map<String, Set<Plot>> aliases = new HashMap<>();
+
+    PlotSearchIndex() {
+    }
+
+    /**
+     * Get the plots in this area that the player is trusted or added to. This
+     * does not check whether an owner is online.
+     *
+     * @param uuid Player UUID
+     * @return a copy of the plots
+     */
+    @Nonnull public synchronized Set<Plot> getPlotsWithAdded(@Nonnull final UUID uuid) {
+        final Set<Plot> plots = this.added.get(uuid);
+        if (plots == null) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(plots);
+    }
+
+    /**
+     * Get the plots in this area with the given alias, ignoring case
+     *
+     * @param alias Plot alias
+     * @return a copy of the plots
+     */
+    @Nonnull public synchronized Set<Plot> getPlotsByAlias(@Nonnull final String alias) {
+        final Set<Plot> plots = this.aliases.get(alias.toLowerCase(Locale.ENGLISH));
+        if (plots == null) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(plots);
+    }
+
+    synchronized void add(@Nonnull final Plot plot) {
+        this.remove(plot);
+        final Entry entry = new Entry();
+        entry.added.addAll(plot.getTrusted());
+        entry.added.addAll(plot.getMembers());
+        final String alias = plot.getSettings().getAlias();
+        entry.alias = alias.isEmpty() ? null : alias.toLowerCase(Locale.ENGLISH);
+        for (final UUID uuid : entry.added) {
+            this.added.computeIfAbsent(uuid, key -> Collections.newSetFromMap(new IdentityHashMap<>())).add(plot);
+        }
+        if (entry.alias != null) {
+            this.aliases.computeIfAbsent(entry.alias, key -> Collections.newSetFromMap(new IdentityHashMap<>())).add(plot);
+        }
+        this.entries.put(plot, entry);
+    }
+
+    /**
+     * Update the trusted players, members and alias of an indexed plot
+     */
+    synchronized void update(@Nonnull final Plot plot) {
+        if (this.entries.containsKey(plot)) {
+            this.add(plot);
+        }
+    }
+
+    synchronized void remove(@Nonnull final Plot plot) {
+        final Entry entry = this.entries.remove(plot);
+        if (entry == null) {
+            return;
+        }
+        for (final UUID uuid : entry.added) {
+            final Set<Plot> plots = this.added.get(uuid);
+            if (plots != null && plots.remove(plot) && plots.isEmpty()) {
+                this.added.remove(uuid);
+            }
+        }
+        if (entry.alias != null) {
+            final Set<Plot> plots = this.aliases.get(entry.alias);
+            if (plots != null && plots.remove(plot) && plots.isEmpty()) {
+                this.aliases.remove(entry.alias);
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final Set<UUID> added = new HashSet<>();
+        private String alias;
+
+    }
+
+}
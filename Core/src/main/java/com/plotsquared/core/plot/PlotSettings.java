@@ -30,6 +30,7 @@ import com.plotsquared.core.location.BlockLoc;
 import com.plotsquared.core.location.Direction;
 import com.plotsquared.core.plot.comment.PlotComment;
 
+import javax.annotation.Nonnull;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -56,6 +57,10 @@ public class PlotSettings {
      * The ratings for a plot.
      */
     private HashMap<UUID, Integer> ratings;
+    /**
+     * Aggregate of the ratings, computed when first needed.
+     */
+    private volatile RatingAggregate ratingAggregate;
     /**
      * Plot comments.
      */
@@ -86,6 +91,27 @@ public class PlotSettings {
         return this.ratings;
     }
 
+    /**
+     * Get the aggregate of the ratings. Changes to the ratings must be followed by
+     * {@link #invalidateRatings()} for the aggregate to reflect them.
+     *
+     * @return Rating aggregate
+     */
+    @Nonnull public RatingAggregate getRatingAggregate() {
+        RatingAggregate aggregate = this.ratingAggregate;
+        if (aggregate == null) {
+            aggregate = this.ratingAggregate = RatingAggregate.of(this.getRatings());
+        }
+        return aggregate;
+    }
+
+    /**
+     * Discard the rating aggregate after the ratings have changed
+     */
+    public void invalidateRatings() {
+        this.ratingAggregate = null;
+    }
+
     public boolean setMerged(int direction, boolean merged) {
         if (this.merged[direction] != merged) {
             this.merged[direction] = merged;
@@ -161,6 +187,7 @@ public class PlotSettings {
 
     public void setRatings(HashMap<UUID, Integer> ratings) {
         this.ratings = ratings;
+        this.ratingAggregate = null;
     }
 
     public void setComments(List<PlotComment> comments) {
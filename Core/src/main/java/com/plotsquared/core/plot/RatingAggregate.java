@@ -0,0 +1,132 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot;
+
+import com.plotsquared.core.configuration.Settings;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Aggregate of the ratings of a plot, computed once when the ratings change
+ * so that averages and sorting scores don't have to go through every rating.
+ */
+public final class RatingAggregate {
+
+    private final int count;
+    private final double sum;
+    private final double sumOfSquares;
+    private final double[] categorySums;
+
+    private RatingAggregate(final int count, final double sum, final double sumOfSquares,
+        @Nonnull final double[] categorySums) {
+        this.count = count;
+        this.sum = sum;
+        this.sumOfSquares = sumOfSquares;
+        this.categorySums = categorySums;
+    }
+
+    /**
+     * Aggregate the stored ratings of a plot
+     *
+     * @param ratings Map of user who rated to the rating aggregate value
+     * @return Rating aggregate
+     */
+    @Nonnull static RatingAggregate of(@Nonnull final Map<UUID, Integer> ratings) {
+        int size = 1;
+        if (!Settings.Ratings.CATEGORIES.isEmpty()) {
+            size = Math.max(1, Settings.Ratings.CATEGORIES.size());
+        }
+        final double[] categorySums = new double[size];
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (final int value : ratings.values()) {
+            final double average = new Rating(value).getAverageRating();
+            sum += average;
+            sumOfSquares += average * average;
+            int current = value;
+            if (Settings.Ratings.CATEGORIES.isEmpty()) {
+                categorySums[0] += current;
+            } else {
+                for (int i = 0; i < Settings.Ratings.CATEGORIES.size(); i++) {
+                    categorySums[i] += current % 10 - 1;
+                    current /= 10;
+                }
+            }
+        }
+        return new RatingAggregate(ratings.size(), sum, sumOfSquares, categorySums);
+    }
+
+    /**
+     * Get the number of ratings
+     *
+     * @return Number of ratings
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * Get the average rating
+     *
+     * @return Average rating, {@link Double#NaN} if no ratings exist
+     */
+    public double getAverage() {
+        return this.sum / this.count;
+    }
+
+    /**
+     * Get the average rating in each category. The index corresponds to the
+     * index of the category in the config
+     *
+     * @return Average ratings in each category
+     */
+    @Nonnull public double[] getCategoryAverages() {
+        final double[] averages = new double[this.categorySums.length];
+        if (this.count == 0) {
+            return averages;
+        }
+        for (int i = 0; i < averages.length; i++) {
+            averages[i] = this.categorySums[i] / this.count;
+        }
+        return averages;
+    }
+
+    /**
+     * Get the score that plots are sorted by when sorting by rating. This
+     * is the mean of the squared ratings plus the number of ratings.
+     *
+     * @return Score, 0 if no ratings exist
+     */
+    public double getScore() {
+        if (this.count == 0) {
+            return 0;
+        }
+        return this.sumOfSquares / this.count + this.count;
+    }
+
+}
@@ -26,6 +26,7 @@
 package com.plotsquared.core.plot.expiration;
 
 import com.plotsquared.core.PlotSquared;
+import com.plotsquared.core.configuration.Settings;
 import com.plotsquared.core.configuration.caption.Caption;
 import com.plotsquared.core.configuration.caption.Templates;
 import com.plotsquared.core.configuration.caption.TranslatableCaption;
@@ -51,25 +52,36 @@ import com.plotsquared.core.util.task.RunnableVal;
 import com.plotsquared.core.util.task.RunnableVal3;
 import com.plotsquared.core.util.task.TaskManager;
 import com.plotsquared.core.util.task.TaskTime;
+import com.sk89q.worldedit.math.BlockVector2;
+import com.sk89q.worldedit.regions.CuboidRegion;
 import net.kyori.adventure.text.minimessage.Template;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.stream.Collectors;
 
 public class ExpireManager {
 
     private final Logger logger = LoggerFactory.getLogger("P2/" + ExpireManager.class);
+    private static final String CHECKPOINT_FILE = "expiry_checkpoint.txt";
 
     public static ExpireManager IMP;
     private final ConcurrentHashMap<UUID, Long> dates_cache;
@@ -301,24 +313,37 @@ public class ExpireManager {
             return false;
         }
         this.running = 2;
-        final ConcurrentLinkedDeque<Plot> plots =
-            new ConcurrentLinkedDeque<>(PlotQuery.newQuery().allPlots().asList());
+        final ConcurrentLinkedDeque<ExpiryCandidate> plots = new ConcurrentLinkedDeque<>();
         TaskManager.runTaskAsync(new Runnable() {
+            private boolean indexed;
+            // Candidate being processed, saved as the checkpoint once it has been handled
+            private ExpiryCandidate processing;
+
             @Override public void run() {
                 final Runnable task = this;
+                this.checkpoint();
                 if (ExpireManager.this.running != 2) {
                     ExpireManager.this.running = 0;
                     return;
                 }
-                long start = System.currentTimeMillis();
+                if (!this.indexed) {
+                    this.indexed = true;
+                    plots.addAll(getExpiryCandidates());
+                }
                 while (!plots.isEmpty()) {
                     if (ExpireManager.this.running != 2) {
                         ExpireManager.this.running = 0;
                         return;
                     }
-                    Plot plot = plots.poll();
+                    this.checkpoint();
+                    ExpiryCandidate candidate = plots.poll();
+                    this.processing = candidate;
+                    Plot plot = candidate.plot;
                     PlotArea area = plot.getArea();
                     final Plot newPlot = area.getPlot(plot.getId());
+                    if (newPlot == null) {
+                        continue;
+                    }
                     final ArrayDeque<ExpiryTask> applicable = new ArrayDeque<>(tasks);
                     final Collection<ExpiryTask> expired = isExpired(applicable, newPlot);
                     if (expired.isEmpty()) {
@@ -326,9 +351,8 @@ public class ExpireManager {
                     }
                     for (ExpiryTask expiryTask : expired) {
                         if (!expiryTask.needsAnalysis()) {
-                            expiredTask.run(newPlot, () -> TaskManager.getPlatformImplementation()
-                                    .taskLaterAsync(task, TaskTime.ticks(1L)),
-                                expiryTask.requiresConfirmation());
+                            final boolean confirmation = expiryTask.requiresConfirmation();
+                            expiredTask.run(newPlot, () -> scheduleNext(task, confirmation), confirmation);
                             return;
                         }
                     }
@@ -337,8 +361,7 @@ public class ExpireManager {
                             @Override public void run(final PlotAnalysis changed) {
                                 passesComplexity(changed, expired, new RunnableVal<Boolean>() {
                                     @Override public void run(Boolean confirmation) {
-                                        expiredTask.run(newPlot,
-                                            () -> TaskManager.getPlatformImplementation().taskLaterAsync(task, TaskTime.ticks(1L)),
+                                        expiredTask.run(newPlot, () -> scheduleNext(task, confirmation),
                                             confirmation);
                                     }
                                 }, () -> {
@@ -359,7 +382,15 @@ public class ExpireManager {
                         () -> PlotSquared.platform().hybridUtils().analyzePlot(newPlot, handleAnalysis);
 
                     PlotAnalysis analysis = newPlot.getComplexity(null);
-                    if (analysis != null) {
+                    if (analysis != null && analysis.isCurrent(getLastModified(newPlot))) {
+                        // Nothing has been saved to the plot's chunks since it was analyzed
+                        passesComplexity(analysis, expired, new RunnableVal<Boolean>() {
+                            @Override public void run(Boolean confirmation) {
+                                expiredTask.run(newPlot, () -> scheduleNext(task, confirmation), confirmation);
+                            }
+                        }, () -> TaskManager.getPlatformImplementation().taskLaterAsync(task, TaskTime.ticks(1L)));
+                    } else if (analysis != null && analysis.analyzed == 0) {
+                        // Analyses without a timestamp can only decide to keep a plot
                         passesComplexity(analysis, expired, new RunnableVal<Boolean>() {
                             @Override public void run(Boolean value) {
                                 doAnalysis.run();
@@ -371,6 +402,7 @@ public class ExpireManager {
                     return;
                 }
                 if (plots.isEmpty()) {
+                    deleteCheckpoint();
                     ExpireManager.this.running = 3;
                     TaskManager.runTaskLater(() -> {
                         if (ExpireManager.this.running == 3) {
@@ -382,10 +414,91 @@ public class ExpireManager {
                     TaskManager.runTaskLaterAsync(task, TaskTime.seconds(10L));
                 }
             }
+
+            private void checkpoint() {
+                if (this.processing != null) {
+                    saveCheckpoint(this.processing);
+                    this.processing = null;
+                }
+            }
         });
         return true;
     }
 
+    /**
+     * Get the plots that are currently expired, ordered by the time their owners were
+     * last seen, oldest first. Plots before the checkpoint of an interrupted sweep are skipped.
+     */
+    private List<ExpiryCandidate> getExpiryCandidates() {
+        final List<Plot> plots = PlotQuery.newQuery().allPlots().asList();
+        // The tasks compute their cutoff lazily, so do so before evaluating them in parallel
+        for (PlotArea area : PlotSquared.get().getPlotAreaManager().getAllPlotAreas()) {
+            for (ExpiryTask task : this.tasks) {
+                task.applies(area);
+            }
+        }
+        final List<ExpiryCandidate> candidates = plots.parallelStream()
+            .filter(plot -> !isExpired(new ArrayDeque<>(this.tasks), plot).isEmpty())
+            .map(plot -> new ExpiryCandidate(plot, getLastSeen(plot)))
+            .sorted()
+            .collect(Collectors.toList());
+        final ExpiryCandidate checkpoint = loadCheckpoint();
+        if (checkpoint != null) {
+            candidates.removeIf(candidate -> candidate.compareTo(checkpoint) <= 0);
+        }
+        if (Settings.DEBUG) {
+            logger.info("Found {} expired plots out of {}", candidates.size(), plots.size());
+        }
+        return candidates;
+    }
+
+    private void scheduleNext(Runnable task, boolean confirmation) {
+        long delay = 50L;
+        if (!confirmation && Settings.Expiry.DELETIONS_PER_MINUTE > 0) {
+            delay = Math.max(delay, 60000L / Settings.Expiry.DELETIONS_PER_MINUTE);
+        }
+        TaskManager.getPlatformImplementation().taskLaterAsync(task, TaskTime.ms(delay));
+    }
+
+    private File getCheckpointFile() {
+        return new File(PlotSquared.platform().getDirectory(), CHECKPOINT_FILE);
+    }
+
+    @Nullable private ExpiryCandidate loadCheckpoint() {
+        final File file = getCheckpointFile();
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            final List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            if (lines.isEmpty()) {
+                return null;
+            }
+            final String[] split = lines.get(0).split(" ", 2);
+            return new ExpiryCandidate(null, Long.parseLong(split[0]), split[1]);
+        } catch (IOException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            logger.error("Failed to read the expiry checkpoint", e);
+            return null;
+        }
+    }
+
+    private void saveCheckpoint(ExpiryCandidate candidate) {
+        try {
+            Files.write(getCheckpointFile().toPath(),
+                Collections.singletonList(candidate.lastSeen + " " + candidate.key), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.error("Failed to save the expiry checkpoint", e);
+        }
+    }
+
+    private void deleteCheckpoint() {
+        try {
+            Files.deleteIfExists(getCheckpointFile().toPath());
+        } catch (IOException e) {
+            logger.error("Failed to delete the expiry checkpoint", e);
+        }
+    }
+
     public void storeDate(UUID uuid, long time) {
         Long existing = this.dates_cache.put(uuid, time);
         if (existing != null) {
@@ -433,19 +546,63 @@ public class ExpireManager {
         if (PlotSquared.platform().playerManager().getPlayerIfExists(uuid) != null) {
             return 0;
         }
+        final long last = getLastSeen(uuid);
+        if (last == 0) {
+            return 0;
+        }
+        return System.currentTimeMillis() - last;
+    }
+
+    /**
+     * Get the stored time a player was last seen
+     *
+     * @param uuid player uuid
+     * @return last seen time in milliseconds, or 0 if unknown
+     */
+    private long getLastSeen(UUID uuid) {
         Long last = this.dates_cache.get(uuid);
         if (last == null) {
             OfflinePlotPlayer opp = PlotSquared.platform().playerManager().getOfflinePlayer(uuid);
-            if (opp != null && (last = opp.getLastPlayed()) != 0) {
-                this.dates_cache.put(uuid, last);
-            } else {
+            if (opp == null || (last = opp.getLastPlayed()) == 0) {
                 return 0;
             }
+            this.dates_cache.put(uuid, last);
         }
-        if (last == 0) {
-            return 0;
+        return last;
+    }
+
+    /**
+     * Get the stored time the owner of a plot that was seen most recently was last seen.
+     * Unlike {@link #getAge(Plot)}, this doesn't depend on the current time.
+     *
+     * @param plot plot to check
+     * @return last seen time in milliseconds, or 0 if unknown
+     */
+    private long getLastSeen(Plot plot) {
+        long last = 0;
+        for (UUID owner : plot.getOwners()) {
+            last = Math.max(last, getLastSeen(owner));
         }
-        return System.currentTimeMillis() - last;
+        return last;
+    }
+
+    /**
+     * Get the last time the blocks of a plot could have been modified, which is the
+     * last time any of its chunks were saved. Plots with loaded chunks count as
+     * modified now, as they may have unsaved changes.
+     *
+     * @param plot plot to check
+     * @return last modification time in milliseconds
+     */
+    public long getLastModified(Plot plot) {
+        if (plot.getRunning() > 0) {
+            return System.currentTimeMillis();
+        }
+        final Set<BlockVector2> chunks = new HashSet<>();
+        for (CuboidRegion region : plot.getRegions()) {
+            chunks.addAll(region.getChunks());
+        }
+        return PlotSquared.platform().worldUtil().getLastModified(plot.getWorldName(), chunks);
     }
 
     public long getAge(Plot plot) {
@@ -477,4 +634,31 @@ public class ExpireManager {
         }
         return min;
     }
+
+    /**
+     * A plot that is expired, ordered by the time its owners were last seen
+     */
+    private static final class ExpiryCandidate implements Comparable<ExpiryCandidate> {
+
+        private final Plot plot;
+        private final long lastSeen;
+        private final String key;
+
+        private ExpiryCandidate(Plot plot, long lastSeen) {
+            this(plot, lastSeen, plot.getArea() + ";" + plot.getId());
+        }
+
+        private ExpiryCandidate(Plot plot, long lastSeen, String key) {
+            this.plot = plot;
+            this.lastSeen = lastSeen;
+            this.key = key;
+        }
+
+        @Override public int compareTo(@Nonnull ExpiryCandidate other) {
+            final int compare = Long.compare(this.lastSeen, other.lastSeen);
+            return compare != 0 ? compare : this.key.compareTo(other.key);
+        }
+
+    }
+
 }
@@ -60,6 +60,10 @@ public class PlotAnalysis {
     public int data_sd;
     public int air_sd;
     public int variety_sd;
+    /**
+     * Minutes since the epoch at which the analysis was started, or 0 if unknown
+     */
+    public int analyzed;
     private int complexity;
 
     public static PlotAnalysis getAnalysis(Plot plot, Settings.Auto_Clear settings) {
@@ -77,6 +81,7 @@ public class PlotAnalysis {
             analysis.data_sd = values.get(7); // 0
             analysis.air_sd = values.get(8); // 18909
             analysis.variety_sd = values.get(9); // 263
+            analysis.analyzed = values.size() > 10 ? values.get(10) : 0;
 
             analysis.complexity = settings != null ? analysis.getComplexity(settings) : 0;
             return analysis;
@@ -641,7 +646,27 @@ public class PlotAnalysis {
     public List<Integer> asList() {
         return Arrays
             .asList(this.changes, this.faces, this.data, this.air, this.variety, this.changes_sd,
-                this.faces_sd, this.data_sd, this.air_sd, this.variety_sd);
+                this.faces_sd, this.data_sd, this.air_sd, this.variety_sd, this.analyzed);
+    }
+
+    /**
+     * Get the current time in the resolution of {@link #analyzed}
+     *
+     * @return minutes since the epoch
+     */
+    public static int now() {
+        return (int) (System.currentTimeMillis() / 60000L);
+    }
+
+    /**
+     * Check whether the analysis still describes the plot, i.e. nothing could have
+     * modified the plot since the analysis was started
+     *
+     * @param lastModified the last time the plot could have been modified, in milliseconds
+     * @return true if the analysis is up to date
+     */
+    public boolean isCurrent(long lastModified) {
+        return this.analyzed != 0 && lastModified / 60000L < this.analyzed;
     }
 
     public int getComplexity(Settings.Auto_Clear settings) {
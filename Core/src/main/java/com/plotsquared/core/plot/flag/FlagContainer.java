@@ -38,6 +38,7 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Container type for {@link PlotFlag plot flags}.
@@ -46,11 +47,33 @@ public class FlagContainer {
 
     private static final Logger logger = LoggerFactory.getLogger("P2/" + FlagContainer.class.getSimpleName());
 
+    /**
+     * Number of flag classes that have been assigned an index.
+     */
+    private static final AtomicInteger FLAG_COUNT = new AtomicInteger();
+    /**
+     * Dense index per flag class, used to address the resolved flag arrays.
+     */
+    private static final ClassValue<Integer> FLAG_INDICES = new ClassValue<Integer>() {
+        @Override protected Integer computeValue(final Class<?> type) {
+            return FLAG_COUNT.getAndIncrement();
+        }
+    };
+    /**
+     * Cached in the resolved flag arrays for flags that no container in the chain has.
+     */
+    private static final Object ABSENT = new Object();
+
     private final Map<String, String> unknownFlags = new HashMap<>();
     private final Map<Class<?>, PlotFlag<?, ?>> flagMap = new HashMap<>();
     private final PlotFlagUpdateHandler plotFlagUpdateHandler;
     private final Collection<PlotFlagUpdateHandler> updateSubscribers = new ArrayList<>();
     private FlagContainer parentContainer;
+    /**
+     * Bumped whenever the flags of this container change.
+     */
+    private volatile int version;
+    private volatile ResolvedFlags resolvedFlags;
 
     /**
      * Construct a new flag container with an optional parent container and update handler.
@@ -137,6 +160,7 @@ public class FlagContainer {
             Preconditions.checkState(flag.getName().length() <= 64,
                 "flag name may not be more than 64 characters. Check: " + flag.getName());
             final PlotFlag<?, ?> oldInstance = this.flagMap.put(flag.getClass(), flag);
+            this.invalidateResolved();
             final PlotFlagUpdateType plotFlagUpdateType;
             if (oldInstance != null) {
                 plotFlagUpdateType = PlotFlagUpdateType.FLAG_UPDATED;
@@ -166,6 +190,7 @@ public class FlagContainer {
      */
     public <V, T extends PlotFlag<V, ?>> V removeFlag(final T flag) {
         final Object value = this.flagMap.remove(flag.getClass());
+        this.invalidateResolved();
         if (this.plotFlagUpdateHandler != null) {
             this.plotFlagUpdateHandler.handle(flag, PlotFlagUpdateType.FLAG_REMOVED);
         }
@@ -199,6 +224,7 @@ public class FlagContainer {
      */
     public void clearLocal() {
         this.flagMap.clear();
+        this.invalidateResolved();
     }
 
     /**
@@ -232,15 +258,14 @@ public class FlagContainer {
      * @return the plot flag
      */
     public PlotFlag<?, ?> getFlagErased(Class<?> flagClass) {
-        final PlotFlag<?, ?> flag = this.flagMap.get(flagClass);
-        if (flag != null) {
-            return flag;
-        } else {
-            if (getParentContainer() != null) {
-                return getParentContainer().getFlagErased(flagClass);
-            }
+        final int index = FLAG_INDICES.get(flagClass);
+        final Object[] resolved = this.getResolvedFlags(index);
+        Object flag = resolved[index];
+        if (flag == null) {
+            flag = this.resolveFlag(flagClass);
+            resolved[index] = flag == null ? ABSENT : flag;
         }
-        return null;
+        return flag == ABSENT ? null : (PlotFlag<?, ?>) flag;
     }
 
     /**
@@ -254,17 +279,63 @@ public class FlagContainer {
      * @return Flag instance
      */
     public <V, T extends PlotFlag<V, ?>> T getFlag(final Class<? extends T> flagClass) {
+        return castUnsafe(this.getFlagErased(flagClass));
+    }
+
+    /**
+     * Look the flag up in this container, falling back to the parent container.
+     */
+    @Nullable private PlotFlag<?, ?> resolveFlag(final Class<?> flagClass) {
         final PlotFlag<?, ?> flag = this.flagMap.get(flagClass);
         if (flag != null) {
-            return castUnsafe(flag);
+            return flag;
         } else {
             if (getParentContainer() != null) {
-                return getParentContainer().getFlag(flagClass);
+                return getParentContainer().getFlagErased(flagClass);
             }
         }
         return null;
     }
 
+    /**
+     * Get the array of resolved flags for this container, making sure it is current
+     * and large enough to hold the given index. The array is rebuilt when any of the
+     * parent containers changed since it was created.
+     */
+    private Object[] getResolvedFlags(final int index) {
+        final FlagContainer parent = this.parentContainer;
+        final int parentStamp = parent == null ? 0 : parent.getStamp();
+        ResolvedFlags resolved = this.resolvedFlags;
+        if (resolved == null || resolved.parentStamp != parentStamp) {
+            resolved = new ResolvedFlags(parentStamp, new Object[Math.max(index + 1, FLAG_COUNT.get())]);
+            this.resolvedFlags = resolved;
+        } else if (index >= resolved.flags.length) {
+            final Object[] flags = new Object[Math.max(index + 1, FLAG_COUNT.get())];
+            System.arraycopy(resolved.flags, 0, flags, 0, resolved.flags.length);
+            resolved = new ResolvedFlags(parentStamp, flags);
+            this.resolvedFlags = resolved;
+        }
+        return resolved.flags;
+    }
+
+    /**
+     * Get the sum of the versions of this container and its parents. Versions only
+     * grow, so the stamp changes whenever any container in the chain changes.
+     */
+    private int getStamp() {
+        final FlagContainer parent = this.parentContainer;
+        return parent == null ? this.version : this.version + parent.getStamp();
+    }
+
+    /**
+     * Drop the resolved flags of this container. Containers inheriting from it
+     * notice the new version and drop theirs on their next lookup.
+     */
+    private void invalidateResolved() {
+        this.resolvedFlags = null;
+        this.version++;
+    }
+
     /**
      * Check for flag existence in this flag container instance.
      *
@@ -353,6 +424,23 @@ public class FlagContainer {
 
     public void setParentContainer(FlagContainer parentContainer) {
         this.parentContainer = parentContainer;
+        this.invalidateResolved();
+    }
+
+    /**
+     * Flattened view of the flags visible from a container, indexed by flag class index.
+     * Entries are {@code null} if not resolved yet, or {@link #ABSENT} if no container has the flag.
+     */
+    private static final class ResolvedFlags {
+
+        private final int parentStamp;
+        private final Object[] flags;
+
+        private ResolvedFlags(final int parentStamp, final Object[] flags) {
+            this.parentStamp = parentStamp;
+            this.flags = flags;
+        }
+
     }
 
     /**
@@ -32,11 +32,15 @@ import com.plotsquared.core.util.BlockUtil;
 import com.sk89q.worldedit.world.block.BlockCategory;
 import com.sk89q.worldedit.world.block.BlockState;
 import com.sk89q.worldedit.world.block.BlockType;
+import com.sk89q.worldedit.world.block.BlockTypes;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public abstract class BlockTypeListFlag<F extends ListFlag<BlockTypeWrapper, F>>
@@ -44,10 +48,93 @@ public abstract class BlockTypeListFlag<F extends ListFlag<BlockTypeWrapper, F>>
 
     public static boolean skipCategoryVerification = false;
 
+    /**
+     * Incremented whenever block categories may have been reloaded, so that
+     * compiled flag values are rebuilt
+     */
+    private static volatile int generation;
+
+    @Nullable private volatile CompiledBlockTypes compiled;
+
     protected BlockTypeListFlag(List<BlockTypeWrapper> blockTypeList, Caption description) {
         super(blockTypeList, TranslatableCaption.of("flags.flag_category_block_list"), description);
     }
 
+    /**
+     * Check whether the flag value contains the given block type, either directly
+     * or through one of its block categories.
+     *
+     * @param blockType Block type to check
+     * @return {@code true} if the block type is accepted
+     */
+    public boolean accepts(final BlockType blockType) {
+        final CompiledBlockTypes compiled = this.getCompiled();
+        if (compiled == null) {
+            for (final BlockTypeWrapper blockTypeWrapper : this.getValue()) {
+                if (blockTypeWrapper.accepts(blockType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return compiled.blockTypes.contains(blockType);
+    }
+
+    /**
+     * Check whether the flag value accepts every block type. This is the case
+     * when the value contains air, or a category containing air.
+     *
+     * @return {@code true} if all block types are accepted
+     */
+    public boolean acceptsAll() {
+        final CompiledBlockTypes compiled = this.getCompiled();
+        if (compiled == null) {
+            return this.accepts(BlockTypes.AIR);
+        }
+        return compiled.acceptsAll;
+    }
+
+    /**
+     * Discard the compiled values of all block type list flags. This should be called
+     * when block categories have been loaded or reloaded.
+     */
+    public static void invalidateCompiled() {
+        generation++;
+    }
+
+    /**
+     * Get the compiled form of the flag value, expanding block categories into
+     * their block types. The compiled form is rebuilt after {@link #invalidateCompiled()}
+     * has been called. If a category cannot be resolved yet, this is remembered
+     * until then as well.
+     *
+     * @return compiled value, or null if a category could not be resolved
+     */
+    @Nullable private CompiledBlockTypes getCompiled() {
+        final int generation = BlockTypeListFlag.generation;
+        CompiledBlockTypes compiled = this.compiled;
+        if (compiled == null || compiled.generation != generation) {
+            this.compiled = compiled = new CompiledBlockTypes(generation, this.compile());
+        }
+        return compiled.blockTypes == null ? null : compiled;
+    }
+
+    @Nullable private Set<BlockType> compile() {
+        final Set<BlockType> blockTypes = new HashSet<>();
+        for (final BlockTypeWrapper blockTypeWrapper : this.getValue()) {
+            if (blockTypeWrapper.getBlockType() != null) {
+                blockTypes.add(blockTypeWrapper.getBlockType());
+            } else {
+                final BlockCategory blockCategory = blockTypeWrapper.getBlockCategory();
+                if (blockCategory == null) {
+                    return null;
+                }
+                blockTypes.addAll(blockCategory.getAll());
+            }
+        }
+        return blockTypes;
+    }
+
     @Override public F parse(@Nonnull String input) throws FlagParseException {
         final List<BlockTypeWrapper> parsedBlocks = new ArrayList<>();
         final String[] split = input.replaceAll("\\s+", "").split(",(?![^\\(\\[]*[\\]\\)])");
@@ -103,4 +190,22 @@ public abstract class BlockTypeListFlag<F extends ListFlag<BlockTypeWrapper, F>>
         return blockTypeWrapper;
     }
 
+    /**
+     * Flag value with all block categories expanded, or null block types if a
+     * category could not be resolved.
+     */
+    private static final class CompiledBlockTypes {
+
+        private final int generation;
+        @Nullable private final Set<BlockType> blockTypes;
+        private final boolean acceptsAll;
+
+        private CompiledBlockTypes(final int generation, @Nullable final Set<BlockType> blockTypes) {
+            this.generation = generation;
+            this.blockTypes = blockTypes;
+            this.acceptsAll = blockTypes != null && blockTypes.contains(BlockTypes.AIR);
+        }
+
+    }
+
 }
@@ -36,8 +36,10 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Container that class either contains a {@link BlockType}
@@ -180,6 +182,10 @@ public class BlockTypeWrapper {
         @Override public <B extends BlockStateHolder<B>> boolean contains(B blockStateHolder) {
             return false;
         }
+
+        @Override protected Set<BlockType> load() {
+            return Collections.emptySet();
+        }
     }
 
 }
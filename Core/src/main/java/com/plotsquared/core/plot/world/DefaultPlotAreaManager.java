@@ -36,30 +36,53 @@ import com.sk89q.worldedit.regions.CuboidRegion;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * Plot area manager that publishes the registered worlds and areas as an
+ * immutable snapshot. Lookups read the current snapshot without locking or
+ * allocating, and every change replaces it with a new one. The arrays that are
+ * returned are shared between callers, and must not be modified.
+ */
 @Singleton public class DefaultPlotAreaManager implements PlotAreaManager {
 
     final PlotArea[] noPlotAreas = new PlotArea[0];
-    private final Map<String, PlotWorld> plotWorlds = new HashMap<>();
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot = new Snapshot(0L, Collections.emptyMap());
 
     @Override @Nonnull public PlotArea[] getAllPlotAreas() {
-        final Set<PlotArea> area = new HashSet<>();
-        for (final PlotWorld world : plotWorlds.values()) {
-            area.addAll(world.getAreas());
-        }
-        return area.toArray(new PlotArea[0]);
+        return this.snapshot.allAreas;
+    }
+
+    /**
+     * Get the number of registered plot areas
+     *
+     * @return Plot area count
+     */
+    public int getPlotAreaCount() {
+        return this.snapshot.allAreas.length;
+    }
+
+    /**
+     * Get the version of the registered worlds and areas. The version
+     * changes whenever a world or an area is added or removed.
+     *
+     * @return Registry version
+     */
+    public long getVersion() {
+        return this.snapshot.version;
     }
 
     @Override @Nullable public PlotArea getApplicablePlotArea(@Nullable final Location location) {
         if (location == null) {
             return null;
         }
-        final PlotWorld world = this.plotWorlds.get(location.getWorldName());
+        final PlotWorld world = this.snapshot.worlds.get(location.getWorldName());
         if (world == null) {
             return null;
         }
@@ -67,47 +90,56 @@ import java.util.Set;
     }
 
     @Override public void addPlotArea(@Nonnull final PlotArea plotArea) {
-        PlotWorld world = this.plotWorlds.get(plotArea.getWorldName());
-        if (world != null) {
-            if (world instanceof StandardPlotWorld && world.getAreas().isEmpty()) {
-                this.plotWorlds.remove(plotArea.getWorldName());
+        synchronized (this.writeLock) {
+            final Map<String, PlotWorld> worlds = new HashMap<>(this.snapshot.worlds);
+            PlotWorld world = worlds.get(plotArea.getWorldName());
+            if (world != null) {
+                if (world instanceof StandardPlotWorld && world.getAreas().isEmpty()) {
+                    worlds.remove(plotArea.getWorldName());
+                } else {
+                    worlds.put(plotArea.getWorldName(), withArea(world, plotArea));
+                    this.publish(worlds);
+                    return;
+                }
+            }
+            if (plotArea.getType() != PlotAreaType.PARTIAL) {
+                world = new StandardPlotWorld(plotArea.getWorldName(), plotArea);
             } else {
-                world.addArea(plotArea);
-                return;
+                world = new ScatteredPlotWorld(plotArea.getWorldName(), Collections.singletonList(plotArea));
             }
+            worlds.put(plotArea.getWorldName(), world);
+            this.publish(worlds);
         }
-        if (plotArea.getType() != PlotAreaType.PARTIAL) {
-            world = new StandardPlotWorld(plotArea.getWorldName(), plotArea);
-        } else {
-            world = new ScatteredPlotWorld(plotArea.getWorldName());
-            world.addArea(plotArea);
-        }
-        this.plotWorlds.put(plotArea.getWorldName(), world);
     }
 
     @Override public void removePlotArea(@Nonnull final PlotArea area) {
-        final PlotWorld world = this.plotWorlds.get(area.getWorldName());
-        if (world == null) {
-            return;
-        }
-        if (world instanceof StandardPlotWorld) {
-            this.plotWorlds.remove(world.getWorld());
-        } else {
-            world.removeArea(area);
-            if (world.getAreas().isEmpty()) {
-                this.plotWorlds.remove(world.getWorld());
+        synchronized (this.writeLock) {
+            final Map<String, PlotWorld> worlds = new HashMap<>(this.snapshot.worlds);
+            final PlotWorld world = worlds.get(area.getWorldName());
+            if (world == null) {
+                return;
+            }
+            if (world instanceof StandardPlotWorld) {
+                worlds.remove(world.getWorld());
+            } else {
+                final PlotWorld updated = withoutArea(world, area);
+                if (updated.getAreas().isEmpty()) {
+                    worlds.remove(world.getWorld());
+                } else {
+                    worlds.put(world.getWorld(), updated);
+                }
             }
+            this.publish(worlds);
         }
     }
 
     @Override public PlotArea getPlotArea(@Nonnull final String world, @Nullable final String id) {
-        final PlotWorld plotWorld = this.plotWorlds.get(world);
-        if (plotWorld == null) {
+        final PlotArea[] areas = this.snapshot.worldAreas.get(world);
+        if (areas == null) {
             return null;
         }
-        final List<PlotArea> areas = new ArrayList<>(plotWorld.getAreas());
-        if (areas.size() == 1) {
-            return areas.get(0);
+        if (areas.length == 1) {
+            return areas[0];
         }
         if (id == null) {
             return null;
@@ -125,32 +157,104 @@ import java.util.Set;
     }
 
     @Override @Nonnull public PlotArea[] getPlotAreas(@Nonnull final String world, @Nullable final CuboidRegion region) {
-        final PlotWorld plotWorld = this.plotWorlds.get(world);
+        final Snapshot snapshot = this.snapshot;
+        final PlotWorld plotWorld = snapshot.worlds.get(world);
         if (plotWorld == null) {
             return noPlotAreas;
         }
         if (region == null) {
-            return plotWorld.getAreas().toArray(new PlotArea[0]);
+            return snapshot.worldAreas.get(world);
         }
         return plotWorld.getAreasInRegion(region).toArray(new PlotArea[0]);
     }
 
     @Override public void addWorld(@Nonnull final String worldName) {
-        PlotWorld world = this.plotWorlds.get(worldName);
-        if (world != null) {
-            return;
+        synchronized (this.writeLock) {
+            if (this.snapshot.worlds.containsKey(worldName)) {
+                return;
+            }
+            final Map<String, PlotWorld> worlds = new HashMap<>(this.snapshot.worlds);
+            // Create a new empty world. When a new area is added
+            // the world will be re-recreated with the correct type
+            worlds.put(worldName, new StandardPlotWorld(worldName, null));
+            this.publish(worlds);
         }
-        // Create a new empty world. When a new area is added
-        // the world will be re-recreated with the correct type
-        world = new StandardPlotWorld(worldName, null);
-        this.plotWorlds.put(worldName, world);
     }
 
     @Override public void removeWorld(@Nonnull final String worldName) {
-        this.plotWorlds.remove(worldName);
+        synchronized (this.writeLock) {
+            if (!this.snapshot.worlds.containsKey(worldName)) {
+                return;
+            }
+            final Map<String, PlotWorld> worlds = new HashMap<>(this.snapshot.worlds);
+            worlds.remove(worldName);
+            this.publish(worlds);
+        }
     }
 
     @Override @Nonnull public String[] getAllWorlds() {
-        return this.plotWorlds.keySet().toArray(new String[0]);
+        return this.snapshot.worldNames;
+    }
+
+    private void publish(@Nonnull final Map<String, PlotWorld> worlds) {
+        this.snapshot = new Snapshot(this.snapshot.version + 1, worlds);
+    }
+
+    /**
+     * Get a copy of a world with an added area. Worlds in a published snapshot may be
+     * in use by readers, so they are never modified. Standard worlds only hold the
+     * area they were created with.
+     *
+     * @throws UnsupportedOperationException if the world type doesn't allow adding areas
+     */
+    @Nonnull private static PlotWorld withArea(@Nonnull final PlotWorld world, @Nonnull final PlotArea area) {
+        if (!(world instanceof ScatteredPlotWorld)) {
+            throw new UnsupportedOperationException("This world type does not allow adding new areas");
+        }
+        final List<PlotArea> areas = new ArrayList<>(world.getAreas());
+        areas.add(area);
+        return new ScatteredPlotWorld(world.getWorld(), areas);
+    }
+
+    /**
+     * Get a copy of a world without an area
+     *
+     * @throws UnsupportedOperationException if the world type doesn't allow removing areas
+     */
+    @Nonnull private static PlotWorld withoutArea(@Nonnull final PlotWorld world, @Nonnull final PlotArea area) {
+        if (!(world instanceof ScatteredPlotWorld)) {
+            throw new UnsupportedOperationException("This world type does not allow removing areas");
+        }
+        final List<PlotArea> areas = new ArrayList<>(world.getAreas());
+        areas.remove(area);
+        return new ScatteredPlotWorld(world.getWorld(), areas);
     }
+
+    /**
+     * Immutable view of the registered worlds, with their areas precomputed
+     */
+    private static final class Snapshot {
+
+        private final long version;
+        private final Map<String, PlotWorld> worlds;
+        private final Map<String, PlotArea[]> worldAreas;
+        private final PlotArea[] allAreas;
+        private final String[] worldNames;
+
+        private Snapshot(final long version, @Nonnull final Map<String, PlotWorld> worlds) {
+            this.version = version;
+            this.worlds = worlds;
+            this.worldAreas = new HashMap<>();
+            final Set<PlotArea> allAreas = new LinkedHashSet<>();
+            for (final Map.Entry<String, PlotWorld> entry : worlds.entrySet()) {
+                final PlotArea[] areas = entry.getValue().getAreas().toArray(new PlotArea[0]);
+                this.worldAreas.put(entry.getKey(), areas);
+                Collections.addAll(allAreas, areas);
+            }
+            this.allAreas = allAreas.toArray(new PlotArea[0]);
+            this.worldNames = worlds.keySet().toArray(new String[0]);
+        }
+
+    }
+
 }
@@ -64,6 +64,18 @@ public class ScatteredPlotWorld extends PlotWorld {
         super(world);
     }
 
+    /**
+     * Create a new plot world with a given world name and areas
+     *
+     * @param world World name
+     * @param areas Plot areas in the world
+     */
+    public ScatteredPlotWorld(@Nonnull final String world, @Nonnull final Collection<PlotArea> areas) {
+        super(world);
+        this.areas.addAll(areas);
+        this.buildTree();
+    }
+
     @Override @Nullable public PlotArea getArea(@Nonnull final Location location) {
         if (this.areas.isEmpty()) {
             return null;
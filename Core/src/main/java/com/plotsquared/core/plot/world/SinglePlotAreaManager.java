@@ -46,7 +46,7 @@ import javax.inject.Inject;
 
     private final SinglePlotArea[] array;
     private SinglePlotArea area;
-    private PlotArea[] all;
+    private volatile PlotArea[] all;
 
     @Inject public SinglePlotAreaManager(@Nonnull final EventDispatcher eventDispatcher,
                                          @Nonnull final PlotListener plotListener,
@@ -112,7 +112,7 @@ import javax.inject.Inject;
             return null;
         }
         String world = location.getWorldName();
-        return isWorld(world) || world.equals("*") || super.getAllPlotAreas().length == 0 ?
+        return isWorld(world) || world.equals("*") || super.getPlotAreaCount() == 0 ?
             area :
             super.getApplicablePlotArea(location);
     }
@@ -164,6 +164,7 @@ import javax.inject.Inject;
             throw new UnsupportedOperationException("Cannot remove base area!");
         }
         super.removePlotArea(area);
+        all = ArrayUtil.concatAll(super.getAllPlotAreas(), array);
     }
 
     @Override public void addWorld(@Nonnull final String worldName) {
@@ -112,6 +112,40 @@ public abstract class BasicQueueCoordinator extends QueueCoordinator {
         return setBlock(x, y, z, id.toBaseBlock());
     }
 
+    @Override public void setCuboid(@Nonnull com.plotsquared.core.location.Location pos1,
+        @Nonnull com.plotsquared.core.location.Location pos2, @Nonnull BlockState block) {
+        final int yMin = Math.max(0, Math.min(pos1.getY(), pos2.getY()));
+        final int yMax = Math.min(255, Math.max(pos1.getY(), pos2.getY()));
+        final int xMin = Math.min(pos1.getX(), pos2.getX());
+        final int xMax = Math.max(pos1.getX(), pos2.getX());
+        final int zMin = Math.min(pos1.getZ(), pos2.getZ());
+        final int zMax = Math.max(pos1.getZ(), pos2.getZ());
+        final BaseBlock baseBlock = block.toBaseBlock();
+        for (int chunkX = xMin >> 4; chunkX <= xMax >> 4; chunkX++) {
+            for (int chunkZ = zMin >> 4; chunkZ <= zMax >> 4; chunkZ++) {
+                final int x1 = Math.max(xMin, chunkX << 4);
+                final int x2 = Math.min(xMax, (chunkX << 4) + 15);
+                final int z1 = Math.max(zMin, chunkZ << 4);
+                final int z2 = Math.min(zMax, (chunkZ << 4) + 15);
+                final boolean fullColumn = x2 - x1 == 15 && z2 - z1 == 15;
+                final LocalChunk chunk = getChunk(chunkX, chunkZ);
+                for (int y = yMin; y <= yMax; y++) {
+                    if (fullColumn && (y & 15) == 0 && y + 15 <= yMax) {
+                        // Whole section is covered, store it as a single value
+                        chunk.fillLayer(y >> 4, baseBlock);
+                        y += 15;
+                        continue;
+                    }
+                    for (int x = x1; x <= x2; x++) {
+                        for (int z = z1; z <= z2; z++) {
+                            chunk.setBlock(x & 15, y, z & 15, baseBlock);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     @Override public boolean setBiome(int x, int z, @Nonnull BiomeType biomeType) {
         LocalChunk chunk = getChunk(x >> 4, z >> 4);
         for (int y = 0; y < 256; y++) {
@@ -27,12 +27,26 @@ package com.plotsquared.core.queue;
 
 import com.plotsquared.core.util.task.PlotSquaredTask;
 
+import javax.annotation.Nonnull;
+
 public abstract class ChunkCoordinator implements PlotSquaredTask {
 
     private boolean cancelled = false;
+    private Priority priority = Priority.NORMAL;
+    private long lastServed;
 
     @Override public abstract void runTask();
 
+    /**
+     * Process loaded chunks for at most (approximately) the given amount of time. This is
+     * called by the {@link ChunkCoordinatorScheduler} with the coordinator's share of the
+     * tick budget.
+     *
+     * @param budget time budget in nanoseconds
+     * @return time spent in nanoseconds
+     */
+    public abstract long runTask(long budget);
+
     @Override public boolean isCancelled() {
         return cancelled;
     }
@@ -61,4 +75,56 @@ public abstract class ChunkCoordinator implements PlotSquaredTask {
      * @return Requested chunk count
      */
     public abstract int getTotalChunks();
+
+    /**
+     * Get the priority used when sharing the tick budget with other coordinators
+     *
+     * @return coordinator priority
+     */
+    @Nonnull public Priority getPriority() {
+        return this.priority;
+    }
+
+    /**
+     * Set the priority used when sharing the tick budget with other coordinators
+     *
+     * @param priority coordinator priority
+     */
+    public void setPriority(@Nonnull final Priority priority) {
+        this.priority = priority;
+    }
+
+    long getLastServed() {
+        return this.lastServed;
+    }
+
+    void setLastServed(final long lastServed) {
+        this.lastServed = lastServed;
+    }
+
+    /**
+     * Priority of a coordinator. Coordinators with a higher priority are run first,
+     * and receive a larger share of the tick budget.
+     */
+    public enum Priority {
+        LOW(1),
+        NORMAL(4),
+        HIGH(16);
+
+        private final int weight;
+
+        Priority(final int weight) {
+            this.weight = weight;
+        }
+
+        /**
+         * Get the relative share of the tick budget given to coordinators with this priority
+         *
+         * @return budget weight
+         */
+        public int getWeight() {
+            return this.weight;
+        }
+    }
+
 }
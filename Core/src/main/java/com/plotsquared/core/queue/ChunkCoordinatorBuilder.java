@@ -58,6 +58,7 @@ public class ChunkCoordinatorBuilder {
     private long maxIterationTime = Settings.QUEUE.MAX_ITERATION_TIME; // A little over 1 tick;
     private int initialBatchSize = Settings.QUEUE.INITIAL_BATCH_SIZE;
     private boolean unloadAfter = true;
+    private ChunkCoordinator.Priority priority = ChunkCoordinator.Priority.NORMAL;
 
     @Inject public ChunkCoordinatorBuilder(@Nonnull ChunkCoordinatorFactory chunkCoordinatorFactory) {
         this.chunkCoordinatorFactory = chunkCoordinatorFactory;
@@ -196,6 +197,17 @@ public class ChunkCoordinatorBuilder {
         return this;
     }
 
+    /**
+     * Set the priority used when sharing the per-tick time budget with other coordinators
+     *
+     * @param priority coordinator priority
+     * @return this ChunkCoordinatorBuilder instance
+     */
+    @Nonnull public ChunkCoordinatorBuilder withPriority(@Nonnull final ChunkCoordinator.Priority priority) {
+        this.priority = Preconditions.checkNotNull(priority, "Priority may not be null");
+        return this;
+    }
+
     @Nonnull public ChunkCoordinatorBuilder withProgressSubscriber(ProgressSubscriber progressSubscriber) {
         this.progressSubscribers.add(progressSubscriber);
         return this;
@@ -216,9 +228,11 @@ public class ChunkCoordinatorBuilder {
         Preconditions.checkNotNull(this.chunkConsumer, "No chunk consumer was supplied");
         Preconditions.checkNotNull(this.whenDone, "No final action was supplied");
         Preconditions.checkNotNull(this.throwableConsumer, "No throwable consumer was supplied");
-        return chunkCoordinatorFactory
+        final ChunkCoordinator coordinator = chunkCoordinatorFactory
             .create(this.maxIterationTime, this.initialBatchSize, this.chunkConsumer, this.world, this.requestedChunks, this.whenDone,
                 this.throwableConsumer, this.unloadAfter, this.progressSubscribers);
+        coordinator.setPriority(this.priority);
+        return coordinator;
     }
 
 }
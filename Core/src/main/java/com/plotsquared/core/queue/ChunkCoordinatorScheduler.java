@@ -0,0 +1,155 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.queue;
+
+import com.plotsquared.core.configuration.Settings;
+import com.plotsquared.core.util.task.PlotSquaredTask;
+import com.plotsquared.core.util.task.TaskManager;
+import com.plotsquared.core.util.task.TaskTime;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs all active {@link ChunkCoordinator chunk coordinators} from a single repeating
+ * task, sharing one time budget per tick between them.
+ * <p>
+ * The budget is {@link Settings.QUEUE#MAX_ITERATION_TIME} while the server keeps up,
+ * and shrinks when the measured tick duration grows beyond 50ms. Coordinators are run
+ * in order of priority, each receiving a share of the remaining budget proportional to
+ * the weight of its priority. Time that a coordinator does not use is passed on to the
+ * coordinators that follow it.
+ */
+public final class ChunkCoordinatorScheduler implements Runnable {
+
+    private static final long TICK_TIME = TimeUnit.MILLISECONDS.toNanos(50L);
+    private static final long MIN_BUDGET = TimeUnit.MILLISECONDS.toNanos(2L);
+
+    private final List<ChunkCoordinator> coordinators = new ArrayList<>();
+    private PlotSquaredTask task;
+    private long tick;
+    private long lastTick;
+    private double averageTickTime = TICK_TIME;
+    private long budget;
+
+    /**
+     * Add a coordinator to the scheduler. It will be run every tick until it is cancelled.
+     *
+     * @param coordinator Coordinator to schedule
+     */
+    public synchronized void schedule(@Nonnull final ChunkCoordinator coordinator) {
+        this.coordinators.add(coordinator);
+        if (this.task == null) {
+            this.lastTick = 0L;
+            this.task = TaskManager.runTaskRepeat(this, TaskTime.ticks(1L));
+        }
+    }
+
+    @Override public void run() {
+        final long now = System.nanoTime();
+        final List<ChunkCoordinator> active;
+        synchronized (this) {
+            this.coordinators.removeIf(ChunkCoordinator::isCancelled);
+            if (this.coordinators.isEmpty()) {
+                if (this.task != null) {
+                    this.task.cancel();
+                    this.task = null;
+                }
+                return;
+            }
+            active = new ArrayList<>(this.coordinators);
+        }
+        if (this.lastTick != 0L) {
+            this.averageTickTime += ((now - this.lastTick) - this.averageTickTime) * 0.1D;
+        }
+        this.lastTick = now;
+        this.tick++;
+        // Coordinators that were not reached last tick go first within their priority
+        active.sort(Comparator.comparing((ChunkCoordinator coordinator) -> coordinator.getPriority().getWeight())
+            .reversed().thenComparingLong(ChunkCoordinator::getLastServed));
+        int weight = 0;
+        for (final ChunkCoordinator coordinator : active) {
+            weight += coordinator.getPriority().getWeight();
+        }
+        long remaining = this.budget = this.computeBudget();
+        for (final ChunkCoordinator coordinator : active) {
+            if (remaining <= 0L) {
+                break;
+            }
+            final int coordinatorWeight = coordinator.getPriority().getWeight();
+            final long share = remaining * coordinatorWeight / weight;
+            weight -= coordinatorWeight;
+            coordinator.setLastServed(this.tick);
+            try {
+                remaining -= coordinator.runTask(share);
+            } catch (final Throwable throwable) {
+                throwable.printStackTrace();
+                coordinator.cancel();
+            }
+        }
+    }
+
+    private long computeBudget() {
+        final long max = TimeUnit.MILLISECONDS.toNanos(Settings.QUEUE.MAX_ITERATION_TIME);
+        if (this.averageTickTime <= TICK_TIME) {
+            return max;
+        }
+        // Back off quadratically as the server falls behind
+        final double load = TICK_TIME / this.averageTickTime;
+        return Math.max(MIN_BUDGET, (long) (max * load * load));
+    }
+
+    /**
+     * Get the average duration of a server tick, as measured between runs of the scheduler
+     *
+     * @return average tick duration in milliseconds
+     */
+    public double getAverageTickTime() {
+        return this.averageTickTime / 1_000_000D;
+    }
+
+    /**
+     * Get the time budget that was shared between the coordinators in the last tick
+     *
+     * @return tick budget in milliseconds
+     */
+    public double getTickBudget() {
+        return this.budget / 1_000_000D;
+    }
+
+    /**
+     * Get the number of coordinators currently scheduled
+     *
+     * @return active coordinator count
+     */
+    public synchronized int getActiveCoordinators() {
+        return this.coordinators.size();
+    }
+
+}
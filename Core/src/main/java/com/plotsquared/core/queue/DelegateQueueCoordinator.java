@@ -243,6 +243,19 @@ public class DelegateQueueCoordinator extends QueueCoordinator {
         }
     }
 
+    @Override @Nonnull public ChunkCoordinator.Priority getPriority() {
+        if (parent != null) {
+            return parent.getPriority();
+        }
+        return super.getPriority();
+    }
+
+    @Override public void setPriority(@Nonnull ChunkCoordinator.Priority priority) {
+        if (parent != null) {
+            parent.setPriority(priority);
+        }
+    }
+
     @Override public boolean isUnloadAfter() {
         if (parent != null) {
             return parent.isUnloadAfter();
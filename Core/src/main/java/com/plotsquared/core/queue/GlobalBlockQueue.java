@@ -36,6 +36,7 @@ import java.util.concurrent.ConcurrentLinkedDeque;
 public class GlobalBlockQueue {
 
     private final ConcurrentLinkedDeque<QueueCoordinator> activeQueues;
+    private final ChunkCoordinatorScheduler scheduler = new ChunkCoordinatorScheduler();
     private QueueProvider provider;
 
     public GlobalBlockQueue(@Nonnull QueueProvider provider) {
@@ -56,6 +57,15 @@ public class GlobalBlockQueue {
         return queue;
     }
 
+    /**
+     * Get the scheduler that shares the per-tick time budget between chunk coordinators
+     *
+     * @return chunk coordinator scheduler
+     */
+    @Nonnull public ChunkCoordinatorScheduler getScheduler() {
+        return this.scheduler;
+    }
+
     public QueueProvider getProvider() {
         return this.provider;
     }
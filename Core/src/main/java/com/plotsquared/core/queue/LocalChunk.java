@@ -42,8 +42,8 @@ public class LocalChunk {
     private final int x;
     private final int z;
 
-    private final BaseBlock[][] baseblocks;
-    private final BiomeType[][] biomes;
+    private final PalettedSection<BaseBlock>[] blocks;
+    private final PalettedSection<BiomeType>[] biomes;
     private final HashMap<BlockVector3, CompoundTag> tiles = new HashMap<>();
     private final HashMap<Location, BaseEntity> entities = new HashMap<>();
 
@@ -51,8 +51,8 @@ public class LocalChunk {
         this.parent = parent;
         this.x = x;
         this.z = z;
-        baseblocks = new BaseBlock[16][];
-        biomes = new BiomeType[16][];
+        blocks = newSections();
+        biomes = newSections();
     }
 
     @Nonnull public QueueCoordinator getParent() {
@@ -67,11 +67,23 @@ public class LocalChunk {
         return this.z;
     }
 
-    @Nonnull public BaseBlock[][] getBaseblocks() {
-        return this.baseblocks;
+    /**
+     * Get the block sections of the chunk, indexed by layer. Layers that have not been
+     * written to are {@code null}.
+     *
+     * @return block sections
+     */
+    @Nonnull public PalettedSection<BaseBlock>[] getBlockSections() {
+        return this.blocks;
     }
 
-    @Nonnull public BiomeType[][] getBiomes() {
+    /**
+     * Get the biome sections of the chunk, indexed by layer. Layers that have not been
+     * written to are {@code null}.
+     *
+     * @return biome sections
+     */
+    @Nonnull public PalettedSection<BiomeType>[] getBiomeSections() {
         return this.biomes;
     }
 
@@ -82,11 +94,11 @@ public class LocalChunk {
     public void setBiome(final int x, final int y, final int z, @Nonnull final BiomeType biomeType) {
         final int i = y >> 4;
         final int j = ChunkUtil.getJ(x, y, z);
-        BiomeType[] array = this.biomes[i];
-        if (array == null) {
-            array = this.biomes[i] = new BiomeType[4096];
+        PalettedSection<BiomeType> section = this.biomes[i];
+        if (section == null) {
+            section = this.biomes[i] = new PalettedSection<>();
         }
-        array[j] = biomeType;
+        section.set(j, biomeType);
     }
 
     @Override public int hashCode() {
@@ -96,11 +108,25 @@ public class LocalChunk {
     public void setBlock(final int x, final int y, final int z, @Nonnull final BaseBlock baseBlock) {
         final int i = y >> 4;
         final int j = ChunkUtil.getJ(x, y, z);
-        BaseBlock[] array = baseblocks[i];
-        if (array == null) {
-            array = (baseblocks[i] = new BaseBlock[4096]);
+        PalettedSection<BaseBlock> section = blocks[i];
+        if (section == null) {
+            section = (blocks[i] = new PalettedSection<>());
         }
-        array[j] = baseBlock;
+        section.set(j, baseBlock);
+    }
+
+    /**
+     * Set every block in a 16x16x16 layer of the chunk
+     *
+     * @param layer     layer index, from 0 to 15 inclusive
+     * @param baseBlock block to fill the layer with
+     */
+    public void fillLayer(final int layer, @Nonnull final BaseBlock baseBlock) {
+        PalettedSection<BaseBlock> section = blocks[layer];
+        if (section == null) {
+            section = (blocks[layer] = new PalettedSection<>());
+        }
+        section.fill(baseBlock);
     }
 
     public void setTile(final int x, final int y, final int z, @Nonnull final CompoundTag tag) {
@@ -114,4 +140,8 @@ public class LocalChunk {
     @Nonnull public HashMap<Location, BaseEntity> getEntities() {
         return this.entities;
     }
+
+    @SuppressWarnings("unchecked") @Nonnull private static <T> PalettedSection<T>[] newSections() {
+        return (PalettedSection<T>[]) new PalettedSection[16];
+    }
 }
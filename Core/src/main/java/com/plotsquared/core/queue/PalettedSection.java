@@ -0,0 +1,297 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.queue;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Storage for the 4096 positions of a 16x16x16 chunk section, used by {@link LocalChunk}.
+ * <p>
+ * Every distinct value is stored once in a palette, and positions are stored as palette
+ * indices packed into a {@code long[]} using as few bits per position as the palette size
+ * allows. Sections where every position holds the same value (including unset sections)
+ * do not allocate an index array at all. Index {@code 0} of the palette is reserved for
+ * positions that have not been set. Values that are no longer stored at any position are
+ * dropped from the palette before it grows.
+ *
+ * @param <T> value type
+ */
+public final class PalettedSection<T> {
+
+    private static final int SIZE = 4096;
+    // Palettes larger than this are indexed by a map rather than searched
+    private static final int LINEAR_SEARCH_LIMIT = 16;
+
+    private Object[] palette = new Object[4];
+    private int paletteSize = 1;
+    @Nullable private Map<Object, Integer> paletteIndex;
+    @Nullable private long[] data;
+    private int bits;
+    // Palette index of every position while the section is uniform
+    private int uniform;
+
+    /**
+     * Get the value at a position
+     *
+     * @param j position within the section, see {@link com.plotsquared.core.util.ChunkUtil#getJ(int, int, int)}
+     * @return the value, or {@code null} if the position has not been set
+     */
+    @SuppressWarnings("unchecked") @Nullable public T get(final int j) {
+        return (T) this.palette[this.data == null ? this.uniform : this.read(j)];
+    }
+
+    /**
+     * Set the value at a position
+     *
+     * @param j     position within the section, see {@link com.plotsquared.core.util.ChunkUtil#getJ(int, int, int)}
+     * @param value the value, or {@code null} to unset the position
+     */
+    public void set(final int j, @Nullable final T value) {
+        int index = this.indexOf(value);
+        if (this.data == null) {
+            if (index == this.uniform) {
+                return;
+            }
+            this.inflate();
+        } else if (this.paletteSize > 1 << this.bits) {
+            // Drop values that were overwritten before using more bits per position. Unless
+            // that frees a quarter of the palette, grow anyway so that compacting stays rare.
+            index = this.compact(index);
+            final int capacity = 1 << this.bits;
+            if (this.paletteSize > capacity - (capacity >> 2)) {
+                this.resize(Math.max(bitsFor(this.paletteSize), this.bits << 1));
+            }
+        }
+        this.write(j, index);
+    }
+
+    /**
+     * Set every position in the section to the same value, without allocating an index array
+     *
+     * @param value the value, or {@code null} to unset the section
+     */
+    public void fill(@Nullable final T value) {
+        Arrays.fill(this.palette, null);
+        this.paletteSize = 1;
+        this.paletteIndex = null;
+        this.data = null;
+        this.bits = 0;
+        this.uniform = this.indexOf(value);
+    }
+
+    /**
+     * Check whether no position in the section has been set
+     *
+     * @return {@code true} if the section is empty
+     */
+    public boolean isEmpty() {
+        return this.data == null && this.uniform == 0;
+    }
+
+    /**
+     * Check whether every position in the section holds the same value
+     *
+     * @return {@code true} if the section is uniform
+     */
+    public boolean isUniform() {
+        return this.data == null;
+    }
+
+    /**
+     * Pass every position that has been set, and its value, to the consumer
+     *
+     * @param consumer consumer of positions and values
+     */
+    @SuppressWarnings("unchecked") public void forEach(@Nonnull final EntryConsumer<T> consumer) {
+        if (this.data == null) {
+            if (this.uniform == 0) {
+                return;
+            }
+            final T value = (T) this.palette[this.uniform];
+            for (int j = 0; j < SIZE; j++) {
+                consumer.accept(j, value);
+            }
+            return;
+        }
+        for (int j = 0; j < SIZE; j++) {
+            final int index = this.read(j);
+            if (index != 0) {
+                consumer.accept(j, (T) this.palette[index]);
+            }
+        }
+    }
+
+    private int indexOf(@Nullable final Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (this.paletteIndex != null) {
+            final Integer index = this.paletteIndex.get(value);
+            if (index != null) {
+                return index;
+            }
+        } else {
+            for (int i = 1; i < this.paletteSize; i++) {
+                if (this.palette[i] == value) {
+                    return i;
+                }
+            }
+            for (int i = 1; i < this.paletteSize; i++) {
+                if (value.equals(this.palette[i])) {
+                    return i;
+                }
+            }
+        }
+        final int index = this.paletteSize++;
+        if (index == this.palette.length) {
+            this.palette = Arrays.copyOf(this.palette, index * 2);
+        }
+        this.palette[index] = value;
+        if (this.paletteIndex != null) {
+            this.paletteIndex.put(value, index);
+        } else if (this.paletteSize > LINEAR_SEARCH_LIMIT) {
+            this.paletteIndex = new HashMap<>();
+            for (int i = 1; i < this.paletteSize; i++) {
+                this.paletteIndex.put(this.palette[i], i);
+            }
+        }
+        return index;
+    }
+
+    private void inflate() {
+        this.bits = bitsFor(this.paletteSize);
+        this.data = new long[SIZE * this.bits / Long.SIZE];
+        if (this.uniform != 0) {
+            for (int j = 0; j < SIZE; j++) {
+                this.write(j, this.uniform);
+            }
+        }
+    }
+
+    /**
+     * Remove the values that are no longer stored at any position from the palette.
+     * As a section has 4096 positions, the palette never needs more than 16 bits.
+     *
+     * @param pending palette index of a value that is about to be written, which is kept
+     * @return the new palette index of the pending value
+     */
+    private int compact(final int pending) {
+        final boolean[] used = new boolean[this.paletteSize];
+        used[0] = true;
+        used[pending] = true;
+        for (int j = 0; j < SIZE; j++) {
+            used[this.read(j)] = true;
+        }
+        final int[] remap = new int[this.paletteSize];
+        final Object[] palette = new Object[this.palette.length];
+        int size = 0;
+        for (int i = 0; i < this.paletteSize; i++) {
+            if (used[i]) {
+                remap[i] = size;
+                palette[size++] = this.palette[i];
+            }
+        }
+        if (size == this.paletteSize) {
+            return pending;
+        }
+        for (int j = 0; j < SIZE; j++) {
+            this.write(j, remap[this.read(j)]);
+        }
+        this.palette = palette;
+        this.paletteSize = size;
+        if (size > LINEAR_SEARCH_LIMIT) {
+            this.paletteIndex = new HashMap<>();
+            for (int i = 1; i < size; i++) {
+                this.paletteIndex.put(palette[i], i);
+            }
+        } else {
+            this.paletteIndex = null;
+        }
+        return remap[pending];
+    }
+
+    private void resize(final int bits) {
+        final long[] previous = this.data;
+        final int previousBits = this.bits;
+        this.bits = bits;
+        this.data = new long[SIZE * bits / Long.SIZE];
+        for (int j = 0; j < SIZE; j++) {
+            this.write(j, read(previous, previousBits, j));
+        }
+    }
+
+    private int read(final int j) {
+        return read(this.data, this.bits, j);
+    }
+
+    private void write(final int j, final int index) {
+        final int perLong = Long.SIZE / this.bits;
+        final int shift = (j % perLong) * this.bits;
+        final long mask = ((1L << this.bits) - 1L) << shift;
+        final int i = j / perLong;
+        this.data[i] = (this.data[i] & ~mask) | (((long) index << shift) & mask);
+    }
+
+    private static int read(final long[] data, final int bits, final int j) {
+        final int perLong = Long.SIZE / bits;
+        return (int) ((data[j / perLong] >>> ((j % perLong) * bits)) & ((1L << bits) - 1L));
+    }
+
+    /**
+     * Get the number of bits per position needed for a palette of the given size. Only
+     * divisors of 64 are used, so that no position spans two longs.
+     */
+    static int bitsFor(final int paletteSize) {
+        final int needed = Integer.SIZE - Integer.numberOfLeadingZeros(paletteSize - 1);
+        int bits = 1;
+        while (bits < needed) {
+            bits <<= 1;
+        }
+        return bits;
+    }
+
+    /**
+     * Consumer of section positions and their values
+     *
+     * @param <T> value type
+     */
+    @FunctionalInterface public interface EntryConsumer<T> {
+
+        /**
+         * Accept a position and its value
+         *
+         * @param j     position within the section, see {@link com.plotsquared.core.util.ChunkUtil#getJ(int, int, int)}
+         * @param value value at the position
+         */
+        void accept(int j, @Nonnull T value);
+
+    }
+
+}
@@ -49,6 +49,7 @@ import java.util.function.Consumer;
 public abstract class QueueCoordinator {
 
     private boolean forceSync = false;
+    private ChunkCoordinator.Priority priority = ChunkCoordinator.Priority.NORMAL;
     @Nullable private Object chunkObject;
 
     @Inject private GlobalBlockQueue blockQueue;
@@ -108,6 +109,24 @@ public abstract class QueueCoordinator {
         this.forceSync = forceSync;
     }
 
+    /**
+     * Get the priority of the queue when sharing the per-tick time budget with other queues
+     *
+     * @return queue priority
+     */
+    @Nonnull public ChunkCoordinator.Priority getPriority() {
+        return this.priority;
+    }
+
+    /**
+     * Set the priority of the queue when sharing the per-tick time budget with other queues
+     *
+     * @param priority queue priority
+     */
+    public void setPriority(@Nonnull final ChunkCoordinator.Priority priority) {
+        this.priority = priority;
+    }
+
     /**
      * Get the Chunk Object set to the queue
      *
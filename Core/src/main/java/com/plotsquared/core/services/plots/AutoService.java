@@ -30,6 +30,7 @@ import com.google.common.cache.CacheBuilder;
 import com.intellectualsites.services.types.Service;
 import com.plotsquared.core.player.PlotPlayer;
 import com.plotsquared.core.plot.Plot;
+import com.plotsquared.core.plot.PlotAllocator;
 import com.plotsquared.core.plot.PlotArea;
 import com.plotsquared.core.plot.PlotAreaType;
 import com.plotsquared.core.plot.PlotId;
@@ -133,16 +134,17 @@ public interface AutoService extends Service<AutoService.AutoQuery, List<Plot>>
     final class SinglePlotService implements AutoService, Predicate<AutoQuery> {
 
         @Nullable @Override public List<Plot> handle(@Nonnull AutoQuery autoQuery) {
-            Plot plot;
-            do {
-                synchronized (plotLock) {
-                    plot = autoQuery.getPlotArea().getNextFreePlot(autoQuery.getPlayer(), autoQuery.getStartId());
-                    if (plot != null && plotCandidateCache.getIfPresent(plot.getId()) == null) {
+            synchronized (plotLock) {
+                PlotId start = autoQuery.getStartId();
+                Plot plot;
+                while ((plot = autoQuery.getPlotArea().getNextFreePlot(autoQuery.getPlayer(), start)) != null) {
+                    if (plotCandidateCache.getIfPresent(plot.getId()) == null) {
                         plotCandidateCache.put(plot.getId(), plot);
                         return Collections.singletonList(plot);
                     }
+                    start = plot.getId();
                 }
-            } while (plot != null);
+            }
             return null;
         }
 
@@ -155,28 +157,31 @@ public interface AutoService extends Service<AutoService.AutoQuery, List<Plot>>
 
     final class MultiPlotService implements AutoService, Predicate<AutoQuery> {
 
-        @Override public List<Plot> handle(@Nonnull final AutoQuery autoQuery) {
-            /* TODO: Add timeout? */
-            outer: while (true) {
-                synchronized (plotLock) {
-                    final PlotId start =
-                        autoQuery.getPlotArea().getMeta("lastPlot", PlotId.of(0, 0)).getNextId();
+        @Nullable @Override public List<Plot> handle(@Nonnull final AutoQuery autoQuery) {
+            final PlotAllocator allocator = autoQuery.getPlotArea().getAllocator();
+            synchronized (plotLock) {
+                PlotId start = autoQuery.getStartId();
+                outer:
+                while ((start = allocator.getNextFree(start, autoQuery.getSizeX(), autoQuery.getSizeZ())) != null) {
                     final PlotId end = PlotId.of(start.getX() + autoQuery.getSizeX() - 1,
                         start.getY() + autoQuery.getSizeZ() - 1);
                     final List<Plot> plots =
                         autoQuery.getPlotArea().canClaim(autoQuery.getPlayer(), start, end);
-                    if (plots != null && !plots.isEmpty()) {
-                        autoQuery.getPlotArea().setMeta("lastPlot", start);
-                        for (final Plot plot : plots) {
-                            if (plotCandidateCache.getIfPresent(plot.getId()) != null) {
-                                continue outer;
-                            }
-                            plotCandidateCache.put(plot.getId(), plot);
+                    if (plots == null || plots.isEmpty()) {
+                        continue;
+                    }
+                    for (final Plot plot : plots) {
+                        if (plotCandidateCache.getIfPresent(plot.getId()) != null) {
+                            continue outer;
                         }
-                        return plots;
                     }
+                    for (final Plot plot : plots) {
+                        plotCandidateCache.put(plot.getId(), plot);
+                    }
+                    return plots;
                 }
             }
+            return null;
         }
 
         @Override public boolean test(@Nonnull final AutoQuery autoQuery) {
@@ -66,13 +66,11 @@ import com.plotsquared.core.plot.flag.implementations.MobPlaceFlag;
 import com.plotsquared.core.plot.flag.implementations.PlaceFlag;
 import com.plotsquared.core.plot.flag.implementations.UseFlag;
 import com.plotsquared.core.plot.flag.implementations.VehiclePlaceFlag;
-import com.plotsquared.core.plot.flag.types.BlockTypeWrapper;
 import com.plotsquared.core.plot.world.SinglePlotArea;
 import com.plotsquared.core.util.task.TaskManager;
 import com.sk89q.worldedit.WorldEdit;
 import com.sk89q.worldedit.function.pattern.Pattern;
 import com.sk89q.worldedit.world.block.BlockType;
-import com.sk89q.worldedit.world.block.BlockTypes;
 import net.kyori.adventure.text.minimessage.Template;
 
 import javax.annotation.Nonnull;
@@ -283,11 +281,9 @@ public class EventDispatcher {
                 return true;
             case INTERACT_BLOCK: {
                 if (plot == null) {
-                    final List<BlockTypeWrapper> use = area.getRoadFlag(UseFlag.class);
-                    for(final BlockTypeWrapper blockTypeWrapper : use) {
-                        if (blockTypeWrapper.accepts(BlockTypes.AIR) || blockTypeWrapper.accepts(blockType)) {
-                            return true;
-                        }
+                    final UseFlag use = area.getRoadFlagContainer().getFlag(UseFlag.class);
+                    if (use.acceptsAll() || use.accepts(blockType)) {
+                        return true;
                     }
                     return Permissions.hasPermission(player,
                         Permission.PERMISSION_ADMIN_INTERACT_ROAD.toString(), notifyPerms);
@@ -296,12 +292,9 @@ public class EventDispatcher {
                     return Permissions.hasPermission(player,
                         Permission.PERMISSION_ADMIN_INTERACT_UNOWNED.toString(), notifyPerms);
                 }
-                final List<BlockTypeWrapper> use = plot.getFlag(UseFlag.class);
-                for (final BlockTypeWrapper blockTypeWrapper : use) {
-                    if (blockTypeWrapper.accepts(BlockTypes.AIR) || blockTypeWrapper
-                        .accepts(blockType)) {
-                        return true;
-                    }
+                final UseFlag use = plot.getFlagContainer().getFlag(UseFlag.class);
+                if (use.acceptsAll() || use.accepts(blockType)) {
+                    return true;
                 }
                 if (Permissions.hasPermission(player, Permission.PERMISSION_ADMIN_INTERACT_OTHER.toString(), false)) {
                     return true;
@@ -314,11 +307,9 @@ public class EventDispatcher {
             }
             case TRIGGER_PHYSICAL: {
                 if (plot == null) {
-                    final List<BlockTypeWrapper> use = area.getRoadFlag(UseFlag.class);
-                    for(final BlockTypeWrapper blockTypeWrapper : use) {
-                        if (blockTypeWrapper.accepts(BlockTypes.AIR) || blockTypeWrapper.accepts(blockType)) {
-                            return true;
-                        }
+                    final UseFlag use = area.getRoadFlagContainer().getFlag(UseFlag.class);
+                    if (use.acceptsAll() || use.accepts(blockType)) {
+                        return true;
                     }
                     return Permissions.hasPermission(player,
                         Permission.PERMISSION_ADMIN_INTERACT_ROAD.toString(), false);
@@ -330,12 +321,9 @@ public class EventDispatcher {
                 if (plot.getFlag(DeviceInteractFlag.class)) {
                     return true;
                 }
-                List<BlockTypeWrapper> use = plot.getFlag(UseFlag.class);
-                for (final BlockTypeWrapper blockTypeWrapper : use) {
-                    if (blockTypeWrapper.accepts(BlockTypes.AIR) || blockTypeWrapper
-                        .accepts(blockType)) {
-                        return true;
-                    }
+                final UseFlag use = plot.getFlagContainer().getFlag(UseFlag.class);
+                if (use.acceptsAll() || use.accepts(blockType)) {
+                    return true;
                 }
                 return Permissions
                     .hasPermission(player, Permission.PERMISSION_ADMIN_INTERACT_OTHER.toString(),
@@ -353,12 +341,9 @@ public class EventDispatcher {
                 if (plot.getFlag(MobPlaceFlag.class)) {
                     return true;
                 }
-                List<BlockTypeWrapper> place = plot.getFlag(PlaceFlag.class);
-                for (final BlockTypeWrapper blockTypeWrapper : place) {
-                    if (blockTypeWrapper.accepts(BlockTypes.AIR) || blockTypeWrapper
-                        .accepts(blockType)) {
-                        return true;
-                    }
+                final PlaceFlag place = plot.getFlagContainer().getFlag(PlaceFlag.class);
+                if (place.acceptsAll() || place.accepts(blockType)) {
+                    return true;
                 }
                 if (Permissions
                     .hasPermission(player, Permission.PERMISSION_ADMIN_INTERACT_OTHER.toString(),
@@ -384,12 +369,9 @@ public class EventDispatcher {
                 if (plot.getFlag(MiscPlaceFlag.class)) {
                     return true;
                 }
-                List<BlockTypeWrapper> place = plot.getFlag(PlaceFlag.class);
-                for (final BlockTypeWrapper blockTypeWrapper : place) {
-                    if (blockTypeWrapper.accepts(BlockTypes.AIR) || blockTypeWrapper
-                        .accepts(blockType)) {
-                        return true;
-                    }
+                final PlaceFlag place = plot.getFlagContainer().getFlag(PlaceFlag.class);
+                if (place.acceptsAll() || place.accepts(blockType)) {
+                    return true;
                 }
                 if (Permissions
                     .hasPermission(player, Permission.PERMISSION_ADMIN_INTERACT_OTHER.toString(),
@@ -63,6 +63,7 @@ public abstract class PlayerManager<P extends PlotPlayer<? extends T>, T> {
 
     private final Map<UUID, P> playerMap = new HashMap<>();
     private final Object playerLock = new Object();
+    private volatile int presenceVersion;
 
     public static void getUUIDsFromString(@Nonnull final String list,
         @Nonnull final BiConsumer<Collection<UUID>, Throwable> consumer) {
@@ -208,7 +209,9 @@ public abstract class PlayerManager<P extends PlotPlayer<? extends T>, T> {
      */
     public void removePlayer(@Nonnull final PlotPlayer<?> plotPlayer) {
         synchronized (playerLock) {
-            this.playerMap.remove(plotPlayer.getUUID());
+            if (this.playerMap.remove(plotPlayer.getUUID()) != null) {
+                this.presenceVersion++;
+            }
         }
     }
 
@@ -219,7 +222,9 @@ public abstract class PlayerManager<P extends PlotPlayer<? extends T>, T> {
      */
     public void removePlayer(@Nonnull final UUID uuid) {
         synchronized (playerLock) {
-            this.playerMap.remove(uuid);
+            if (this.playerMap.remove(uuid) != null) {
+                this.presenceVersion++;
+            }
         }
     }
 
@@ -236,6 +241,16 @@ public abstract class PlayerManager<P extends PlotPlayer<? extends T>, T> {
         return this.playerMap.get(uuid);
     }
 
+    /**
+     * Get a counter that changes whenever a player is added to or removed from the player map.
+     * This can be used to tell whether cached online state is still current.
+     *
+     * @return presence version
+     */
+    public int getPresenceVersion() {
+        return this.presenceVersion;
+    }
+
     @Nullable public P getPlayerIfExists(@Nullable final String name) {
         for (final P plotPlayer : this.playerMap.values()) {
             if (plotPlayer.getName().equalsIgnoreCase(name)) {
@@ -273,6 +288,7 @@ public abstract class PlayerManager<P extends PlotPlayer<? extends T>, T> {
             if (player == null) {
                 player = createPlayer(uuid);
                 this.playerMap.put(uuid, player);
+                this.presenceVersion++;
             }
             return player;
         }
@@ -31,21 +31,17 @@ import com.intellectualsites.arkitektonika.SchematicKeys;
 import com.plotsquared.core.PlotSquared;
 import com.plotsquared.core.configuration.Settings;
 import com.plotsquared.core.plot.Plot;
-import com.sk89q.jnbt.CompoundTag;
-import com.sk89q.jnbt.NBTOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * This class handles communication with the Arkitektonika REST service.
@@ -77,12 +73,24 @@ public class PlotUploader {
      * @return a {@link CompletableFuture} that provides a {@link PlotUploadResult} if finished.
      */
     public CompletableFuture<PlotUploadResult> upload(@Nonnull final Plot plot) {
-        return this.schematicHandler.getCompoundTag(plot)
-                .handle((tag, t) -> {
+        final Path tempFile;
+        try {
+            tempFile = Files.createTempFile(TEMP_DIR, null, null);
+        } catch (IOException e) {
+            plot.removeRunning();
+            final CompletableFuture<PlotUploadResult> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        return this.schematicHandler.export(plot, tempFile.toFile())
+                .handle((result, t) -> {
                     plot.removeRunning();
-                    return tag;
+                    if (t != null) {
+                        deleteTempFile(tempFile);
+                        throw new CompletionException(t);
+                    }
+                    return tempFile;
                 })
-                .thenApply(this::writeToTempFile)
                 .thenApply(this::uploadAndDelete)
                 .thenApply(this::wrapIntoResult);
     }
@@ -106,38 +114,15 @@ public class PlotUploader {
             logger.error("Failed to upload schematic", e);
             return null;
         } finally {
-            try {
-                Files.delete(file);
-            } catch (IOException e) {
-                logger.error("Failed to delete temporary file {}", file, e);
-            }
+            deleteTempFile(file);
         }
     }
 
-    @Nonnull
-    private Path writeToTempFile(@Nonnull final CompoundTag schematic) {
+    private void deleteTempFile(@Nonnull final Path file) {
         try {
-            final Path tempFile = Files.createTempFile(TEMP_DIR, null, null);
-            try (final OutputStream stream = Files.newOutputStream(tempFile)) {
-                writeSchematic(schematic, stream);
-            }
-            return tempFile;
+            Files.delete(file);
         } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    /**
-     * Writes a schematic provided as CompoundTag to an OutputStream.
-     *
-     * @param schematic The schematic to write to the stream
-     * @param stream    The stream to write the schematic to
-     * @throws IOException if an I/O error occurred
-     */
-    private void writeSchematic(@Nonnull final CompoundTag schematic, @Nonnull final OutputStream stream)
-            throws IOException {
-        try (final NBTOutputStream nbtOutputStream = new NBTOutputStream(new GZIPOutputStream(stream))) {
-            nbtOutputStream.writeNamedTag("Schematic", schematic);
+            logger.error("Failed to delete temporary file {}", file, e);
         }
     }
 
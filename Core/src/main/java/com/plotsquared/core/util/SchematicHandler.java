@@ -42,16 +42,12 @@ import com.plotsquared.core.queue.QueueCoordinator;
 import com.plotsquared.core.util.net.AbstractDelegateOutputStream;
 import com.plotsquared.core.util.task.RunnableVal;
 import com.plotsquared.core.util.task.TaskManager;
-import com.plotsquared.core.util.task.YieldRunnable;
-import com.sk89q.jnbt.ByteArrayTag;
 import com.sk89q.jnbt.CompoundTag;
 import com.sk89q.jnbt.IntArrayTag;
 import com.sk89q.jnbt.IntTag;
-import com.sk89q.jnbt.ListTag;
 import com.sk89q.jnbt.NBTInputStream;
 import com.sk89q.jnbt.NBTOutputStream;
 import com.sk89q.jnbt.ShortTag;
-import com.sk89q.jnbt.StringTag;
 import com.sk89q.jnbt.Tag;
 import com.sk89q.worldedit.WorldEdit;
 import com.sk89q.worldedit.extension.platform.Capability;
@@ -64,6 +60,7 @@ import com.sk89q.worldedit.extent.clipboard.io.SpongeSchematicReader;
 import com.sk89q.worldedit.math.BlockVector2;
 import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.World;
 import com.sk89q.worldedit.world.biome.BiomeType;
 import com.sk89q.worldedit.world.block.BaseBlock;
 import org.slf4j.Logger;
@@ -72,7 +69,6 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.BufferedReader;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -92,12 +88,12 @@ import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -106,6 +102,8 @@ import java.util.Scanner;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -243,17 +241,12 @@ public abstract class SchematicHandler {
                 }
 
                 final Runnable THIS = this;
-                getCompoundTag(plot)
-                        .whenComplete((compoundTag, throwable) -> {
-                            if (compoundTag != null) {
-                                TaskManager.runTaskAsync(() -> {
-                                    boolean result = save(compoundTag, directory + File.separator + name + ".schem");
-                                    if (!result) {
-                                        logger.error("Failed to save {}", plot.getId());
-                                    }
-                                    TaskManager.runTask(THIS);
-                                });
+                export(plot, FileUtils.getFile(PlotSquared.platform().getDirectory(), directory + File.separator + name + ".schem"))
+                        .whenComplete((result, throwable) -> {
+                            if (throwable != null) {
+                                logger.error("Failed to save {}", plot.getId(), throwable);
                             }
+                            TaskManager.runTask(THIS);
                         });
             }
         });
@@ -525,30 +518,6 @@ public abstract class SchematicHandler {
         return true;
     }
 
-    private void writeSchematicData(@Nonnull final Map<String, Tag> schematic,
-                                    @Nonnull final Map<String, Integer> palette,
-                                    @Nonnull final Map<String, Integer> biomePalette,
-                                    @Nonnull final List<CompoundTag> tileEntities,
-                                    @Nonnull final ByteArrayOutputStream buffer,
-                                    @Nonnull final ByteArrayOutputStream biomeBuffer) {
-        schematic.put("PaletteMax", new IntTag(palette.size()));
-
-        Map<String, Tag> paletteTag = new HashMap<>();
-        palette.forEach((key, value) -> paletteTag.put(key, new IntTag(value)));
-
-        schematic.put("Palette", new CompoundTag(paletteTag));
-        schematic.put("BlockData", new ByteArrayTag(buffer.toByteArray()));
-        schematic.put("BlockEntities", new ListTag(CompoundTag.class, tileEntities));
-
-        schematic.put("BiomePaletteMax", new IntTag(biomePalette.size()));
-
-        Map<String, Tag> biomePaletteTag = new HashMap<>();
-        biomePalette.forEach((key, value) -> biomePaletteTag.put(key, new IntTag(value)));
-
-        schematic.put("BiomePalette", new CompoundTag(biomePaletteTag));
-        schematic.put("BiomeData", new ByteArrayTag(biomeBuffer.toByteArray()));
-    }
-
     @Nonnull
     private Map<String, Tag> initSchematic(short width, short height, short length) {
         Map<String, Tag> schematic = new HashMap<>();
@@ -593,136 +562,93 @@ public abstract class SchematicHandler {
     @Nonnull
     public CompletableFuture<CompoundTag> getCompoundTag(@Nonnull final String worldName,
                                                          @Nonnull final Set<CuboidRegion> regions) {
-        CompletableFuture<CompoundTag> completableFuture = new CompletableFuture<>();
-        TaskManager.runTaskAsync(() -> {
-            // Main positions
-            CuboidRegion aabb = RegionUtil.getAxisAlignedBoundingBox(regions);
-            aabb.setWorld(this.worldUtil.getWeWorld(worldName));
-
-            final int width = aabb.getWidth();
-            int height = aabb.getHeight();
-            final int length = aabb.getLength();
-
-            Map<String, Tag> schematic = initSchematic((short) width, (short) height, (short) length);
-
-            Map<String, Integer> palette = new HashMap<>();
-            Map<String, Integer> biomePalette = new HashMap<>();
-
-            List<CompoundTag> tileEntities = new ArrayList<>();
-            ByteArrayOutputStream buffer = new ByteArrayOutputStream(width * height * length);
-            ByteArrayOutputStream biomeBuffer = new ByteArrayOutputStream(width * length);
-            // Queue
-            final ArrayDeque<CuboidRegion> queue = new ArrayDeque<>(regions);
-            TaskManager.runTask(new Runnable() {
-                @Override public void run() {
-                    if (queue.isEmpty()) {
-                        TaskManager.runTaskAsync(() -> {
-                            writeSchematicData(schematic, palette, biomePalette, tileEntities, buffer, biomeBuffer);
-                            completableFuture.complete(new CompoundTag(schematic));
-                        });
-                        return;
-                    }
-                    final Runnable regionTask = this;
-                    CuboidRegion region = queue.poll();
-
-                    final BlockVector3 minimum = region.getMinimumPoint();
-                    final BlockVector3 maximum = region.getMaximumPoint();
-
-                    final int minX = minimum.getX();
-                    final int minZ = minimum.getZ();
-                    final int minY = minimum.getY();
-
-                    final int maxX = maximum.getX();
-                    final int maxZ = maximum.getZ();
-                    final int maxY = maximum.getY();
-
-                    final Runnable yTask = new YieldRunnable() {
-                        int currentY = minY;
-                        int currentX = minX;
-                        int currentZ = minZ;
-                        @Override public void run() {
-                            long start = System.currentTimeMillis();
-                            for (; currentY <= maxY; currentY++) {
-                                int relativeY = currentY - minY;
-                                for (; currentZ <= maxZ; currentZ++) {
-                                    int relativeZ = currentZ - minZ;
-                                    for (; currentX <= maxX; currentX++) {
-                                        // if too much time was spent here, we yield this task
-                                        // note that current(X/Y/Z) aren't incremented, so the same position
-                                        // as *right now* will be visited again
-                                        if (System.currentTimeMillis() - start > 40) {
-                                            this.yield();
-                                            return;
-                                        }
-                                        int relativeX = currentX - minX;
-                                        BlockVector3 point = BlockVector3.at(currentX, currentY, currentZ);
-                                        BaseBlock block = aabb.getWorld().getFullBlock(point);
-                                        if (block.getNbtData() != null) {
-                                            Map<String, Tag> values = new HashMap<>();
-                                            for (Map.Entry<String, Tag> entry : block.getNbtData().getValue().entrySet()) {
-                                                values.put(entry.getKey(), entry.getValue());
-                                            }
-
-                                            // Positions are kept in NBT, we don't want that.
-                                            values.remove("x");
-                                            values.remove("y");
-                                            values.remove("z");
-
-                                            values.put("Id", new StringTag(block.getNbtId()));
-
-                                            // Remove 'id' if it exists. We want 'Id'.
-                                            // Do this after we get "getNbtId" cos otherwise "getNbtId" doesn't work.
-                                            // Dum.
-                                            values.remove("id");
-                                            values.put("Pos", new IntArrayTag(new int[] {relativeX, relativeY, relativeZ}));
-
-                                            tileEntities.add(new CompoundTag(values));
-                                        }
-                                        String blockKey = block.toImmutableState().getAsString();
-                                        int blockId;
-                                        if (palette.containsKey(blockKey)) {
-                                            blockId = palette.get(blockKey);
-                                        } else {
-                                            blockId = palette.size();
-                                            palette.put(blockKey, palette.size());
-                                        }
-
-                                        while ((blockId & -128) != 0) {
-                                            buffer.write(blockId & 127 | 128);
-                                            blockId >>>= 7;
-                                        }
-                                        buffer.write(blockId);
-
-                                        if (relativeY > 0) {
-                                            continue;
-                                        }
-                                        BlockVector2 pt = BlockVector2.at(currentX, currentZ);
-                                        BiomeType biome = aabb.getWorld().getBiome(pt);
-                                        String biomeStr = biome.getId();
-                                        int biomeId;
-                                        if (biomePalette.containsKey(biomeStr)) {
-                                            biomeId = biomePalette.get(biomeStr);
-                                        } else {
-                                            biomeId = biomePalette.size();
-                                            biomePalette.put(biomeStr, biomeId);
-                                        }
-                                        while ((biomeId & -128) != 0) {
-                                            biomeBuffer.write(biomeId & 127 | 128);
-                                            biomeId >>>= 7;
-                                        }
-                                        biomeBuffer.write(biomeId);
-                                    }
-                                    currentX = minX; // reset manually as not using local variable
-                                }
-                                currentZ = minZ; // reset manually as not using local variable
-                            }
-                            regionTask.run();
-                        }
-                    };
-                    yTask.run();
-                }
-            });
+        return this.captureSnapshot(worldName, regions, snapshot -> snapshot.toCompoundTag(
+            initSchematic((short) snapshot.getWidth(), (short) snapshot.getHeight(), (short) snapshot.getLength())));
+    }
+
+    /**
+     * Export the given plot to a file in the Sponge schematic format. The schematic
+     * is written to the file as it is encoded, rather than being built in memory first.
+     *
+     * @param plot The plot to export.
+     * @param file The file to write the schematic to.
+     * @return a {@link CompletableFuture} that completes once the file has been written.
+     */
+    @Nonnull
+    public CompletableFuture<Void> export(@Nonnull final Plot plot, @Nonnull final File file) {
+        return export(Objects.requireNonNull(plot.getWorldName()), plot.getRegions(), file);
+    }
+
+    /**
+     * Export the contents of the given regions in the given world to a file in the
+     * Sponge schematic format.
+     *
+     * @param worldName The world to get the contents from.
+     * @param regions The regions to get the contents from.
+     * @param file The file to write the schematic to.
+     * @return a {@link CompletableFuture} that completes once the file has been written.
+     */
+    @Nonnull
+    public CompletableFuture<Void> export(@Nonnull final String worldName,
+                                          @Nonnull final Set<CuboidRegion> regions,
+                                          @Nonnull final File file) {
+        return this.captureSnapshot(worldName, regions, snapshot -> {
+            file.getAbsoluteFile().getParentFile().mkdirs();
+            try (OutputStream output = new FileOutputStream(file)) {
+                snapshot.write(initSchematic((short) snapshot.getWidth(), (short) snapshot.getHeight(), (short) snapshot.getLength()),
+                    output);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Capture the contents of the given regions chunk by chunk on the main thread,
+     * then encode them on a worker thread.
+     *
+     * @param worldName The world to get the contents from.
+     * @param regions The regions to get the contents from.
+     * @param encoder Function that encodes the captured snapshot.
+     * @param <T> Result type
+     * @return a {@link CompletableFuture} that provides the encoded result.
+     */
+    @Nonnull
+    private <T> CompletableFuture<T> captureSnapshot(@Nonnull final String worldName,
+                                                     @Nonnull final Set<CuboidRegion> regions,
+                                                     @Nonnull final Function<SchematicSnapshot, T> encoder) {
+        final CompletableFuture<T> completableFuture = new CompletableFuture<>();
+        final World world = this.worldUtil.getWeWorld(worldName);
+        final SchematicSnapshot snapshot = new SchematicSnapshot(regions);
+        final Set<BlockVector2> chunks = new HashSet<>();
+        for (final CuboidRegion region : regions) {
+            chunks.addAll(region.getChunks());
+        }
+        final QueueCoordinator queue = PlotSquared.platform().globalBlockQueue().getNewQueue(world);
+        queue.addReadChunks(chunks);
+        queue.setChunkConsumer(chunk -> {
+            if (completableFuture.isDone()) {
+                return;
+            }
+            try {
+                snapshot.capture(this.worldUtil.getFullChunkBlocks(worldName, chunk), world, chunk,
+                    this.worldUtil.getTileEntityPositions(worldName, chunk));
+            } catch (Throwable throwable) {
+                completableFuture.completeExceptionally(throwable);
+            }
         });
+        queue.setCompleteTask(() -> TaskManager.runTaskAsync(() -> {
+            if (completableFuture.isDone()) {
+                return;
+            }
+            try {
+                completableFuture.complete(encoder.apply(snapshot));
+            } catch (Throwable throwable) {
+                completableFuture.completeExceptionally(throwable);
+            }
+        }));
+        queue.enqueue();
         return completableFuture;
     }
 
@@ -0,0 +1,417 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.util;
+
+import com.sk89q.jnbt.ByteArrayTag;
+import com.sk89q.jnbt.CompoundTag;
+import com.sk89q.jnbt.IntArrayTag;
+import com.sk89q.jnbt.IntTag;
+import com.sk89q.jnbt.ListTag;
+import com.sk89q.jnbt.NBTConstants;
+import com.sk89q.jnbt.NBTOutputStream;
+import com.sk89q.jnbt.StringTag;
+import com.sk89q.jnbt.Tag;
+import com.sk89q.worldedit.math.BlockVector2;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshot of the blocks, biomes and tile entities in a set of regions, encoded
+ * as a Sponge schematic.
+ * <p>
+ * Chunks are captured one at a time on the main thread by {@link #capture}, which
+ * only interns the block states to dense integer ids. Once every chunk has been
+ * captured the snapshot is no longer modified, and is encoded on a worker thread.
+ * Positions inside the bounding box but outside of the regions are stored as air.
+ */
+final class SchematicSnapshot {
+
+    private static final int AIR = 0;
+
+    private final Set<CuboidRegion> regions;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int width;
+    private final int height;
+    private final int length;
+
+    private final Map<BlockState, Integer> stateIds = new HashMap<>();
+    private final Map<String, Integer> stateNameIds = new HashMap<>();
+    private final List<String> states = new ArrayList<>();
+    private final Map<String, Integer> biomeIds = new HashMap<>();
+    private final List<String> biomes = new ArrayList<>();
+    private final Map<BlockVector2, char[]> chunks = new HashMap<>();
+    // Biome id + 1 of each column, 0 if the column was not captured
+    private final char[] columnBiomes;
+    private final List<CompoundTag> tileEntities = new ArrayList<>();
+
+    SchematicSnapshot(@Nonnull final Set<CuboidRegion> regions) {
+        final CuboidRegion aabb = RegionUtil.getAxisAlignedBoundingBox(regions);
+        this.regions = regions;
+        this.minX = aabb.getMinimumPoint().getX();
+        this.minY = aabb.getMinimumPoint().getY();
+        this.minZ = aabb.getMinimumPoint().getZ();
+        this.width = aabb.getWidth();
+        this.height = aabb.getHeight();
+        this.length = aabb.getLength();
+        this.columnBiomes = new char[this.width * this.length];
+        this.getStateId("minecraft:air");
+    }
+
+    int getWidth() {
+        return this.width;
+    }
+
+    int getHeight() {
+        return this.height;
+    }
+
+    int getLength() {
+        return this.length;
+    }
+
+    /**
+     * Capture the blocks, biomes and tile entities of a chunk. This must be called
+     * from the main thread.
+     *
+     * @param blocks Full block states of the chunk
+     * @param world  World to read biomes and tile entities from
+     * @param chunk  Chunk coordinates
+     * @param tiles  Positions of the tile entities in the chunk
+     */
+    void capture(@Nonnull final WorldUtil.ChunkBlocks blocks, @Nonnull final World world,
+        @Nonnull final BlockVector2 chunk, @Nonnull final Collection<BlockVector3> tiles) {
+        final int chunkBlockX = chunk.getX() << 4;
+        final int chunkBlockZ = chunk.getZ() << 4;
+        final char[] ids = new char[this.height << 8];
+        for (final CuboidRegion region : this.regions) {
+            final BlockVector3 min = region.getMinimumPoint();
+            final BlockVector3 max = region.getMaximumPoint();
+            final int bx = Math.max(min.getX(), chunkBlockX);
+            final int tx = Math.min(max.getX(), chunkBlockX + 15);
+            final int bz = Math.max(min.getZ(), chunkBlockZ);
+            final int tz = Math.min(max.getZ(), chunkBlockZ + 15);
+            for (int x = bx; x <= tx; x++) {
+                for (int z = bz; z <= tz; z++) {
+                    final int column = ((z & 15) << 4) | (x & 15);
+                    for (int y = min.getY(); y <= max.getY(); y++) {
+                        ids[((y - this.minY) << 8) | column] = this.getStateId(blocks.getBlock(x & 15, y, z & 15));
+                    }
+                    final int biomeIndex = (x - this.minX) + (z - this.minZ) * this.width;
+                    if (this.columnBiomes[biomeIndex] == 0) {
+                        this.columnBiomes[biomeIndex] = (char) (this.getBiomeId(world.getBiome(BlockVector2.at(x, z)).getId()) + 1);
+                    }
+                }
+            }
+        }
+        this.chunks.put(chunk, ids);
+        for (final BlockVector3 position : tiles) {
+            if (this.contains(position)) {
+                this.captureTile(world.getFullBlock(position), position);
+            }
+        }
+    }
+
+    /**
+     * Encode the snapshot and write it to a stream as a GZIP compressed NBT file,
+     * without building the schematic in memory. The stream is closed afterwards.
+     *
+     * @param schematic Header values of the schematic
+     * @param output    Stream to write to
+     * @throws IOException if the schematic could not be written
+     */
+    void write(@Nonnull final Map<String, Tag> schematic, @Nonnull final OutputStream output) throws IOException {
+        final int[] palette = this.createPalette();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(output), 1 << 16))) {
+            out.writeByte(NBTConstants.TYPE_COMPOUND);
+            out.writeUTF("Schematic");
+            for (final Map.Entry<String, Tag> entry : schematic.entrySet()) {
+                writeTag(out, entry.getKey(), entry.getValue());
+            }
+            writeTag(out, "PaletteMax", new IntTag(this.getPaletteSize(palette)));
+            writeTag(out, "Palette", this.getPaletteTag(palette));
+            out.writeByte(NBTConstants.TYPE_BYTE_ARRAY);
+            out.writeUTF("BlockData");
+            out.writeInt(this.getBlockDataLength(palette));
+            this.forEachBlock(id -> writeVarInt(out, palette[id]));
+            writeTag(out, "BlockEntities", new ListTag(CompoundTag.class, this.tileEntities));
+            writeTag(out, "BiomePaletteMax", new IntTag(this.getBiomes().size()));
+            writeTag(out, "BiomePalette", this.getBiomePaletteTag());
+            out.writeByte(NBTConstants.TYPE_BYTE_ARRAY);
+            out.writeUTF("BiomeData");
+            out.writeInt(this.getBiomeDataLength());
+            for (final char biome : this.columnBiomes) {
+                writeVarInt(out, biome == 0 ? 0 : biome - 1);
+            }
+            out.writeByte(NBTConstants.TYPE_END);
+        }
+    }
+
+    /**
+     * Encode the snapshot as a schematic tag
+     *
+     * @param schematic Header values of the schematic
+     * @return the schematic
+     */
+    @Nonnull CompoundTag toCompoundTag(@Nonnull final Map<String, Tag> schematic) {
+        final int[] palette = this.createPalette();
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(this.getBlockDataLength(palette));
+        try {
+            this.forEachBlock(id -> writeVarInt(buffer, palette[id]));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        final ByteArrayOutputStream biomeBuffer = new ByteArrayOutputStream(this.getBiomeDataLength());
+        for (final char biome : this.columnBiomes) {
+            writeVarInt(biomeBuffer, biome == 0 ? 0 : biome - 1);
+        }
+        schematic.put("PaletteMax", new IntTag(this.getPaletteSize(palette)));
+        schematic.put("Palette", this.getPaletteTag(palette));
+        schematic.put("BlockData", new ByteArrayTag(buffer.toByteArray()));
+        schematic.put("BlockEntities", new ListTag(CompoundTag.class, this.tileEntities));
+        schematic.put("BiomePaletteMax", new IntTag(this.getBiomes().size()));
+        schematic.put("BiomePalette", this.getBiomePaletteTag());
+        schematic.put("BiomeData", new ByteArrayTag(biomeBuffer.toByteArray()));
+        return new CompoundTag(schematic);
+    }
+
+    private char getStateId(@Nonnull final BlockState state) {
+        Integer id = this.stateIds.get(state);
+        if (id == null) {
+            id = (int) this.getStateId(state.getAsString());
+            this.stateIds.put(state, id);
+        }
+        return (char) id.intValue();
+    }
+
+    private char getStateId(@Nonnull final String state) {
+        Integer id = this.stateNameIds.get(state);
+        if (id == null) {
+            id = this.states.size();
+            if (id > Character.MAX_VALUE) {
+                throw new IllegalStateException("Too many block states in schematic");
+            }
+            this.states.add(state);
+            this.stateNameIds.put(state, id);
+        }
+        return (char) id.intValue();
+    }
+
+    private int getBiomeId(@Nonnull final String biome) {
+        return this.biomeIds.computeIfAbsent(biome, key -> {
+            this.biomes.add(key);
+            return this.biomes.size() - 1;
+        });
+    }
+
+    private boolean contains(@Nonnull final BlockVector3 position) {
+        for (final CuboidRegion region : this.regions) {
+            if (region.contains(position)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void captureTile(@Nonnull final BaseBlock block, @Nonnull final BlockVector3 position) {
+        final CompoundTag nbt = block.getNbtData();
+        if (nbt == null) {
+            return;
+        }
+        final Map<String, Tag> values = new HashMap<>(nbt.getValue());
+        // Positions are kept in NBT, we don't want that.
+        values.remove("x");
+        values.remove("y");
+        values.remove("z");
+        values.put("Id", new StringTag(block.getNbtId()));
+        // Remove 'id' if it exists. We want 'Id'.
+        values.remove("id");
+        values.put("Pos", new IntArrayTag(new int[] {position.getX() - this.minX, position.getY() - this.minY,
+            position.getZ() - this.minZ}));
+        this.tileEntities.add(new CompoundTag(values));
+    }
+
+    /**
+     * Map the state ids to palette indices in the order the states are first
+     * encountered, so that common blocks get short varints. Unused states are
+     * mapped to -1.
+     */
+    @Nonnull private int[] createPalette() {
+        final int[] palette = new int[this.states.size()];
+        Arrays.fill(palette, -1);
+        final int[] size = new int[1];
+        try {
+            this.forEachBlock(id -> {
+                if (palette[id] < 0) {
+                    palette[id] = size[0]++;
+                }
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return palette;
+    }
+
+    private int getPaletteSize(@Nonnull final int[] palette) {
+        int size = 0;
+        for (final int index : palette) {
+            size = Math.max(size, index + 1);
+        }
+        return size;
+    }
+
+    @Nonnull private CompoundTag getPaletteTag(@Nonnull final int[] palette) {
+        final Map<String, Tag> paletteTag = new HashMap<>();
+        for (int id = 0; id < palette.length; id++) {
+            if (palette[id] >= 0) {
+                paletteTag.put(this.states.get(id), new IntTag(palette[id]));
+            }
+        }
+        return new CompoundTag(paletteTag);
+    }
+
+    private int getBlockDataLength(@Nonnull final int[] palette) {
+        final int[] stateCounts = new int[palette.length];
+        try {
+            this.forEachBlock(id -> stateCounts[id]++);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        int length = 0;
+        for (int id = 0; id < palette.length; id++) {
+            if (palette[id] >= 0) {
+                length += stateCounts[id] * getVarIntSize(palette[id]);
+            }
+        }
+        return length;
+    }
+
+    @Nonnull private List<String> getBiomes() {
+        if (this.biomes.isEmpty()) {
+            this.getBiomeId("minecraft:plains");
+        }
+        return this.biomes;
+    }
+
+    @Nonnull private CompoundTag getBiomePaletteTag() {
+        final Map<String, Tag> biomePaletteTag = new HashMap<>();
+        final List<String> biomes = this.getBiomes();
+        for (int id = 0; id < biomes.size(); id++) {
+            biomePaletteTag.put(biomes.get(id), new IntTag(id));
+        }
+        return new CompoundTag(biomePaletteTag);
+    }
+
+    private int getBiomeDataLength() {
+        int length = 0;
+        for (final char biome : this.columnBiomes) {
+            length += getVarIntSize(biome == 0 ? 0 : biome - 1);
+        }
+        return length;
+    }
+
+    /**
+     * Visit the state id of every position in the bounding box, in the order of
+     * the Sponge schematic format (x, then z, then y)
+     */
+    private void forEachBlock(@Nonnull final BlockConsumer consumer) throws IOException {
+        for (int y = 0; y < this.height; y++) {
+            final int yIndex = y << 8;
+            for (int z = 0; z < this.length; z++) {
+                final int blockZ = this.minZ + z;
+                final int zIndex = yIndex | ((blockZ & 15) << 4);
+                int x = 0;
+                while (x < this.width) {
+                    final int blockX = this.minX + x;
+                    final char[] blocks = this.chunks.get(BlockVector2.at(blockX >> 4, blockZ >> 4));
+                    final int end = Math.min(this.width, x + 16 - (blockX & 15));
+                    for (; x < end; x++) {
+                        consumer.accept(blocks == null ? AIR : blocks[zIndex | ((this.minX + x) & 15)]);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int getVarIntSize(final int value) {
+        int size = 1;
+        for (int remaining = value >>> 7; remaining != 0; remaining >>>= 7) {
+            size++;
+        }
+        return size;
+    }
+
+    private static void writeVarInt(@Nonnull final OutputStream out, int value) throws IOException {
+        while ((value & -128) != 0) {
+            out.write(value & 127 | 128);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static void writeVarInt(@Nonnull final ByteArrayOutputStream out, int value) {
+        while ((value & -128) != 0) {
+            out.write(value & 127 | 128);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static void writeTag(@Nonnull final DataOutputStream out, @Nonnull final String name,
+        @Nonnull final Tag tag) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (NBTOutputStream nbtStream = new NBTOutputStream(buffer)) {
+            nbtStream.writeNamedTag(name, tag);
+        }
+        buffer.writeTo(out);
+    }
+
+    @FunctionalInterface private interface BlockConsumer {
+
+        void accept(int id) throws IOException;
+
+    }
+
+}
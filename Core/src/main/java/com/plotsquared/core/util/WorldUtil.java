@@ -398,4 +398,64 @@ public abstract class WorldUtil {
      */
     @Nonnegative public abstract int getTileEntityCount(@Nonnull String world, @Nonnull BlockVector2 chunk);
 
+    /**
+     * Get the positions of all tile entities in a chunk. This must be called
+     * from the main thread
+     *
+     * @param world World
+     * @param chunk Chunk coordinates
+     * @return Tile entity positions
+     */
+    @Nonnull public abstract Collection<BlockVector3> getTileEntityPositions(@Nonnull String world, @Nonnull BlockVector2 chunk);
+
+    /**
+     * Take a snapshot of the block types in a loaded chunk. This must be called
+     * from the main thread, but the snapshot can be read from another thread.
+     *
+     * @param world World
+     * @param chunk Chunk coordinates
+     * @return Chunk snapshot
+     */
+    @Nonnull public abstract ChunkBlocks getChunkBlocks(@Nonnull String world, @Nonnull BlockVector2 chunk);
+
+    /**
+     * Take a snapshot of the full block states, including their properties, in a
+     * loaded chunk. This must be called from the main thread, but the snapshot can
+     * be read from another thread.
+     *
+     * @param world World
+     * @param chunk Chunk coordinates
+     * @return Chunk snapshot
+     */
+    @Nonnull public abstract ChunkBlocks getFullChunkBlocks(@Nonnull String world, @Nonnull BlockVector2 chunk);
+
+    /**
+     * Get the last time any of the given chunks could have been modified, based on
+     * when they were last saved. Chunks that are loaded may have unsaved changes, so
+     * they count as modified now. This may be called from any thread.
+     *
+     * @param world  World
+     * @param chunks Chunk coordinates
+     * @return last modification time in milliseconds, or 0 if the chunks were never saved
+     */
+    public abstract long getLastModified(@Nonnull String world, @Nonnull Collection<BlockVector2> chunks);
+
+    /**
+     * Snapshot of the blocks in a chunk. A snapshot should only be read by one thread at a time.
+     */
+    @FunctionalInterface public interface ChunkBlocks {
+
+        /**
+         * Get the block state at a position. Depending on how the snapshot was taken,
+         * this is either the full state or the default state of the block type
+         *
+         * @param x Chunk relative x coordinate
+         * @param y Y coordinate
+         * @param z Chunk relative z coordinate
+         * @return Block state
+         */
+        @Nonnull BlockState getBlock(int x, int y, int z);
+
+    }
+
 }
@@ -41,4 +41,8 @@ class AliasFilter implements PlotFilter {
         return this.alias.equalsIgnoreCase(plot.getAlias());
     }
 
+    @Nonnull public String getAlias() {
+        return this.alias;
+    }
+
 }
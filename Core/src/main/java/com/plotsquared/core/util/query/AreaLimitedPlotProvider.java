@@ -28,9 +28,12 @@ package com.plotsquared.core.util.query;
 import com.plotsquared.core.plot.Plot;
 import com.plotsquared.core.plot.PlotArea;
 
+import javax.annotation.Nonnull;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 class AreaLimitedPlotProvider implements PlotProvider {
 
@@ -48,4 +51,32 @@ class AreaLimitedPlotProvider implements PlotProvider {
         return plots;
     }
 
+    @Override public Collection<Plot> getPlotsOwnedBy(@Nonnull final UUID owner) {
+        final List<Plot> plots = new LinkedList<>();
+        for (final PlotArea area : areas) {
+            plots.addAll(area.getPlotsAbs(owner));
+        }
+        return plots;
+    }
+
+    @Override public Collection<Plot> getPlotsWithAlias(@Nonnull final String alias) {
+        final List<Plot> plots = new LinkedList<>();
+        for (final PlotArea area : areas) {
+            plots.addAll(area.getSearchIndex().getPlotsByAlias(alias));
+        }
+        return plots;
+    }
+
+    @Override public Stream<Plot> streamPlots() {
+        return this.areas.stream().flatMap(area -> area.getPlots().stream());
+    }
+
+    @Override public int countPlots() {
+        int count = 0;
+        for (final PlotArea area : this.areas) {
+            count += area.getPlotCount();
+        }
+        return count;
+    }
+
 }
@@ -30,9 +30,12 @@ import com.plotsquared.core.plot.PlotArea;
 import com.plotsquared.core.plot.world.PlotAreaManager;
 
 import javax.annotation.Nonnull;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 class GlobalPlotProvider implements PlotProvider {
 
@@ -50,4 +53,32 @@ class GlobalPlotProvider implements PlotProvider {
         return plots;
     }
 
+    @Override public Collection<Plot> getPlotsOwnedBy(@Nonnull final UUID owner) {
+        final Set<Plot> plots = new HashSet<>();
+        for (final PlotArea plotArea : this.plotAreaManager.getAllPlotAreas()) {
+            plots.addAll(plotArea.getPlotsAbs(owner));
+        }
+        return plots;
+    }
+
+    @Override public Collection<Plot> getPlotsWithAlias(@Nonnull final String alias) {
+        final Set<Plot> plots = new HashSet<>();
+        for (final PlotArea plotArea : this.plotAreaManager.getAllPlotAreas()) {
+            plots.addAll(plotArea.getSearchIndex().getPlotsByAlias(alias));
+        }
+        return plots;
+    }
+
+    @Override public Stream<Plot> streamPlots() {
+        return Arrays.stream(this.plotAreaManager.getAllPlotAreas()).flatMap(plotArea -> plotArea.getPlots().stream());
+    }
+
+    @Override public int countPlots() {
+        int count = 0;
+        for (final PlotArea plotArea : this.plotAreaManager.getAllPlotAreas()) {
+            count += plotArea.getPlotCount();
+        }
+        return count;
+    }
+
 }
@@ -39,6 +39,10 @@ class OwnerFilter implements PlotFilter {
         this.owner = owner;
     }
 
+    @Nonnull UUID getOwner() {
+        return this.owner;
+    }
+
     @Override public boolean accepts(@Nonnull final Plot plot) {
         return plot.hasOwner() && Objects.equals(plot.getOwnerAbs(), this.owner);
     }
@@ -29,19 +29,20 @@ import com.google.common.base.Preconditions;
 import com.plotsquared.core.plot.Plot;
 
 import javax.annotation.Nonnull;
-import java.util.Collections;
 import java.util.List;
 
 /**
- * Paginated collection of plots as a result of a {@link PlotQuery query}
+ * Paginated collection of plots as a result of a {@link PlotQuery query}.
+ * Pages are computed from the query when requested.
  */
 public final class PaginatedPlotResult {
 
-    private final List<Plot> plots;
+    private final PlotQuery query;
     private final int pageSize;
+    private int count = -1;
 
-    PaginatedPlotResult(@Nonnull final List<Plot> plots, final int pageSize) {
-        this.plots = plots;
+    PaginatedPlotResult(@Nonnull final PlotQuery query, final int pageSize) {
+        this.query = query;
         this.pageSize = pageSize;
     }
 
@@ -53,12 +54,7 @@ public final class PaginatedPlotResult {
      */
     public List<Plot> getPage(final int page) {
         Preconditions.checkState(page >= 0, "Page must be positive");
-        final int from = (page - 1) * this.pageSize;
-        if (this.plots.size() < from) {
-            return Collections.emptyList();
-        }
-        final int to = Math.max(from + pageSize, this.plots.size());
-        return this.plots.subList(from, to);
+        return this.query.getPage(page, this.pageSize);
     }
 
     /**
@@ -67,7 +63,10 @@ public final class PaginatedPlotResult {
      * @return Available pages
      */
     public int getPages() {
-        return (int) Math.ceil((double) plots.size() / (double) pageSize);
+        if (this.count == -1) {
+            this.count = this.query.count();
+        }
+        return (int) Math.ceil((double) this.count / (double) this.pageSize);
     }
 
 }
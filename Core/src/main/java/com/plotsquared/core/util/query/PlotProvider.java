@@ -27,10 +27,68 @@ package com.plotsquared.core.util.query;
 
 import com.plotsquared.core.plot.Plot;
 
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @FunctionalInterface interface PlotProvider {
 
     Collection<Plot> getPlots();
 
+    /**
+     * Get the provided plots that are owned by a player. Providers backed by plot
+     * areas answer this from the owner index of each area.
+     *
+     * @param owner Owner UUID
+     * @return Provided plots owned by the player
+     */
+    default Collection<Plot> getPlotsOwnedBy(@Nonnull final UUID owner) {
+        final List<Plot> plots = new ArrayList<>();
+        for (final Plot plot : this.getPlots()) {
+            if (Objects.equals(plot.getOwnerAbs(), owner)) {
+                plots.add(plot);
+            }
+        }
+        return plots;
+    }
+
+    /**
+     * Get the provided plots with an alias, ignoring case. Providers backed by plot
+     * areas answer this from the search index of each area.
+     *
+     * @param alias Plot alias
+     * @return Provided plots with the alias
+     */
+    default Collection<Plot> getPlotsWithAlias(@Nonnull final String alias) {
+        final List<Plot> plots = new ArrayList<>();
+        for (final Plot plot : this.getPlots()) {
+            if (alias.equalsIgnoreCase(plot.getAlias())) {
+                plots.add(plot);
+            }
+        }
+        return plots;
+    }
+
+    /**
+     * Stream the provided plots without collecting them first
+     *
+     * @return Provided plots
+     */
+    default Stream<Plot> streamPlots() {
+        return this.getPlots().stream();
+    }
+
+    /**
+     * Get the number of provided plots
+     *
+     * @return Number of provided plots
+     */
+    default int countPlots() {
+        return this.getPlots().size();
+    }
+
 }
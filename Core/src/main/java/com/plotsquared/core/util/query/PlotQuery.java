@@ -30,24 +30,29 @@ import com.plotsquared.core.PlotSquared;
 import com.plotsquared.core.player.PlotPlayer;
 import com.plotsquared.core.plot.Plot;
 import com.plotsquared.core.plot.PlotArea;
-import com.plotsquared.core.plot.Rating;
+import com.plotsquared.core.plot.PlotRatingIndex;
 import com.plotsquared.core.plot.flag.implementations.DoneFlag;
 import com.plotsquared.core.plot.world.PlotAreaManager;
 import com.plotsquared.core.util.MathMan;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -59,6 +64,11 @@ import java.util.stream.Stream;
  */
 public final class PlotQuery implements Iterable<Plot> {
 
+    private static final Comparator<Plot> TIEBREAK =
+        Comparator.<Plot, PlotArea>comparing(Plot::getArea, PlotQuery::compareAreas)
+            .thenComparingInt(plot -> plot.getId().getX())
+            .thenComparingInt(plot -> plot.getId().getY());
+
     private final Collection<PlotFilter> filters = new LinkedList<>();
     private final PlotAreaManager plotAreaManager;
     private PlotProvider plotProvider;
@@ -277,11 +287,15 @@ public final class PlotQuery implements Iterable<Plot> {
     }
 
     /**
-     * Get all plots that match the given criteria
+     * Get all plots that match the given criteria. Unless a sorting strategy
+     * is used, the plots are streamed from their source without being collected.
      *
      * @return Matching plots
      */
     @Nonnull public Stream<Plot> asStream() {
+        if (this.sortingStrategy == SortingStrategy.NO_SORTING) {
+            return this.filteredStream();
+        }
         return this.asList().stream();
     }
 
@@ -291,66 +305,19 @@ public final class PlotQuery implements Iterable<Plot> {
      * @return Matching plots as a mutable
      */
     @Nonnull public List<Plot> asList() {
-        final List<Plot> result;
-        if (this.filters.isEmpty()) {
-            result = new ArrayList<>(this.plotProvider.getPlots());
-        } else {
-            final Collection<Plot> plots = this.plotProvider.getPlots();
-            result = new ArrayList<>(plots.size());
-            outer: for (final Plot plot : plots) {
-                for (final PlotFilter filter : this.filters) {
-                    if (!filter.accepts(plot)) {
-                        continue outer;
-                    }
-                }
-                result.add(plot);
-            }
-        }
+        final List<Plot> result = this.filteredStream().collect(Collectors.toCollection(ArrayList::new));
         if (this.sortingStrategy == SortingStrategy.NO_SORTING) {
             return result;
         } else if (this.sortingStrategy == SortingStrategy.SORT_BY_TEMP) {
             return PlotSquared.get().sortPlotsByTemp(result);
-        } else if (this.sortingStrategy == SortingStrategy.SORT_BY_DONE) {
-            result.sort((a, b) -> {
-                String va = a.getFlag(DoneFlag.class);
-                String vb = b.getFlag(DoneFlag.class);
-                if (MathMan.isInteger(va)) {
-                    if (MathMan.isInteger(vb)) {
-                        return Integer.parseInt(vb) - Integer.parseInt(va);
-                    }
-                    return -1;
-                }
-                return 1;
-            });
-        } else if (this.sortingStrategy == SortingStrategy.SORT_BY_RATING) {
-            result.sort((p1, p2) -> {
-                double v1 = 0;
-                int p1s = p1.getSettings().getRatings().size();
-                int p2s = p2.getRatings().size();
-                if (!p1.getSettings().getRatings().isEmpty()) {
-                    v1 = p1.getRatings().values().stream().mapToDouble(Rating::getAverageRating)
-                        .map(av -> av * av).sum();
-                    v1 /= p1s;
-                    v1 += p1s;
-                }
-                double v2 = 0;
-                if (!p2.getSettings().getRatings().isEmpty()) {
-                    for (Map.Entry<UUID, Rating> entry : p2.getRatings().entrySet()) {
-                        double av = entry.getValue().getAverageRating();
-                        v2 += av * av;
-                    }
-                    v2 /= p2s;
-                    v2 += p2s;
-                }
-                if (v2 == v1 && v2 != 0) {
-                    return p2s - p1s;
-                }
-                return (int) Math.signum(v2 - v1);
-            });
         } else if (this.sortingStrategy == SortingStrategy.SORT_BY_CREATION) {
             return PlotSquared.get().sortPlots(result, PlotSquared.SortType.CREATION_DATE, this.priorityArea);
-        } else if (this.sortingStrategy == SortingStrategy.COMPARATOR) {
-            result.sort(this.plotComparator);
+        } else if (this.sortingStrategy == SortingStrategy.SORT_BY_RATING) {
+            return this.sortByRating(result, Integer.MAX_VALUE);
+        }
+        final Comparator<Plot> comparator = this.getComparator();
+        if (comparator != null) {
+            result.sort(comparator);
         }
         return result;
     }
@@ -361,19 +328,21 @@ public final class PlotQuery implements Iterable<Plot> {
      * @return Matching plots as a mutable set
      */
     @Nonnull public Set<Plot> asSet() {
-        return new HashSet<>(this.asList());
+        return this.filteredStream().collect(Collectors.toCollection(HashSet::new));
     }
 
     /**
      * Get all plots that match the given criteria
-     * in the form of a {@link PaginatedPlotResult}
+     * in the form of a {@link PaginatedPlotResult}.
+     * Pages are computed when requested, without sorting all matching plots
+     * unless the sorting strategy requires it.
      *
      * @param pageSize The size of the pages. Must be positive.
      * @return Paginated plot result
      */
     @Nonnull public PaginatedPlotResult getPaginated(final int pageSize) {
         Preconditions.checkState(pageSize > 0, "Page size must be greater than 0");
-        return new PaginatedPlotResult(this.asList(), pageSize);
+        return new PaginatedPlotResult(this, pageSize);
     }
 
     /**
@@ -391,31 +360,184 @@ public final class PlotQuery implements Iterable<Plot> {
      * @return Result count
      */
     public int count() {
-        return this.asList().size();
+        if (this.filters.isEmpty()) {
+            return this.plotProvider.countPlots();
+        }
+        return (int) this.filteredStream().count();
     }
 
     /**
-     * Get whether any provided plot matches the given filters.
-     * If no plot was provided, false will be returned.
+     * Get the plots on a page of the sorted query result. Plots sorted by a
+     * comparator are selected with a heap bounded by the end of the page, and
+     * plots sorted by rating are taken from the rating index up to the end of the page.
      *
-     * @return true if any provided plot matches the filters.
+     * @param page     Page number, indexed from 1
+     * @param pageSize Page size
+     * @return Plots on the page
      */
-    public boolean anyMatch() {
-        if (this.filters.isEmpty()) {
-            return !this.plotProvider.getPlots().isEmpty();
+    @Nonnull List<Plot> getPage(final int page, final int pageSize) {
+        if (page < 1) {
+            return Collections.emptyList();
+        }
+        final int from = (page - 1) * pageSize;
+        if (this.sortingStrategy == SortingStrategy.NO_SORTING) {
+            return this.filteredStream().skip(from).limit(pageSize).collect(Collectors.toList());
+        }
+        final Comparator<Plot> comparator = this.getComparator();
+        final List<Plot> sorted;
+        if (this.sortingStrategy == SortingStrategy.SORT_BY_RATING) {
+            sorted = this.sortByRating(this.filteredStream().collect(Collectors.toList()), from + pageSize);
+        } else if (comparator == null) {
+            sorted = this.asList();
         } else {
-            final Collection<Plot> plots = this.plotProvider.getPlots();
-            outer: for (final Plot plot : plots) {
-                // a plot must pass all filters to match the criteria
-                for (final PlotFilter filter : this.filters) {
-                    if (!filter.accepts(plot)) {
-                        continue outer;
+            final int limit = from + pageSize;
+            // The head of the heap is the last plot of the page so far
+            final PriorityQueue<Plot> heap = new PriorityQueue<>(Math.min(limit, 1024) + 1, comparator.reversed());
+            this.filteredStream().forEach(plot -> {
+                if (heap.size() < limit) {
+                    heap.add(plot);
+                } else if (comparator.compare(plot, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(plot);
+                }
+            });
+            sorted = new ArrayList<>(heap);
+            sorted.sort(comparator);
+        }
+        if (from >= sorted.size()) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(sorted.subList(from, Math.min(from + pageSize, sorted.size())));
+    }
+
+    /**
+     * Sort plots by rating using the {@link PlotRatingIndex}. Ratings are stored on
+     * the base plot, so plots are grouped by their base plot and the groups are taken
+     * from the index in order, followed by the plots without ratings in the order
+     * they were given.
+     *
+     * @param plots Plots to sort
+     * @param limit Number of plots after which the remaining plots don't have to be sorted
+     * @return Sorted plots, at least the first {@code limit} of them
+     */
+    @Nonnull private List<Plot> sortByRating(@Nonnull final List<Plot> plots, final int limit) {
+        final Map<Plot, List<Plot>> rated = new LinkedHashMap<>();
+        final List<Plot> unrated = new ArrayList<>();
+        for (final Plot plot : plots) {
+            final Plot base = plot.getBasePlot(false);
+            if (base.getSettings().getRatingAggregate().getCount() == 0) {
+                unrated.add(plot);
+            } else {
+                rated.computeIfAbsent(base, key -> new ArrayList<>(1)).add(plot);
+            }
+        }
+        final List<Plot> result = new ArrayList<>(Math.min(limit, plots.size()));
+        for (final Plot base : PlotRatingIndex.get().getRatedPlots()) {
+            if (rated.isEmpty() || result.size() >= limit) {
+                break;
+            }
+            final List<Plot> group = rated.remove(base);
+            if (group != null) {
+                group.sort(TIEBREAK);
+                result.addAll(group);
+            }
+        }
+        if (result.size() >= limit) {
+            return result;
+        }
+        // Plots that were rated without updating the index
+        for (final List<Plot> group : rated.values()) {
+            result.addAll(group);
+        }
+        result.addAll(unrated);
+        return result;
+    }
+
+    private static int compareAreas(@Nullable final PlotArea a, @Nullable final PlotArea b) {
+        if (a == b) {
+            return 0;
+        } else if (a == null || b == null) {
+            return a == null ? -1 : 1;
+        }
+        final int compare = a.getWorldName().compareTo(b.getWorldName());
+        if (compare != 0 || Objects.equals(a.getId(), b.getId())) {
+            return compare;
+        } else if (a.getId() == null || b.getId() == null) {
+            return a.getId() == null ? -1 : 1;
+        }
+        return a.getId().compareTo(b.getId());
+    }
+
+    /**
+     * Get the comparator used by the sorting strategy, if the strategy sorts by one.
+     * Plots that are equal according to the strategy are ordered by area and ID, so
+     * that the order is the same every time a page is computed.
+     *
+     * @return Comparator, or {@code null}
+     */
+    @Nullable private Comparator<Plot> getComparator() {
+        final Comparator<Plot> comparator = this.getStrategyComparator();
+        return comparator == null ? null : comparator.thenComparing(TIEBREAK);
+    }
+
+    @Nullable private Comparator<Plot> getStrategyComparator() {
+        if (this.sortingStrategy == SortingStrategy.SORT_BY_DONE) {
+            return (a, b) -> {
+                String va = a.getFlag(DoneFlag.class);
+                String vb = b.getFlag(DoneFlag.class);
+                if (MathMan.isInteger(va)) {
+                    if (MathMan.isInteger(vb)) {
+                        return Integer.parseInt(vb) - Integer.parseInt(va);
                     }
+                    return -1;
+                }
+                return MathMan.isInteger(vb) ? 1 : 0;
+            };
+        } else if (this.sortingStrategy == SortingStrategy.COMPARATOR) {
+            return this.plotComparator;
+        }
+        return null;
+    }
+
+    /**
+     * Stream the plots that match all filters. If the query is limited to an owner,
+     * only the plots of that owner are fetched from the provider.
+     *
+     * @return Matching plots
+     */
+    @Nonnull private Stream<Plot> filteredStream() {
+        Stream<Plot> stream = null;
+        for (final PlotFilter filter : this.filters) {
+            if (filter instanceof OwnerFilter) {
+                stream = this.plotProvider.getPlotsOwnedBy(((OwnerFilter) filter).getOwner()).stream();
+                break;
+            }
+        }
+        if (stream == null) {
+            for (final PlotFilter filter : this.filters) {
+                if (filter instanceof AliasFilter) {
+                    stream = this.plotProvider.getPlotsWithAlias(((AliasFilter) filter).getAlias()).stream();
+                    break;
                 }
-                return true; // a plot passed all filters, so we have a match
             }
-            return false;
         }
+        if (stream == null) {
+            stream = this.plotProvider.streamPlots();
+        }
+        for (final PlotFilter filter : this.filters) {
+            stream = stream.filter(filter);
+        }
+        return stream;
+    }
+
+    /**
+     * Get whether any provided plot matches the given filters.
+     * If no plot was provided, false will be returned.
+     *
+     * @return true if any provided plot matches the filters.
+     */
+    public boolean anyMatch() {
+        return this.filteredStream().findAny().isPresent();
     }
 
     @Nonnull private PlotQuery addFilter(@Nonnull final PlotFilter filter) {
@@ -424,7 +546,7 @@ public final class PlotQuery implements Iterable<Plot> {
     }
 
     @Nonnull @Override public Iterator<Plot> iterator() {
-        return this.asCollection().iterator();
+        return this.asStream().iterator();
     }
 
 }
@@ -27,14 +27,18 @@ package com.plotsquared.core.util.query;
 
 import com.plotsquared.core.PlotSquared;
 import com.plotsquared.core.configuration.Settings;
+import com.plotsquared.core.database.DBFunc;
 import com.plotsquared.core.plot.Plot;
 import com.plotsquared.core.plot.PlotArea;
 import com.plotsquared.core.plot.PlotId;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -53,7 +57,7 @@ class SearchPlotProvider implements PlotProvider {
 
     /**
      * Fuzzy plot search with spaces separating terms.
-     * - Terms: type, alias, world, owner, trusted, member
+     * - Terms: plot id, owner, trusted, member
      *
      * @param search Search string
      * @return Search results
@@ -82,30 +86,18 @@ class SearchPlotProvider implements PlotProvider {
             IntStream.range(0, size).mapToObj(i -> new ArrayList<Plot>())
                 .collect(Collectors.toCollection(() -> new ArrayList<>(size)));
 
-        PlotArea area = null;
-        String alias = null;
-        for (Plot plot : PlotQuery.newQuery().allPlots()) {
+        for (final Plot plot : getCandidates(uuids, id)) {
             int count = 0;
-            if (!uuids.isEmpty()) {
-                for (UUID uuid : uuids) {
-                    if (plot.isOwner(uuid)) {
-                        count += 2;
-                    } else if (plot.isAdded(uuid)) {
-                        count++;
-                    }
-                }
-            }
-            if (id != null) {
-                if (plot.getId().equals(id)) {
+            for (UUID uuid : uuids) {
+                if (plot.isOwner(uuid)) {
+                    count += 2;
+                } else if (plot.isAdded(uuid)) {
                     count++;
                 }
             }
-            if (area != null && plot.getArea().equals(area)) {
+            if (id != null && plot.getId().equals(id)) {
                 count++;
             }
-            if (alias != null && alias.equals(plot.getAlias())) {
-                count += 2;
-            }
             if (count != 0) {
                 plotList.get(count - 1).add(plot);
             }
@@ -120,4 +112,43 @@ class SearchPlotProvider implements PlotProvider {
         return plots;
     }
 
+    /**
+     * Collect the plots that may match any of the search terms, using the
+     * owner and search indexes of each area rather than visiting every plot.
+     * The candidates are a superset of the matches, and are scored by the caller.
+     *
+     * @param uuids UUIDs parsed from the search terms
+     * @param id    Plot ID parsed from the search terms, may be null
+     * @return Candidate plots, in area order
+     */
+    @Nonnull private static Collection<Plot> getCandidates(@Nonnull final List<UUID> uuids,
+        @Nullable final PlotId id) {
+        final Set<Plot> candidates = new LinkedHashSet<>();
+        for (final PlotArea area : PlotSquared.get().getPlotAreaManager().getAllPlotAreas()) {
+            final Set<Plot> areaCandidates = new LinkedHashSet<>();
+            for (final UUID uuid : uuids) {
+                areaCandidates.addAll(area.getOwnerIndex().getPlots(uuid));
+                areaCandidates.addAll(area.getSearchIndex().getPlotsWithAdded(uuid));
+            }
+            if (!uuids.isEmpty()) {
+                areaCandidates.addAll(area.getSearchIndex().getPlotsWithAdded(DBFunc.EVERYONE));
+            }
+            if (id != null) {
+                final Plot plot = area.getOwnedPlotAbs(id);
+                if (plot != null) {
+                    areaCandidates.add(plot);
+                }
+            }
+            for (final Plot plot : areaCandidates) {
+                // Owners and added players of merged plots apply to every connected plot
+                if (plot.isMerged()) {
+                    candidates.addAll(plot.getConnectedPlots());
+                } else {
+                    candidates.add(plot);
+                }
+            }
+        }
+        return candidates;
+    }
+
 }
@@ -25,6 +25,8 @@
  */
 package com.plotsquared.core.uuid;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import com.plotsquared.core.PlotSquared;
 import com.plotsquared.core.configuration.Settings;
@@ -41,11 +43,15 @@ import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
@@ -53,6 +59,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -73,6 +80,8 @@ public class UUIDPipeline {
     private final List<UUIDService> serviceList;
     private final List<Consumer<List<UUIDMapping>>> consumerList;
     private final ScheduledExecutorService timeoutExecutor;
+    private final RequestBatcher<UUID> nameRequests;
+    private final RequestBatcher<String> uuidRequests;
 
     /**
      * Construct a new UUID pipeline
@@ -85,6 +94,10 @@ public class UUIDPipeline {
         this.serviceList = Lists.newLinkedList();
         this.consumerList = Lists.newLinkedList();
         this.timeoutExecutor = Executors.newSingleThreadScheduledExecutor();
+        this.nameRequests = new RequestBatcher<>(UUIDService::getNames, UUIDMapping::getUuid, Function.identity());
+        // Services return the canonical capitalization of a name, which may differ from the request
+        this.uuidRequests = new RequestBatcher<>(UUIDService::getUUIDs, UUIDMapping::getUsername,
+            name -> name.toLowerCase(Locale.ROOT));
     }
 
     /**
@@ -293,13 +306,13 @@ public class UUIDPipeline {
 
         final List<UUIDService> serviceList = this.getServiceListInstance();
         final List<UUIDMapping> mappings = new ArrayList<>(requests.size());
-        final List<UUID> remainingRequests = new ArrayList<>(requests);
+        final Set<UUID> remainingRequests = new LinkedHashSet<>(requests);
 
         for (final UUIDService service : serviceList) {
             // We can chain multiple synchronous
             // ones in a row
             if (service.canBeSynchronous()) {
-                final List<UUIDMapping> completedRequests = service.getNames(remainingRequests);
+                final List<UUIDMapping> completedRequests = service.getNames(new ArrayList<>(remainingRequests));
                 for (final UUIDMapping mapping : completedRequests) {
                     remainingRequests.remove(mapping.getUuid());
                 }
@@ -312,26 +325,18 @@ public class UUIDPipeline {
             }
         }
 
-        return CompletableFuture.supplyAsync(() -> {
-            for (final UUIDService service : serviceList) {
-                final List<UUIDMapping> completedRequests = service.getNames(remainingRequests);
-                for (final UUIDMapping mapping : completedRequests) {
-                    remainingRequests.remove(mapping.getUuid());
-                }
-                mappings.addAll(completedRequests);
-                if (remainingRequests.isEmpty()) {
-                    break;
-                }
-            }
-
-            if (mappings.size() == requests.size()) {
-                this.consume(mappings);
+        return this.nameRequests.request(remainingRequests).thenApply(completedRequests -> {
+            mappings.addAll(completedRequests);
+            if (completedRequests.size() == remainingRequests.size()) {
                 return mappings;
             } else if (Settings.DEBUG) {
                 logger.info("(UUID) Failed to find all usernames");
             }
 
             if (Settings.UUID.UNKNOWN_AS_DEFAULT) {
+                for (final UUIDMapping mapping : completedRequests) {
+                    remainingRequests.remove(mapping.getUuid());
+                }
                 for (final UUID uuid : remainingRequests) {
                     mappings.add(new UUIDMapping(uuid,
                         MINI_MESSAGE.stripTokens(TranslatableCaption.of("info.unknown").getComponent(ConsolePlayer.getConsole()))));
@@ -340,7 +345,7 @@ public class UUIDPipeline {
             } else {
                 throw new ServiceError("End of pipeline");
             }
-        }, this.executor);
+        });
     }
 
     /**
@@ -356,15 +361,18 @@ public class UUIDPipeline {
 
         final List<UUIDService> serviceList = this.getServiceListInstance();
         final List<UUIDMapping> mappings = new ArrayList<>(requests.size());
-        final List<String> remainingRequests = new ArrayList<>(requests);
+        final Map<String, String> remainingRequests = new LinkedHashMap<>();
+        for (final String request : requests) {
+            remainingRequests.putIfAbsent(request.toLowerCase(Locale.ROOT), request);
+        }
 
         for (final UUIDService service : serviceList) {
             // We can chain multiple synchronous
             // ones in a row
             if (service.canBeSynchronous()) {
-                final List<UUIDMapping> completedRequests = service.getUUIDs(remainingRequests);
+                final List<UUIDMapping> completedRequests = service.getUUIDs(new ArrayList<>(remainingRequests.values()));
                 for (final UUIDMapping mapping : completedRequests) {
-                    remainingRequests.remove(mapping.getUsername());
+                    remainingRequests.remove(mapping.getUsername().toLowerCase(Locale.ROOT));
                 }
                 mappings.addAll(completedRequests);
             } else {
@@ -375,27 +383,16 @@ public class UUIDPipeline {
             }
         }
 
-        return CompletableFuture.supplyAsync(() -> {
-            for (final UUIDService service : serviceList) {
-                final List<UUIDMapping> completedRequests = service.getUUIDs(remainingRequests);
-                for (final UUIDMapping mapping : completedRequests) {
-                    remainingRequests.remove(mapping.getUsername());
-                }
-                mappings.addAll(completedRequests);
-                if (remainingRequests.isEmpty()) {
-                    break;
-                }
-            }
-
-            if (mappings.size() == requests.size()) {
-                this.consume(mappings);
+        return this.uuidRequests.request(remainingRequests.values()).thenApply(completedRequests -> {
+            mappings.addAll(completedRequests);
+            if (completedRequests.size() == remainingRequests.size()) {
                 return mappings;
             } else if (Settings.DEBUG) {
                 logger.info("(UUID) Failed to find all UUIDs");
             }
 
             throw new ServiceError("End of pipeline");
-        }, this.executor);
+        });
     }
 
     /**
@@ -428,4 +425,126 @@ public class UUIDPipeline {
         return null;
     }
 
+    /**
+     * Passes requests through the asynchronous part of the pipeline. Concurrent
+     * requests for the same key share a single lookup, requests that arrive within
+     * {@link Settings.UUID#BATCH_WINDOW} are looked up together and keys that
+     * could not be found are not looked up again for {@link Settings.UUID#NEGATIVE_CACHE_TIME}.
+     * Keys are compared after normalization, so that returned usernames match requests
+     * that differ in case.
+     *
+     * @param <K> UUID or username
+     */
+    private final class RequestBatcher<K> {
+
+        private final BiFunction<UUIDService, List<K>, List<UUIDMapping>> lookup;
+        private final Function<UUIDMapping, K> keyFunction;
+        private final Function<K, K> normalizer;
+        private final Map<K, CompletableFuture<UUIDMapping>> inFlight = new ConcurrentHashMap<>();
+        private final Cache<K, Boolean> missing = CacheBuilder.newBuilder()
+            .expireAfterWrite(Settings.UUID.NEGATIVE_CACHE_TIME, TimeUnit.SECONDS).build();
+        // Normalized keys mapped to the key as it was requested
+        private final Map<K, K> queued = new LinkedHashMap<>();
+
+        private RequestBatcher(@Nonnull final BiFunction<UUIDService, List<K>, List<UUIDMapping>> lookup,
+            @Nonnull final Function<UUIDMapping, K> keyFunction, @Nonnull final Function<K, K> normalizer) {
+            this.lookup = lookup;
+            this.keyFunction = keyFunction;
+            this.normalizer = normalizer;
+        }
+
+        /**
+         * Request the mappings for the given keys
+         *
+         * @param keys Keys to look up
+         * @return Future completing with the mappings that could be found
+         */
+        @Nonnull CompletableFuture<List<UUIDMapping>> request(@Nonnull final Collection<K> keys) {
+            final List<CompletableFuture<UUIDMapping>> futures = new ArrayList<>(keys.size());
+            boolean schedule = false;
+            for (final K requested : keys) {
+                final K key = this.normalizer.apply(requested);
+                if (this.missing.getIfPresent(key) != null) {
+                    continue;
+                }
+                final CompletableFuture<UUIDMapping> created = new CompletableFuture<>();
+                final CompletableFuture<UUIDMapping> existing = this.inFlight.putIfAbsent(key, created);
+                if (existing != null) {
+                    futures.add(existing);
+                    continue;
+                }
+                futures.add(created);
+                synchronized (this.queued) {
+                    schedule |= this.queued.isEmpty();
+                    this.queued.put(key, requested);
+                }
+            }
+            if (schedule) {
+                UUIDPipeline.this.timeoutExecutor.schedule(() -> UUIDPipeline.this.executor.execute(this::flush),
+                    Settings.UUID.BATCH_WINDOW, TimeUnit.MILLISECONDS);
+            }
+            if (futures.isEmpty()) {
+                return CompletableFuture.completedFuture(Collections.emptyList());
+            }
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+                final List<UUIDMapping> mappings = new ArrayList<>(futures.size());
+                for (final CompletableFuture<UUIDMapping> future : futures) {
+                    final UUIDMapping mapping = future.join();
+                    if (mapping != null) {
+                        mappings.add(mapping);
+                    }
+                }
+                return mappings;
+            });
+        }
+
+        private void flush() {
+            final Map<K, K> remainingRequests;
+            synchronized (this.queued) {
+                remainingRequests = new LinkedHashMap<>(this.queued);
+                this.queued.clear();
+            }
+            final List<UUIDMapping> mappings = new ArrayList<>(remainingRequests.size());
+            try {
+                for (final UUIDService service : UUIDPipeline.this.getServiceListInstance()) {
+                    final List<UUIDMapping> completedRequests =
+                        this.lookup.apply(service, new ArrayList<>(remainingRequests.values()));
+                    for (final UUIDMapping mapping : completedRequests) {
+                        final K key = this.normalizer.apply(this.keyFunction.apply(mapping));
+                        if (remainingRequests.remove(key) != null) {
+                            mappings.add(mapping);
+                            this.complete(key, mapping);
+                        }
+                    }
+                    if (remainingRequests.isEmpty()) {
+                        break;
+                    }
+                }
+            } catch (final Throwable throwable) {
+                for (final K key : remainingRequests.keySet()) {
+                    final CompletableFuture<UUIDMapping> future = this.inFlight.remove(key);
+                    if (future != null) {
+                        future.completeExceptionally(throwable);
+                    }
+                }
+                remainingRequests.clear();
+            }
+            if (!mappings.isEmpty()) {
+                UUIDPipeline.this.consume(mappings);
+            }
+            for (final K key : remainingRequests.keySet()) {
+                this.missing.put(key, Boolean.TRUE);
+                this.complete(key, null);
+            }
+        }
+
+        private void complete(@Nonnull final K key, @Nullable final UUIDMapping mapping) {
+            final CompletableFuture<UUIDMapping> future = this.inFlight.remove(key);
+            if (future != null) {
+                future.complete(mapping);
+            }
+        }
+
+    }
+
 }
@@ -0,0 +1,119 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.backup;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class BackupStoreTest {
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] section(final int seed) {
+        final byte[] bytes = new byte[64];
+        Arrays.fill(bytes, (byte) seed);
+        return bytes;
+    }
+
+    private static Path backup(final BackupStore store, final Path manifest, final byte[][] sections) throws IOException {
+        final List<BackupStore.ChunkEntry> chunks = new ArrayList<>();
+        chunks.add(store.store(0, 0, section(100), sections, new ConcurrentLinkedQueue<>()));
+        BackupStore.writeManifest(manifest, chunks);
+        return manifest;
+    }
+
+    private static Map<Integer, byte[]> read(final BackupStore store, final Path manifest) throws IOException {
+        final Map<Integer, byte[]> objects = new HashMap<>();
+        store.read(manifest, (chunkX, chunkZ, section, bytes) -> objects.put(section, bytes));
+        return objects;
+    }
+
+    private static long countObjects(final Path backupPath) throws IOException {
+        try (Stream<Path> files = Files.walk(backupPath.resolve("objects"))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    public void deleteOnColdStoreKeepsSharedObjects() throws IOException {
+        final Path backupPath = this.folder.newFolder("backups").toPath();
+        final byte[][] first = new byte[16][];
+        first[0] = section(1);
+        first[1] = section(2);
+        final byte[][] second = new byte[16][];
+        second[0] = section(1);
+        second[1] = section(3);
+
+        final BackupStore warm = new BackupStore(backupPath);
+        final Path oldest = backup(warm, backupPath.resolve("1" + BackupStore.MANIFEST_EXTENSION), first);
+        final Path newest = backup(warm, backupPath.resolve("2" + BackupStore.MANIFEST_EXTENSION), second);
+        // biomes, shared section, and one unique section per backup
+        assertEquals(4, countObjects(backupPath));
+
+        // A new store has not loaded its reference counts yet, like after a restart
+        final BackupStore cold = new BackupStore(backupPath);
+        cold.delete(oldest);
+        assertFalse(Files.exists(oldest));
+        assertEquals(3, countObjects(backupPath));
+
+        final Map<Integer, byte[]> restored = read(cold, newest);
+        assertArrayEquals(section(100), restored.get(-1));
+        assertArrayEquals(section(1), restored.get(0));
+        assertArrayEquals(section(3), restored.get(1));
+    }
+
+    @Test
+    public void unreadableManifestKeepsObjects() throws IOException {
+        final Path backupPath = this.folder.newFolder("backups").toPath();
+        final byte[][] sections = new byte[16][];
+        sections[0] = section(1);
+        final BackupStore warm = new BackupStore(backupPath);
+        final Path manifest = backup(warm, backupPath.resolve("1" + BackupStore.MANIFEST_EXTENSION), sections);
+        Files.write(backupPath.resolve("2" + BackupStore.MANIFEST_EXTENSION), new byte[] {1, 2, 3});
+
+        final BackupStore cold = new BackupStore(backupPath);
+        cold.delete(manifest);
+        // The objects are no longer referenced, but might belong to the unreadable manifest
+        assertEquals(2, countObjects(backupPath));
+    }
+
+}
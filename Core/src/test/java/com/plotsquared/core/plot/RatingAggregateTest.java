@@ -0,0 +1,101 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.plot;
+
+import com.plotsquared.core.configuration.Settings;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RatingAggregateTest {
+
+    @After public void resetSettings() {
+        Settings.Ratings.USE_LIKES = false;
+        Settings.Ratings.CATEGORIES = new ArrayList<>();
+    }
+
+    @Test public void emptyRatings() {
+        RatingAggregate aggregate = RatingAggregate.of(new HashMap<>());
+        assertEquals(0, aggregate.getCount());
+        assertTrue(Double.isNaN(aggregate.getAverage()));
+        assertEquals(0, aggregate.getScore(), 0);
+        assertArrayEquals(new double[] {0}, aggregate.getCategoryAverages(), 0);
+    }
+
+    @Test public void singleCategory() {
+        RatingAggregate aggregate = RatingAggregate.of(ratings(4, 8));
+        assertEquals(2, aggregate.getCount());
+        assertEquals(6, aggregate.getAverage(), 1e-9);
+        // Mean of squares (16 + 64) / 2 plus the number of ratings
+        assertEquals(42, aggregate.getScore(), 1e-9);
+        assertArrayEquals(new double[] {6}, aggregate.getCategoryAverages(), 1e-9);
+    }
+
+    @Test public void matchesRatingAverages() {
+        Settings.Ratings.CATEGORIES = new ArrayList<>(Arrays.asList("a", "b", "c"));
+        Map<UUID, Integer> ratings = ratings(234, 987, 555);
+        double sum = 0;
+        for (int value : ratings.values()) {
+            sum += new Rating(value).getAverageRating();
+        }
+        RatingAggregate aggregate = RatingAggregate.of(ratings);
+        assertEquals(3, aggregate.getCount());
+        assertEquals(sum / 3, aggregate.getAverage(), 1e-9);
+    }
+
+    @Test public void categoryAverages() {
+        Settings.Ratings.CATEGORIES = new ArrayList<>(Arrays.asList("a", "b"));
+        // Categories are stored as digits offset by one, least significant first
+        RatingAggregate aggregate = RatingAggregate.of(ratings(23, 45));
+        assertArrayEquals(new double[] {3, 2}, aggregate.getCategoryAverages(), 1e-9);
+    }
+
+    @Test public void likes() {
+        Settings.Ratings.USE_LIKES = true;
+        RatingAggregate aggregate = RatingAggregate.of(ratings(10, 1, 10, 1));
+        assertEquals(4, aggregate.getCount());
+        assertEquals(5.5, aggregate.getAverage(), 1e-9);
+        assertEquals((100 + 1 + 100 + 1) / 4D + 4, aggregate.getScore(), 1e-9);
+    }
+
+    private static Map<UUID, Integer> ratings(int... values) {
+        Map<UUID, Integer> ratings = new HashMap<>();
+        for (int value : values) {
+            ratings.put(UUID.randomUUID(), value);
+        }
+        return ratings;
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.queue;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PalettedSectionTest {
+
+    private static final int SIZE = 4096;
+
+    @Test
+    public void emptySection() {
+        PalettedSection<String> section = new PalettedSection<>();
+        assertTrue(section.isEmpty());
+        assertTrue(section.isUniform());
+        for (int j = 0; j < SIZE; j++) {
+            assertNull(section.get(j));
+        }
+        section.forEach((j, value) -> {
+            throw new AssertionError("Empty section has no entries");
+        });
+    }
+
+    @Test
+    public void bitsForPaletteSize() {
+        assertEquals(1, PalettedSection.bitsFor(1));
+        assertEquals(1, PalettedSection.bitsFor(2));
+        assertEquals(2, PalettedSection.bitsFor(3));
+        assertEquals(2, PalettedSection.bitsFor(4));
+        assertEquals(4, PalettedSection.bitsFor(5));
+        assertEquals(8, PalettedSection.bitsFor(17));
+        assertEquals(16, PalettedSection.bitsFor(257));
+        assertEquals(16, PalettedSection.bitsFor(SIZE + 1));
+        assertEquals(16, PalettedSection.bitsFor(65536));
+        assertEquals(32, PalettedSection.bitsFor(65537));
+    }
+
+    @Test
+    public void packAndUnpackAcrossWidths() {
+        // Palette sizes that need 1, 2, 4, 8 and 16 bits, including the unset value
+        for (int values : new int[] {1, 3, 15, 255, SIZE}) {
+            PalettedSection<String> section = new PalettedSection<>();
+            for (int j = 0; j < SIZE; j++) {
+                section.set(j, "value" + j % values);
+            }
+            assertFalse(section.isEmpty());
+            for (int j = 0; j < SIZE; j++) {
+                assertEquals("value" + j % values, section.get(j));
+            }
+        }
+    }
+
+    @Test
+    public void resizeKeepsValues() {
+        PalettedSection<String> section = new PalettedSection<>();
+        section.set(0, "first");
+        section.set(SIZE - 1, "last");
+        for (int j = 1; j < SIZE - 1; j++) {
+            section.set(j, "value" + j);
+        }
+        assertEquals("first", section.get(0));
+        assertEquals("last", section.get(SIZE - 1));
+        for (int j = 1; j < SIZE - 1; j++) {
+            assertEquals("value" + j, section.get(j));
+        }
+    }
+
+    @Test
+    public void overwrittenValuesAreDropped() {
+        // Without compaction the palette would grow past 65536 entries
+        PalettedSection<String> section = new PalettedSection<>();
+        section.set(1, "kept");
+        for (int i = 0; i < 70000; i++) {
+            section.set(0, "value" + i);
+        }
+        assertEquals("value69999", section.get(0));
+        assertEquals("kept", section.get(1));
+        for (int j = 2; j < SIZE; j++) {
+            assertNull(section.get(j));
+        }
+    }
+
+    @Test
+    public void unsetPositions() {
+        PalettedSection<String> section = new PalettedSection<>();
+        section.set(5, "a");
+        section.set(6, "b");
+        section.set(5, null);
+        assertNull(section.get(5));
+        assertEquals("b", section.get(6));
+        Map<Integer, String> entries = new HashMap<>();
+        section.forEach(entries::put);
+        assertEquals(1, entries.size());
+        assertEquals("b", entries.get(6));
+    }
+
+    @Test
+    public void fillSection() {
+        PalettedSection<String> section = new PalettedSection<>();
+        section.set(0, "a");
+        section.set(1, "b");
+        assertFalse(section.isUniform());
+
+        section.fill("c");
+        assertTrue(section.isUniform());
+        assertFalse(section.isEmpty());
+        for (int j = 0; j < SIZE; j++) {
+            assertEquals("c", section.get(j));
+        }
+        int[] count = new int[1];
+        section.forEach((j, value) -> count[0]++);
+        assertEquals(SIZE, count[0]);
+
+        // Setting the filled value keeps the section uniform
+        section.set(10, "c");
+        assertTrue(section.isUniform());
+        section.set(10, "d");
+        assertFalse(section.isUniform());
+        assertEquals("d", section.get(10));
+        assertEquals("c", section.get(11));
+
+        section.fill(null);
+        assertTrue(section.isEmpty());
+        assertNull(section.get(10));
+    }
+
+}
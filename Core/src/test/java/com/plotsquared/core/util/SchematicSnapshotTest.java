@@ -0,0 +1,114 @@
+/*
+ *       _____  _       _    _____                                _
+ *      |  __ \| |     | |  / ____|                              | |
+ *      | |__) | | ___ | |_| (___   __ _ _   _  __ _ _ __ ___  __| |
+ *      |  ___/| |/ _ \| __|\___ \ / _` | | | |/ _` | '__/ _ \/ _` |
+ *      | |    | | (_) | |_ ____) | (_| | |_| | (_| | | |  __/ (_| |
+ *      |_|    |_|\___/ \__|_____/ \__, |\__,_|\__,_|_|  \___|\__,_|
+ *                                    | |
+ *                                    |_|
+ *            PlotSquared plot management system for Minecraft
+ *                  Copyright (C) 2021 IntellectualSites
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.plotsquared.core.util;
+
+import com.sk89q.jnbt.ByteArrayTag;
+import com.sk89q.jnbt.CompoundTag;
+import com.sk89q.jnbt.IntTag;
+import com.sk89q.jnbt.NBTInputStream;
+import com.sk89q.jnbt.NamedTag;
+import com.sk89q.jnbt.Tag;
+import com.sk89q.worldedit.math.BlockVector2;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.biome.BiomeType;
+import com.sk89q.worldedit.world.block.BlockState;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SchematicSnapshotTest {
+
+    private static final String STAIRS = "minecraft:oak_stairs[facing=east,half=top,shape=straight,waterlogged=true]";
+    private static final String SLAB = "minecraft:stone_slab[type=top,waterlogged=false]";
+
+    @Test public void capturedPropertiesAreEncoded() {
+        final SchematicSnapshot snapshot = this.captureRow();
+        assertRow(snapshot.toCompoundTag(new HashMap<>()).getValue());
+    }
+
+    @Test public void capturedPropertiesAreWritten() throws IOException {
+        final SchematicSnapshot snapshot = this.captureRow();
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        snapshot.write(new HashMap<>(), output);
+        try (NBTInputStream input = new NBTInputStream(new GZIPInputStream(new ByteArrayInputStream(output.toByteArray())))) {
+            final NamedTag tag = input.readNamedTag();
+            assertRow(((CompoundTag) tag.getTag()).getValue());
+        }
+    }
+
+    /**
+     * Capture a row of stairs, a slab and air at x = 0..2
+     */
+    private SchematicSnapshot captureRow() {
+        final CuboidRegion region = new CuboidRegion(BlockVector3.at(0, 0, 0), BlockVector3.at(2, 0, 0));
+        final SchematicSnapshot snapshot = new SchematicSnapshot(Collections.singleton(region));
+        final BlockState stairs = state(STAIRS);
+        final BlockState slab = state(SLAB);
+        final BlockState air = state("minecraft:air");
+        final BiomeType biome = mock(BiomeType.class);
+        when(biome.getId()).thenReturn("minecraft:plains");
+        final World world = mock(World.class);
+        when(world.getBiome(any(BlockVector2.class))).thenReturn(biome);
+        snapshot.capture((x, y, z) -> x == 0 ? stairs : x == 1 ? slab : air, world, BlockVector2.at(0, 0),
+            Collections.emptyList());
+        return snapshot;
+    }
+
+    private static void assertRow(final Map<String, Tag> schematic) {
+        final Map<String, Tag> palette = ((CompoundTag) schematic.get("Palette")).getValue();
+        final Map<Integer, String> states = new HashMap<>();
+        for (final Map.Entry<String, Tag> entry : palette.entrySet()) {
+            states.put(((IntTag) entry.getValue()).getValue(), entry.getKey());
+        }
+        // The air captured from the world shares the palette entry of the implicit air
+        assertEquals(3, palette.size());
+        final byte[] data = ((ByteArrayTag) schematic.get("BlockData")).getValue();
+        assertEquals(3, data.length);
+        assertEquals(STAIRS, states.get((int) data[0]));
+        assertEquals(SLAB, states.get((int) data[1]));
+        assertEquals("minecraft:air", states.get((int) data[2]));
+    }
+
+    private static BlockState state(final String state) {
+        final BlockState blockState = mock(BlockState.class);
+        when(blockState.getAsString()).thenReturn(state);
+        return blockState;
+    }
+
+}
@@ -9,6 +9,7 @@ plugins {
     id("com.github.johnrengelman.shadow") version "6.0.0"
     id("net.minecrell.licenser") version "0.4.1"
     id("org.ajoberstar.grgit") version "4.1.0"
+    id("me.champeau.gradle.jmh") version "0.5.2" apply false
 
     eclipse
     idea
@@ -69,7 +70,8 @@ subprojects {
         val assembleTargetDir = create<Copy>("assembleTargetDirectory") {
             destinationDir = rootDir.resolve("target")
             into(destinationDir)
-            from(withType<Jar>())
+            // Benchmarks are not part of the distribution
+            from(withType<Jar>().matching { it.name != "jmhJar" })
         }
         named("build") {
             dependsOn(assembleTargetDir)